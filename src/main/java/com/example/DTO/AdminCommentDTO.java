@@ -81,8 +81,36 @@ public record AdminCommentDTO(
 				c.getArquivos() != null ? c.getArquivos().stream()
 						.map(ArquivoDTO::from)
 						.toList() : List.of(),
-				// Respostas
-				c.getFilhos() != null ? c.contarFilhosRecursivo() : 0
+				// Respostas (contador materializado, sem percorrer a árvore)
+				c.contarFilhosRecursivo()
+		);
+	}
+
+	/**
+	 * Monta o DTO a partir de uma linha de {@code ComentarioRepository.findLinhasAdmin}, sem carregar a entidade.
+	 */
+	public static AdminCommentDTO deLinha(Object[] l, List<ArquivoDTO> arquivos) {
+		String email = (String) l[10];
+		return new AdminCommentDTO(
+				(Long) l[0],
+				(String) l[1],
+				(Instant) l[2],
+				l[3] != null ? (Boolean) l[3] : false,
+				l[4] != null ? (Boolean) l[4] : false,
+				l[5] != null ? (Integer) l[5] : 0,
+				(Boolean) l[6],
+				(Instant) l[7],
+				l[8] != null ? (Integer) l[8] : 0,
+				l[9] != null ? (Integer) l[9] : 0,
+				email,
+				(String) l[11],
+				extractInitials(email),
+				(String) l[12],
+				(String) l[13],
+				(String) l[14],
+				(String) l[15],
+				arquivos,
+				(Integer) l[16]
 		);
 	}
 }
@@ -20,6 +20,11 @@ public record AvaliacaoDTO(Long id, String disciplinaId, String professorId, Int
 		);
 	}
 
+	/** Cópia com {@code isOwner} trocado (dados do usuário sobre uma página compartilhada). */
+	public AvaliacaoDTO comDono(boolean isOwner) {
+		return new AvaliacaoDTO(id, disciplinaId, professorId, nota, createdAt, isOwner);
+	}
+
 	public boolean isAvaliacaoDisciplina() { return professorId == null; }
 	public boolean isAvaliacaoProfessor() { return professorId != null; }
 		
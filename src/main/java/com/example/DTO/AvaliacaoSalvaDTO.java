@@ -0,0 +1,7 @@
+package com.example.DTO;
+
+/**
+ * Resultado da gravação de uma nota: id da avaliação, nota gravada, se a avaliação foi criada agora e a nota
+ * substituída ({@code null} se foi criada, ou se outra requisição a criou ao mesmo tempo e a nota dela não é conhecida).
+ */
+public record AvaliacaoSalvaDTO(Long id, int nota, boolean criada, Integer notaAnterior) {}
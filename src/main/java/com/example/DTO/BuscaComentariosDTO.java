@@ -0,0 +1,10 @@
+package com.example.DTO;
+
+import java.util.List;
+
+/**
+ * Página da busca de comentários do admin, dos mais relevantes para os menos.
+ * @param total quantos comentários casaram com a busca (em todas as páginas)
+ * @param proximoCursor cursor opaco da próxima página, ou {@code null} se esta for a última
+ */
+public record BuscaComentariosDTO(List<AdminCommentDTO> comentarios, int total, String proximoCursor) {}
@@ -0,0 +1,14 @@
+package com.example.DTO;
+
+import java.time.Instant;
+
+/**
+ * Métricas do cache da página de disciplina desde {@code desde} (subida da aplicação ou último reset).
+ * @param acertos páginas servidas do cache
+ * @param faltas páginas que não estavam no cache
+ * @param obsoletas páginas que estavam no cache com versão antiga (a disciplina mudou) e foram recarregadas
+ * @param remocoes entradas descartadas por falta de espaço
+ * @param taxaAcerto {@code acertos / (acertos + faltas + obsoletas)}
+ */
+public record CachePaginaDisciplinaDTO(Instant desde, int entradas, int capacidade, long acertos, long faltas,
+		long obsoletas, long invalidacoes, long remocoes, double taxaAcerto) {}
@@ -0,0 +1,26 @@
+package com.example.DTO;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Catálogo de disciplinas com os professores em uma tabela compartilhada.
+ * <p>Cada disciplina referencia os professores pelo índice na tabela, em vez de repetir nome e id.
+ * Professores e disciplinas são serializados como arrays ({@code ["id", "nome"]}, {@code ["codigo", "nome", [0, 4]]})
+ * para não repetir os nomes dos campos.</p>
+ */
+public record CatalogoCompactoDTO(int versao, List<ProfessorCompacto> professores, List<DisciplinaCompacta> disciplinas) {
+
+	public static final int VERSAO_ATUAL = 1;
+
+	@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+	@JsonPropertyOrder({ "professorId", "nome" })
+	public record ProfessorCompacto(String professorId, String nome) {}
+
+	/** {@code professores} são índices em {@link CatalogoCompactoDTO#professores()}, em ordem crescente. */
+	@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+	@JsonPropertyOrder({ "codigo", "nome", "professores" })
+	public record DisciplinaCompacta(String codigo, String nome, int[] professores) {}
+}
@@ -5,6 +5,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 
 import java.util.List;
+import java.util.Map;
 
 import com.example.model.Comentario;
 
@@ -25,6 +26,7 @@ public record ComentarioDTO (
 		  Boolean alarmante,
 		  Boolean denunciado,
 		  Integer denunciasCount,
+		  Integer respostasCount,
 		  List<ArquivoDTO> arquivos,
 		  List<ComentarioDTO> filhos) { 
 
@@ -32,7 +34,7 @@ public record ComentarioDTO (
 	 * Extrai as iniciais do email do usuário (ex: "joao@email.com" -> "JO")
 	 * Pega as duas primeiras letras do email antes do @
 	 */
-	private static String extractInitials(String email) {
+	public static String extractInitials(String email) {
 		if (email == null || email.isBlank()) {
 			return "?";
 		}
@@ -47,6 +49,26 @@ public record ComentarioDTO (
 	}
 
 	public static ComentarioDTO from(Comentario c, String currentUserEmail) {
+		return from(c, currentUserEmail, null);
+	}
+
+	/**
+	 * @param votosDoUsuario votos do usuário atual por id de comentário (da árvore inteira), já buscados em lote;
+	 * se nulo, o voto é lido da coleção {@code votes} de cada comentário
+	 */
+	public static ComentarioDTO from(Comentario c, String currentUserEmail, Map<Long, Boolean> votosDoUsuario) {
+		return from(c, currentUserEmail, votosDoUsuario, null);
+	}
+
+	/**
+	 * @param respostasPorPai respostas da thread por id do pai, já buscadas pela faixa (root_id, path); se nulo, as
+	 * respostas são lidas da coleção {@code filhos} (só para comentários recém-criados, em que ela está em memória)
+	 */
+	public static ComentarioDTO from(Comentario c, String currentUserEmail, Map<Long, Boolean> votosDoUsuario,
+			Map<Long, List<Comentario>> respostasPorPai) {
+		List<Comentario> filhos = respostasPorPai != null
+				? respostasPorPai.getOrDefault(c.getComentarioId(), List.of())
+				: c.getFilhos();
 		String initials = c.getUsuario() != null ? extractInitials(c.getUsuario().getEmail()) : "?";
 		
 		return new ComentarioDTO(
@@ -57,7 +79,7 @@ public record ComentarioDTO (
 				c.getDownVotes(),
 				c.getCreatedAt(),
 				c.getUsuario() != null ? c.getUsuario().getEmail().equals(currentUserEmail) : false,
-				c.getUsuario() != null ? c.hasVoted(currentUserEmail) : 0,
+				c.getUsuario() != null ? votoDoUsuario(c, currentUserEmail, votosDoUsuario) : 0,
 				c.getIsEdited(),
 				c.getEditedAt(),
 				false,
@@ -66,14 +88,29 @@ public record ComentarioDTO (
 				c.getAlarmante(),
 				c.getDenunciado(),
 				c.getDenunciasCount(),
+				c.contarFilhosRecursivo(),
 				c.getArquivos() != null ? c.getArquivos().stream()
 						.map(arquivo -> ArquivoDTO.from(arquivo))
 						.toList() : List.of(),
-				c.getFilhos() != null ? c.getFilhos().stream()
-						.map(filho -> ComentarioDTO.from(filho, currentUserEmail))
+				filhos != null ? filhos.stream()
+						.map(filho -> ComentarioDTO.from(filho, currentUserEmail, votosDoUsuario, respostasPorPai))
 						.toList() : List.of()
 		);
 	}
+
+	/** Cópia com os dados do usuário trocados (sobre uma página montada sem usuário). */
+	public ComentarioDTO paraUsuario(Boolean isOwner, Integer hasVoted, List<ComentarioDTO> filhos) {
+		return new ComentarioDTO(id, texto, upVotes, professorId, downVotes, createdAt, isOwner, hasVoted, edited, editedAt,
+				deleted, comentarioPaiId, userInitials, alarmante, denunciado, denunciasCount, respostasCount, arquivos, filhos);
+	}
+
+	private static Integer votoDoUsuario(Comentario c, String currentUserEmail, Map<Long, Boolean> votosDoUsuario) {
+		if (votosDoUsuario == null) {
+			return c.hasVoted(currentUserEmail);
+		}
+		Boolean voto = votosDoUsuario.get(c.getComentarioId());
+		return voto == null ? 0 : voto ? 1 : -1;
+	}
 	public String getDataFormatada() {
 		return createdAt.atZone(ZoneId.systemDefault())
 							.format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.forLanguageTag("pt-BR")));
@@ -0,0 +1,31 @@
+package com.example.DTO;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Mudança em um comentário, enviada ao vivo para quem está com a página da disciplina aberta. Só vêm os campos do
+ * tipo: CRIADO leva o {@code comentario} (visto por um visitante: sem dono nem voto); EDITADO, {@code texto} e
+ * {@code editedAt}; VOTOS, {@code upVotes} e {@code downVotes}; REMOVIDO, só o {@code id} (as respostas saem junto).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ComentarioDeltaDTO(String tipo, Long id, ComentarioDTO comentario, String texto, Instant editedAt,
+		Integer upVotes, Integer downVotes) {
+
+	public static ComentarioDeltaDTO criado(ComentarioDTO comentario) {
+		return new ComentarioDeltaDTO("CRIADO", comentario.id(), comentario, null, null, null, null);
+	}
+
+	public static ComentarioDeltaDTO editado(Long id, String texto, Instant editedAt) {
+		return new ComentarioDeltaDTO("EDITADO", id, null, texto, editedAt, null, null);
+	}
+
+	public static ComentarioDeltaDTO votos(Long id, int upVotes, int downVotes) {
+		return new ComentarioDeltaDTO("VOTOS", id, null, null, null, upVotes, downVotes);
+	}
+
+	public static ComentarioDeltaDTO removido(Long id) {
+		return new ComentarioDeltaDTO("REMOVIDO", id, null, null, null, null, null);
+	}
+}
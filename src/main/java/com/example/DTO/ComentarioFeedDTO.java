@@ -0,0 +1,10 @@
+package com.example.DTO;
+
+import java.util.List;
+
+/**
+ * Uma página do feed de comentários principais de um professor numa disciplina.
+ * @param comentarios comentários principais, sem as respostas ({@code respostasCount} diz quantas existem)
+ * @param proximoCursor cursor opaco da próxima página, ou {@code null} se esta for a última
+ */
+public record ComentarioFeedDTO(List<ComentarioDTO> comentarios, String proximoCursor) {}
@@ -0,0 +1,20 @@
+package com.example.DTO;
+
+import java.util.List;
+
+/**
+ * Diferença do catálogo de disciplinas entre duas versões ({@code dataHash}).
+ * <p>Quando {@code completo} é verdadeiro o servidor não consegue montar o delta (versão desconhecida ou mudanças
+ * demais) e o cliente deve baixar o catálogo inteiro em {@code /api/search/disciplinas}.</p>
+ */
+public record DisciplinaDeltaDTO(String de, String para, boolean completo,
+		List<DisciplinaSearchDTO> atualizadas, List<String> removidas) {
+
+	public static DisciplinaDeltaDTO vazio(String de, String para) {
+		return new DisciplinaDeltaDTO(de, para, false, List.of(), List.of());
+	}
+
+	public static DisciplinaDeltaDTO completo(String de, String para) {
+		return new DisciplinaDeltaDTO(de, para, true, List.of(), List.of());
+	}
+}
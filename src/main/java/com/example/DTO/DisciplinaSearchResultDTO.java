@@ -0,0 +1,12 @@
+package com.example.DTO;
+
+import com.example.search.IndiceTrigramas;
+
+/**
+ * Resultado da busca server-side. {@code matchedProfessor} é preenchido quando a disciplina foi encontrada pelo nome do professor.
+ */
+public record DisciplinaSearchResultDTO(String codigo, String nome, String matchedProfessor, double score) {
+	public static DisciplinaSearchResultDTO from(IndiceTrigramas.Resultado r) {
+		return new DisciplinaSearchResultDTO(r.codigo(), r.nome(), r.professor(), r.score());
+	}
+}
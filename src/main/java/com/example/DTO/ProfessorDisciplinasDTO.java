@@ -0,0 +1,17 @@
+package com.example.DTO;
+
+import java.util.List;
+
+import com.example.search.IndiceProfessores;
+
+/**
+ * Professor com as disciplinas que leciona, da mais recente para a mais antiga (pelo último semestre).
+ */
+public record ProfessorDisciplinasDTO(String professorId, String nome, List<DisciplinaLecionada> disciplinas) {
+
+	public record DisciplinaLecionada(String codigo, String nome, String ultimoSemestre) {
+		public static DisciplinaLecionada from(IndiceProfessores.Vinculo v) {
+			return new DisciplinaLecionada(v.disciplinaCodigo(), v.disciplinaNome(), v.ultimoSemestre());
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.example.DTO;
+
+import java.util.List;
+
+import com.example.model.ResumoAvaliacao;
+
+/**
+ * Média, quantidade e histograma (quantidade de notas 1 a 5, nessa ordem) de um contexto de avaliação.
+ */
+public record ResumoAvaliacaoDTO(double media, int total, List<Integer> histograma) {
+
+	public static ResumoAvaliacaoDTO vazio() {
+		return new ResumoAvaliacaoDTO(0.0, 0, List.of(0, 0, 0, 0, 0));
+	}
+
+	public static ResumoAvaliacaoDTO from(ResumoAvaliacao r) {
+		int[] h = r.getHistograma();
+		return new ResumoAvaliacaoDTO(r.getMedia(), r.getTotal(), List.of(h[0], h[1], h[2], h[3], h[4]));
+	}
+}
@@ -0,0 +1,9 @@
+package com.example.DTO;
+
+/**
+ * Situação de um anexo enviado com um comentário, enquanto ele passa pelo processamento assíncrono.
+ * <p>{@code estado} é RECEBIDO, PROCESSANDO, CONCLUIDO, REJEITADO (tipo não permitido) ou ERRO. {@code arquivoId} só
+ * existe depois de CONCLUIDO; {@code mensagem} explica REJEITADO e ERRO.</p>
+ */
+public record StatusAnexoDTO(String id, Long comentarioId, String nomeOriginal, String estado, Long arquivoId,
+		String mensagem) {}
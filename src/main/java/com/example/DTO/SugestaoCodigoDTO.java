@@ -0,0 +1,9 @@
+package com.example.DTO;
+
+import com.example.search.TrieCodigos;
+
+public record SugestaoCodigoDTO(String codigo, String nome, int atividade) {
+	public static SugestaoCodigoDTO from(TrieCodigos.Sugestao s) {
+		return new SugestaoCodigoDTO(s.codigo(), s.nome(), s.atividade());
+	}
+}
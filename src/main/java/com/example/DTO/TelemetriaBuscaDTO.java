@@ -0,0 +1,23 @@
+package com.example.DTO;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import com.example.search.HeavyHitters;
+import com.example.search.Histograma;
+
+/**
+ * Telemetria da busca de disciplinas desde {@code desde} (subida da aplicação ou último reset).
+ * Latências em microssegundos; {@code limiteLentaMs} é o limite a partir do qual uma busca é registrada como lenta.
+ */
+public record TelemetriaBuscaDTO(Instant desde, long limiteLentaMs, Map<String, Operacao> operacoes,
+		List<BuscaLenta> lentas) {
+
+	/** Métricas de um tipo de busca (query, fuzzy, autocomplete). */
+	public record Operacao(long buscas, long semResultado, Histograma.Resumo latenciaMicros,
+			Histograma.Resumo resultados, List<HeavyHitters.Termo> maisBuscados,
+			List<HeavyHitters.Termo> maisBuscadosSemResultado) {}
+
+	public record BuscaLenta(Instant quando, String tipo, String termo, long duracaoMicros, int resultados) {}
+}
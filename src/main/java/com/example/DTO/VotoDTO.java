@@ -0,0 +1,7 @@
+package com.example.DTO;
+
+/**
+ * Contadores do comentário logo depois de um voto e o voto atual do usuário: true (upvote), false (downvote) ou
+ * {@code null} (sem voto).
+ */
+public record VotoDTO(int upVotes, int downVotes, Boolean voto) {}
@@ -0,0 +1,30 @@
+package com.example.config;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Diz qual banco está em uso, para os poucos comandos nativos que não têm sintaxe comum: upserts usam
+ * {@code ON CONFLICT ... RETURNING} no PostgreSQL (produção) e {@code MERGE} com {@code OLD/FINAL TABLE} no H2 (dev e
+ * testes).
+ */
+@Component
+public class DialetoBanco {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private volatile Boolean postgres;
+
+	public boolean isPostgres() {
+		if (postgres == null) {
+			postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+					.getDialect() instanceof PostgreSQLDialect;
+		}
+		return postgres;
+	}
+}
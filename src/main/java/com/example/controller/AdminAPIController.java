@@ -18,9 +18,13 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.model.Comentario;
 import com.example.model.Usuario;
 import com.example.scrapper.DisciplinaScrapper;
+import com.example.service.BuscaComentariosService;
 import com.example.service.ComentarioService;
+import com.example.service.ModeracaoTextoService;
 import com.example.service.ScrapperStatusService;
 import com.example.service.SessionService;
+import com.example.service.TelemetriaBuscaService;
+import com.example.service.CachePaginaDisciplinaService;
 import com.example.service.UsuarioService;
 
 import com.example.DTO.AdminCommentDTO;
@@ -49,6 +53,14 @@ public class AdminAPIController {
 	private ScrapperStatusService scrapperStatusService;
 	@Autowired
 	private ComentarioService comentarioService;
+	@Autowired
+	private TelemetriaBuscaService telemetriaBuscaService;
+	@Autowired
+	private CachePaginaDisciplinaService cachePaginaDisciplinaService;
+	@Autowired
+	private ModeracaoTextoService moderacaoTextoService;
+	@Autowired
+	private BuscaComentariosService buscaComentariosService;
 
 	private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AdminAPIController.class);
 
@@ -226,6 +238,33 @@ public class AdminAPIController {
 		}
 	}
 
+	/**
+	 * Buscar comentários pelo texto (sem acento, plural/feminino/verbo tanto faz), dos mais relevantes para os menos,
+	 * paginado por cursor
+	 */
+	@Transactional
+	@PostMapping("/comments/search")
+	public ResponseEntity<?> searchComments(
+			HttpServletRequest request,
+			@RequestParam("q") String consulta,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size) {
+
+		boolean auth = sessionService.verifySession(request);
+		if (!auth || !sessionService.currentUserIsAdmin(request)) {
+			return ResponseEntity.status(403).build();
+		}
+
+		try {
+			return ResponseEntity.ok(buscaComentariosService.buscar(consulta, cursor, size));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(400).body(e.getMessage());
+		} catch (Exception e) {
+			logger.error("Erro ao buscar comentários: " + e.getMessage());
+			return ResponseEntity.status(500).body("Erro ao buscar comentários.");
+		}
+	}
+
 	/**
 	 * Buscar comentários alarmantes (para revisão)
 	 */
@@ -371,6 +410,114 @@ public class AdminAPIController {
 		}
 	}
 
+	// ==================== MODERAÇÃO ====================
+
+	/**
+	 * Termos que colocam um comentário na fila de moderação automaticamente
+	 */
+	@PostMapping("/moderation/terms")
+	public ResponseEntity<?> getModerationTerms(HttpServletRequest request) {
+		boolean auth = sessionService.verifySession(request);
+		if (!auth || !sessionService.currentUserIsAdmin(request)) {
+			return ResponseEntity.status(403).build();
+		}
+
+		return ResponseEntity.ok(moderacaoTextoService.getTermos());
+	}
+
+	/**
+	 * Substituir os termos de moderação (vale na hora, sem reiniciar). Retorna os termos aceitos, normalizados.
+	 */
+	@PostMapping("/moderation/terms/update")
+	public ResponseEntity<?> updateModerationTerms(HttpServletRequest request, @RequestBody List<String> termos) {
+		boolean auth = sessionService.verifySession(request);
+		if (!auth || !sessionService.currentUserIsAdmin(request)) {
+			return ResponseEntity.status(403).build();
+		}
+
+		try {
+			return ResponseEntity.ok(moderacaoTextoService.atualizarTermos(termos));
+		} catch (Exception e) {
+			logger.error("Erro ao atualizar termos de moderação: " + e.getMessage());
+			return ResponseEntity.status(500).body("Erro ao atualizar termos de moderação.");
+		}
+	}
+
+	/**
+	 * Reler o arquivo de termos de moderação (ex: depois de editá-lo no servidor)
+	 */
+	@PostMapping("/moderation/terms/reload")
+	public ResponseEntity<String> reloadModerationTerms(HttpServletRequest request) {
+		boolean auth = sessionService.verifySession(request);
+		if (!auth || !sessionService.currentUserIsAdmin(request)) {
+			return ResponseEntity.status(403).build();
+		}
+
+		try {
+			int termos = moderacaoTextoService.recarregar();
+			return ResponseEntity.ok(termos + " termos carregados.");
+		} catch (Exception e) {
+			logger.error("Erro ao recarregar termos de moderação: " + e.getMessage());
+			return ResponseEntity.status(500).body("Erro ao recarregar termos de moderação.");
+		}
+	}
+
+	// ==================== BUSCA ====================
+
+	/**
+	 * Telemetria da busca: latência, resultados, termos mais buscados, termos sem resultado e buscas lentas
+	 */
+	@PostMapping("/search/telemetry")
+	public ResponseEntity<?> getSearchTelemetry(HttpServletRequest request) {
+		boolean auth = sessionService.verifySession(request);
+		if (!auth || !sessionService.currentUserIsAdmin(request)) {
+			return ResponseEntity.status(403).build();
+		}
+
+		return ResponseEntity.ok(telemetriaBuscaService.getResumo());
+	}
+
+	/**
+	 * Zerar a telemetria da busca (ex: depois de mudar o ranking)
+	 */
+	@PostMapping("/search/telemetry/reset")
+	public ResponseEntity<String> resetSearchTelemetry(HttpServletRequest request) {
+		boolean auth = sessionService.verifySession(request);
+		if (!auth || !sessionService.currentUserIsAdmin(request)) {
+			return ResponseEntity.status(403).build();
+		}
+
+		telemetriaBuscaService.resetar();
+		return ResponseEntity.ok("Telemetria zerada.");
+	}
+
+	/**
+	 * Métricas do cache da página de disciplina (taxa de acerto, invalidações, remoções)
+	 */
+	@PostMapping("/cache/class-page")
+	public ResponseEntity<?> getClassPageCache(HttpServletRequest request) {
+		boolean auth = sessionService.verifySession(request);
+		if (!auth || !sessionService.currentUserIsAdmin(request)) {
+			return ResponseEntity.status(403).build();
+		}
+
+		return ResponseEntity.ok(cachePaginaDisciplinaService.getResumo());
+	}
+
+	/**
+	 * Zerar as métricas do cache da página de disciplina
+	 */
+	@PostMapping("/cache/class-page/reset")
+	public ResponseEntity<String> resetClassPageCache(HttpServletRequest request) {
+		boolean auth = sessionService.verifySession(request);
+		if (!auth || !sessionService.currentUserIsAdmin(request)) {
+			return ResponseEntity.status(403).build();
+		}
+
+		cachePaginaDisciplinaService.resetarMetricas();
+		return ResponseEntity.ok("Métricas do cache zeradas.");
+	}
+
 	/**
 	 * Endpoint para obter status do scrapper de disciplinas
 	 */
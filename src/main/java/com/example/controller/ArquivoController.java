@@ -2,15 +2,21 @@ package com.example.controller;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -18,10 +24,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.example.model.ArquivoComentario;
 import com.example.service.ArquivoComentarioService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @Controller
 @RequestMapping("/api/arquivos")
 public class ArquivoController {
@@ -46,15 +56,33 @@ public class ArquivoController {
         "text/plain"
     );
     
+    // Attachments are stored under UUID names and never rewritten, so the browser can keep them for a long time
+    private static final CacheControl CACHE_ANEXOS = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+    
+    // Request attributes of Tomcat's sendfile support (same ones its DefaultServlet uses)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    // Below this size a plain copy is as cheap as handing the file to the connector (DefaultServlet's default)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+    
     /**
-     * Download or view a file
+     * Download or view a file.
+     * <p>The file is never loaded into memory: when the connector supports sendfile, the whole file (or a single
+     * range) is handed to it and copied by the kernel ({@code FileChannel.transferTo}); otherwise it is streamed from
+     * disk. {@code Range} requests get 206 responses, and {@code If-None-Match}/{@code If-Modified-Since} get 304,
+     * using the content hash as ETag.</p>
      * @param id File ID
      * @param download If true, force download; if false, display inline (for images/PDFs)
      */
     @GetMapping("/{id}")
     public ResponseEntity<Resource> downloadArquivo(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "false") boolean download) throws IOException {
+            @RequestParam(defaultValue = "false") boolean download,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         
         ArquivoComentario arquivo = arquivoService.buscarPorId(id)
                 .orElseThrow(() -> new IllegalArgumentException("Arquivo não encontrado"));
@@ -65,13 +93,16 @@ public class ArquivoController {
         }
         
         Path filePath = Paths.get(arquivo.getCaminhoArquivo());
-        
-        if (!Files.exists(filePath)) {
+        BasicFileAttributes atributos;
+        try {
+            atributos = Files.readAttributes(filePath, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
             return ResponseEntity.notFound().build();
         }
-        
-        byte[] data = Files.readAllBytes(filePath);
-        ByteArrayResource resource = new ByteArrayResource(data);
+        long tamanho = atributos.size();
+        long modificadoEm = atributos.lastModifiedTime().toMillis();
+        // Attachments from before async processing have no hash; their unique stored name is just as stable
+        String etag = "\"" + (arquivo.getSha256() != null ? arquivo.getSha256() : arquivo.getNomeArquivo()) + "\"";
         
         HttpHeaders headers = new HttpHeaders();
         
@@ -88,10 +119,75 @@ public class ArquivoController {
             headers.add(HttpHeaders.CONTENT_DISPOSITION, 
                 "inline; filename=\"" + arquivo.getNomeOriginal() + "\"");
         }
+        headers.setCacheControl(CACHE_ANEXOS);
+        headers.setETag(etag);
+        headers.setLastModified(modificadoEm);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        
+        if (new ServletWebRequest(request, response).checkNotModified(etag, modificadoEm)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
         
+        if (enviarComSendfile(request, response, headers, filePath, tamanho, etag)) {
+            return null;
+        }
+        
+        // Streamed from disk in small chunks; Spring answers Range (including multiple ranges and 416) from the resource
         return ResponseEntity.ok()
                 .headers(headers)
-                .contentLength(data.length)
-                .body(resource);
+                .body(new FileSystemResource(filePath));
+    }
+    
+    /**
+     * Hands the whole file, or a single satisfiable range, to the connector's sendfile. Anything else (no sendfile
+     * support, small files, HEAD, several ranges, invalid ranges) is left to the streamed response.
+     * @return true if the response was set up and no body must be written
+     */
+    private boolean enviarComSendfile(HttpServletRequest request, HttpServletResponse response, HttpHeaders headers,
+            Path filePath, long tamanho, String etag) {
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) || tamanho < SENDFILE_MIN_SIZE
+                || !"GET".equals(request.getMethod())) {
+            return false;
+        }
+        long inicio = 0;
+        long fim = tamanho - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range with another validator means the client's copy is stale: send the whole file
+        boolean parcial = range != null && (ifRange == null || ifRange.equals(etag));
+        if (parcial) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            if (ranges.size() != 1) {
+                return false;
+            }
+            HttpRange r = ranges.get(0);
+            try {
+                inicio = r.getRangeStart(tamanho);
+                fim = r.getRangeEnd(tamanho);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            if (inicio >= tamanho || inicio > fim) {
+                return false;
+            }
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+        }
+        
+        response.setStatus(parcial ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        // setHeader: checkNotModified may already have written ETag and Last-Modified
+        headers.forEach((nome, valores) -> {
+            response.setHeader(nome, valores.get(0));
+            valores.stream().skip(1).forEach(valor -> response.addHeader(nome, valor));
+        });
+        response.setContentLengthLong(fim - inicio + 1);
+        request.setAttribute(SENDFILE_FILENAME, filePath.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, inicio);
+        request.setAttribute(SENDFILE_END, fim + 1);
+        return true;
     }
 }
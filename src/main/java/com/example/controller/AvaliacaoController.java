@@ -20,6 +20,8 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.bind.annotation.PathVariable;
 
+import com.example.DTO.AvaliacaoSalvaDTO;
+import com.example.DTO.ResumoAvaliacaoDTO;
 import com.example.model.Professor;
 import com.example.model.Usuario;
 import com.example.scrapper.DisciplinaScrapper;
@@ -32,6 +34,7 @@ import com.example.service.AvaliacaoService;
 import com.example.service.SessionService;
 import com.example.service.DisciplinaService;
 import com.example.service.ProfessorService;
+import com.example.service.ResumoAvaliacaoService;
 import com.example.service.ArquivoComentarioService;
 import com.example.service.UsuarioService;
 
@@ -58,6 +61,9 @@ public class AvaliacaoController {
 	@Autowired
 	private AvaliacaoService avaliacaoService;
 
+	@Autowired
+	private ResumoAvaliacaoService resumoAvaliacaoService;
+
 	@Autowired
 	private DisciplinaService disciplinaService;
 
@@ -117,40 +123,20 @@ public class AvaliacaoController {
 			}
 
 			// Cria ou atualiza avaliação
-			Optional<Avaliacao> avaliacaoOpt = avaliacaoService.create(professor, disciplina, usuario, nota);
-			
-			if (!avaliacaoOpt.isPresent()) {
-				return ResponseEntity.status(500).body("Erro ao salvar avaliação.");
-			}
-
-			Avaliacao avaliacao = avaliacaoOpt.get();
-			logger.info("Rating salvo com sucesso. Avaliacao ID: {}", avaliacao.getId());
+			AvaliacaoSalvaDTO avaliacao = avaliacaoService.create(professor, disciplina, usuario, nota);
+			logger.info("Rating salvo com sucesso. Avaliacao ID: {}", avaliacao.id());
 
-			// ✅ Calcular nova média para retornar ao frontend
-			List<Avaliacao> avaliacoesContexto;
-			if (professor != null) {
-				avaliacoesContexto = avaliacaoRepository.findByDisciplinaAndProfessor(disciplina, professor);
-			} else {
-				avaliacoesContexto = avaliacaoRepository.findByDisciplinaAndProfessorIsNull(disciplina);
-			}
-			
-			double novaMedia = avaliacoesContexto.stream()
-				.filter(a -> a.getNota() != null && a.getNota() > 0)
-				.mapToInt(Avaliacao::getNota)
-				.average()
-				.orElse(0.0);
-			
-			int totalAvaliacoes = (int) avaliacoesContexto.stream()
-				.filter(a -> a.getNota() != null && a.getNota() > 0)
-				.count();
+			// ✅ Nova média para o frontend, lida do resumo do contexto (sem carregar as avaliações)
+			ResumoAvaliacaoDTO resumo = resumoAvaliacaoService.buscar(disciplina, professor);
 
 			return ResponseEntity.ok(Map.of(
 				"success", true,
 				"message", "Nota registrada com sucesso",
-				"avaliacaoId", avaliacao.getId(),
-				"nota", avaliacao.getNota(),
-				"novaMedia", novaMedia,
-				"totalAvaliacoes", totalAvaliacoes
+				"avaliacaoId", avaliacao.id(),
+				"nota", avaliacao.nota(),
+				"novaMedia", resumo.media(),
+				"totalAvaliacoes", resumo.total(),
+				"histograma", resumo.histograma()
 			));
 
 		} catch (Exception e) {
@@ -212,7 +198,7 @@ public class AvaliacaoController {
 			}
 
 			Avaliacao avaliacao = avaliacaoOpt.get();
-			avaliacaoRepository.delete(avaliacao);
+			avaliacaoService.delete(avaliacao);
 			logger.info("Rating removido com sucesso. Avaliacao ID: {}", avaliacao.getId());
 
 			return ResponseEntity.ok(Map.of(
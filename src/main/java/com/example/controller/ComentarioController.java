@@ -17,8 +17,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.bind.annotation.PathVariable;
 
+import com.example.DTO.StatusAnexoDTO;
+import com.example.DTO.VotoDTO;
 import com.example.model.Professor;
 import com.example.model.Usuario;
 import com.example.model.Comentario;
@@ -26,10 +29,13 @@ import com.example.model.Disciplina;
 import com.example.model.ArquivoComentario;
 import com.example.service.ComentarioService;
 import com.example.service.DisciplinaService;
+import com.example.service.PaginaDisciplinaService;
+import com.example.service.ProcessamentoAnexosService;
 import com.example.service.ProfessorService;
 import com.example.service.ArquivoComentarioService;
 import com.example.service.UsuarioService;
 import com.example.service.SessionService;
+import com.example.service.TransmissaoComentariosService;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -59,6 +65,27 @@ public class ComentarioController {
 	@Autowired
 	private ComentarioService comentarioService;
 
+	@Autowired
+	private PaginaDisciplinaService paginaDisciplinaService;
+
+	@Autowired
+	private ProcessamentoAnexosService processamentoAnexosService;
+
+	@Autowired
+	private TransmissaoComentariosService transmissaoComentariosService;
+
+	// Valida o tamanho dos anexos antes de criar o comentário; retorna a mensagem de erro ou null
+	private String validarTamanhoAnexos(MultipartFile[] files) {
+		if (files != null) {
+			for (MultipartFile file : files) {
+				if (!file.isEmpty() && file.getSize() > 5 * 1024 * 1024) { // 5MB
+					return "O arquivo " + file.getOriginalFilename() + " excede o tamanho máximo de 5MB.";
+				}
+			}
+		}
+		return null;
+	}
+
 	@PostMapping("/responder")
 	@ResponseBody
 	public ResponseEntity<?> responder(@RequestParam("texto") String texto
@@ -89,45 +116,31 @@ public class ComentarioController {
 				return ResponseEntity.status(400).body("O texto do comentário excede o limite de 2000 caracteres.");
 			}
 
+			String erroAnexos = validarTamanhoAnexos(files);
+			if (erroAnexos != null) {
+				return ResponseEntity.status(400).body(erroAnexos);
+			}
+
 			logger.debug("Dados validados, criando resposta.");
 			// ✅ Criar resposta de comentario
 			Comentario comentario = comentarioService.responderComentario(usuario, texto, comentarioPaiId);
 			logger.debug("Comentário criado com ID: " + comentario.getComentarioId());
 
-			// Cria os arquivos associados ao comentário, se houver
-			if (files != null && files.length > 0) {
-				boolean hasValidFiles = false;
-				for (MultipartFile file : files) {
-					if (!file.isEmpty()) {
-						if (file.getSize() > 5 * 1024 * 1024) { // 5MB
-							return ResponseEntity.status(400).body("O arquivo " + file.getOriginalFilename() + " excede o tamanho máximo de 5MB.");
-						}
-
-						try {
-							arquivoService.salvarArquivo(file, comentario);
-							hasValidFiles = true;
-							logger.info("Arquivo " + file.getOriginalFilename() + " salvo com sucesso.");
-						} catch (Exception e) {
-							return ResponseEntity.status(500).body("Erro ao salvar o arquivo " + file.getOriginalFilename() + ": " + e.getMessage());
-						}
-					}
-				}
-				
-				// Marcar como alarmante se tiver arquivos
-				if (hasValidFiles) {
-					comentario.setAlarmante(true);
-					comentarioService.salvar(comentario);
-				}
-			}
+			// Anexos vão para o staging e são processados em segundo plano (ver ProcessamentoAnexosService)
+			List<StatusAnexoDTO> anexos = processamentoAnexosService.receber(comentario.getComentarioId(), usuarioEmail, files);
 
 			logger.info("Comentário salvo com sucesso.");
 
 			return ResponseEntity.ok(Map.of(
 				"success", true,
 				"message", "Comentário publicado com sucesso",
-				"comentarioId", comentario.getComentarioId()
+				"comentarioId", comentario.getComentarioId(),
+				"anexos", anexos
 			));
 
+		} catch (IllegalArgumentException e) {
+			// Pai inexistente ou thread no limite de profundidade
+			return ResponseEntity.status(400).body(e.getMessage());
 		} catch (Exception e) {
 			logger.error("Erro interno: ", e);
 			return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
@@ -179,43 +192,26 @@ public class ComentarioController {
 				return ResponseEntity.status(400).body("O texto do comentário excede o limite de 2000 caracteres.");
 			}
 
+			String erroAnexos = validarTamanhoAnexos(files);
+			if (erroAnexos != null) {
+				return ResponseEntity.status(400).body(erroAnexos);
+			}
+
 			logger.info("Dados validados, criando comentário.");
 			// ✅ Criar comentário com disciplina e professor (professor agora é obrigatório)
 			Comentario comentario = comentarioService.criarComentario(usuario, texto, disciplina, professor);
 			logger.info("Comentário criado com ID: " + comentario.getComentarioId());
 
-			// Cria os arquivos associados ao comentário, se houver
-			if (files != null && files.length > 0) {
-				boolean hasValidFiles = false;
-				for (MultipartFile file : files) {
-					if (!file.isEmpty()) {
-						if (file.getSize() > 5 * 1024 * 1024) { // 5MB
-							return ResponseEntity.status(400).body("O arquivo " + file.getOriginalFilename() + " excede o tamanho máximo de 5MB.");
-						}
-
-						try {
-							arquivoService.salvarArquivo(file, comentario);
-							hasValidFiles = true;
-							logger.info("Arquivo " + file.getOriginalFilename() + " salvo com sucesso.");
-						} catch (Exception e) {
-							return ResponseEntity.status(500).body("Erro ao salvar o arquivo " + file.getOriginalFilename() + ": " + e.getMessage());
-						}
-					}
-				}
-				
-				// Marcar como alarmante se tiver arquivos
-				if (hasValidFiles) {
-					comentario.setAlarmante(true);
-					comentarioService.salvar(comentario);
-				}
-			}
+			// Anexos vão para o staging e são processados em segundo plano (ver ProcessamentoAnexosService)
+			List<StatusAnexoDTO> anexos = processamentoAnexosService.receber(comentario.getComentarioId(), usuarioEmail, files);
 
 			logger.info("Comentário salvo com sucesso.");
 
 			return ResponseEntity.ok(Map.of(
 				"success", true,
 				"message", "Comentário publicado com sucesso",
-				"comentarioId", comentario.getComentarioId()
+				"comentarioId", comentario.getComentarioId(),
+				"anexos", anexos
 			));
 
 		} catch (Exception e) {
@@ -235,24 +231,13 @@ public class ComentarioController {
 		
 		logger.debug("Registrando voto para comentário ID " + comentarioId + " por usuário " + userEmail + " como " + (isUpVote ? "upvote" : "downvote"));
 		try {
-			comentarioService.vote(userEmail, comentarioId, isUpVote);
-			
-			// Buscar comentário atualizado para retornar contadores
-			Optional<com.example.model.Comentario> comentarioOpt = comentarioService.buscarPorId(comentarioId);
-			if (comentarioOpt.isEmpty()) {
-				return ResponseEntity.status(404).body("Comentário não encontrado.");
-			}
-			
-			com.example.model.Comentario comentario = comentarioOpt.get();
-			
-			// ✅ Buscar o voto atual do usuário
-			Boolean userVote = comentario.getVotes().get(userEmail); // true (upvote), false (downvote), null (no vote)
+			VotoDTO voto = comentarioService.vote(userEmail, comentarioId, isUpVote);
 			
 			return ResponseEntity.ok(Map.of(
 				"success", true,
-				"upVotes", comentario.getUpVotes(),
-				"downVotes", comentario.getDownVotes(),
-				"userVote", userVote != null ? (userVote ? 1 : -1) : 0, // Enviar 0 se for null
+				"upVotes", voto.upVotes(),
+				"downVotes", voto.downVotes(),
+				"userVote", voto.voto() != null ? (voto.voto() ? 1 : -1) : 0, // Enviar 0 se for null
 				"message", "Voto registrado com sucesso."
 			));
 		} catch(IllegalArgumentException e) {
@@ -279,16 +264,16 @@ public class ComentarioController {
 		}
 		logger.debug("Usuário encontrado");
 		
-		Comentario comentario = comentarioService.buscarPorId(comentarioId).orElse(null);
-		if (comentario == null) {
+		String autorEmail = comentarioService.buscarEmailDoAutor(comentarioId);
+		if (autorEmail == null) {
 			return ResponseEntity.status(404).body("Comentário não encontrado.");
 		}
 		logger.debug("Comentário encontrado: " + comentarioId);
 
-		if(user.getIsAdmin() || comentario.getUsuario().getEmail().equals(userEmail)) {
+		if(user.getIsAdmin() || autorEmail.equals(userEmail)) {
 			logger.debug("Usuário autorizado a deletar o comentário ID " + comentarioId);
 			try {
-				comentarioService.delete(comentario);
+				comentarioService.deletar(comentarioId);
 				return ResponseEntity.ok("Comentário deletado com sucesso.");
 			} catch(Exception e) {
 				return ResponseEntity.status(500).body("Erro ao deletar comentário: " + e.getMessage());
@@ -427,5 +412,75 @@ public class ComentarioController {
 			return ResponseEntity.status(500).body("Erro ao denunciar comentário: " + e.getMessage());
 		}
 	}
-	
-}
\ No newline at end of file
+
+	/**
+	 * Feed de comentários principais de um professor na disciplina, paginado por cursor.
+	 * As respostas de cada comentário vêm de {@code /{id}/respostas}.
+	 */
+	@GetMapping("/feed")
+	@ResponseBody
+	public ResponseEntity<?> feed(@RequestParam("disciplinaId") String disciplinaId,
+										@RequestParam("professorId") String professorId,
+										@RequestParam(value = "ordem", defaultValue = "recentes") String ordem,
+										@RequestParam(value = "cursor", required = false) String cursor,
+										@RequestParam(value = "limite", defaultValue = "10") int limite,
+										HttpServletRequest request) {
+		PaginaDisciplinaService.OrdemFeed ordemFeed;
+		switch (ordem.toLowerCase()) {
+			case "recentes" -> ordemFeed = PaginaDisciplinaService.OrdemFeed.RECENTES;
+			case "score" -> ordemFeed = PaginaDisciplinaService.OrdemFeed.SCORE;
+			default -> {
+				return ResponseEntity.status(400).body("Ordem inválida: use 'recentes' ou 'score'.");
+			}
+		}
+		try {
+			String userEmail = sessionService.getCurrentUser(request);
+			return ResponseEntity.ok(paginaDisciplinaService.carregarFeed(disciplinaId, professorId, ordemFeed, cursor, limite, userEmail));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(400).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Status dos anexos enviados pelo usuário com o comentário, enquanto são processados.
+	 */
+	@GetMapping("/{id}/anexos/status")
+	@ResponseBody
+	public ResponseEntity<?> statusAnexos(@PathVariable("id") Long comentarioId, HttpServletRequest request) {
+		String userEmail = sessionService.getCurrentUser(request);
+		if (userEmail == null) {
+			return ResponseEntity.status(401).body("Usuário não autenticado.");
+		}
+		return ResponseEntity.ok(processamentoAnexosService.statusDoComentario(comentarioId, userEmail));
+	}
+
+	/**
+	 * Mudanças ao vivo nos comentários da disciplina (Server-Sent Events): eventos {@code criado}, {@code editado},
+	 * {@code votos}, {@code removido} e {@code ressincronizar}.
+	 */
+	@GetMapping("/eventos")
+	@ResponseBody
+	public ResponseEntity<?> eventos(@RequestParam("disciplinaId") String disciplinaId, HttpServletRequest request) {
+		if (sessionService.getCurrentUser(request) == null) {
+			return ResponseEntity.status(401).body("Usuário não autenticado.");
+		}
+		SseEmitter emitter = transmissaoComentariosService.conectar(disciplinaId);
+		if (emitter == null) {
+			return ResponseEntity.status(503).body("Muitas conexões abertas, tente novamente mais tarde.");
+		}
+		return ResponseEntity.ok(emitter);
+	}
+
+	/**
+	 * Respostas de um comentário, já aninhadas.
+	 */
+	@GetMapping("/{id}/respostas")
+	@ResponseBody
+	public ResponseEntity<?> respostas(@PathVariable("id") Long comentarioId, HttpServletRequest request) {
+		String userEmail = sessionService.getCurrentUser(request);
+		return paginaDisciplinaService.carregarRespostas(comentarioId, userEmail)
+				.<ResponseEntity<?>>map(ResponseEntity::ok)
+				.orElseGet(() -> ResponseEntity.status(404).body("Comentário não encontrado."));
+	}
+
+}
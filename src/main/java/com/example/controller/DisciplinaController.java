@@ -1,9 +1,6 @@
 package com.example.controller;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -11,18 +8,10 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
-import com.example.model.Disciplina;
-import com.example.model.Professor;
-import com.example.model.ProfessorDisciplina;
-import com.example.service.AvaliacaoService;
-import com.example.service.ComentarioService;
-import com.example.service.DisciplinaService;
+import com.example.service.CachePaginaDisciplinaService;
+import com.example.service.PaginaDisciplinaService;
 import com.example.service.SessionService;
 
-import com.example.DTO.ComentarioDTO;
-import com.example.DTO.AvaliacaoDTO;
-import com.example.DTO.ProfessorDTO;
-
 import jakarta.servlet.http.HttpServletRequest;
 
 /**
@@ -34,13 +23,7 @@ public class DisciplinaController {
 	private SessionService sessionService;
 
 	@Autowired
-	private DisciplinaService disciplinaService;
-
-	@Autowired
-	private AvaliacaoService avaliacaoService;
-
-	@Autowired
-	private ComentarioService comentarioService;
+	private CachePaginaDisciplinaService cachePaginaDisciplinaService;
 
 	private final static org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DisciplinaController.class);
 	
@@ -53,41 +36,22 @@ public class DisciplinaController {
 		// Adicionar email do usuário logado
 		String userEmail = sessionService.getCurrentUser(request);
 		
-		Optional<Disciplina> optDisciplina = disciplinaService.buscarPorCodigo(classId);
-		if (optDisciplina.isPresent()) {
-			Disciplina disciplina = optDisciplina.get();
-
-			logger.debug("Disciplina encontrada no /class/{id}");
-
-			// ✅ Construir lista de professores a partir de ProfessorDisciplina para incluir ultimoSemestre
-			List<ProfessorDTO> professors = new ArrayList<>(
-				disciplina.getProfessorDisciplinas().stream()
-					.map(pd -> ProfessorDTO.from(pd.getProfessor(), pd.getUltimoSemestre()))
-					.toList()
-			);
-
-			logger.debug("Lista de professores carregada no /class/{id}");
-
-			// ✅ Carregar avaliações (apenas ratings)
-			List<AvaliacaoDTO> avaliacoes = avaliacaoService.buscarTodasAvaliacoesDisciplina(classId, sessionService.getCurrentUser(request));
-
-			logger.debug("Lista de avaliações (ratings) carregada no /class/{id}");
-
-			// ✅ Carregar apenas comentários de professores (comentários de disciplina não existem mais)
-			List<ComentarioDTO> todosComentarios = disciplina.getProfessores().stream()
-				.flatMap(prof -> comentarioService.buscarComentariosProfessor(disciplina, prof, userEmail).stream())
-				.collect(Collectors.toList());
+		Optional<PaginaDisciplinaService.Pagina> optPagina = cachePaginaDisciplinaService.carregar(classId, userEmail);
+		if (optPagina.isPresent()) {
+			PaginaDisciplinaService.Pagina pagina = optPagina.get();
 
-			logger.debug("Lista de comentários carregada no /class/{id}: {} total", todosComentarios.size());
+			logger.debug("Página carregada no /class/{id}: {} professores, {} avaliações, {} comentários",
+					pagina.professores().size(), pagina.avaliacoes().size(), pagina.comentarios().size());
 
 			// ✅ Flag para indicar se há professores na disciplina
-			boolean hasProfessors = !professors.isEmpty();
+			boolean hasProfessors = !pagina.professores().isEmpty();
 
-			model.addAttribute("disciplina", disciplina);
-			model.addAttribute("professors", professors);
+			model.addAttribute("disciplina", pagina.disciplina());
+			model.addAttribute("professors", pagina.professores());
 			model.addAttribute("classId", classId);
-			model.addAttribute("avaliacoes", avaliacoes);
-			model.addAttribute("comentarios", todosComentarios);
+			model.addAttribute("avaliacoes", pagina.avaliacoes());
+			model.addAttribute("comentarios", pagina.comentarios());
+			model.addAttribute("cursoresComentarios", pagina.cursores());
 			model.addAttribute("hasProfessors", hasProfessors);
 			return "class";
 		} else {
@@ -0,0 +1,33 @@
+package com.example.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.DTO.ProfessorDisciplinasDTO;
+import com.example.service.IndiceProfessoresService;
+
+/**
+ * Consulta de professores. Os dados vêm do índice em memória ({@link IndiceProfessoresService}), sem acesso ao banco.
+ */
+@RestController
+@RequestMapping("/api/professor")
+public class ProfessorController {
+
+	@Autowired
+	private IndiceProfessoresService indiceProfessoresService;
+
+	/**
+	 * Professor (pelo ID Lattes) com as disciplinas que leciona, das mais recentes para as mais antigas.
+	 * Responde 404 se o professor não existir.
+	 */
+	@GetMapping("/{id}")
+	public ResponseEntity<ProfessorDisciplinasDTO> getProfessor(@PathVariable String id) {
+		return indiceProfessoresService.buscarProfessor(id)
+				.map(ResponseEntity::ok)
+				.orElseGet(() -> ResponseEntity.status(404).build());
+	}
+}
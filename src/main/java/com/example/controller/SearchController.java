@@ -1,40 +1,231 @@
 package com.example.controller;
 
-import com.example.model.Disciplina;
 import com.example.model.ScrapperStatus;
-import com.example.service.DisciplinaService;
+import com.example.search.CatalogoCompacto;
+import com.example.service.AlteracaoCatalogoService;
+import com.example.service.AutocompleteCodigoService;
+import com.example.service.BuscaDisciplinaService;
 import com.example.service.ScrapperStatusService;
-
-import jakarta.transaction.Transactional;
+import com.example.service.SnapshotDisciplinasService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
-import com.example.DTO.DisciplinaSearchDTO;
+import com.example.DTO.DisciplinaDeltaDTO;
+import com.example.DTO.DisciplinaSearchResultDTO;
+import com.example.DTO.SugestaoCodigoDTO;
 
 /* Só vai fazer uma coisa, retornar as disciplinas ao front-end ao selecionar a barra de pesquisa */
 @RestController
 @RequestMapping("/api/search")
 public class SearchController {
     
-    @Autowired
-    private DisciplinaService disciplinaService;
-    
     @Autowired
     private ScrapperStatusService scrapperStatusService;
+
+    @Autowired
+    private BuscaDisciplinaService buscaDisciplinaService;
+
+    @Autowired
+    private SnapshotDisciplinasService snapshotDisciplinasService;
+
+    @Autowired
+    private AlteracaoCatalogoService alteracaoCatalogoService;
+
+    @Autowired
+    private AutocompleteCodigoService autocompleteCodigoService;
     
-	 @Transactional
+    /**
+     * Returns the whole catalogue used by the search bar, precompressed in memory.
+     * The representation is chosen by the Accept header: plain JSON (default), the dictionary-encoded
+     * {@value CatalogoCompacto#MEDIA_TYPE_JSON} or its binary framing {@value CatalogoCompacto#MEDIA_TYPE_BINARIO}.
+     * Answers 304 when the client already has the current snapshot (If-None-Match).
+     */
     @GetMapping("/disciplinas")
-    public ResponseEntity<List<DisciplinaSearchDTO>> searchDisciplinas() {
-        List<Disciplina> resultados = disciplinaService.buscarTodas();
-		  List<DisciplinaSearchDTO> dtoList = resultados.stream()
-				.map(d -> DisciplinaSearchDTO.from(d))
-				.toList();
-        return ResponseEntity.ok(dtoList);
+    public ResponseEntity<byte[]> searchDisciplinas(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        SnapshotDisciplinasService.Snapshot snapshot = snapshotDisciplinasService.getSnapshot();
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        SnapshotDisciplinasService.Formato formato = escolherFormato(accept);
+        SnapshotDisciplinasService.Representacao representacao = snapshot.get(formato);
+
+        // Cada codificação tem bytes diferentes, então tem ETag própria (sufixo antes da aspa final)
+        String codificacao;
+        byte[] corpo;
+        String etag;
+        if (representacao.brotli() != null && aceitaEncoding(acceptEncoding, "br")) {
+            codificacao = "br";
+            corpo = representacao.brotli();
+            etag = comSufixo(representacao.etag(), "-br");
+        } else if (aceitaEncoding(acceptEncoding, "gzip")) {
+            codificacao = "gzip";
+            corpo = representacao.gzip();
+            etag = comSufixo(representacao.etag(), "-gz");
+        } else {
+            codificacao = null;
+            corpo = representacao.bruto();
+            etag = representacao.etag();
+        }
+
+        // no-cache: o navegador guarda a resposta mas sempre revalida com o ETag
+        CacheControl cacheControl = CacheControl.noCache();
+        if (etagCorresponde(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(formato.getMediaType());
+        if (codificacao != null) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, codificacao);
+        }
+        return resposta.contentLength(corpo.length).body(corpo);
     }
-    
+
+    private static String comSufixo(String etag, String sufixo) {
+        return etag.substring(0, etag.length() - 1) + sufixo + "\"";
+    }
+
+    /**
+     * Formato de maior qualidade (q) no Accept; no empate, ou com Accept ausente ou malformado, o JSON padrão.
+     * A qualidade de cada formato vem da faixa mais específica que o inclui (tipo exato antes de {@code application/*},
+     * que vem antes de {@code *}{@code /*}).
+     */
+    private static SnapshotDisciplinasService.Formato escolherFormato(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return SnapshotDisciplinasService.Formato.JSON;
+        }
+        List<MediaType> tipos;
+        try {
+            tipos = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return SnapshotDisciplinasService.Formato.JSON;
+        }
+        SnapshotDisciplinasService.Formato escolhido = SnapshotDisciplinasService.Formato.JSON;
+        double melhor = qualidade(tipos, escolhido.getMediaType());
+        for (SnapshotDisciplinasService.Formato formato : SnapshotDisciplinasService.Formato.values()) {
+            double q = qualidade(tipos, formato.getMediaType());
+            if (q > melhor) {
+                melhor = q;
+                escolhido = formato;
+            }
+        }
+        return escolhido;
+    }
+
+    private static double qualidade(List<MediaType> tipos, MediaType formato) {
+        MediaType faixa = null;
+        for (MediaType tipo : tipos) {
+            if (tipo.includes(formato) && (faixa == null || especificidade(tipo) > especificidade(faixa))) {
+                faixa = tipo;
+            }
+        }
+        return faixa == null ? 0 : faixa.getQualityValue();
+    }
+
+    private static int especificidade(MediaType tipo) {
+        return tipo.isWildcardType() ? 0 : tipo.isWildcardSubtype() ? 1 : 2;
+    }
+
+    private static boolean etagCorresponde(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Verifica se o encoding aparece no Accept-Encoding sem q=0. */
+    private static boolean aceitaEncoding(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String parte : acceptEncoding.split(",")) {
+            String[] tokens = parte.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Server-side search over the in-memory trigram index (codigo, nome and professor names).
+     * Returns the top {@code limit} results, best first.
+     */
+    @GetMapping("/query")
+    public ResponseEntity<List<DisciplinaSearchResultDTO>> query(@RequestParam("q") String q,
+                                                                 @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(buscaDisciplinaService.buscar(q, limit));
+    }
+
+    /**
+     * Typo-tolerant search over disciplina and professor names.
+     * {@code distance} is the maximum number of edits per word (capped by the server configuration).
+     */
+    @GetMapping("/fuzzy")
+    public ResponseEntity<List<DisciplinaSearchResultDTO>> fuzzy(@RequestParam("q") String q,
+                                                                 @RequestParam(value = "distance", required = false) Integer distance,
+                                                                 @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(buscaDisciplinaService.buscarAproximado(q, distance, limit));
+    }
+
+    /**
+     * Autocomplete for disciplina codes (e.g. "INE51"), most active disciplinas first.
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<SugestaoCodigoDTO>> autocomplete(@RequestParam("prefix") String prefix,
+                                                                @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(autocompleteCodigoService.sugerir(prefix, limit));
+    }
+
+    /**
+     * Returns what changed in the catalogue since the version (data hash) the client has cached.
+     * When {@code completo} is true the client must download {@code /disciplinas} again.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<DisciplinaDeltaDTO> getChanges(@RequestParam(value = "since", required = false) String since) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(alteracaoCatalogoService.calcularDelta(since));
+    }
+
     /**
      * Returns the expected count of disciplinas from last successful scrape
      */
@@ -52,7 +243,8 @@ public class SearchController {
      */
     @GetMapping("/data-hash")
     public ResponseEntity<String> getDataHash() {
-        ScrapperStatus status = scrapperStatusService.getUltimoStatus();
+        // Execuções em andamento ou com erro não geram uma nova versão dos dados
+        ScrapperStatus status = scrapperStatusService.getUltimoSucesso();
         String hash = status.getDataHash();
         
         // Se não existe hash, gera um novo baseado nos dados atuais
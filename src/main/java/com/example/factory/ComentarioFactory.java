@@ -14,6 +14,14 @@ public class ComentarioFactory {
 		}
 	}
 	
+	/**
+	 * Resposta montada a partir de referências: não carrega o pai nem mexe na lista de filhos dele. Disciplina e
+	 * professor são os do pai, copiados pelo chamador.
+	 */
+	public static Comentario criarResposta(Usuario usuario, String texto, Comentario pai, Disciplina disciplina, Professor professor) {
+		return new Comentario(usuario, texto, pai, disciplina, professor);
+	}
+	
 	public static Comentario createReply(Usuario usuario, String texto, Comentario comentarioPai) {
 		Comentario resposta = new Comentario(usuario, texto, comentarioPai);
 
@@ -0,0 +1,63 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * Registro de uma alteração no catálogo de disciplinas feita pelo scrapper (ou pela remoção de uma disciplina).
+ * <p>O log é usado para enviar ao front-end apenas o que mudou desde a versão que ele tem em cache
+ * (identificada pelo {@code dataHash} do {@link ScrapperStatus}).</p>
+ * <ul>
+ * <li> {@link #id} Sequencial, define a ordem das alterações.</li>
+ * <li> {@link #tipo} O que aconteceu.</li>
+ * <li> {@link #disciplinaCodigo} Código da disciplina afetada.</li>
+ * <li> {@link #professorId} Professor vinculado, quando a alteração é em um vínculo.</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "alteracoes_catalogo")
+public class AlteracaoCatalogo {
+
+	public enum Tipo {
+		DISCIPLINA_ADICIONADA,
+		DISCIPLINA_ALTERADA,
+		DISCIPLINA_REMOVIDA,
+		PROFESSOR_ADICIONADO,
+		// Vínculo que deixou de existir (professor removido)
+		PROFESSOR_REMOVIDO,
+		// Vínculo que mudou: semestre do vínculo ou nome do professor
+		PROFESSOR_ALTERADO
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 30)
+	private Tipo tipo;
+
+	@Column(name = "disciplina_codigo", nullable = false, length = 20)
+	private String disciplinaCodigo;
+
+	@Column(name = "professor_id", length = 50)
+	private String professorId;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt = LocalDateTime.now();
+
+	public AlteracaoCatalogo() {}
+
+	public AlteracaoCatalogo(Tipo tipo, String disciplinaCodigo, String professorId) {
+		this.tipo = tipo;
+		this.disciplinaCodigo = disciplinaCodigo;
+		this.professorId = professorId;
+	}
+
+	public Long getId() { return id; }
+	public Tipo getTipo() { return tipo; }
+	public String getDisciplinaCodigo() { return disciplinaCodigo; }
+	public String getProfessorId() { return professorId; }
+	public LocalDateTime getCreatedAt() { return createdAt; }
+}
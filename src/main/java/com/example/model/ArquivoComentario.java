@@ -11,6 +11,7 @@ import jakarta.persistence.*;
  *   <li>{@link #tipoMime} - Tipo MIME do arquivo (ex: "image/png", "application/pdf").</li>
  *   <li>{@link #tamanho} - Tamanho do arquivo em bytes.</li>
  *   <li>{@link #caminhoArquivo} - Caminho completo do arquivo no sistema de arquivos.</li>
+ *   <li>{@link #sha256} - Hash SHA-256 do conteúdo, em hexadecimal (nulo para anexos anteriores ao processamento assíncrono).</li>
  */
 @Entity
 @Table(name = "arquivos_comentario")
@@ -35,12 +36,16 @@ public class ArquivoComentario {
     @Column(name = "caminho_arquivo", nullable = false, length = 500)
     private String caminhoArquivo; // Caminho completo do arquivo no sistema
     
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+    
     @Column(name = "created_at")
     private java.time.Instant createdAt = java.time.Instant.now();
     
     // Relacionamento com comentário
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "comentario_id", nullable = false)
+    @org.hibernate.annotations.OnDelete(action = org.hibernate.annotations.OnDeleteAction.CASCADE)
     private Comentario comentario;
     
     // Constructors
@@ -77,6 +82,9 @@ public class ArquivoComentario {
     public String getCaminhoArquivo() { return caminhoArquivo; }
     public void setCaminhoArquivo(String caminhoArquivo) { this.caminhoArquivo = caminhoArquivo; }
 
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
     public java.time.Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(java.time.Instant createdAt) { this.createdAt = createdAt; }
 
@@ -6,10 +6,10 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 /**
  * Entidade JPA que representa uma avaliação (rating) cadastrada no sistema.
@@ -22,12 +22,14 @@ import jakarta.persistence.Table;
  *   <li>{@link #usuario} - Email do usuário que fez a avaliação</li>
  *   <li>{@link #createdAt} - Timestamp de quando a avaliação foi criada</li>
  * </ul>
+ * <p>Cada usuário tem no máximo uma avaliação por contexto. Nas migrações a restrição é {@code NULLS NOT DISTINCT},
+ * para valer também na avaliação da disciplina (professor nulo); é nela que o upsert de notas se apoia.</p>
  */
 @Entity
 @Table(
 	name = "avaliacoes",
-	indexes = {
-		@Index(name="uniqueTupleDisplinaUsusuarioProfessor" ,columnList = "disciplina, usuario, professor", unique = true)
+	uniqueConstraints = {
+		@UniqueConstraint(name = "uk_avaliacoes_contexto", columnNames = { "disciplina_disciplina_id", "user_email", "professor_professor_id" })
 	})
 public class Avaliacao {
 	@Id
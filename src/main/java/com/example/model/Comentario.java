@@ -11,6 +11,8 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.Where;
 
+import com.example.search.AutomatoTermos;
+
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
@@ -44,6 +46,9 @@ import jakarta.persistence.UniqueConstraint;
  * <li>{@link #filhos} Lista de respostas a este comentário.</li>
  * <li>{@link #upVotes} Número de votos positivos no comentário.</li>
  * <li>{@link #downVotes} Número de votos negativos no comentário.</li>
+ * <li>{@link #rootId} Comentário principal da thread (o próprio id, se for principal).</li>
+ * <li>{@link #path} Caminho de ids desde a raiz, em segmentos de tamanho fixo (ordena a thread em pré-ordem).</li>
+ * <li>{@link #descendentesCount} Quantidade de respostas abaixo deste comentário, em todos os níveis.</li>
  * </ul>
  */
 
@@ -51,7 +56,9 @@ import jakarta.persistence.UniqueConstraint;
 @Table(name = "comentarios", indexes = {
 	@Index(name = "idx_pai_id", columnList = "pai_id"),
 	@Index(name = "idx_user_created", columnList = "user_email, created_at"),
-	@Index(name = "idx_created", columnList = "created_at")
+	@Index(name = "idx_created", columnList = "created_at"),
+	@Index(name = "idx_comentarios_root_path", columnList = "root_id, path"),
+	@Index(name = "idx_comentarios_feed", columnList = "disciplina_id, professor_id, created_at, comentario_id")
 })
 
 public class Comentario {
@@ -69,7 +76,8 @@ public class Comentario {
 	@Column(name = "down_votes")
 	private Integer downVotes = 0;
 
-	@ElementCollection(fetch = FetchType.EAGER)
+	// LAZY: para exibir, só interessa o voto do usuário logado (ComentarioRepository.findVotosDoUsuario)
+	@ElementCollection(fetch = FetchType.LAZY)
 	@CollectionTable(
 		name = "comentario_votes",
 		joinColumns = @JoinColumn(name = "comentario_id"),
@@ -102,7 +110,8 @@ public class Comentario {
 	@Column(name = "denuncias_count")
 	private Integer denunciasCount = 0;
 
-	// ✅ Conjunto de usuários que denunciaram este comentário (para evitar duplicatas)
+	// ✅ Conjunto de usuários que denunciaram este comentário (para evitar duplicatas). As denúncias entram só pelo
+	// ComentarioService.denunciar (inserção direta na tabela); aqui a coleção serve para limpá-las em marcarComoSeguro
 	@ElementCollection(fetch = FetchType.LAZY)
 	@CollectionTable(
 		name = "comentario_denuncias",
@@ -130,12 +139,32 @@ public class Comentario {
 	// Relacionamento autoreferencial - comentário pai
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "pai_id")
+	@OnDelete(action = OnDeleteAction.CASCADE)
 	private Comentario pai;
 
-	// Relacionamento autoreferencial - comentários filhos
-	@OneToMany(mappedBy = "pai", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+	// Hierarquia materializada, mantida pelo ComentarioService
+	@Column(name = "root_id")
+	private Long rootId;
+
+	@Column(name = "path", length = TAMANHO_PATH)
+	private String path;
+
+	@Column(name = "descendentes_count", nullable = false)
+	private Integer descendentesCount = 0;
+
+	// Relacionamento autoreferencial - comentários filhos. LAZY: a árvore é lida pela faixa (root_id, path), não por aqui
+	@OneToMany(mappedBy = "pai", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
 	private List<Comentario> filhos = new ArrayList<>();
 
+	/** Dígitos de cada segmento do {@link #path} (ids com zeros à esquerda, seguidos de '/'). */
+	public static final int DIGITOS_SEGMENTO = 10;
+
+	/** Tamanho da coluna {@code path} (V7). */
+	public static final int TAMANHO_PATH = 1000;
+
+	/** Níveis que cabem no {@link #path} contando a raiz: uma resposta a um comentário neste nível é recusada. */
+	public static final int NIVEIS_MAXIMOS = TAMANHO_PATH / (DIGITOS_SEGMENTO + 1);
+
 	public Comentario(){}
 
 	/** Construtor para comentário principal (raiz) */
@@ -156,6 +185,18 @@ public class Comentario {
 		this.professor = pai.getProfessor();
 	}
 
+	/**
+	 * Construtor para resposta sem carregar o pai: {@code pai}, {@code disciplina} e {@code professor} podem ser
+	 * referências ({@code getReferenceById}), e a lista de filhos do pai não é tocada.
+	 */
+	public Comentario(Usuario usuario, String texto, Comentario pai, Disciplina disciplina, Professor professor) {
+		this.usuario = usuario;
+		this.texto = texto;
+		this.pai = pai;
+		this.disciplina = disciplina;
+		this.professor = professor;
+	}
+
 
 	public Long getComentarioId() { return comentarioId; }
 	public void setComentarioId(Long id) { this.comentarioId = id; }
@@ -187,6 +228,15 @@ public class Comentario {
 	public Integer getUpVotes() { return upVotes; }
 	public void setUpVotes(Integer upVotes) { this.upVotes = upVotes; }
 
+	public Long getRootId() { return rootId; }
+	public void setRootId(Long rootId) { this.rootId = rootId; }
+
+	public String getPath() { return path; }
+	public void setPath(String path) { this.path = path; }
+
+	public Integer getDescendentesCount() { return descendentesCount; }
+	public void setDescendentesCount(Integer descendentesCount) { this.descendentesCount = descendentesCount; }
+
 	public Integer getDownVotes() { return downVotes; }
 	public void setDownVotes(Integer downVotes) { this.downVotes = downVotes; }
 
@@ -205,16 +255,6 @@ public class Comentario {
 	public Integer getDenunciasCount() { return denunciasCount; }
 	public void setDenunciasCount(Integer denunciasCount) { this.denunciasCount = denunciasCount; }
 
-	public Set<String> getDenunciadoPor() { return denunciadoPor; }
-	public void setDenunciadoPor(Set<String> denunciadoPor) { this.denunciadoPor = denunciadoPor; }
-
-	/**
-	 * Verifica se o usuário já denunciou este comentário
-	 */
-	public boolean foiDenunciadoPor(String userEmail) {
-		return denunciadoPor != null && denunciadoPor.contains(userEmail);
-	}
-
 	public Integer hasVoted(String userEmail) {
 		if(votes.containsKey(userEmail)){
 			return votes.get(userEmail) ? 1 : -1;
@@ -238,6 +278,51 @@ public class Comentario {
 
 
 	// Métodos de conveniência
+
+	/**
+	 * Preenche {@link #rootId} e {@link #path} a partir do pai. Precisa do id, então é chamado depois do insert.
+	 */
+	public void definirHierarquia() {
+		if (pai == null) {
+			definirHierarquia(null, null);
+		} else {
+			definirHierarquia(pai.getRootId(), pai.getPath());
+		}
+	}
+
+	/**
+	 * Igual a {@link #definirHierarquia()}, com o {@link #rootId} e o {@link #path} do pai já conhecidos (nulos para
+	 * comentário principal), para não inicializar o pai quando ele é só uma referência.
+	 */
+	public void definirHierarquia(Long rootIdPai, String pathPai) {
+		String segmento = String.format("%0" + DIGITOS_SEGMENTO + "d/", comentarioId);
+		if (pathPai == null) {
+			this.rootId = comentarioId;
+			this.path = segmento;
+		} else {
+			this.rootId = rootIdPai;
+			this.path = pathPai + segmento;
+		}
+	}
+
+	/** Ids dos ancestrais (da raiz até o pai), lidos do {@link #path}. */
+	public List<Long> getAncestraisIds() {
+		return ancestraisDoPath(path);
+	}
+
+	/** Ids dos ancestrais do comentário com este {@link #path}, da raiz até o pai. */
+	public static List<Long> ancestraisDoPath(String path) {
+		List<Long> ids = new ArrayList<>();
+		if (path == null) {
+			return ids;
+		}
+		int tamanho = DIGITOS_SEGMENTO + 1;
+		for (int i = 0; i + tamanho < path.length(); i += tamanho) {
+			ids.add(Long.parseLong(path.substring(i, i + DIGITOS_SEGMENTO)));
+		}
+		return ids;
+	}
+
 	public void addFilho(Comentario filho) {
 		filhos.add(filho);
 		filho.setPai(this);
@@ -275,6 +360,9 @@ public class Comentario {
 	}
 
 	public int getNivelProfundidade() {
+		if (path != null) {
+			return path.length() / (DIGITOS_SEGMENTO + 1) - 1;
+		}
 		int nivel = 0;
 		Comentario atual = this.pai;
 		while (atual != null) {
@@ -285,6 +373,9 @@ public class Comentario {
 	}
 
 	public int contarFilhosRecursivo() {
+		if (path != null) {
+			return descendentesCount;
+		}
 		int total = filhos.size();
 		for (Comentario filho : filhos) {
 			total += filho.contarFilhosRecursivo();
@@ -293,6 +384,9 @@ public class Comentario {
 	}
 
 	public boolean hasFilhos() {
+		if (path != null) {
+			return descendentesCount > 0;
+		}
 		return filhos != null && !filhos.isEmpty();
 	}
 
@@ -302,41 +396,18 @@ public class Comentario {
 
 	/**
 	 * Verifica se o comentário é incomum (alarmante por natureza):
-	 * - Mais de 150 caracteres
+	 * - Contém algum termo do dicionário de moderação
 	 * - Possui arquivos anexados
 	 */
-	public boolean isIncomum() {
-		return (texto != null && texto.length() > 150) || hasArquivos();
+	public boolean isIncomum(AutomatoTermos termosSinalizados) {
+		return hasArquivos() || termosSinalizados.contemAlgum(texto);
 	}
 
 	/**
 	 * Marca o comentário como alarmante automaticamente se for incomum ou denunciado
 	 */
-	public void atualizarStatusAlarmante() {
-		this.alarmante = isIncomum() || (denunciado != null && denunciado);
-	}
-
-	/**
-	 * Adiciona uma denúncia ao comentário
-	 * @param userEmail email do usuário que está denunciando
-	 * @return true se a denúncia foi adicionada, false se o usuário já denunciou
-	 */
-	public boolean adicionarDenuncia(String userEmail) {
-		if (userEmail == null || userEmail.isBlank()) {
-			throw new IllegalArgumentException("Email do usuário é obrigatório para denunciar");
-		}
-		
-		// Verificar se o usuário já denunciou este comentário
-		if (denunciadoPor.contains(userEmail)) {
-			return false; // Usuário já denunciou
-		}
-		
-		// Adicionar denúncia
-		denunciadoPor.add(userEmail);
-		this.denunciasCount = denunciadoPor.size();
-		this.denunciado = true;
-		this.alarmante = true;
-		return true;
+	public void atualizarStatusAlarmante(AutomatoTermos termosSinalizados) {
+		this.alarmante = isIncomum(termosSinalizados) || (denunciado != null && denunciado);
 	}
 
 	/**
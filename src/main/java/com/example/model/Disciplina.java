@@ -1,6 +1,8 @@
 package com.example.model;
 
 import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 import org.hibernate.annotations.OnDelete;
@@ -86,11 +88,16 @@ public class Disciplina {
 		professorDisciplinas.add(pd);
     }
     
-    public void atualizarSemestreProfessor(Professor professor, String ultimoSemestre) {
-		professorDisciplinas.stream()
+    /** @return true se o semestre do vínculo mudou */
+    public boolean atualizarSemestreProfessor(Professor professor, String ultimoSemestre) {
+		Optional<ProfessorDisciplina> vinculo = professorDisciplinas.stream()
 			.filter(pd -> pd.getProfessor().equals(professor))
-			.findFirst()
-			.ifPresent(pd -> pd.setUltimoSemestre(ultimoSemestre));
+			.findFirst();
+		if (vinculo.isEmpty() || Objects.equals(vinculo.get().getUltimoSemestre(), ultimoSemestre)) {
+			return false;
+		}
+		vinculo.get().setUltimoSemestre(ultimoSemestre);
+		return true;
     }
 
 	 public boolean temProfessor(Professor professor) {
@@ -10,7 +10,7 @@ import jakarta.persistence.*;
 @Table(
     name = "mapa_curricular",
     indexes = {
-        @Index(name="uniquePairUsuarioDisciplina", columnList = "usuario, disciplina", unique = true)
+        @Index(name="uniquePairUsuarioDisciplina", columnList = "user_email, disciplina_id", unique = true)
     })
 public class MapaCurricular {
     
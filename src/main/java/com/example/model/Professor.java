@@ -74,7 +74,7 @@ public class Professor {
         if (this == o) return true;
         if (!(o instanceof Professor)) return false;
         Professor professor = (Professor) o;
-        return java.util.Objects.equals(professorId, professor.professorId);
+        return java.util.Objects.equals(professorId, professor.getProfessorId());
     }
 
     @Override
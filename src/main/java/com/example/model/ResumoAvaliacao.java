@@ -0,0 +1,112 @@
+package com.example.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+/**
+ * Agregado das notas de um contexto de avaliação (disciplina, ou professor dentro da disciplina): soma, quantidade e
+ * histograma de 1 a 5.
+ * <p>Não é alterado pela entidade: as escritas de avaliação ajustam a linha com um UPDATE relativo
+ * ({@code soma = soma + ?}), criando-a com upsert na primeira nota, na mesma transação, então duas avaliações
+ * simultâneas não perdem atualizações. A exceção é
+ * {@link #recontar(int[])}, usado com a linha travada quando a nota anterior não é conhecida.</p>
+ * <p>A avaliação da disciplina (sem professor) usa {@link #SEM_PROFESSOR} na chave.</p>
+ */
+@Entity
+@Table(name = "rating_summary")
+public class ResumoAvaliacao {
+
+	/** {@code professor_id} da avaliação da disciplina. */
+	public static final String SEM_PROFESSOR = "";
+
+	@EmbeddedId
+	private Chave chave;
+
+	@Column(nullable = false)
+	private long soma;
+
+	@Column(nullable = false)
+	private int total;
+
+	@Column(name = "nota_1", nullable = false)
+	private int nota1;
+
+	@Column(name = "nota_2", nullable = false)
+	private int nota2;
+
+	@Column(name = "nota_3", nullable = false)
+	private int nota3;
+
+	@Column(name = "nota_4", nullable = false)
+	private int nota4;
+
+	@Column(name = "nota_5", nullable = false)
+	private int nota5;
+
+	/** Construtor padrão necessário para JPA. */
+	public ResumoAvaliacao() {}
+
+	/** Substitui o resumo pelo histograma recontado (quantidade de notas 1 a 5). */
+	public void recontar(int[] histograma) {
+		nota1 = histograma[0];
+		nota2 = histograma[1];
+		nota3 = histograma[2];
+		nota4 = histograma[3];
+		nota5 = histograma[4];
+		total = nota1 + nota2 + nota3 + nota4 + nota5;
+		soma = nota1 + 2L * nota2 + 3L * nota3 + 4L * nota4 + 5L * nota5;
+	}
+
+	public Chave getChave() { return chave; }
+	public long getSoma() { return soma; }
+	public int getTotal() { return total; }
+
+	public double getMedia() {
+		return total == 0 ? 0.0 : (double) soma / total;
+	}
+
+	/** Quantidade de notas 1 a 5, nessa ordem. */
+	public int[] getHistograma() {
+		return new int[] { nota1, nota2, nota3, nota4, nota5 };
+	}
+
+	/**
+	 * Chave composta: disciplina e professor ({@link #SEM_PROFESSOR} para a avaliação da disciplina).
+	 */
+	@Embeddable
+	public static class Chave implements Serializable {
+
+		@Column(name = "disciplina_id")
+		private Long disciplinaId;
+
+		@Column(name = "professor_id", length = 50)
+		private String professorId;
+
+		/** Construtor padrão necessário para JPA. */
+		public Chave() {}
+
+		public Chave(Long disciplinaId, String professorId) {
+			this.disciplinaId = disciplinaId;
+			this.professorId = professorId == null ? SEM_PROFESSOR : professorId;
+		}
+
+		public Long getDisciplinaId() { return disciplinaId; }
+		public String getProfessorId() { return professorId; }
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Chave)) return false;
+			Chave that = (Chave) o;
+			return Objects.equals(disciplinaId, that.disciplinaId) &&
+					 Objects.equals(professorId, that.professorId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(disciplinaId, professorId);
+		}
+	}
+}
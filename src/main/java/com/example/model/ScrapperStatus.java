@@ -45,6 +45,10 @@ public class ScrapperStatus {
     @Column(name = "data_hash", length = 64)
     private String dataHash;
 
+    // Último registro de AlteracaoCatalogo incluído nesta versão dos dados (só preenchido em execuções com sucesso)
+    @Column(name = "ultima_alteracao_id")
+    private Long ultimaAlteracaoId;
+
     public ScrapperStatus() {}
 
     @PreUpdate
@@ -103,6 +107,9 @@ public class ScrapperStatus {
     public String getDataHash() { return dataHash; }
     public void setDataHash(String dataHash) { this.dataHash = dataHash; }
 
+    public Long getUltimaAlteracaoId() { return ultimaAlteracaoId; }
+    public void setUltimaAlteracaoId(Long ultimaAlteracaoId) { this.ultimaAlteracaoId = ultimaAlteracaoId; }
+
     /**
      * Gera um hash SHA-256 baseado nas informações do último scrapper com sucesso.
      * Este hash é usado pelo frontend para verificar se os dados mudaram.
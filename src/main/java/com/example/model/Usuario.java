@@ -44,8 +44,8 @@ public class Usuario{
 	@OnDelete(action = OnDeleteAction.CASCADE)
 	private Set<MapaCurricular> mapaCurricular = new HashSet<>();
 
-	@OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
-	@OnDelete(action = OnDeleteAction.CASCADE)
+	// Sem cascata: os comentários saem antes do usuário por ComentarioService.deletarDoUsuario
+	@OneToMany(mappedBy = "usuario")
 	private Set<Comentario> comentarios = new HashSet<>();
 
 	@Column(name = "is_admin")
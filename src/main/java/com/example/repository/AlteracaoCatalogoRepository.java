@@ -0,0 +1,23 @@
+package com.example.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.AlteracaoCatalogo;
+
+@Repository
+public interface AlteracaoCatalogoRepository extends JpaRepository<AlteracaoCatalogo, Long> {
+
+	@Query("SELECT COALESCE(MAX(a.id), 0) FROM AlteracaoCatalogo a")
+	long ultimoId();
+
+	/**
+	 * Alterações com id em (de, ate], na ordem em que aconteceram.
+	 */
+	@Query("SELECT a FROM AlteracaoCatalogo a WHERE a.id > :de AND a.id <= :ate ORDER BY a.id")
+	List<AlteracaoCatalogo> buscarIntervalo(@Param("de") long de, @Param("ate") long ate);
+}
@@ -1,9 +1,12 @@
 package com.example.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.model.ArquivoComentario;
+import com.example.model.Disciplina;
 
 /**
  * Repository consolidado para ArquivoComentario que herda diretamente de JpaRepository.
@@ -12,4 +15,31 @@ import com.example.model.ArquivoComentario;
 public interface ArquivoComentarioRepository extends JpaRepository<ArquivoComentario, Long> {
 
 	 java.util.List<ArquivoComentario> findByComentario_ComentarioId(Long comentarioId);
+
+	 /**
+	  * Anexos de todos os comentários da disciplina: [comentarioId, id, nomeOriginal, tipoMime, tamanho]
+	  */
+	 @Query("SELECT c.comentarioId, a.id, a.nomeOriginal, a.tipoMime, a.tamanho FROM ArquivoComentario a JOIN a.comentario c "
+	 		+ "WHERE c.disciplina = :disciplina ORDER BY a.id")
+	 java.util.List<Object[]> findLinhasPorDisciplina(@Param("disciplina") Disciplina disciplina);
+
+	 /**
+	  * Anexos dos comentários de uma thread, mesmas colunas de {@link #findLinhasPorDisciplina}
+	  */
+	 @Query("SELECT c.comentarioId, a.id, a.nomeOriginal, a.tipoMime, a.tamanho FROM ArquivoComentario a JOIN a.comentario c "
+	 		+ "WHERE c.rootId = :rootId ORDER BY a.id")
+	 java.util.List<Object[]> findLinhasPorThread(@Param("rootId") Long rootId);
+
+	 /**
+	  * Anexos de um conjunto de comentários, mesmas colunas de {@link #findLinhasPorDisciplina}
+	  */
+	 @Query("SELECT c.comentarioId, a.id, a.nomeOriginal, a.tipoMime, a.tamanho FROM ArquivoComentario a JOIN a.comentario c "
+	 		+ "WHERE c.comentarioId IN :ids ORDER BY a.id")
+	 java.util.List<Object[]> findLinhasPorComentarios(@Param("ids") java.util.Collection<Long> ids);
+
+	 /**
+	  * Caminhos no disco dos anexos de um comentário e de todas as respostas abaixo dele (path começa com {@code prefixo})
+	  */
+	 @Query("SELECT a.caminhoArquivo FROM ArquivoComentario a JOIN a.comentario c WHERE c.rootId = :rootId AND c.path LIKE :prefixo")
+	 java.util.List<String> findCaminhosDaSubarvore(@Param("rootId") Long rootId, @Param("prefixo") String prefixo);
 }
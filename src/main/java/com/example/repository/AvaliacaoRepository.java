@@ -1,5 +1,6 @@
 package com.example.repository;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Optional;
 import java.util.List;
@@ -46,5 +47,77 @@ public interface AvaliacaoRepository extends JpaRepository<Avaliacao, Long> {
 	  */
 	 List<Avaliacao> findByDisciplinaAndProfessorIsNull(Disciplina disciplina);
 
+	 /**
+	  * Quantidade de avaliações por código de disciplina ([codigo, count])
+	  */
+	 @Query("SELECT a.disciplina.codigo, COUNT(a) FROM Avaliacao a GROUP BY a.disciplina.codigo")
+	 List<Object[]> contarPorDisciplina();
+
+	 /**
+	  * Avaliações da disciplina sem carregar entidades, para a página da disciplina:
+	  * [id, professorId, nota, createdAt, email do usuário]
+	  */
+	 @Query("SELECT a.id, p.professorId, a.nota, a.createdAt, u.email FROM Avaliacao a JOIN a.usuario u LEFT JOIN a.professor p "
+	 		+ "WHERE a.disciplina = :disciplina ORDER BY a.createdAt DESC")
+	 List<Object[]> findLinhasPorDisciplina(@Param("disciplina") Disciplina disciplina);
+
+	 /**
+	  * Notas de um usuário, para descontar dos resumos antes de removê-lo: [disciplinaId, professorId, nota]
+	  */
+	 @Query("SELECT a.disciplina.disciplinaId, p.professorId, a.nota FROM Avaliacao a LEFT JOIN a.professor p WHERE a.usuario.email = :email")
+	 List<Object[]> findNotasDoUsuario(@Param("email") String email);
+
+	 /**
+	  * Grava a nota do usuário no contexto num único comando (PostgreSQL): insere ou, se já existir, troca a nota.
+	  * Retorna [id, nota anterior, inserida].
+	  * <p>A nota anterior é lida com {@code FOR UPDATE} antes do upsert (o CTE é materializado e entra no SELECT do
+	  * INSERT, então roda primeiro). Se outra transação está trocando a mesma nota (dois cliques rápidos, 3->4 e
+	  * 3->5), este comando espera o lock e, em READ COMMITTED, relê a versão confirmada: devolve 4, não o 3 do
+	  * snapshot, e o resumo não desconta o 3 duas vezes. Se outra transação inseriu a mesma avaliação e confirmou
+	  * enquanto este comando esperava, não havia linha para travar: a nota anterior vem nula com
+	  * {@code inserida = false}.</p>
+	  * @param professorId {@code null} para a avaliação da disciplina
+	  */
+	 @Query(nativeQuery = true, value = "WITH anterior AS MATERIALIZED ("
+	 		+ "SELECT nota FROM avaliacoes WHERE disciplina_disciplina_id = :disciplinaId AND user_email = :usuarioId "
+	 		+ "AND professor_professor_id IS NOT DISTINCT FROM CAST(:professorId AS VARCHAR) FOR UPDATE) "
+	 		+ "INSERT INTO avaliacoes AS a (disciplina_disciplina_id, user_email, professor_professor_id, nota, created_at) "
+	 		+ "SELECT :disciplinaId, :usuarioId, CAST(:professorId AS VARCHAR), :nota, :agora "
+	 		+ "FROM (VALUES (1)) v LEFT JOIN anterior ON true "
+	 		+ "ON CONFLICT (disciplina_disciplina_id, user_email, professor_professor_id) DO UPDATE SET nota = EXCLUDED.nota "
+	 		+ "RETURNING a.id, (SELECT nota FROM anterior), (a.xmax = 0)")
+	 List<Object[]> upsertNotaPostgres(@Param("disciplinaId") Long disciplinaId, @Param("usuarioId") Long usuarioId,
+	 		@Param("professorId") String professorId, @Param("nota") int nota, @Param("agora") Instant agora);
+
+	 /**
+	  * Equivalente H2 de {@link #upsertNotaPostgres}, com MERGE. Retorna [id, nota anterior] da linha alterada, ou
+	  * nada se a avaliação foi inserida (o H2 não devolve a linha antiga e a nova no mesmo comando). A linha antiga
+	  * é a que o MERGE travou e alterou, então uma troca concorrente já confirmada aparece como nota anterior.
+	  */
+	 @Query(nativeQuery = true, value = "SELECT id, nota FROM OLD TABLE (MERGE INTO avaliacoes a USING (VALUES ("
+	 		+ "CAST(:disciplinaId AS BIGINT), CAST(:usuarioId AS BIGINT), CAST(:professorId AS VARCHAR(50)), "
+	 		+ "CAST(:nota AS INTEGER), CAST(:agora AS TIMESTAMP(6) WITH TIME ZONE))) s(disciplina_id, usuario_id, professor_id, nota, created_at) "
+	 		+ "ON a.disciplina_disciplina_id = s.disciplina_id AND a.user_email = s.usuario_id "
+	 		+ "AND a.professor_professor_id IS NOT DISTINCT FROM s.professor_id "
+	 		+ "WHEN MATCHED THEN UPDATE SET nota = s.nota "
+	 		+ "WHEN NOT MATCHED THEN INSERT (disciplina_disciplina_id, user_email, professor_professor_id, nota, created_at) "
+	 		+ "VALUES (s.disciplina_id, s.usuario_id, s.professor_id, s.nota, s.created_at))")
+	 List<Object[]> upsertNotaH2(@Param("disciplinaId") Long disciplinaId, @Param("usuarioId") Long usuarioId,
+	 		@Param("professorId") String professorId, @Param("nota") int nota, @Param("agora") Instant agora);
+
+	 /**
+	  * Id da avaliação do usuário no contexto ({@code professorId} vazio para a avaliação da disciplina)
+	  */
+	 @Query("SELECT a.id FROM Avaliacao a LEFT JOIN a.professor p WHERE a.disciplina.disciplinaId = :disciplinaId "
+	 		+ "AND a.usuario.id = :usuarioId AND COALESCE(p.professorId, '') = :professorId")
+	 Optional<Long> findIdPorContexto(@Param("disciplinaId") Long disciplinaId, @Param("usuarioId") Long usuarioId,
+	 		@Param("professorId") String professorId);
+
+	 /**
+	  * Histograma das notas de um contexto ({@code professorId} vazio para a avaliação da disciplina): [nota, quantidade]
+	  */
+	 @Query("SELECT a.nota, COUNT(a) FROM Avaliacao a LEFT JOIN a.professor p WHERE a.disciplina.disciplinaId = :disciplinaId "
+	 		+ "AND COALESCE(p.professorId, '') = :professorId GROUP BY a.nota")
+	 List<Object[]> contarNotasPorContexto(@Param("disciplinaId") Long disciplinaId, @Param("professorId") String professorId);
 
 }
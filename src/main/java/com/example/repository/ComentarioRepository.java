@@ -1,11 +1,14 @@
 package com.example.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +16,7 @@ import org.springframework.stereotype.Repository;
 import com.example.model.Comentario;
 import com.example.model.Disciplina;
 import com.example.model.Professor;
+import com.example.model.Usuario;
 
 /**
  * Repository para Comentario - agora independente de Avaliacao.
@@ -20,6 +24,18 @@ import com.example.model.Professor;
 @Repository
 public interface ComentarioRepository extends JpaRepository<Comentario, Long> {
 
+	/**
+	 * Colunas das consultas da página da disciplina (sem carregar entidades nem as coleções de filhos e votos):
+	 * [id, texto, upVotes, downVotes, professorId, createdAt, email do usuário, isEdited, editedAt, paiId,
+	 * alarmante, denunciado, denunciasCount, descendentesCount]
+	 */
+	String COLUNAS_PAGINA = "c.comentarioId, c.texto, c.upVotes, c.downVotes, p.professorId, c.createdAt, u.email, "
+			+ "c.isEdited, c.editedAt, pai.comentarioId, c.alarmante, c.denunciado, c.denunciasCount, c.descendentesCount "
+			+ "FROM Comentario c JOIN c.usuario u JOIN c.professor p LEFT JOIN c.pai pai ";
+
+	// Saldo de votos do feed por score; os contadores são anuláveis em linhas antigas
+	String SALDO = "(COALESCE(c.upVotes, 0) - COALESCE(c.downVotes, 0))";
+
 	// ✅ Buscar comentários principais (sem pai) de uma disciplina (sem professor)
 	@Query("SELECT c FROM Comentario c WHERE c.disciplina = :disciplina AND c.professor IS NULL AND c.pai IS NULL")
 	List<Comentario> findByDisciplinaAndProfessorIsNullAndPaiIsNull(@Param("disciplina") Disciplina disciplina);
@@ -47,4 +63,210 @@ public interface ComentarioRepository extends JpaRepository<Comentario, Long> {
 	// ✅ Contar total de comentários principais
 	@Query("SELECT COUNT(c) FROM Comentario c WHERE c.pai IS NULL")
 	long countComentariosPrincipais();
+
+	// Quantidade de comentários (incluindo respostas) por código de disciplina ([codigo, count])
+	@Query("SELECT c.disciplina.codigo, COUNT(c) FROM Comentario c GROUP BY c.disciplina.codigo")
+	List<Object[]> contarPorDisciplina();
+
+	@Query("SELECT c.disciplina.codigo FROM Comentario c WHERE c.comentarioId = :id")
+	String findDisciplinaCodigo(@Param("id") Long id);
+
+	// Comentários principais da disciplina, mais recentes primeiro (mesma ordem do feed); colunas em COLUNAS_PAGINA
+	@Query("SELECT " + COLUNAS_PAGINA + "WHERE c.disciplina = :disciplina AND c.pai IS NULL "
+			+ "ORDER BY c.createdAt DESC, c.comentarioId DESC")
+	List<Object[]> findRaizesPagina(@Param("disciplina") Disciplina disciplina);
+
+	// Respostas (qualquer nível) das threads informadas, pelo índice (root_id, path)
+	@Query("SELECT " + COLUNAS_PAGINA + "WHERE c.rootId IN :rootIds AND c.pai IS NOT NULL ORDER BY c.path")
+	List<Object[]> findRespostasDasThreads(@Param("rootIds") Collection<Long> rootIds);
+
+	// Mesmas respostas como entidades, em pré-ordem (para quem monta o ComentarioDTO sem percorrer os filhos)
+	@Query("SELECT c FROM Comentario c JOIN FETCH c.usuario WHERE c.rootId IN :rootIds AND c.pai IS NOT NULL ORDER BY c.path")
+	List<Comentario> findRespostasDasThreadsEntidades(@Param("rootIds") Collection<Long> rootIds);
+
+	// Feed de comentários principais de um professor na disciplina, paginação por cursor (createdAt, id).
+	// Primeira página e páginas seguintes em consultas separadas para não passar parâmetros nulos sem tipo.
+	// Filtra pelo id da disciplina (não pelo código) para seguir o índice idx_comentarios_feed.
+	@Query("SELECT " + COLUNAS_PAGINA + "WHERE c.disciplina.disciplinaId = :disciplinaId AND p.professorId = :professorId AND c.pai IS NULL "
+			+ "ORDER BY c.createdAt DESC, c.comentarioId DESC")
+	List<Object[]> findFeedRecentes(@Param("disciplinaId") Long disciplinaId, @Param("professorId") String professorId, Pageable pageable);
+
+	@Query("SELECT " + COLUNAS_PAGINA + "WHERE c.disciplina.disciplinaId = :disciplinaId AND p.professorId = :professorId AND c.pai IS NULL "
+			+ "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.comentarioId < :id)) "
+			+ "ORDER BY c.createdAt DESC, c.comentarioId DESC")
+	List<Object[]> findFeedRecentesApos(@Param("disciplinaId") Long disciplinaId, @Param("professorId") String professorId,
+			@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	// Mesmo feed ordenado pelo saldo de votos, cursor (saldo, id)
+	@Query("SELECT " + COLUNAS_PAGINA + "WHERE c.disciplina.disciplinaId = :disciplinaId AND p.professorId = :professorId AND c.pai IS NULL "
+			+ "ORDER BY " + SALDO + " DESC, c.comentarioId DESC")
+	List<Object[]> findFeedScore(@Param("disciplinaId") Long disciplinaId, @Param("professorId") String professorId, Pageable pageable);
+
+	@Query("SELECT " + COLUNAS_PAGINA + "WHERE c.disciplina.disciplinaId = :disciplinaId AND p.professorId = :professorId AND c.pai IS NULL "
+			+ "AND (" + SALDO + " < :score OR (" + SALDO + " = :score AND c.comentarioId < :id)) "
+			+ "ORDER BY " + SALDO + " DESC, c.comentarioId DESC")
+	List<Object[]> findFeedScoreApos(@Param("disciplinaId") Long disciplinaId, @Param("professorId") String professorId,
+			@Param("score") int score, @Param("id") Long id, Pageable pageable);
+
+	// [rootId, path] do comentário
+	@Query("SELECT c.rootId, c.path FROM Comentario c WHERE c.comentarioId = :id")
+	List<Object[]> findHierarquia(@Param("id") Long id);
+
+	// Comentário e todas as respostas abaixo dele (path começa com o path dele), em pré-ordem
+	@Query("SELECT " + COLUNAS_PAGINA + "WHERE c.rootId = :rootId AND c.path LIKE :prefixo ORDER BY c.path")
+	List<Object[]> findSubarvorePagina(@Param("rootId") Long rootId, @Param("prefixo") String prefixo);
+
+	// Todas as respostas (qualquer nível) da disciplina: respostas herdam a disciplina do pai
+	@Query("SELECT " + COLUNAS_PAGINA + "WHERE c.disciplina = :disciplina AND c.pai IS NOT NULL ORDER BY c.path")
+	List<Object[]> findRespostasPagina(@Param("disciplina") Disciplina disciplina);
+
+	// Thread inteira (raiz e respostas) em pré-ordem, pelo índice (root_id, path); colunas em COLUNAS_PAGINA
+	@Query("SELECT " + COLUNAS_PAGINA + "WHERE c.rootId = :rootId ORDER BY c.path")
+	List<Object[]> findThreadPagina(@Param("rootId") Long rootId);
+
+	// Ids do comentário e de todas as respostas abaixo dele (path começa com o prefixo)
+	@Query("SELECT c.comentarioId FROM Comentario c WHERE c.rootId = :rootId AND c.path LIKE :prefixo")
+	List<Long> findIdsDaSubarvore(@Param("rootId") Long rootId, @Param("prefixo") String prefixo);
+
+	/**
+	 * Colunas do {@link com.example.DTO.AdminCommentDTO}, na ordem de {@code AdminCommentDTO.deLinha}: id, texto,
+	 * createdAt, alarmante, denunciado, denunciasCount, isEdited, editedAt, upVotes, downVotes, email, matrícula,
+	 * código e nome da disciplina, id e nome do professor (podem ser nulos) e descendentesCount.
+	 */
+	@Query("SELECT c.comentarioId, c.texto, c.createdAt, c.alarmante, c.denunciado, c.denunciasCount, c.isEdited, c.editedAt, "
+			+ "c.upVotes, c.downVotes, u.email, u.matricula, d.codigo, d.nome, p.professorId, p.nome, c.descendentesCount "
+			+ "FROM Comentario c JOIN c.usuario u JOIN c.disciplina d LEFT JOIN c.professor p WHERE c.comentarioId IN :ids")
+	List<Object[]> findLinhasAdmin(@Param("ids") Collection<Long> ids);
+
+	// [comentarioId, texto] de todos os comentários (incluindo respostas), para montar o índice da busca do admin
+	@Query("SELECT c.comentarioId, c.texto FROM Comentario c")
+	List<Object[]> findTextos();
+
+	// Ids dos comentários e respostas do usuário, com os de cima de cada thread antes das respostas abaixo deles
+	@Query("SELECT c.comentarioId FROM Comentario c WHERE c.usuario.email = :email ORDER BY c.rootId, c.path")
+	List<Long> findIdsDoUsuario(@Param("email") String email);
+
+	@Query("SELECT c.usuario.email FROM Comentario c WHERE c.comentarioId = :id")
+	String findAutorEmail(@Param("id") Long id);
+
+	// Autor do comentário, sem carregar o comentário
+	@Query("SELECT c.usuario FROM Comentario c WHERE c.comentarioId = :id")
+	Optional<Usuario> findAutor(@Param("id") Long id);
+
+	/**
+	 * Apaga o comentário e todas as respostas abaixo dele (path começa com {@code prefixo}) num comando. Votos,
+	 * denúncias e anexos saem pelo {@code ON DELETE CASCADE} das chaves (V12); retorna comentários removidos.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "DELETE FROM comentarios WHERE root_id = :rootId AND path LIKE :prefixo")
+	int excluirSubarvore(@Param("rootId") Long rootId, @Param("prefixo") String prefixo);
+
+	/**
+	 * O que uma resposta precisa do pai, sem carregá-lo (o que traria a subárvore inteira):
+	 * [disciplinaId, professorId, rootId, path, disciplinaCodigo]
+	 */
+	@Query("SELECT c.disciplina.disciplinaId, c.professor.professorId, c.rootId, c.path, c.disciplina.codigo "
+			+ "FROM Comentario c WHERE c.comentarioId = :id")
+	List<Object[]> findContextoResposta(@Param("id") Long id);
+
+	// Soma delta ao número de descendentes dos comentários informados (os ancestrais de uma resposta criada/removida)
+	@Modifying
+	@Query("UPDATE Comentario c SET c.descendentesCount = c.descendentesCount + :delta WHERE c.comentarioId IN :ids")
+	int ajustarDescendentes(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+	// Votos do usuário em um conjunto de comentários ([comentarioId, isUpvote]), sem carregar os votos dos outros
+	@Query("SELECT c.comentarioId, VALUE(v) FROM Comentario c JOIN c.votes v WHERE c.comentarioId IN :ids AND KEY(v) = :email")
+	List<Object[]> findVotosDoUsuario(@Param("ids") Collection<Long> ids, @Param("email") String email);
+
+	// Votos do usuário nos comentários da disciplina ([comentarioId, isUpvote])
+	@Query("SELECT c.comentarioId, VALUE(v) FROM Comentario c JOIN c.votes v WHERE c.disciplina = :disciplina AND KEY(v) = :email")
+	List<Object[]> findVotosDoUsuarioNaDisciplina(@Param("disciplina") Disciplina disciplina, @Param("email") String email);
+
+	// Votos do usuário nos comentários de uma thread ([comentarioId, isUpvote])
+	@Query("SELECT c.comentarioId, VALUE(v) FROM Comentario c JOIN c.votes v WHERE c.rootId = :rootId AND KEY(v) = :email")
+	List<Object[]> findVotosDoUsuarioNaThread(@Param("rootId") Long rootId, @Param("email") String email);
+
+	// ==================== Denúncias (sem carregar quem já denunciou) ====================
+
+	// Registra a denúncia do usuário se ele ainda não denunciou (PostgreSQL); retorna linhas inseridas
+	@Modifying
+	@Query(nativeQuery = true, value = "INSERT INTO comentario_denuncias (comentario_id, user_email) VALUES (:id, :email) "
+			+ "ON CONFLICT (comentario_id, user_email) DO NOTHING")
+	int inserirDenunciaPostgres(@Param("id") Long id, @Param("email") String email);
+
+	// Equivalente H2 de inserirDenunciaPostgres
+	@Modifying
+	@Query(nativeQuery = true, value = "MERGE INTO comentario_denuncias d USING (VALUES (CAST(:id AS BIGINT), "
+			+ "CAST(:email AS VARCHAR(255)))) s(comentario_id, user_email) "
+			+ "ON d.comentario_id = s.comentario_id AND d.user_email = s.user_email "
+			+ "WHEN NOT MATCHED THEN INSERT (comentario_id, user_email) VALUES (s.comentario_id, s.user_email)")
+	int inserirDenunciaH2(@Param("id") Long id, @Param("email") String email);
+
+	/**
+	 * Soma uma denúncia ao contador (relativo ao valor atual da linha) e, quando ele chega a {@code limite}, coloca o
+	 * comentário na fila de moderação (alarmante).
+	 */
+	@Modifying
+	@Query("UPDATE Comentario c SET c.denunciasCount = COALESCE(c.denunciasCount, 0) + 1, c.denunciado = true, "
+			+ "c.alarmante = CASE WHEN COALESCE(c.denunciasCount, 0) + 1 >= :limite THEN true ELSE c.alarmante END "
+			+ "WHERE c.comentarioId = :id")
+	int somarDenuncia(@Param("id") Long id, @Param("limite") int limite);
+
+	@Query("SELECT c.denunciasCount FROM Comentario c WHERE c.comentarioId = :id")
+	Integer findDenunciasCount(@Param("id") Long id);
+
+	// Coloca o comentário na fila de moderação sem carregá-lo (ex: ao receber um anexo); retorna linhas alteradas
+	@Modifying
+	@Query("UPDATE Comentario c SET c.alarmante = true WHERE c.comentarioId = :id")
+	int marcarAlarmante(@Param("id") Long id);
+
+	// ==================== Votos (comandos nativos, sem carregar o comentário) ====================
+
+	/**
+	 * Grava o voto do usuário se ele ainda não votou ou votou o contrário (PostgreSQL). Retorna [inserido]: true para
+	 * voto novo, false para voto invertido; nada se o voto já era igual (o clique desfaz o voto, ver
+	 * {@link #removerVotoIgual}).
+	 */
+	@Query(nativeQuery = true, value = "INSERT INTO comentario_votes AS v (comentario_id, user_email, is_upvote) "
+			+ "VALUES (:id, :email, :voto) ON CONFLICT (comentario_id, user_email) "
+			+ "DO UPDATE SET is_upvote = EXCLUDED.is_upvote WHERE v.is_upvote <> EXCLUDED.is_upvote "
+			+ "RETURNING (v.xmax = 0)")
+	List<Boolean> upsertVotoPostgres(@Param("id") Long id, @Param("email") String email, @Param("voto") boolean voto);
+
+	/**
+	 * Equivalente H2 de {@link #upsertVotoPostgres}, chamado depois de {@link #removerVotoIgual}: retorna o voto
+	 * anterior se ele foi invertido, nada se o voto foi inserido.
+	 */
+	@Query(nativeQuery = true, value = "SELECT is_upvote FROM OLD TABLE (MERGE INTO comentario_votes v USING (VALUES ("
+			+ "CAST(:id AS BIGINT), CAST(:email AS VARCHAR(255)), CAST(:voto AS BOOLEAN))) s(comentario_id, user_email, is_upvote) "
+			+ "ON v.comentario_id = s.comentario_id AND v.user_email = s.user_email "
+			+ "WHEN MATCHED THEN UPDATE SET is_upvote = s.is_upvote "
+			+ "WHEN NOT MATCHED THEN INSERT (comentario_id, user_email, is_upvote) VALUES (s.comentario_id, s.user_email, s.is_upvote))")
+	List<Boolean> mergeVotoH2(@Param("id") Long id, @Param("email") String email, @Param("voto") boolean voto);
+
+	// Desfaz o voto do usuário se ele for igual a :voto (clicar de novo no mesmo voto); retorna linhas removidas
+	@Modifying
+	@Query(nativeQuery = true, value = "DELETE FROM comentario_votes WHERE comentario_id = :id AND user_email = :email AND is_upvote = :voto")
+	int removerVotoIgual(@Param("id") Long id, @Param("email") String email, @Param("voto") boolean voto);
+
+	/**
+	 * Soma os deltas aos contadores de votos (relativo ao valor atual da linha) e retorna [upVotes, downVotes] já
+	 * atualizados (PostgreSQL).
+	 */
+	@Query(nativeQuery = true, value = "UPDATE comentarios SET up_votes = COALESCE(up_votes, 0) + :up, "
+			+ "down_votes = COALESCE(down_votes, 0) + :down WHERE comentario_id = :id RETURNING up_votes, down_votes")
+	List<Object[]> ajustarVotosPostgres(@Param("id") Long id, @Param("up") int up, @Param("down") int down);
+
+	// Equivalente H2 de ajustarVotosPostgres
+	@Query(nativeQuery = true, value = "SELECT up_votes, down_votes FROM FINAL TABLE (UPDATE comentarios SET "
+			+ "up_votes = COALESCE(up_votes, 0) + :up, down_votes = COALESCE(down_votes, 0) + :down WHERE comentario_id = :id)")
+	List<Object[]> ajustarVotosH2(@Param("id") Long id, @Param("up") int up, @Param("down") int down);
+
+	// Disciplina e contadores de votos do comentário, para o buffer de votos ([codigo, upVotes, downVotes])
+	@Query("SELECT d.codigo, c.upVotes, c.downVotes FROM Comentario c JOIN c.disciplina d WHERE c.comentarioId = :id")
+	List<Object[]> findCodigoEContadoresVotos(@Param("id") Long id);
+
+	// Contadores de votos do comentário ([upVotes, downVotes])
+	@Query("SELECT c.upVotes, c.downVotes FROM Comentario c WHERE c.comentarioId = :id")
+	List<Object[]> findContadoresVotos(@Param("id") Long id);
 }
@@ -8,6 +8,8 @@ import org.springframework.stereotype.Repository;
 import com.example.model.Disciplina;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,10 +18,22 @@ public interface DisciplinaRepository extends JpaRepository<Disciplina, Long> {
     @Query("SELECT d FROM Disciplina d WHERE LOWER(d.codigo) = LOWER(:codigo)")
     Optional<Disciplina> findByCodigo(@Param("codigo") String codigo);
 
+    @Query("SELECT d.disciplinaId FROM Disciplina d WHERE LOWER(d.codigo) = LOWER(:codigo)")
+    Optional<Long> findIdPorCodigo(@Param("codigo") String codigo);
+
     ArrayList<Disciplina> findByNome(String nome);
 
-    @Query("SELECT d FROM Disciplina d JOIN d.professorDisciplinas pd WHERE pd.professor.professorId = :professorId")
-    ArrayList<Disciplina> findByProfessor(@Param("professorId") String professorId);
+    /**
+     * Carrega todas as disciplinas já com os professores em uma única consulta (evita N+1 ao montar índices de busca).
+     */
+    @Query("SELECT DISTINCT d FROM Disciplina d LEFT JOIN FETCH d.professorDisciplinas pd LEFT JOIN FETCH pd.professor")
+    List<Disciplina> findAllComProfessores();
+
+    @Query("SELECT DISTINCT d FROM Disciplina d LEFT JOIN FETCH d.professorDisciplinas pd LEFT JOIN FETCH pd.professor WHERE d.codigo IN :codigos")
+    List<Disciplina> findAllComProfessoresByCodigoIn(@Param("codigos") Collection<String> codigos);
+
+    @Query("SELECT DISTINCT d FROM Disciplina d LEFT JOIN FETCH d.professorDisciplinas pd LEFT JOIN FETCH pd.professor WHERE LOWER(d.codigo) = LOWER(:codigo)")
+    Optional<Disciplina> findByCodigoComProfessores(@Param("codigo") String codigo);
 
     void deleteByCodigo(String codigo);
 
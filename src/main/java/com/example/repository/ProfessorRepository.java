@@ -1,10 +1,12 @@
 package com.example.repository;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.model.Professor;
@@ -14,4 +16,17 @@ import com.example.model.Professor;
  */
 @Repository
 public interface ProfessorRepository extends JpaRepository<Professor, String> {
+
+    /**
+     * Todos os professores com as disciplinas que lecionam, uma linha por vínculo:
+     * [professorId, nome, codigo da disciplina, nome da disciplina, ultimoSemestre].
+     * Professores sem disciplina aparecem com as colunas da disciplina nulas.
+     */
+    @Query("SELECT p.professorId, p.nome, d.codigo, d.nome, pd.ultimoSemestre FROM Professor p "
+            + "LEFT JOIN p.professorDisciplinas pd LEFT JOIN pd.disciplina d")
+    List<Object[]> findAllVinculos();
+
+    /** Códigos das disciplinas que o professor leciona. */
+    @Query("SELECT pd.disciplina.codigo FROM ProfessorDisciplina pd WHERE pd.professor.professorId = :professorId")
+    List<String> findCodigosDisciplinas(@Param("professorId") String professorId);
 }
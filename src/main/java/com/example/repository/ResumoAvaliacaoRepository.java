@@ -0,0 +1,81 @@
+package com.example.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.ResumoAvaliacao;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ResumoAvaliacaoRepository extends JpaRepository<ResumoAvaliacao, ResumoAvaliacao.Chave> {
+
+	/**
+	 * Troca a nota {@code antiga} pela {@code nova} no resumo, relativo ao valor atual da linha.
+	 * Nota 0 significa "nenhuma": antiga 0 é uma avaliação nova, nova 0 é uma avaliação removida.
+	 * @return linhas alteradas (0 se o resumo ainda não existe)
+	 */
+	@Modifying
+	@Query("UPDATE ResumoAvaliacao r SET r.soma = r.soma + :nova - :antiga, "
+			+ "r.total = r.total + (CASE WHEN :nova > 0 THEN 1 ELSE 0 END) - (CASE WHEN :antiga > 0 THEN 1 ELSE 0 END), "
+			+ "r.nota1 = r.nota1 + (CASE WHEN :nova = 1 THEN 1 ELSE 0 END) - (CASE WHEN :antiga = 1 THEN 1 ELSE 0 END), "
+			+ "r.nota2 = r.nota2 + (CASE WHEN :nova = 2 THEN 1 ELSE 0 END) - (CASE WHEN :antiga = 2 THEN 1 ELSE 0 END), "
+			+ "r.nota3 = r.nota3 + (CASE WHEN :nova = 3 THEN 1 ELSE 0 END) - (CASE WHEN :antiga = 3 THEN 1 ELSE 0 END), "
+			+ "r.nota4 = r.nota4 + (CASE WHEN :nova = 4 THEN 1 ELSE 0 END) - (CASE WHEN :antiga = 4 THEN 1 ELSE 0 END), "
+			+ "r.nota5 = r.nota5 + (CASE WHEN :nova = 5 THEN 1 ELSE 0 END) - (CASE WHEN :antiga = 5 THEN 1 ELSE 0 END) "
+			+ "WHERE r.chave.disciplinaId = :disciplinaId AND r.chave.professorId = :professorId")
+	int ajustar(@Param("disciplinaId") Long disciplinaId, @Param("professorId") String professorId,
+			@Param("antiga") int antiga, @Param("nova") int nova);
+
+	/**
+	 * Soma os deltas ao resumo do contexto, criando a linha se ela ainda não existe, num comando (PostgreSQL). Duas
+	 * primeiras notas simultâneas no mesmo contexto não colidem na chave primária: a segunda cai no {@code DO UPDATE}.
+	 * Com deltas zerados, só garante que a linha existe e a trava até o commit.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "INSERT INTO rating_summary AS r (disciplina_id, professor_id, soma, total, "
+			+ "nota_1, nota_2, nota_3, nota_4, nota_5) VALUES (:disciplinaId, :professorId, :soma, :total, :n1, :n2, :n3, :n4, :n5) "
+			+ "ON CONFLICT (disciplina_id, professor_id) DO UPDATE SET soma = r.soma + EXCLUDED.soma, "
+			+ "total = r.total + EXCLUDED.total, nota_1 = r.nota_1 + EXCLUDED.nota_1, nota_2 = r.nota_2 + EXCLUDED.nota_2, "
+			+ "nota_3 = r.nota_3 + EXCLUDED.nota_3, nota_4 = r.nota_4 + EXCLUDED.nota_4, nota_5 = r.nota_5 + EXCLUDED.nota_5")
+	int somarPostgres(@Param("disciplinaId") Long disciplinaId, @Param("professorId") String professorId,
+			@Param("soma") long soma, @Param("total") int total, @Param("n1") int n1, @Param("n2") int n2,
+			@Param("n3") int n3, @Param("n4") int n4, @Param("n5") int n5);
+
+	/**
+	 * Equivalente H2 de {@link #somarPostgres}, com MERGE.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "MERGE INTO rating_summary r USING (VALUES (CAST(:disciplinaId AS BIGINT), "
+			+ "CAST(:professorId AS VARCHAR(50)), CAST(:soma AS BIGINT), CAST(:total AS INTEGER), CAST(:n1 AS INTEGER), "
+			+ "CAST(:n2 AS INTEGER), CAST(:n3 AS INTEGER), CAST(:n4 AS INTEGER), CAST(:n5 AS INTEGER))) "
+			+ "s(disciplina_id, professor_id, soma, total, nota_1, nota_2, nota_3, nota_4, nota_5) "
+			+ "ON r.disciplina_id = s.disciplina_id AND r.professor_id = s.professor_id "
+			+ "WHEN MATCHED THEN UPDATE SET soma = r.soma + s.soma, total = r.total + s.total, nota_1 = r.nota_1 + s.nota_1, "
+			+ "nota_2 = r.nota_2 + s.nota_2, nota_3 = r.nota_3 + s.nota_3, nota_4 = r.nota_4 + s.nota_4, nota_5 = r.nota_5 + s.nota_5 "
+			+ "WHEN NOT MATCHED THEN INSERT (disciplina_id, professor_id, soma, total, nota_1, nota_2, nota_3, nota_4, nota_5) "
+			+ "VALUES (s.disciplina_id, s.professor_id, s.soma, s.total, s.nota_1, s.nota_2, s.nota_3, s.nota_4, s.nota_5)")
+	int somarH2(@Param("disciplinaId") Long disciplinaId, @Param("professorId") String professorId,
+			@Param("soma") long soma, @Param("total") int total, @Param("n1") int n1, @Param("n2") int n2,
+			@Param("n3") int n3, @Param("n4") int n4, @Param("n5") int n5);
+
+	/**
+	 * Trava a linha da disciplina até o commit. O MERGE do H2 não é atômico contra a inserção concorrente da mesma
+	 * chave (a segunda falha com chave duplicada), então {@link #somarH2} roda depois deste lock.
+	 */
+	@Query(nativeQuery = true, value = "SELECT disciplina_id FROM disciplinas WHERE disciplina_id = :disciplinaId FOR UPDATE")
+	Long travarDisciplinaH2(@Param("disciplinaId") Long disciplinaId);
+
+	/**
+	 * Lê o resumo com lock de escrita (SELECT ... FOR UPDATE), para recontá-lo sem que ajustes concorrentes se percam.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT r FROM ResumoAvaliacao r WHERE r.chave = :chave")
+	Optional<ResumoAvaliacao> travar(@Param("chave") ResumoAvaliacao.Chave chave);
+}
@@ -8,6 +8,10 @@ import com.example.model.ScrapperStatus;
 public interface ScrapperStatusRepository extends JpaRepository<ScrapperStatus, Long> {
     ScrapperStatus findFirstByOrderByIdDesc();
 
+    ScrapperStatus findFirstByDataHashIsNotNullOrderByIdDesc();
+
+    ScrapperStatus findFirstByDataHashOrderByIdDesc(String dataHash);
+
     default ScrapperStatus ultimoStatus(){
         return findFirstByOrderByIdDesc();
     }
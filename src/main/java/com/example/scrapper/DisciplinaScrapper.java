@@ -17,6 +17,7 @@ import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.example.model.Disciplina;
@@ -60,6 +61,9 @@ public class DisciplinaScrapper {
 
     @Autowired
     private ScrapperStatusService scrapperStatusService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     // Sets para evitar duplicatas
     
@@ -145,6 +149,9 @@ public class DisciplinaScrapper {
 						// Atualiza status de sucesso
                 scrapperStatusService.marcarFimExecucao(true, result.getNumDisciplinasSalvas(), result.getNumProfessoresSalvos(), null);
 
+                // Avisa quem mantém dados derivados do catálogo (índice de busca, caches) para se reconstruir
+                eventPublisher.publishEvent(new ScrapingConcluidoEvent(administrador, result.getNumDisciplinasSalvas(), result.getNumProfessoresSalvos()));
+
             } catch (Exception e) {
                 logger.error("Erro durante o scraping", e);
                 scrapperStatusService.marcarFimExecucao(false, 0, 0, "Erro durante o scraping: " + e.getMessage());
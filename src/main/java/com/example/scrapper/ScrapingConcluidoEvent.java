@@ -0,0 +1,7 @@
+package com.example.scrapper;
+
+/**
+ * Evento publicado pelo {@link DisciplinaScrapper} ao final de uma execução bem-sucedida.
+ * Serviços que mantêm dados derivados do catálogo (índices de busca, caches) escutam esse evento para se reconstruir.
+ */
+public record ScrapingConcluidoEvent(String administrador, int disciplinasCapturadas, int professoresCapturados) {}
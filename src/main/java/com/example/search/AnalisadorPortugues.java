@@ -0,0 +1,88 @@
+package com.example.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Quebra um texto em português nos termos usados pelo {@link IndiceComentarios}.
+ * <p>O texto passa pelo {@link NormalizadorTexto} (sem acento, minúsculo), as palavras vazias ("de", "que", "não"...)
+ * e as de uma letra saem, e cada palavra é reduzida por um stemmer leve, baseado só em sufixos: plural, terminações
+ * verbais e nominais mais comuns, grau (diminutivo, aumentativo, superlativo) e advérbio em "-mente". O objetivo é que
+ * "prova", "provas" e "provão" ou "avaliação", "avaliações" e "avaliar" caiam no mesmo termo, não fazer análise
+ * morfológica: o mesmo analisador roda no texto e na consulta, então os erros de um lado são os mesmos do outro.</p>
+ */
+public final class AnalisadorPortugues {
+
+	private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+			"a", "ao", "aos", "as", "at", "com", "como", "da", "das", "de", "dele", "dela", "do", "dos", "e", "ela",
+			"ele", "em", "entre", "era", "essa", "esse", "esta", "este", "eu", "foi", "ha", "isso", "isto", "ja",
+			"lhe", "mais", "mas", "me", "mesmo", "meu", "minha", "muito", "na", "nao", "nas", "nem", "no", "nos",
+			"num", "numa", "o", "os", "ou", "para", "pela", "pelas", "pelo", "pelos", "por", "pra", "qual", "quando",
+			"que", "quem", "se", "sem", "ser", "seu", "sua", "so", "sao", "tambem", "te", "tem", "ter", "um", "uma",
+			"uns", "umas", "vai", "voce");
+
+	// Tamanho mínimo do radical depois de tirar um sufixo ("mes" não vira "m")
+	private static final int RADICAL_MINIMO = 3;
+
+	/** {sufixo, substituição}, do mais longo para o mais curto dentro de cada etapa. */
+	private static final String[][] PLURAL = {
+			{ "oes", "ao" }, { "aes", "ao" }, { "ais", "al" }, { "eis", "il" }, { "ois", "ol" }, { "res", "r" },
+			{ "zes", "z" }, { "ns", "m" }, { "s", "" } };
+	private static final String[][] GRAU_E_ADVERBIO = {
+			{ "zinho", "" }, { "zinha", "" }, { "inho", "" }, { "inha", "" }, { "issimo", "" }, { "issima", "" },
+			{ "mente", "" }, { "zao", "" }, { "ao", "" } };
+	private static final String[][] TERMINACOES = {
+			{ "amento", "" }, { "imento", "" }, { "acao", "" }, { "icao", "" }, { "avel", "" }, { "ivel", "" },
+			{ "ando", "" }, { "endo", "" }, { "indo", "" }, { "aram", "" }, { "eram", "" }, { "iram", "" },
+			{ "avam", "" }, { "ado", "" }, { "ada", "" }, { "ido", "" }, { "ida", "" }, { "ava", "" }, { "ar", "" },
+			{ "er", "" }, { "ir", "" } };
+
+	private AnalisadorPortugues() {}
+
+	/** Termos do texto, na ordem em que aparecem (com repetições). */
+	public static List<String> termos(String texto) {
+		String normalizado = NormalizadorTexto.normalizar(texto);
+		if (normalizado.isEmpty()) {
+			return List.of();
+		}
+		String[] palavras = normalizado.split(" ");
+		List<String> termos = new ArrayList<>(palavras.length);
+		for (String p : palavras) {
+			if (p.length() > 1 && !PALAVRAS_VAZIAS.contains(p)) {
+				termos.add(radical(p));
+			}
+		}
+		return termos;
+	}
+
+	/** Radical de uma palavra já normalizada. */
+	public static String radical(String palavra) {
+		if (palavra.length() <= RADICAL_MINIMO || !Character.isLetter(palavra.charAt(palavra.length() - 1))) {
+			return palavra;
+		}
+		String p = palavra;
+		if (!p.endsWith("ss") && !p.endsWith("us")) {
+			p = aplicar(p, PLURAL);
+		}
+		// Terminações antes do grau, para "-ção" não ser lido como aumentativo "-ão"
+		p = aplicar(p, TERMINACOES);
+		p = aplicar(p, GRAU_E_ADVERBIO);
+		// Vogal temática final: "prova"/"provo", "professor"/"professora"
+		char ultima = p.charAt(p.length() - 1);
+		if (p.length() > RADICAL_MINIMO && (ultima == 'a' || ultima == 'e' || ultima == 'o')) {
+			p = p.substring(0, p.length() - 1);
+		}
+		return p;
+	}
+
+	private static String aplicar(String palavra, String[][] regras) {
+		for (String[] regra : regras) {
+			String sufixo = regra[0];
+			if (palavra.endsWith(sufixo) && palavra.length() - sufixo.length() + regra[1].length() >= RADICAL_MINIMO) {
+				return palavra.substring(0, palavra.length() - sufixo.length()) + regra[1];
+			}
+		}
+		return palavra;
+	}
+}
@@ -0,0 +1,220 @@
+package com.example.search;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Autômato de Aho-Corasick sobre uma lista de termos, para achar qualquer um deles num texto em uma única passada.
+ * <p>O texto é comparado dobrado do mesmo jeito que o {@link NormalizadorTexto} faz com os termos (sem acento,
+ * minúsculo, separadores viram um espaço), mas a dobra é feita caractere a caractere por tabela durante a varredura,
+ * então {@link #encontrar(CharSequence)} não aloca nada. Os termos casam por palavra inteira ("cu" não casa em
+ * "documento"); um termo terminado em {@code *} casa também como prefixo de palavra ("idiot*" pega "idiotas").</p>
+ * <p>A tabela de transições é completa (um DFA), então cada caractere custa um acesso a array, independente do
+ * número de termos. A instância é imutável: para trocar o dicionário, compila-se outra.</p>
+ */
+public final class AutomatoTermos {
+
+	/** Símbolos: 0 = qualquer letra/dígito fora de a-z0-9, 1 = separador, 2..37 = a-z e 0-9. */
+	private static final int OUTRO = 0;
+	private static final int ESPACO = 1;
+	private static final int ALFABETO = 38;
+
+	/** Caractere -> símbolo, já com acento removido e minúsculo. */
+	private static final byte[] SIMBOLOS = new byte[Character.MAX_VALUE + 1];
+
+	static {
+		for (int c = 0; c <= Character.MAX_VALUE; c++) {
+			SIMBOLOS[c] = (byte) simboloDe((char) c);
+		}
+	}
+
+	private static int simboloDe(char c) {
+		if (!Character.isLetterOrDigit(c)) {
+			return ESPACO;
+		}
+		char dobrado = Character.toLowerCase(c);
+		if (c < 0x0250) {
+			String semAcento = NormalizadorTexto.normalizar(String.valueOf(c));
+			if (semAcento.length() == 1) {
+				dobrado = semAcento.charAt(0);
+			}
+		}
+		if (dobrado >= 'a' && dobrado <= 'z') {
+			return 2 + (dobrado - 'a');
+		}
+		if (dobrado >= '0' && dobrado <= '9') {
+			return 2 + 26 + (dobrado - '0');
+		}
+		return OUTRO;
+	}
+
+	private final String[] termos;
+	/** transicoes[estado * ALFABETO + simbolo] = próximo estado. */
+	private final int[] transicoes;
+	/** Índice do termo reconhecido ao chegar no estado (direto ou por sufixo), ou -1. */
+	private final int[] saida;
+
+	private AutomatoTermos(String[] termos, int[] transicoes, int[] saida) {
+		this.termos = termos;
+		this.transicoes = transicoes;
+		this.saida = saida;
+	}
+
+	public static AutomatoTermos vazio() {
+		return compilar(List.of());
+	}
+
+	/**
+	 * Compila o autômato. Termos são normalizados; vazios, repetidos e com caracteres fora de a-z0-9 depois da
+	 * normalização (ex: outros alfabetos) são ignorados.
+	 */
+	public static AutomatoTermos compilar(List<String> termosOriginais) {
+		Set<String> validos = new LinkedHashSet<>();
+		for (String t : termosOriginais) {
+			String termo = normalizarTermo(t);
+			if (termo != null) {
+				validos.add(termo);
+			}
+		}
+		String[] termos = validos.toArray(String[]::new);
+
+		// Trie: cada termo vira " termo " (palavra inteira) ou " termo" (prefixo)
+		int maxEstados = 1;
+		for (String t : termos) {
+			maxEstados += t.length() + 2;
+		}
+		int[] trie = new int[maxEstados * ALFABETO];
+		int[] saida = new int[maxEstados];
+		Arrays.fill(saida, -1);
+		int estados = 1;
+		for (int i = 0; i < termos.length; i++) {
+			String t = termos[i];
+			boolean prefixo = t.endsWith("*");
+			String padrao = " " + (prefixo ? t.substring(0, t.length() - 1) : t + " ");
+			int estado = 0;
+			for (int k = 0; k < padrao.length(); k++) {
+				int s = SIMBOLOS[padrao.charAt(k)];
+				int proximo = trie[estado * ALFABETO + s];
+				if (proximo == 0) {
+					proximo = estados++;
+					trie[estado * ALFABETO + s] = proximo;
+				}
+				estado = proximo;
+			}
+			if (saida[estado] < 0) {
+				saida[estado] = i;
+			}
+		}
+
+		// Links de falha em largura, completando as transições ausentes (DFA)
+		int[] transicoes = Arrays.copyOf(trie, estados * ALFABETO);
+		int[] falha = new int[estados];
+		int[] saidaFinal = Arrays.copyOf(saida, estados);
+		ArrayDeque<Integer> fila = new ArrayDeque<>();
+		for (int s = 0; s < ALFABETO; s++) {
+			int filho = transicoes[s];
+			if (filho != 0) {
+				falha[filho] = 0;
+				fila.add(filho);
+			}
+		}
+		while (!fila.isEmpty()) {
+			int estado = fila.poll();
+			if (saidaFinal[estado] < 0) {
+				saidaFinal[estado] = saidaFinal[falha[estado]];
+			}
+			for (int s = 0; s < ALFABETO; s++) {
+				int filho = transicoes[estado * ALFABETO + s];
+				int viaFalha = transicoes[falha[estado] * ALFABETO + s];
+				if (filho != 0) {
+					falha[filho] = viaFalha;
+					fila.add(filho);
+				} else {
+					transicoes[estado * ALFABETO + s] = viaFalha;
+				}
+			}
+		}
+		return new AutomatoTermos(termos, transicoes, saidaFinal);
+	}
+
+	/** Forma normalizada do termo (com o {@code *} final, se houver), ou null se não pode ser usado. */
+	public static String normalizarTermo(String termo) {
+		if (termo == null) {
+			return null;
+		}
+		String bruto = termo.strip();
+		boolean prefixo = bruto.endsWith("*");
+		String t = NormalizadorTexto.normalizar(prefixo ? bruto.substring(0, bruto.length() - 1) : bruto);
+		if (t.isEmpty()) {
+			return null;
+		}
+		for (int k = 0; k < t.length(); k++) {
+			char c = t.charAt(k);
+			if (c != ' ' && SIMBOLOS[c] == OUTRO) {
+				return null;
+			}
+		}
+		return prefixo ? t + "*" : t;
+	}
+
+	/**
+	 * Primeiro termo encontrado no texto.
+	 * @return índice do termo (ver {@link #getTermo(int)}), ou -1 se nenhum aparece
+	 */
+	public int encontrar(CharSequence texto) {
+		if (texto == null || termos.length == 0) {
+			return -1;
+		}
+		// O texto começa e termina com um separador virtual, e separadores seguidos contam como um só
+		int estado = transicoes[ESPACO];
+		boolean anteriorEspaco = true;
+		for (int i = 0, n = texto.length(); i < n; i++) {
+			int s = SIMBOLOS[texto.charAt(i)];
+			if (s == ESPACO) {
+				if (anteriorEspaco) {
+					continue;
+				}
+				anteriorEspaco = true;
+			} else {
+				anteriorEspaco = false;
+			}
+			estado = transicoes[estado * ALFABETO + s];
+			if (saida[estado] >= 0) {
+				return saida[estado];
+			}
+		}
+		if (!anteriorEspaco) {
+			estado = transicoes[estado * ALFABETO + ESPACO];
+		}
+		return saida[estado];
+	}
+
+	public boolean contemAlgum(CharSequence texto) {
+		return encontrar(texto) >= 0;
+	}
+
+	public String getTermo(int indice) {
+		return termos[indice];
+	}
+
+	/** Termos normalizados, na ordem em que foram compilados. */
+	public List<String> getTermos() {
+		return new ArrayList<>(Arrays.asList(termos));
+	}
+
+	public int getNumTermos() {
+		return termos.length;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "AutomatoTermos[%d termos, %d estados]", termos.length,
+				transicoes.length / ALFABETO);
+	}
+}
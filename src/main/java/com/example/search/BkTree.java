@@ -0,0 +1,131 @@
+package com.example.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * BK-tree (Burkhard-Keller) sobre um vocabulário de palavras, com a distância de {@link Levenshtein}.
+ * <p>Cada filho é indexado pela distância até o pai. Pela desigualdade triangular, ao buscar palavras a no máximo
+ * {@code k} edições da consulta só é preciso descer nos filhos com distância em {@code [d - k, d + k]}, onde {@code d}
+ * é a distância entre a consulta e o nó. Para {@code k} pequeno isso visita uma fração pequena do vocabulário.</p>
+ * <p>Imutável depois de construída.</p>
+ */
+public final class BkTree {
+
+	/** Palavra encontrada. {@code id} é a posição da palavra na coleção usada para construir a árvore. */
+	public record Match(String palavra, int id, int distancia) {}
+
+	private static final class No {
+		final String palavra;
+		final int id;
+		// Distâncias e filhos em arrays paralelos, ordenados pela distância
+		int[] distancias = new int[0];
+		No[] filhos = new No[0];
+
+		No(String palavra, int id) {
+			this.palavra = palavra;
+			this.id = id;
+		}
+
+		No filho(int distancia) {
+			int i = Arrays.binarySearch(distancias, distancia);
+			return i >= 0 ? filhos[i] : null;
+		}
+
+		void adicionarFilho(int distancia, No filho) {
+			int i = -(Arrays.binarySearch(distancias, distancia) + 1);
+			int[] novasDistancias = new int[distancias.length + 1];
+			No[] novosFilhos = new No[filhos.length + 1];
+			System.arraycopy(distancias, 0, novasDistancias, 0, i);
+			System.arraycopy(filhos, 0, novosFilhos, 0, i);
+			novasDistancias[i] = distancia;
+			novosFilhos[i] = filho;
+			System.arraycopy(distancias, i, novasDistancias, i + 1, distancias.length - i);
+			System.arraycopy(filhos, i, novosFilhos, i + 1, filhos.length - i);
+			distancias = novasDistancias;
+			filhos = novosFilhos;
+		}
+	}
+
+	private final No raiz;
+	private final int tamanho;
+	private final int maiorPalavra;
+
+	/**
+	 * @param palavras vocabulário; palavras repetidas são ignoradas (fica o id da primeira ocorrência)
+	 */
+	public BkTree(Collection<String> palavras) {
+		No r = null;
+		int id = 0;
+		int inseridas = 0;
+		int maior = 0;
+		for (String palavra : palavras) {
+			maior = Math.max(maior, palavra.length());
+			if (r == null) {
+				r = new No(palavra, id);
+				inseridas++;
+			} else if (inserir(r, palavra, id)) {
+				inseridas++;
+			}
+			id++;
+		}
+		this.raiz = r;
+		this.tamanho = inseridas;
+		this.maiorPalavra = maior;
+	}
+
+	public int getTamanho() { return tamanho; }
+
+	private static boolean inserir(No raiz, String palavra, int id) {
+		No no = raiz;
+		while (true) {
+			int d = Levenshtein.distancia(palavra, no.palavra);
+			if (d == 0) {
+				return false;
+			}
+			No filho = no.filho(d);
+			if (filho == null) {
+				no.adicionarFilho(d, new No(palavra, id));
+				return true;
+			}
+			no = filho;
+		}
+	}
+
+	/**
+	 * Todas as palavras a no máximo {@code maxDistancia} edições da consulta (sem ordem definida).
+	 */
+	public List<Match> buscar(String consulta, int maxDistancia) {
+		List<Match> resultado = new ArrayList<>();
+		if (raiz == null) {
+			return resultado;
+		}
+		Deque<No> pendentes = new ArrayDeque<>();
+		pendentes.push(raiz);
+		int[] linhaA = new int[maiorPalavra + 1];
+		int[] linhaB = new int[maiorPalavra + 1];
+		while (!pendentes.isEmpty()) {
+			No no = pendentes.pop();
+			int[] distancias = no.distancias;
+			// Só precisamos da distância exata se ela puder selecionar algum filho (ou o próprio nó);
+			// acima de maiorFilho + k nenhum filho fica no intervalo [d - k, d + k]
+			int maiorFilho = distancias.length > 0 ? distancias[distancias.length - 1] : 0;
+			int d = Levenshtein.distanciaLimitada(consulta, no.palavra, maiorFilho + maxDistancia, linhaA, linhaB);
+			if (d <= maxDistancia) {
+				resultado.add(new Match(no.palavra, no.id, d));
+			}
+			int min = d - maxDistancia, max = d + maxDistancia;
+			for (int i = 0; i < distancias.length; i++) {
+				if (distancias[i] > max) break;
+				if (distancias[i] >= min) {
+					pendentes.push(no.filhos[i]);
+				}
+			}
+		}
+		return resultado;
+	}
+}
@@ -0,0 +1,199 @@
+package com.example.search;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.DTO.CatalogoCompactoDTO;
+import com.example.DTO.CatalogoCompactoDTO.DisciplinaCompacta;
+import com.example.DTO.CatalogoCompactoDTO.ProfessorCompacto;
+import com.example.DTO.DisciplinaSearchDTO;
+import com.example.DTO.ProfessorDTO;
+
+/**
+ * Conversão do catálogo da barra de pesquisa para o formato compacto ({@link CatalogoCompactoDTO}) e para a
+ * versão binária dele.
+ * <p>Formato binário (todos os inteiros são varints LEB128 sem sinal, strings são tamanho em bytes + UTF-8):</p>
+ * <pre>
+ * 'A' 'V' 'C' versao
+ * nProfessores { professorId nome }*
+ * nDisciplinas { codigo nome nIndices { delta }* }*
+ * </pre>
+ * <p>Os índices de professor de cada disciplina são crescentes e gravados como diferença do anterior, então quase
+ * sempre cabem em um ou dois bytes.</p>
+ */
+public final class CatalogoCompacto {
+
+	public static final String MEDIA_TYPE_JSON = "application/vnd.avaliaufsc.catalogo+json";
+	public static final String MEDIA_TYPE_BINARIO = "application/vnd.avaliaufsc.catalogo";
+
+	private static final byte[] MAGICO = { 'A', 'V', 'C' };
+
+	private CatalogoCompacto() {}
+
+	/**
+	 * Monta a tabela de professores (na ordem em que aparecem) e troca cada professor pelo seu índice.
+	 */
+	public static CatalogoCompactoDTO compactar(List<DisciplinaSearchDTO> disciplinas) {
+		Map<String, Integer> indicePorId = new HashMap<>();
+		List<ProfessorCompacto> professores = new ArrayList<>();
+		List<DisciplinaCompacta> compactas = new ArrayList<>(disciplinas.size());
+
+		for (DisciplinaSearchDTO d : disciplinas) {
+			int[] indices = new int[d.professores().size()];
+			int n = 0;
+			for (ProfessorDTO p : d.professores()) {
+				Integer indice = indicePorId.get(p.professorId());
+				if (indice == null) {
+					indice = professores.size();
+					indicePorId.put(p.professorId(), indice);
+					professores.add(new ProfessorCompacto(p.professorId(), p.nome()));
+				}
+				indices[n++] = indice;
+			}
+			Arrays.sort(indices);
+			compactas.add(new DisciplinaCompacta(d.codigo(), d.nome(), indices));
+		}
+		return new CatalogoCompactoDTO(CatalogoCompactoDTO.VERSAO_ATUAL, professores, compactas);
+	}
+
+	/**
+	 * Inverso de {@link #compactar(List)}.
+	 */
+	public static List<DisciplinaSearchDTO> expandir(CatalogoCompactoDTO catalogo) {
+		ProfessorDTO[] professores = new ProfessorDTO[catalogo.professores().size()];
+		for (int i = 0; i < professores.length; i++) {
+			ProfessorCompacto p = catalogo.professores().get(i);
+			professores[i] = new ProfessorDTO(p.nome(), p.professorId(), null);
+		}
+		List<DisciplinaSearchDTO> disciplinas = new ArrayList<>(catalogo.disciplinas().size());
+		for (DisciplinaCompacta d : catalogo.disciplinas()) {
+			Set<ProfessorDTO> profs = new LinkedHashSet<>();
+			for (int indice : d.professores()) {
+				profs.add(professores[indice]);
+			}
+			disciplinas.add(new DisciplinaSearchDTO(d.codigo(), d.nome(), profs));
+		}
+		return disciplinas;
+	}
+
+	public static byte[] codificarBinario(CatalogoCompactoDTO catalogo) {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream(64 * 1024);
+		saida.writeBytes(MAGICO);
+		saida.write(catalogo.versao());
+
+		escreverVarint(saida, catalogo.professores().size());
+		for (ProfessorCompacto p : catalogo.professores()) {
+			escreverString(saida, p.professorId());
+			escreverString(saida, p.nome());
+		}
+
+		escreverVarint(saida, catalogo.disciplinas().size());
+		for (DisciplinaCompacta d : catalogo.disciplinas()) {
+			escreverString(saida, d.codigo());
+			escreverString(saida, d.nome());
+			escreverVarint(saida, d.professores().length);
+			int anterior = 0;
+			for (int indice : d.professores()) {
+				escreverVarint(saida, indice - anterior);
+				anterior = indice;
+			}
+		}
+		return saida.toByteArray();
+	}
+
+	/**
+	 * @throws IllegalArgumentException se os bytes não estiverem no formato esperado
+	 */
+	public static CatalogoCompactoDTO decodificarBinario(byte[] dados) {
+		Leitor leitor = new Leitor(dados);
+		for (byte b : MAGICO) {
+			if (leitor.lerByte() != b) {
+				throw new IllegalArgumentException("Cabeçalho do catálogo binário inválido");
+			}
+		}
+		int versao = leitor.lerByte();
+		if (versao != CatalogoCompactoDTO.VERSAO_ATUAL) {
+			throw new IllegalArgumentException("Versão do catálogo binário não suportada: " + versao);
+		}
+
+		int nProfessores = leitor.lerVarint();
+		List<ProfessorCompacto> professores = new ArrayList<>(nProfessores);
+		for (int i = 0; i < nProfessores; i++) {
+			professores.add(new ProfessorCompacto(leitor.lerString(), leitor.lerString()));
+		}
+
+		int nDisciplinas = leitor.lerVarint();
+		List<DisciplinaCompacta> disciplinas = new ArrayList<>(nDisciplinas);
+		for (int i = 0; i < nDisciplinas; i++) {
+			String codigo = leitor.lerString();
+			String nome = leitor.lerString();
+			int[] indices = new int[leitor.lerVarint()];
+			int anterior = 0;
+			for (int j = 0; j < indices.length; j++) {
+				anterior += leitor.lerVarint();
+				indices[j] = anterior;
+			}
+			disciplinas.add(new DisciplinaCompacta(codigo, nome, indices));
+		}
+		return new CatalogoCompactoDTO(versao, professores, disciplinas);
+	}
+
+	private static void escreverVarint(ByteArrayOutputStream saida, int valor) {
+		while ((valor & ~0x7F) != 0) {
+			saida.write((valor & 0x7F) | 0x80);
+			valor >>>= 7;
+		}
+		saida.write(valor);
+	}
+
+	private static void escreverString(ByteArrayOutputStream saida, String texto) {
+		byte[] bytes = (texto != null ? texto : "").getBytes(StandardCharsets.UTF_8);
+		escreverVarint(saida, bytes.length);
+		saida.writeBytes(bytes);
+	}
+
+	private static final class Leitor {
+		private final byte[] dados;
+		private int pos;
+
+		Leitor(byte[] dados) {
+			this.dados = dados;
+		}
+
+		int lerByte() {
+			if (pos >= dados.length) {
+				throw new IllegalArgumentException("Catálogo binário truncado");
+			}
+			return dados[pos++];
+		}
+
+		int lerVarint() {
+			int valor = 0;
+			for (int deslocamento = 0; deslocamento < 32; deslocamento += 7) {
+				int b = lerByte();
+				valor |= (b & 0x7F) << deslocamento;
+				if ((b & 0x80) == 0) {
+					return valor;
+				}
+			}
+			throw new IllegalArgumentException("Varint inválido no catálogo binário");
+		}
+
+		String lerString() {
+			int tamanho = lerVarint();
+			if (tamanho < 0 || pos + tamanho > dados.length) {
+				throw new IllegalArgumentException("Catálogo binário truncado");
+			}
+			String texto = new String(dados, pos, tamanho, StandardCharsets.UTF_8);
+			pos += tamanho;
+			return texto;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Termos mais frequentes de um fluxo com memória limitada (algoritmo Space-Saving, Metwally et al.).
+ * <p>Guarda no máximo {@code capacidade} contadores. Quando chega um termo novo com a tabela cheia, ele herda o
+ * contador do menos frequente (que sai) e a contagem herdada fica registrada como erro máximo. Qualquer termo com
+ * frequência real acima de {@code total / capacidade} está garantidamente na tabela.</p>
+ */
+public final class HeavyHitters {
+
+	/** Termo com a contagem estimada; a frequência real está entre {@code contagem - erro} e {@code contagem}. */
+	public record Termo(String termo, long contagem, long erro) {}
+
+	private static final class Contador {
+		long contagem;
+		long erro;
+
+		Contador(long contagem, long erro) {
+			this.contagem = contagem;
+			this.erro = erro;
+		}
+	}
+
+	private final int capacidade;
+	private final Map<String, Contador> contadores;
+
+	public HeavyHitters(int capacidade) {
+		this.capacidade = Math.max(1, capacidade);
+		this.contadores = new HashMap<>(this.capacidade * 2);
+	}
+
+	public synchronized void registrar(String termo) {
+		Contador c = contadores.get(termo);
+		if (c != null) {
+			c.contagem++;
+			return;
+		}
+		if (contadores.size() < capacidade) {
+			contadores.put(termo, new Contador(1, 0));
+			return;
+		}
+		// Varredura linear pelo mínimo: a capacidade é pequena (centenas) e isso só ocorre para termos novos
+		String menor = null;
+		long minimo = Long.MAX_VALUE;
+		for (Map.Entry<String, Contador> e : contadores.entrySet()) {
+			if (e.getValue().contagem < minimo) {
+				minimo = e.getValue().contagem;
+				menor = e.getKey();
+			}
+		}
+		contadores.remove(menor);
+		contadores.put(termo, new Contador(minimo + 1, minimo));
+	}
+
+	/** Os {@code n} termos com maior contagem estimada. */
+	public synchronized List<Termo> topo(int n) {
+		List<Termo> termos = new ArrayList<>(contadores.size());
+		for (Map.Entry<String, Contador> e : contadores.entrySet()) {
+			termos.add(new Termo(e.getKey(), e.getValue().contagem, e.getValue().erro));
+		}
+		termos.sort((a, b) -> a.contagem() != b.contagem()
+				? Long.compare(b.contagem(), a.contagem())
+				: a.termo().compareTo(b.termo()));
+		return termos.size() > n ? List.copyOf(termos.subList(0, n)) : termos;
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.search;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma log-linear no estilo do HdrHistogram, com memória fixa e registro sem lock.
+ * <p>Valores abaixo de {@code 2^BITS_SUB} têm um bucket cada; acima disso cada potência de 2 é dividida em
+ * {@code 2^BITS_SUB} buckets iguais, então o erro relativo de qualquer percentil fica abaixo de 1/32 (~3%).
+ * Valores acima de {@code valorMaximo} são contados no último bucket.</p>
+ */
+public final class Histograma {
+
+	private static final int BITS_SUB = 5;
+	private static final int SUB = 1 << BITS_SUB;
+
+	/** Resumo de um instante do histograma. Percentis são o maior valor do bucket que os contém. */
+	public record Resumo(long contagem, double media, long p50, long p90, long p99, long p999, long max) {}
+
+	private final long valorMaximo;
+	private final AtomicLongArray contagens;
+	private final LongAdder soma = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	public Histograma(long valorMaximo) {
+		this.valorMaximo = Math.max(SUB, valorMaximo);
+		this.contagens = new AtomicLongArray(indice(this.valorMaximo) + 1);
+	}
+
+	public void registrar(long valor) {
+		long v = Math.max(0, Math.min(valor, valorMaximo));
+		contagens.incrementAndGet(indice(v));
+		soma.add(v);
+		max.accumulateAndGet(v, Math::max);
+	}
+
+	public Resumo resumo() {
+		// Copia as contagens antes de calcular, para que todos os percentis venham do mesmo instante
+		long[] copia = new long[contagens.length()];
+		long total = 0;
+		for (int i = 0; i < copia.length; i++) {
+			copia[i] = contagens.get(i);
+			total += copia[i];
+		}
+		if (total == 0) {
+			return new Resumo(0, 0, 0, 0, 0, 0, 0);
+		}
+		long maximo = max.get();
+		return new Resumo(total, (double) soma.sum() / total,
+				percentil(copia, total, 50, maximo), percentil(copia, total, 90, maximo),
+				percentil(copia, total, 99, maximo), percentil(copia, total, 99.9, maximo), maximo);
+	}
+
+	private static long percentil(long[] copia, long total, double p, long maximo) {
+		long alvo = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+		long acumulado = 0;
+		for (int i = 0; i < copia.length; i++) {
+			acumulado += copia[i];
+			if (acumulado >= alvo) {
+				return Math.min(limiteSuperior(i), maximo);
+			}
+		}
+		return maximo;
+	}
+
+	static int indice(long v) {
+		if (v < SUB) {
+			return (int) v;
+		}
+		int deslocamento = 63 - Long.numberOfLeadingZeros(v) - BITS_SUB;
+		return ((deslocamento + 1) << BITS_SUB) + (int) ((v >>> deslocamento) - SUB);
+	}
+
+	static long limiteSuperior(int indice) {
+		if (indice < SUB) {
+			return indice;
+		}
+		int deslocamento = (indice >>> BITS_SUB) - 1;
+		long base = (long) (SUB + (indice & (SUB - 1))) << deslocamento;
+		return base + (1L << deslocamento) - 1;
+	}
+}
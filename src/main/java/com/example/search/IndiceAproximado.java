@@ -0,0 +1,169 @@
+package com.example.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice tolerante a erros de digitação sobre os nomes das disciplinas e dos professores.
+ * <p>O vocabulário (palavras normalizadas de todos os nomes) fica em uma {@link BkTree}. Cada palavra da consulta é
+ * trocada pelas palavras do vocabulário a poucas edições dela, e as entradas (nome da disciplina ou de um professor)
+ * que contêm essas palavras recebem pontos proporcionais à proximidade.</p>
+ * <p>Imutável depois de construído, como o {@link IndiceTrigramas}.</p>
+ */
+public final class IndiceAproximado {
+
+	private final String[] codigos;
+	private final String[] nomes;
+
+	// Dados por entrada
+	private final int[] entradaDisciplina;
+	private final byte[] entradaCampo;
+	private final String[] entradaOriginal;
+
+	private final BkTree vocabulario;
+	// Entradas que contêm cada palavra, indexado pelo id da palavra na BkTree
+	private final int[][] entradasPorPalavra;
+
+	private IndiceAproximado(Builder b) {
+		this.codigos = b.codigos.toArray(String[]::new);
+		this.nomes = b.nomes.toArray(String[]::new);
+		int n = b.entradaDisciplina.size();
+		this.entradaDisciplina = new int[n];
+		this.entradaCampo = new byte[n];
+		for (int i = 0; i < n; i++) {
+			entradaDisciplina[i] = b.entradaDisciplina.get(i);
+			entradaCampo[i] = b.entradaCampo.get(i);
+		}
+		this.entradaOriginal = b.entradaOriginal.toArray(String[]::new);
+
+		List<String> palavras = new ArrayList<>(b.entradasPorPalavra.keySet());
+		this.vocabulario = new BkTree(palavras);
+		this.entradasPorPalavra = new int[palavras.size()][];
+		for (int i = 0; i < palavras.size(); i++) {
+			List<Integer> entradas = b.entradasPorPalavra.get(palavras.get(i));
+			entradasPorPalavra[i] = entradas.stream().mapToInt(Integer::intValue).toArray();
+		}
+	}
+
+	public static IndiceAproximado vazio() {
+		return new Builder().build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int getNumDisciplinas() { return codigos.length; }
+	public int getTamanhoVocabulario() { return vocabulario.getTamanho(); }
+
+	/**
+	 * Número de edições aceitas para uma palavra da consulta: palavras curtas têm pouca margem antes de virarem
+	 * outra palavra, então até 2 letras só casam exatamente e até 5 letras aceitam uma edição.
+	 */
+	static int distanciaEfetiva(int tamanhoPalavra, int maxDistancia) {
+		int porTamanho = tamanhoPalavra <= 2 ? 0 : tamanhoPalavra <= 5 ? 1 : 2;
+		return Math.min(porTamanho, maxDistancia);
+	}
+
+	/**
+	 * Busca as disciplinas cujo nome ou professor casa com a consulta, tolerando até {@code maxDistancia} edições
+	 * por palavra.
+	 */
+	public List<IndiceTrigramas.Resultado> buscar(String consulta, int maxDistancia, int limite) {
+		String q = NormalizadorTexto.normalizar(consulta);
+		if (q.isEmpty() || limite <= 0 || codigos.length == 0) {
+			return List.of();
+		}
+		String[] palavrasConsulta = q.split(" ");
+
+		// Soma, por entrada, a melhor similaridade obtida para cada palavra da consulta
+		Map<Integer, Double> similaridadePorEntrada = new HashMap<>();
+		for (String palavra : palavrasConsulta) {
+			Map<Integer, Double> melhorDaPalavra = new HashMap<>();
+			for (BkTree.Match m : vocabulario.buscar(palavra, distanciaEfetiva(palavra.length(), maxDistancia))) {
+				double similaridade = 1.0 - (double) m.distancia() / Math.max(palavra.length(), m.palavra().length());
+				for (int entrada : entradasPorPalavra[m.id()]) {
+					melhorDaPalavra.merge(entrada, similaridade, Math::max);
+				}
+			}
+			melhorDaPalavra.forEach((entrada, s) -> similaridadePorEntrada.merge(entrada, s, Double::sum));
+		}
+
+		// Melhor entrada de cada disciplina
+		Map<Integer, double[]> melhorPorDisciplina = new LinkedHashMap<>();
+		for (Map.Entry<Integer, Double> e : similaridadePorEntrada.entrySet()) {
+			int entrada = e.getKey();
+			double score = IndiceTrigramas.PESOS[entradaCampo[entrada]] * e.getValue() / palavrasConsulta.length;
+			double[] atual = melhorPorDisciplina.computeIfAbsent(entradaDisciplina[entrada], d -> new double[] { -1, -1 });
+			if (score > atual[0]) {
+				atual[0] = score;
+				atual[1] = entrada;
+			}
+		}
+
+		return melhorPorDisciplina.entrySet().stream()
+				.sorted((a, b) -> {
+					int c = Double.compare(b.getValue()[0], a.getValue()[0]);
+					return c != 0 ? c : codigos[a.getKey()].compareTo(codigos[b.getKey()]);
+				})
+				.limit(limite)
+				.map(e -> {
+					int d = e.getKey();
+					int entrada = (int) e.getValue()[1];
+					String professor = entradaCampo[entrada] == IndiceTrigramas.CAMPO_PROFESSOR ? entradaOriginal[entrada] : null;
+					return new IndiceTrigramas.Resultado(codigos[d], nomes[d], professor, e.getValue()[0]);
+				})
+				.toList();
+	}
+
+	/**
+	 * Construtor incremental do índice. Não é thread-safe; use um por reconstrução.
+	 */
+	public static final class Builder {
+		private final List<String> codigos = new ArrayList<>();
+		private final List<String> nomes = new ArrayList<>();
+		private final List<Integer> entradaDisciplina = new ArrayList<>();
+		private final List<Byte> entradaCampo = new ArrayList<>();
+		private final List<String> entradaOriginal = new ArrayList<>();
+		private final Map<String, List<Integer>> entradasPorPalavra = new LinkedHashMap<>();
+
+		private Builder() {}
+
+		public Builder adicionarDisciplina(String codigo, String nome, Collection<String> professores) {
+			int d = codigos.size();
+			codigos.add(codigo);
+			nomes.add(nome);
+			adicionarEntrada(d, IndiceTrigramas.CAMPO_NOME, nome);
+			if (professores != null) {
+				for (String professor : professores) {
+					adicionarEntrada(d, IndiceTrigramas.CAMPO_PROFESSOR, professor);
+				}
+			}
+			return this;
+		}
+
+		private void adicionarEntrada(int disciplina, int campo, String texto) {
+			String normalizado = NormalizadorTexto.normalizar(texto);
+			if (normalizado.isEmpty()) return;
+			int entrada = entradaDisciplina.size();
+			entradaDisciplina.add(disciplina);
+			entradaCampo.add((byte) campo);
+			entradaOriginal.add(texto);
+			for (String palavra : normalizado.split(" ")) {
+				List<Integer> entradas = entradasPorPalavra.computeIfAbsent(palavra, k -> new ArrayList<>());
+				// A mesma palavra duas vezes no mesmo nome não conta em dobro
+				if (entradas.isEmpty() || entradas.get(entradas.size() - 1) != entrada) {
+					entradas.add(entrada);
+				}
+			}
+		}
+
+		public IndiceAproximado build() {
+			return new IndiceAproximado(this);
+		}
+	}
+}
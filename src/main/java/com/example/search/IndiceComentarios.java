@@ -0,0 +1,249 @@
+package com.example.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido do texto dos comentários, atualizado incrementalmente, para a busca do admin.
+ * <p>Os termos vêm do {@link AnalisadorPortugues}. Cada comentário indexado recebe um número interno crescente, e a
+ * lista de cada termo guarda (número, frequência) em ordem, então indexar só acrescenta no fim das listas. Editar
+ * marca o número antigo como removido e indexa de novo; remover só marca. As marcas são limpas de uma vez quando
+ * passam da metade do índice.</p>
+ * <p>O ranking é BM25 sobre os termos da consulta (basta um para o comentário aparecer), com desempate pelo id mais
+ * novo. Leituras e escritas são protegidas por um lock de leitura/escrita.</p>
+ */
+public final class IndiceComentarios {
+
+	// Parâmetros usuais do BM25
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+
+	private static final int COMPACTAR_MINIMO = 1024;
+
+	/** Comentário encontrado. A ordem é score decrescente e, no empate, id decrescente. */
+	public record Resultado(long comentarioId, double score) {
+
+		/** Se este resultado vem depois de {@code outro} na ordem da busca. */
+		public boolean vemDepois(Resultado outro) {
+			int c = Double.compare(score, outro.score);
+			return c != 0 ? c < 0 : comentarioId < outro.comentarioId;
+		}
+	}
+
+	/** Uma página da busca, com o total de comentários que casaram. */
+	public record Pagina(List<Resultado> resultados, int total, boolean temMais) {}
+
+	private static final class Postings {
+		int[] docs = new int[4];
+		int[] frequencias = new int[4];
+		int tamanho;
+
+		void adicionar(int doc, int frequencia) {
+			if (tamanho == docs.length) {
+				docs = Arrays.copyOf(docs, tamanho * 2);
+				frequencias = Arrays.copyOf(frequencias, tamanho * 2);
+			}
+			docs[tamanho] = doc;
+			frequencias[tamanho] = frequencia;
+			tamanho++;
+		}
+	}
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Postings> postings = new HashMap<>();
+	private final Map<Long, Integer> numeroPorId = new HashMap<>();
+	private long[] ids = new long[16];
+	private int[] tamanhos = new int[16];
+	private final BitSet removidos = new BitSet();
+	private int proximo;
+	private int numRemovidos;
+	private long somaTamanhos;
+
+	/** Indexa o comentário, substituindo o texto anterior se ele já estava no índice. */
+	public void indexar(long comentarioId, String texto) {
+		List<String> termos = AnalisadorPortugues.termos(texto);
+		Map<String, Integer> frequencias = new LinkedHashMap<>();
+		for (String t : termos) {
+			frequencias.merge(t, 1, Integer::sum);
+		}
+		lock.writeLock().lock();
+		try {
+			removerInterno(comentarioId);
+			if (proximo == ids.length) {
+				ids = Arrays.copyOf(ids, proximo * 2);
+				tamanhos = Arrays.copyOf(tamanhos, proximo * 2);
+			}
+			int doc = proximo++;
+			ids[doc] = comentarioId;
+			tamanhos[doc] = termos.size();
+			somaTamanhos += termos.size();
+			numeroPorId.put(comentarioId, doc);
+			for (Map.Entry<String, Integer> e : frequencias.entrySet()) {
+				postings.computeIfAbsent(e.getKey(), k -> new Postings()).adicionar(doc, e.getValue());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/** @return se o comentário estava no índice */
+	public boolean remover(long comentarioId) {
+		lock.writeLock().lock();
+		try {
+			return removerInterno(comentarioId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int getNumComentarios() {
+		lock.readLock().lock();
+		try {
+			return numeroPorId.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int getNumTermos() {
+		lock.readLock().lock();
+		try {
+			return postings.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Busca os comentários mais relevantes para a consulta.
+	 * @param depoisDe último resultado da página anterior (keyset), ou null para a primeira página
+	 * @param limite tamanho da página
+	 */
+	public Pagina buscar(String consulta, Resultado depoisDe, int limite) {
+		List<String> termos = new ArrayList<>(new LinkedHashSet<>(AnalisadorPortugues.termos(consulta)));
+		if (termos.isEmpty() || limite <= 0) {
+			return new Pagina(List.of(), 0, false);
+		}
+
+		lock.readLock().lock();
+		try {
+			int vivos = numeroPorId.size();
+			if (vivos == 0) {
+				return new Pagina(List.of(), 0, false);
+			}
+			double mediaTamanho = Math.max(1.0, (double) somaTamanhos / vivos);
+			double[] scores = new double[proximo];
+			int[] tocados = new int[Math.min(proximo, 1024)];
+			int numTocados = 0;
+
+			for (String t : termos) {
+				Postings p = postings.get(t);
+				if (p == null) {
+					continue;
+				}
+				// A lista ainda tem os removidos, então a frequência de documentos é uma aproximação até a compactação
+				int frequenciaDocs = Math.min(p.tamanho, vivos);
+				double idf = Math.log(1 + (vivos - frequenciaDocs + 0.5) / (frequenciaDocs + 0.5));
+				for (int i = 0; i < p.tamanho; i++) {
+					int doc = p.docs[i];
+					if (removidos.get(doc)) {
+						continue;
+					}
+					double tf = p.frequencias[i];
+					double normalizacao = K1 * (1 - B + B * tamanhos[doc] / mediaTamanho);
+					if (scores[doc] == 0) {
+						if (numTocados == tocados.length) {
+							tocados = Arrays.copyOf(tocados, numTocados * 2);
+						}
+						tocados[numTocados++] = doc;
+					}
+					scores[doc] += idf * tf * (K1 + 1) / (tf + normalizacao);
+				}
+			}
+
+			// Os "limite + 1" melhores depois do cursor; o heap tem o pior no topo
+			PriorityQueue<Resultado> melhores = new PriorityQueue<>(limite + 2,
+					(x, y) -> x.vemDepois(y) ? -1 : (y.vemDepois(x) ? 1 : 0));
+			for (int i = 0; i < numTocados; i++) {
+				int doc = tocados[i];
+				Resultado r = new Resultado(ids[doc], scores[doc]);
+				if (depoisDe != null && !r.vemDepois(depoisDe)) {
+					continue;
+				}
+				if (melhores.size() <= limite) {
+					melhores.add(r);
+				} else if (melhores.peek().vemDepois(r)) {
+					melhores.poll();
+					melhores.add(r);
+				}
+			}
+			List<Resultado> pagina = new ArrayList<>(melhores);
+			pagina.sort((x, y) -> x.vemDepois(y) ? 1 : (y.vemDepois(x) ? -1 : 0));
+			boolean temMais = pagina.size() > limite;
+			return new Pagina(temMais ? pagina.subList(0, limite) : pagina, numTocados, temMais);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private boolean removerInterno(long comentarioId) {
+		Integer doc = numeroPorId.remove(comentarioId);
+		if (doc == null) {
+			return false;
+		}
+		removidos.set(doc);
+		numRemovidos++;
+		somaTamanhos -= tamanhos[doc];
+		if (numRemovidos >= COMPACTAR_MINIMO && numRemovidos > numeroPorId.size()) {
+			compactar();
+		}
+		return true;
+	}
+
+	/** Renumera os comentários vivos e tira os removidos das listas. */
+	private void compactar() {
+		int[] novoNumero = new int[proximo];
+		int vivos = 0;
+		for (int doc = 0; doc < proximo; doc++) {
+			if (removidos.get(doc)) {
+				novoNumero[doc] = -1;
+			} else {
+				novoNumero[doc] = vivos;
+				ids[vivos] = ids[doc];
+				tamanhos[vivos] = tamanhos[doc];
+				vivos++;
+			}
+		}
+		var it = postings.values().iterator();
+		while (it.hasNext()) {
+			Postings p = it.next();
+			int n = 0;
+			for (int i = 0; i < p.tamanho; i++) {
+				int novo = novoNumero[p.docs[i]];
+				if (novo >= 0) {
+					p.docs[n] = novo;
+					p.frequencias[n] = p.frequencias[i];
+					n++;
+				}
+			}
+			p.tamanho = n;
+			if (n == 0) {
+				it.remove();
+			}
+		}
+		numeroPorId.replaceAll((id, doc) -> novoNumero[doc]);
+		proximo = vivos;
+		removidos.clear();
+		numRemovidos = 0;
+	}
+}
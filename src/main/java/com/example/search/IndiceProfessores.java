@@ -0,0 +1,95 @@
+package com.example.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice professor -> disciplinas montado a partir dos vínculos de {@code ProfessorDisciplina}.
+ * <p>Responde "quais disciplinas este professor leciona" sem ir ao banco. Imutável depois de construído; o serviço
+ * troca a instância inteira quando os dados mudam.</p>
+ * <p>As disciplinas vêm ordenadas pelo último semestre (mais recente primeiro) e depois pelo código.</p>
+ */
+public final class IndiceProfessores {
+
+	/** Um vínculo professor-disciplina com o último semestre em que a disciplina foi lecionada por ele. */
+	public record Vinculo(String professorId, String professorNome, String disciplinaCodigo, String disciplinaNome,
+			String ultimoSemestre) {}
+
+	// Semestres no formato "20241": comparação lexicográfica já é cronológica. Sem semestre vai para o fim.
+	private static final Comparator<String> SEMESTRE_DESC = Comparator.nullsLast(Comparator.<String>reverseOrder());
+
+	private final Map<String, String> nomePorProfessor;
+	private final Map<String, List<Vinculo>> porProfessor;
+	private final int numVinculos;
+
+	private IndiceProfessores(Builder b) {
+		this.nomePorProfessor = Map.copyOf(b.nomePorProfessor);
+		this.porProfessor = congelar(b.porProfessor, Comparator.comparing(Vinculo::ultimoSemestre, SEMESTRE_DESC)
+				.thenComparing(Vinculo::disciplinaCodigo));
+		this.numVinculos = b.numVinculos;
+	}
+
+	public static IndiceProfessores vazio() {
+		return new Builder().build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int getNumProfessores() { return nomePorProfessor.size(); }
+	public int getNumVinculos() { return numVinculos; }
+
+	/** Nome do professor, ou {@code null} se o id não estiver no índice. */
+	public String nomeProfessor(String professorId) {
+		return professorId == null ? null : nomePorProfessor.get(professorId);
+	}
+
+	/** Disciplinas lecionadas pelo professor (lista vazia se ele não existir ou não tiver disciplinas). */
+	public List<Vinculo> disciplinasDoProfessor(String professorId) {
+		return professorId == null ? List.of() : porProfessor.getOrDefault(professorId, List.of());
+	}
+
+	private static Map<String, List<Vinculo>> congelar(Map<String, List<Vinculo>> mapa, Comparator<Vinculo> ordem) {
+		Map<String, List<Vinculo>> resultado = new HashMap<>(mapa.size() * 2);
+		for (Map.Entry<String, List<Vinculo>> e : mapa.entrySet()) {
+			List<Vinculo> lista = new ArrayList<>(e.getValue());
+			lista.sort(ordem);
+			resultado.put(e.getKey(), List.copyOf(lista));
+		}
+		return Map.copyOf(resultado);
+	}
+
+	/**
+	 * Construtor incremental do índice. Não é thread-safe; use um por reconstrução.
+	 */
+	public static final class Builder {
+		private final Map<String, String> nomePorProfessor = new HashMap<>();
+		private final Map<String, List<Vinculo>> porProfessor = new HashMap<>();
+		private int numVinculos;
+
+		private Builder() {}
+
+		/** Registra o professor mesmo que ele não tenha nenhuma disciplina. */
+		public Builder adicionarProfessor(String professorId, String nome) {
+			nomePorProfessor.put(professorId, nome);
+			return this;
+		}
+
+		public Builder adicionarVinculo(String professorId, String professorNome, String disciplinaCodigo,
+				String disciplinaNome, String ultimoSemestre) {
+			adicionarProfessor(professorId, professorNome);
+			Vinculo v = new Vinculo(professorId, professorNome, disciplinaCodigo, disciplinaNome, ultimoSemestre);
+			porProfessor.computeIfAbsent(professorId, k -> new ArrayList<>()).add(v);
+			numVinculos++;
+			return this;
+		}
+
+		public IndiceProfessores build() {
+			return new IndiceProfessores(this);
+		}
+	}
+}
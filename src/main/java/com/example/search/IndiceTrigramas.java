@@ -0,0 +1,290 @@
+package com.example.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice invertido de trigramas (imutável) sobre o catálogo de disciplinas.
+ * <p>Cada disciplina gera várias "entradas" pesquisáveis: o código, o nome e o nome de cada professor.
+ * Cada entrada é quebrada em trigramas do texto normalizado ({@link NormalizadorTexto}), e cada trigrama aponta
+ * para a lista ordenada de entradas que o contêm.</p>
+ * <p>A consulta conta quantos trigramas da busca cada entrada possui, pondera pelo campo (mesmos pesos usados no
+ * Fuse.js do front-end) e devolve as {@code k} melhores disciplinas.</p>
+ * <p>Instâncias nunca são alteradas depois de construídas, então podem ser lidas por várias threads sem sincronização
+ * e trocadas atomicamente quando o scrapper termina.</p>
+ */
+public final class IndiceTrigramas {
+
+	public static final int CAMPO_CODIGO = 0;
+	public static final int CAMPO_NOME = 1;
+	public static final int CAMPO_PROFESSOR = 2;
+
+	// Mesmos pesos do Fuse.js (codigo: 2, nome: 1, professores.nome: 0.8)
+	static final double[] PESOS = { 2.0, 1.0, 0.8 };
+
+	// Fração mínima dos trigramas da busca que a entrada precisa conter
+	private static final double SIMILARIDADE_MINIMA = 0.5;
+
+	private static final double BONUS_PREFIXO = 1.0;
+	private static final double BONUS_SUBSTRING = 0.5;
+
+	private static final int[] VAZIO = new int[0];
+
+	/** Resultado de uma busca. {@code professor} é preenchido quando o melhor match foi no nome do professor. */
+	public record Resultado(String codigo, String nome, String professor, double score) {}
+
+	// Dados por disciplina
+	private final String[] codigos;
+	private final String[] nomes;
+
+	// Dados por entrada
+	private final int[] entradaDisciplina;
+	private final byte[] entradaCampo;
+	private final String[] entradaOriginal;
+	private final String[] entradaNormalizada;
+
+	private final Map<String, int[]> postings;
+
+	private IndiceTrigramas(Builder b) {
+		this.codigos = b.codigos.toArray(String[]::new);
+		this.nomes = b.nomes.toArray(String[]::new);
+		int n = b.entradaDisciplina.size();
+		this.entradaDisciplina = new int[n];
+		this.entradaCampo = new byte[n];
+		for (int i = 0; i < n; i++) {
+			entradaDisciplina[i] = b.entradaDisciplina.get(i);
+			entradaCampo[i] = b.entradaCampo.get(i);
+		}
+		this.entradaOriginal = b.entradaOriginal.toArray(String[]::new);
+		this.entradaNormalizada = b.entradaNormalizada.toArray(String[]::new);
+
+		Map<String, int[]> compactado = new HashMap<>(b.postings.size() * 2);
+		for (Map.Entry<String, ListaInt> e : b.postings.entrySet()) {
+			compactado.put(e.getKey(), e.getValue().toArray());
+		}
+		this.postings = compactado;
+	}
+
+	/** Índice sem nenhuma disciplina (estado inicial, antes da primeira construção). */
+	public static IndiceTrigramas vazio() {
+		return new Builder().build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int getNumDisciplinas() { return codigos.length; }
+	public int getNumEntradas() { return entradaDisciplina.length; }
+	public int getNumTrigramas() { return postings.size(); }
+
+	/**
+	 * Busca as disciplinas mais relevantes para a consulta.
+	 * @param consulta texto digitado pelo usuário
+	 * @param limite número máximo de resultados
+	 * @return resultados ordenados do mais relevante para o menos relevante
+	 */
+	public List<Resultado> buscar(String consulta, int limite) {
+		String q = NormalizadorTexto.normalizar(consulta);
+		if (q.isEmpty() || limite <= 0 || codigos.length == 0) {
+			return List.of();
+		}
+		Set<String> trigramasConsulta = trigramas(q);
+		int totalTrigramas = trigramasConsulta.size();
+		// Alocado por consulta: vive só durante a busca, sem ficar preso a threads nem a índices já trocados
+		Rascunho r = new Rascunho(this);
+
+		// Conta os trigramas em comum por entrada, lembrando quais entradas foram tocadas
+		for (String t : trigramasConsulta) {
+			for (int entrada : postings.getOrDefault(t, VAZIO)) {
+				if (r.acertos[entrada]++ == 0) {
+					r.entradasTocadas.add(entrada);
+				}
+			}
+		}
+
+		// Melhor score por disciplina (e qual entrada gerou esse score)
+		for (int i = 0; i < r.entradasTocadas.size; i++) {
+			int entrada = r.entradasTocadas.valores[i];
+			int acertos = r.acertos[entrada];
+			double similaridade = (double) acertos / totalTrigramas;
+			// Conter a busca como substring implica ter todos os trigramas menos, no máximo, os dois das bordas
+			double bonus = 0;
+			if (acertos >= totalTrigramas - 2) {
+				String texto = entradaNormalizada[entrada];
+				if (texto.startsWith(q)) {
+					bonus = BONUS_PREFIXO;
+				} else if (texto.contains(q)) {
+					bonus = BONUS_SUBSTRING;
+				}
+			}
+			if (similaridade < SIMILARIDADE_MINIMA && bonus == 0) {
+				continue;
+			}
+			double score = PESOS[entradaCampo[entrada]] * (similaridade + bonus);
+			int d = entradaDisciplina[entrada];
+			if (r.scoreDisciplina[d] == 0) {
+				r.disciplinasTocadas.add(d);
+			}
+			if (score > r.scoreDisciplina[d]) {
+				r.scoreDisciplina[d] = score;
+				r.melhorEntrada[d] = entrada;
+			}
+		}
+
+		// Top-k com heap mínima de tamanho fixo (a raiz é a pior disciplina entre as k melhores)
+		int[] heap = new int[Math.min(limite, r.disciplinasTocadas.size)];
+		int tamanho = 0;
+		for (int i = 0; i < r.disciplinasTocadas.size; i++) {
+			int d = r.disciplinasTocadas.valores[i];
+			if (tamanho < heap.length) {
+				heap[tamanho] = d;
+				subir(heap, tamanho++, r.scoreDisciplina);
+			} else if (compararDisciplinas(r.scoreDisciplina, d, heap[0]) < 0) {
+				heap[0] = d;
+				descer(heap, tamanho, r.scoreDisciplina);
+			}
+		}
+		Resultado[] resultados = new Resultado[tamanho];
+		while (tamanho > 0) {
+			int d = heap[0];
+			heap[0] = heap[--tamanho];
+			descer(heap, tamanho, r.scoreDisciplina);
+			int entrada = r.melhorEntrada[d];
+			String professor = entradaCampo[entrada] == CAMPO_PROFESSOR ? entradaOriginal[entrada] : null;
+			resultados[tamanho] = new Resultado(codigos[d], nomes[d], professor, r.scoreDisciplina[d]);
+		}
+		return Arrays.asList(resultados);
+	}
+
+	private void subir(int[] heap, int i, double[] scores) {
+		while (i > 0) {
+			int pai = (i - 1) / 2;
+			if (compararDisciplinas(scores, heap[i], heap[pai]) <= 0) break;
+			int tmp = heap[i]; heap[i] = heap[pai]; heap[pai] = tmp;
+			i = pai;
+		}
+	}
+
+	private void descer(int[] heap, int tamanho, double[] scores) {
+		int i = 0;
+		while (true) {
+			int pior = i;
+			int esq = 2 * i + 1, dir = esq + 1;
+			if (esq < tamanho && compararDisciplinas(scores, heap[esq], heap[pior]) > 0) pior = esq;
+			if (dir < tamanho && compararDisciplinas(scores, heap[dir], heap[pior]) > 0) pior = dir;
+			if (pior == i) return;
+			int tmp = heap[i]; heap[i] = heap[pior]; heap[pior] = tmp;
+			i = pior;
+		}
+	}
+
+	/** Ordena por score decrescente e, em caso de empate, pelo código. */
+	private int compararDisciplinas(double[] scores, int a, int b) {
+		int c = Double.compare(scores[b], scores[a]);
+		return c != 0 ? c : codigos[a].compareTo(codigos[b]);
+	}
+
+	/**
+	 * Gera os trigramas de um texto já normalizado. Cada palavra recebe um espaço antes e depois
+	 * para que prefixos/sufixos curtos (ex: "in") também gerem trigramas.
+	 */
+	static Set<String> trigramas(String normalizado) {
+		Set<String> resultado = new LinkedHashSet<>();
+		for (String palavra : normalizado.split(" ")) {
+			if (palavra.isEmpty()) continue;
+			String p = " " + palavra + " ";
+			for (int i = 0; i + 3 <= p.length(); i++) {
+				resultado.add(p.substring(i, i + 3));
+			}
+		}
+		return resultado;
+	}
+
+	/**
+	 * Construtor incremental do índice. Não é thread-safe; use um por reconstrução.
+	 */
+	public static final class Builder {
+		private final List<String> codigos = new ArrayList<>();
+		private final List<String> nomes = new ArrayList<>();
+		private final List<Integer> entradaDisciplina = new ArrayList<>();
+		private final List<Byte> entradaCampo = new ArrayList<>();
+		private final List<String> entradaOriginal = new ArrayList<>();
+		private final List<String> entradaNormalizada = new ArrayList<>();
+		private final Map<String, ListaInt> postings = new HashMap<>();
+
+		private Builder() {}
+
+		/**
+		 * Adiciona uma disciplina com seus professores ao índice.
+		 */
+		public Builder adicionarDisciplina(String codigo, String nome, Collection<String> professores) {
+			int d = codigos.size();
+			codigos.add(codigo);
+			nomes.add(nome);
+			adicionarEntrada(d, CAMPO_CODIGO, codigo);
+			adicionarEntrada(d, CAMPO_NOME, nome);
+			if (professores != null) {
+				for (String professor : professores) {
+					adicionarEntrada(d, CAMPO_PROFESSOR, professor);
+				}
+			}
+			return this;
+		}
+
+		private void adicionarEntrada(int disciplina, int campo, String texto) {
+			String normalizado = NormalizadorTexto.normalizar(texto);
+			if (normalizado.isEmpty()) return;
+			int entrada = entradaDisciplina.size();
+			entradaDisciplina.add(disciplina);
+			entradaCampo.add((byte) campo);
+			entradaOriginal.add(texto);
+			entradaNormalizada.add(normalizado);
+			for (String t : trigramas(normalizado)) {
+				postings.computeIfAbsent(t, k -> new ListaInt()).add(entrada);
+			}
+		}
+
+		public IndiceTrigramas build() {
+			return new IndiceTrigramas(this);
+		}
+	}
+
+	/** Estado temporário de uma consulta. Só é válido dentro de {@link #buscar(String, int)}. */
+	private static final class Rascunho {
+		final int[] acertos;
+		final double[] scoreDisciplina;
+		final int[] melhorEntrada;
+		final ListaInt entradasTocadas = new ListaInt();
+		final ListaInt disciplinasTocadas = new ListaInt();
+
+		Rascunho(IndiceTrigramas indice) {
+			this.acertos = new int[indice.entradaDisciplina.length];
+			this.scoreDisciplina = new double[indice.codigos.length];
+			this.melhorEntrada = new int[indice.codigos.length];
+		}
+	}
+
+	/** Lista de inteiros primitivos, evita boxing nas listas de postings. */
+	private static final class ListaInt {
+		private int[] valores = new int[4];
+		private int size;
+
+		void add(int v) {
+			if (size == valores.length) {
+				valores = Arrays.copyOf(valores, size * 2);
+			}
+			valores[size++] = v;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(valores, size);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.search;
+
+/**
+ * Distância de edição (inserção, remoção e substituição de um caractere).
+ */
+public final class Levenshtein {
+
+	private Levenshtein() {}
+
+	public static int distancia(CharSequence a, CharSequence b) {
+		return distanciaLimitada(a, b, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Distância entre {@code a} e {@code b}, parando assim que ela com certeza passar de {@code limite}.
+	 * @return a distância, ou {@code limite + 1} se ela for maior que o limite
+	 */
+	public static int distanciaLimitada(CharSequence a, CharSequence b, int limite) {
+		return distanciaLimitada(a, b, limite, new int[b.length() + 1], new int[b.length() + 1]);
+	}
+
+	/**
+	 * Mesmo que {@link #distanciaLimitada(CharSequence, CharSequence, int)}, reaproveitando as linhas da tabela
+	 * (ambas com pelo menos {@code b.length() + 1} posições). Usado em laços que calculam muitas distâncias.
+	 */
+	public static int distanciaLimitada(CharSequence a, CharSequence b, int limite, int[] anterior, int[] atual) {
+		int n = a.length(), m = b.length();
+		if (Math.abs(n - m) > limite) {
+			return limite + 1;
+		}
+		for (int j = 0; j <= m; j++) {
+			anterior[j] = j;
+		}
+		for (int i = 1; i <= n; i++) {
+			atual[0] = i;
+			int menorDaLinha = atual[0];
+			char ca = a.charAt(i - 1);
+			for (int j = 1; j <= m; j++) {
+				int custo = ca == b.charAt(j - 1) ? 0 : 1;
+				atual[j] = Math.min(Math.min(atual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + custo);
+				menorDaLinha = Math.min(menorDaLinha, atual[j]);
+			}
+			// Nenhuma célula da linha ficou dentro do limite: o resultado final também não fica
+			if (menorDaLinha > limite) {
+				return limite + 1;
+			}
+			int[] tmp = anterior;
+			anterior = atual;
+			atual = tmp;
+		}
+		return anterior[m] > limite ? limite + 1 : anterior[m];
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitário para normalizar textos antes da indexação/busca.
+ * <p>Remove acentos, converte para minúsculas e troca qualquer caractere que não seja letra ou dígito por espaço,
+ * de forma que "Cálculo-I" e "calculo i" sejam tratados como o mesmo texto.</p>
+ */
+public final class NormalizadorTexto {
+
+	private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private NormalizadorTexto() {}
+
+	/**
+	 * Normaliza o texto (ex: "Introdução à Computação" -> "introducao a computacao").
+	 * @param texto texto original, pode ser nulo
+	 * @return texto normalizado, nunca nulo
+	 */
+	public static String normalizar(String texto) {
+		if (texto == null || texto.isEmpty()) {
+			return "";
+		}
+		String semAcento = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+		return SEPARADORES.matcher(semAcento.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+	}
+}
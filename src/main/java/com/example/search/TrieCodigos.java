@@ -0,0 +1,210 @@
+package com.example.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Trie compactada (radix) sobre os códigos das disciplinas, para autocompletar prefixos como "INE51".
+ * <p>Cada nó guarda as {@link #TOP_K} disciplinas mais ativas (avaliações + comentários) da sua subárvore, então uma
+ * consulta só desce pelos caracteres do prefixo e devolve a lista já pronta, sem percorrer a subárvore.</p>
+ * <p>Leituras não usam lock: a lista de cada nó é um array imutável trocado por referência volátil. Alterações de
+ * atividade são serializadas e só recalculam as listas dos nós no caminho até o código alterado.</p>
+ */
+public final class TrieCodigos {
+
+	public static final int TOP_K = 10;
+
+	/** Sugestão de autocomplete. */
+	public record Sugestao(String codigo, String nome, int atividade) {}
+
+	private static final class No {
+		final String rotulo;
+		final Map<Character, No> filhos = new HashMap<>();
+		int disciplina = -1;
+		volatile int[] melhores = new int[0];
+
+		No(String rotulo) {
+			this.rotulo = rotulo;
+		}
+	}
+
+	private final No raiz = new No("");
+	private final String[] codigos;
+	private final String[] nomes;
+	private final int[] atividade;
+	private final Map<String, Integer> indicePorCodigo;
+
+	/**
+	 * @param codigos códigos das disciplinas
+	 * @param nomes nomes, na mesma ordem
+	 * @param atividadePorCodigo contagem inicial de atividade (códigos ausentes contam como zero)
+	 */
+	public TrieCodigos(List<String> codigos, List<String> nomes, Map<String, Integer> atividadePorCodigo) {
+		int n = codigos.size();
+		this.codigos = new String[n];
+		this.nomes = nomes.toArray(String[]::new);
+		this.atividade = new int[n];
+		this.indicePorCodigo = new HashMap<>(n * 2);
+		for (int i = 0; i < n; i++) {
+			String codigo = normalizar(codigos.get(i));
+			this.codigos[i] = codigo;
+			this.atividade[i] = atividadePorCodigo.getOrDefault(codigos.get(i), 0);
+			indicePorCodigo.put(codigo, i);
+			inserir(codigo, i);
+		}
+		recalcularSubarvore(raiz);
+	}
+
+	public static TrieCodigos vazia() {
+		return new TrieCodigos(List.of(), List.of(), Map.of());
+	}
+
+	public int getNumCodigos() { return codigos.length; }
+
+	/**
+	 * Disciplinas cujo código começa com o prefixo, das mais ativas para as menos ativas.
+	 */
+	public List<Sugestao> sugerir(String prefixo, int limite) {
+		String p = normalizar(prefixo);
+		No no = raiz;
+		int pos = 0;
+		while (pos < p.length()) {
+			No filho = no.filhos.get(p.charAt(pos));
+			if (filho == null) {
+				return List.of();
+			}
+			int comum = prefixoComum(filho.rotulo, p, pos);
+			if (pos + comum == p.length()) {
+				// Prefixo termina dentro (ou no fim) do rótulo: toda a subárvore do filho casa
+				no = filho;
+				break;
+			}
+			if (comum < filho.rotulo.length()) {
+				return List.of();
+			}
+			pos += comum;
+			no = filho;
+		}
+
+		int[] melhores = no.melhores;
+		int n = Math.min(limite, melhores.length);
+		List<Sugestao> resultado = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			int d = melhores[i];
+			resultado.add(new Sugestao(codigos[d], nomes[d], atividade[d]));
+		}
+		return resultado;
+	}
+
+	/**
+	 * Soma {@code delta} à atividade da disciplina e atualiza as listas do caminho até ela.
+	 * Códigos desconhecidos são ignorados (entram na próxima reconstrução).
+	 */
+	public synchronized void ajustarAtividade(String codigo, int delta) {
+		Integer d = indicePorCodigo.get(normalizar(codigo));
+		if (d == null) {
+			return;
+		}
+		atividade[d] = Math.max(0, atividade[d] + delta);
+
+		List<No> caminho = new ArrayList<>();
+		No no = raiz;
+		caminho.add(no);
+		String c = codigos[d];
+		int pos = 0;
+		while (pos < c.length()) {
+			no = no.filhos.get(c.charAt(pos));
+			pos += no.rotulo.length();
+			caminho.add(no);
+		}
+		for (int i = caminho.size() - 1; i >= 0; i--) {
+			recalcularNo(caminho.get(i));
+		}
+	}
+
+	private void inserir(String codigo, int disciplina) {
+		No no = raiz;
+		int pos = 0;
+		while (true) {
+			if (pos == codigo.length()) {
+				no.disciplina = disciplina;
+				return;
+			}
+			No filho = no.filhos.get(codigo.charAt(pos));
+			if (filho == null) {
+				No folha = new No(codigo.substring(pos));
+				folha.disciplina = disciplina;
+				no.filhos.put(codigo.charAt(pos), folha);
+				return;
+			}
+			int comum = prefixoComum(filho.rotulo, codigo, pos);
+			if (comum < filho.rotulo.length()) {
+				// Quebra a aresta em duas: [comum][resto do rótulo antigo]
+				No meio = new No(filho.rotulo.substring(0, comum));
+				No resto = new No(filho.rotulo.substring(comum));
+				resto.disciplina = filho.disciplina;
+				resto.filhos.putAll(filho.filhos);
+				meio.filhos.put(resto.rotulo.charAt(0), resto);
+				no.filhos.put(meio.rotulo.charAt(0), meio);
+				filho = meio;
+			}
+			pos += comum;
+			no = filho;
+		}
+	}
+
+	private void recalcularSubarvore(No no) {
+		for (No filho : no.filhos.values()) {
+			recalcularSubarvore(filho);
+		}
+		recalcularNo(no);
+	}
+
+	/** Top-k do nó = top-k entre a própria disciplina e as listas dos filhos. */
+	private void recalcularNo(No no) {
+		int total = no.disciplina >= 0 ? 1 : 0;
+		for (No filho : no.filhos.values()) {
+			total += filho.melhores.length;
+		}
+		int[] candidatos = new int[total];
+		int n = 0;
+		if (no.disciplina >= 0) {
+			candidatos[n++] = no.disciplina;
+		}
+		for (No filho : no.filhos.values()) {
+			int[] m = filho.melhores;
+			System.arraycopy(m, 0, candidatos, n, m.length);
+			n += m.length;
+		}
+		Integer[] ordenados = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			ordenados[i] = candidatos[i];
+		}
+		Arrays.sort(ordenados, (a, b) -> atividade[a] != atividade[b]
+				? Integer.compare(atividade[b], atividade[a])
+				: codigos[a].compareTo(codigos[b]));
+		int k = Math.min(TOP_K, n);
+		int[] melhores = new int[k];
+		for (int i = 0; i < k; i++) {
+			melhores[i] = ordenados[i];
+		}
+		no.melhores = melhores;
+	}
+
+	private static int prefixoComum(String rotulo, String texto, int inicio) {
+		int max = Math.min(rotulo.length(), texto.length() - inicio);
+		int i = 0;
+		while (i < max && rotulo.charAt(i) == texto.charAt(inicio + i)) {
+			i++;
+		}
+		return i;
+	}
+
+	private static String normalizar(String codigo) {
+		return codigo == null ? "" : codigo.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.DTO.DisciplinaDeltaDTO;
+import com.example.DTO.DisciplinaSearchDTO;
+import com.example.model.AlteracaoCatalogo;
+import com.example.model.ScrapperStatus;
+import com.example.repository.AlteracaoCatalogoRepository;
+import com.example.repository.DisciplinaRepository;
+
+/**
+ * Log de alterações do catálogo e cálculo do delta entre a versão em cache no navegador e a versão atual.
+ * <p>Cada execução bem-sucedida do scrapper fecha uma versão guardando o último id do log em
+ * {@link ScrapperStatus#getUltimaAlteracaoId()}. O delta entre duas versões é o intervalo de ids entre elas.</p>
+ */
+@Service
+public class AlteracaoCatalogoService {
+
+	// Acima disso o delta fica próximo do tamanho do catálogo e compensa mais baixar o snapshot comprimido
+	public static final int LIMITE_DELTA = 1000;
+
+	@Autowired
+	private AlteracaoCatalogoRepository alteracaoCatalogoRepository;
+
+	@Autowired
+	private DisciplinaRepository disciplinaRepository;
+
+	@Autowired
+	private ScrapperStatusService scrapperStatusService;
+
+	public void registrar(AlteracaoCatalogo.Tipo tipo, String disciplinaCodigo, String professorId) {
+		alteracaoCatalogoRepository.save(new AlteracaoCatalogo(tipo, disciplinaCodigo, professorId));
+	}
+
+	/**
+	 * Monta o delta do catálogo desde a versão {@code desde} até a última execução bem-sucedida do scrapper.
+	 * @param desde {@code dataHash} que o cliente tem em cache
+	 */
+	public DisciplinaDeltaDTO calcularDelta(String desde) {
+		ScrapperStatus atual = scrapperStatusService.getUltimoSucesso();
+		String para = atual.getDataHash() != null ? atual.getDataHash() : atual.gerarDataHash();
+
+		if (para.equals(desde)) {
+			return DisciplinaDeltaDTO.vazio(desde, para);
+		}
+
+		ScrapperStatus origem = desde == null || desde.isBlank() ? null : scrapperStatusService.buscarPorDataHash(desde);
+		// Versões anteriores ao log não têm o marcador, não tem como saber o que mudou desde então
+		if (origem == null || origem.getUltimaAlteracaoId() == null || atual.getUltimaAlteracaoId() == null
+				|| origem.getUltimaAlteracaoId() > atual.getUltimaAlteracaoId()) {
+			return DisciplinaDeltaDTO.completo(desde, para);
+		}
+
+		List<AlteracaoCatalogo> alteracoes = alteracaoCatalogoRepository.buscarIntervalo(
+				origem.getUltimaAlteracaoId(), atual.getUltimaAlteracaoId());
+
+		// Só o estado final de cada disciplina importa: removida ou não
+		Map<String, Boolean> removida = new LinkedHashMap<>();
+		for (AlteracaoCatalogo a : alteracoes) {
+			removida.put(a.getDisciplinaCodigo(), a.getTipo() == AlteracaoCatalogo.Tipo.DISCIPLINA_REMOVIDA);
+		}
+
+		Set<String> alteradas = removida.entrySet().stream()
+				.filter(e -> !e.getValue())
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+		if (alteradas.size() > LIMITE_DELTA) {
+			return DisciplinaDeltaDTO.completo(desde, para);
+		}
+
+		List<DisciplinaSearchDTO> atualizadas = alteradas.isEmpty() ? List.of()
+				: disciplinaRepository.findAllComProfessoresByCodigoIn(alteradas).stream()
+						.map(DisciplinaSearchDTO::from)
+						.toList();
+
+		List<String> removidas = new ArrayList<>();
+		removida.forEach((codigo, foiRemovida) -> {
+			if (foiRemovida) removidas.add(codigo);
+		});
+		// Alterada no intervalo mas não existe mais (removida depois de fechar a versão atual)
+		Set<String> encontradas = atualizadas.stream().map(DisciplinaSearchDTO::codigo).collect(Collectors.toSet());
+		for (String codigo : alteradas) {
+			if (!encontradas.contains(codigo)) removidas.add(codigo);
+		}
+
+		return new DisciplinaDeltaDTO(desde, para, false, atualizadas, removidas);
+	}
+}
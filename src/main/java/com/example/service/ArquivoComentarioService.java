@@ -12,18 +12,26 @@ import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.model.ArquivoComentario;
 import com.example.model.Comentario;
 import com.example.repository.ArquivoComentarioRepository;
+import com.example.repository.ComentarioRepository;
 
 @Service
 public class ArquivoComentarioService {
 
     @Autowired
     private ArquivoComentarioRepository arquivoComentarioRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     // Diretório onde os arquivos serão salvos (configurável via application.properties)
     @Value("${app.upload.dir:uploads/comentarios}")
@@ -53,18 +61,18 @@ public class ArquivoComentarioService {
     );
 
     /**
-     * Salva um arquivo enviado via MultipartFile
+     * Valida o tipo MIME e a extensão do nome original contra as listas permitidas.
+     * @return extensão do arquivo, em minúsculas e com o ponto (ex: ".pdf")
+     * @throws IllegalArgumentException se o tipo ou a extensão não for permitido
      */
-    public ArquivoComentario salvarArquivo(MultipartFile file, Comentario comentario) throws IOException {
+    public static String validarTipo(String mimeType, String nomeOriginal) {
         // Security validation: check MIME type
-        String mimeType = file.getContentType();
         if (mimeType == null || !ALLOWED_MIME_TYPES.contains(mimeType)) {
             throw new IllegalArgumentException("Tipo de arquivo não permitido: " + mimeType + 
                 ". Apenas imagens (JPG, PNG, GIF, WebP) e documentos (PDF, DOC, DOCX, XLS, XLSX, TXT) são permitidos.");
         }
         
         // Security validation: check file extension
-        String nomeOriginal = file.getOriginalFilename();
         if (nomeOriginal == null) {
             throw new IllegalArgumentException("Nome do arquivo inválido");
         }
@@ -78,6 +86,15 @@ public class ArquivoComentarioService {
             throw new IllegalArgumentException("Extensão de arquivo não permitida: " + extensao +
                 ". Apenas " + String.join(", ", ALLOWED_EXTENSIONS) + " são permitidos.");
         }
+        return extensao;
+    }
+
+    /**
+     * Salva um arquivo enviado via MultipartFile
+     */
+    public ArquivoComentario salvarArquivo(MultipartFile file, Comentario comentario) throws IOException {
+        String nomeOriginal = file.getOriginalFilename();
+        String extensao = validarTipo(file.getContentType(), nomeOriginal);
         
         // Criar diretório se não existir
         Path uploadPath = Paths.get(uploadDir);
@@ -104,6 +121,7 @@ public class ArquivoComentarioService {
         
         // Salvar no banco de dados
         ArquivoComentario saved = arquivoComentarioRepository.save(arquivo);
+        eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(comentarioRepository.findDisciplinaCodigo(comentario.getComentarioId())));
         
         // Note: No need to call comentario.addArquivo(saved) as the relationship is managed by JPA
         // and it could cause lazy initialization exceptions outside of a transaction
@@ -141,7 +159,9 @@ public class ArquivoComentarioService {
             }
             
             // Deletar do banco de dados
+            String disciplinaCodigo = comentarioRepository.findDisciplinaCodigo(arquivo.getComentario().getComentarioId());
             arquivoComentarioRepository.deleteById(id);
+            eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(disciplinaCodigo));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.example.service;
+
+import java.util.List;
+
+/**
+ * Publicado quando anexos saem do banco sem passar pelo {@link ArquivoComentarioService} (ex: junto com uma subárvore
+ * de comentários); {@code caminhos} são os arquivos no disco que podem ser apagados.
+ */
+public record ArquivosRemovidosEvent(List<String> caminhos) {}
@@ -0,0 +1,6 @@
+package com.example.service;
+
+/**
+ * Publicado quando uma avaliação ou comentário é criado ({@code delta} positivo) ou removido (negativo) em uma disciplina.
+ */
+public record AtividadeDisciplinaEvent(String disciplinaCodigo, int delta) {}
@@ -0,0 +1,135 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.DTO.SugestaoCodigoDTO;
+import com.example.model.Disciplina;
+import com.example.repository.AvaliacaoRepository;
+import com.example.repository.ComentarioRepository;
+import com.example.repository.DisciplinaRepository;
+import com.example.scrapper.ScrapingConcluidoEvent;
+import com.example.search.TrieCodigos;
+
+/**
+ * Autocomplete de códigos de disciplina ("INE51" -> INE5101, INE5105, ...) ordenado pela atividade de cada disciplina
+ * (avaliações + comentários).
+ * <p>A trie é reconstruída quando a aplicação sobe e após cada scraping; entre uma reconstrução e outra a atividade é
+ * atualizada incrementalmente pelos {@link AtividadeDisciplinaEvent} publicados ao salvar/remover avaliações e
+ * comentários. Os eventos que chegam durante uma reconstrução também são guardados e reaplicados na trie nova antes
+ * de ela entrar no lugar da antiga, para não se perderem na troca.</p>
+ */
+@Service
+public class AutocompleteCodigoService {
+
+	private static final Logger logger = LoggerFactory.getLogger(AutocompleteCodigoService.class);
+
+	@Autowired
+	private DisciplinaRepository disciplinaRepository;
+
+	@Autowired
+	private AvaliacaoRepository avaliacaoRepository;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private TelemetriaBuscaService telemetriaBuscaService;
+
+	private final AtomicReference<TrieCodigos> trie = new AtomicReference<>(TrieCodigos.vazia());
+
+	// Protege a troca da trie e a lista de eventos recebidos durante a reconstrução (null fora dela)
+	private final Object trava = new Object();
+	private List<AtividadeDisciplinaEvent> pendentes;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void inicializar() {
+		reconstruir();
+	}
+
+	@EventListener
+	public void aoConcluirScraping(ScrapingConcluidoEvent event) {
+		reconstruir();
+	}
+
+	// Só depois do commit, para não contar avaliações/comentários que sofreram rollback
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoRegistrarAtividade(AtividadeDisciplinaEvent event) {
+		synchronized (trava) {
+			trie.get().ajustarAtividade(event.disciplinaCodigo(), event.delta());
+			if (pendentes != null) {
+				pendentes.add(event);
+			}
+		}
+	}
+
+	/**
+	 * Reconstrói a trie com os códigos e a atividade atuais do banco. Em caso de erro a trie antiga continua servindo.
+	 * <p>A captura dos eventos começa antes das contagens, então nenhum se perde; um evento cujo commit caia entre o
+	 * início da captura e a contagem é somado duas vezes, o que só desloca levemente a ordem das sugestões.</p>
+	 */
+	public synchronized void reconstruir() {
+		synchronized (trava) {
+			pendentes = new ArrayList<>();
+		}
+		try {
+			long inicio = System.nanoTime();
+			Map<String, Integer> atividade = new HashMap<>();
+			somar(atividade, avaliacaoRepository.contarPorDisciplina());
+			somar(atividade, comentarioRepository.contarPorDisciplina());
+
+			List<Disciplina> disciplinas = disciplinaRepository.findAll();
+			List<String> codigos = new ArrayList<>(disciplinas.size());
+			List<String> nomes = new ArrayList<>(disciplinas.size());
+			for (Disciplina d : disciplinas) {
+				codigos.add(d.getCodigo());
+				nomes.add(d.getNome());
+			}
+			TrieCodigos nova = new TrieCodigos(codigos, nomes, atividade);
+			int reaplicados;
+			synchronized (trava) {
+				for (AtividadeDisciplinaEvent e : pendentes) {
+					nova.ajustarAtividade(e.disciplinaCodigo(), e.delta());
+				}
+				reaplicados = pendentes.size();
+				trie.set(nova);
+			}
+
+			logger.info("Trie de códigos reconstruída: {} códigos em {} ms ({} eventos reaplicados)", nova.getNumCodigos(),
+					(System.nanoTime() - inicio) / 1_000_000, reaplicados);
+		} catch (Exception e) {
+			logger.error("Erro ao reconstruir trie de códigos: {}", e.getMessage(), e);
+		} finally {
+			synchronized (trava) {
+				pendentes = null;
+			}
+		}
+	}
+
+	public List<SugestaoCodigoDTO> sugerir(String prefixo, int limite) {
+		int k = Math.max(1, Math.min(limite, TrieCodigos.TOP_K));
+		long inicio = System.nanoTime();
+		List<TrieCodigos.Sugestao> sugestoes = trie.get().sugerir(prefixo, k);
+		telemetriaBuscaService.registrar(TelemetriaBuscaService.Tipo.AUTOCOMPLETE, prefixo, sugestoes.size(), System.nanoTime() - inicio);
+		return sugestoes.stream()
+				.map(SugestaoCodigoDTO::from)
+				.toList();
+	}
+
+	private static void somar(Map<String, Integer> atividade, List<Object[]> contagens) {
+		for (Object[] linha : contagens) {
+			atividade.merge((String) linha[0], ((Number) linha[1]).intValue(), Integer::sum);
+		}
+	}
+}
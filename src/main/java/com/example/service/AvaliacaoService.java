@@ -10,16 +10,20 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.config.DialetoBanco;
 import com.example.model.Avaliacao;
 import com.example.model.Comentario;
 import com.example.model.Disciplina;
 import com.example.model.Professor;
+import com.example.model.ResumoAvaliacao;
 import com.example.model.Usuario;
 import com.example.DTO.AvaliacaoDTO;
+import com.example.DTO.AvaliacaoSalvaDTO;
 import com.example.repository.AvaliacaoRepository;
 
 @Service
@@ -34,6 +38,15 @@ public class AvaliacaoService {
     @Autowired
     private ProfessorService professorService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ResumoAvaliacaoService resumoAvaliacaoService;
+
+    @Autowired
+    private DialetoBanco dialetoBanco;
+
 	 private final static org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AvaliacaoService.class);
     // Criar nova avaliação
     public Avaliacao salvar(Avaliacao avaliacao) {
@@ -73,17 +86,21 @@ public class AvaliacaoService {
     }
 
     // Deletar avaliação
+    @Transactional
     public void deletar(Long id) {
-        avaliacaoRepository.deleteById(id);
+        avaliacaoRepository.findById(id).ifPresent(this::delete);
     }
 
-	 // Create na verdade cria ou edita avaliação (apenas nota)
-    public Optional<Avaliacao> create(Professor professor, Disciplina disciplina, Usuario usuario, Integer nota){
-        Optional<Avaliacao> avaliacaoExistente;
-		  logger.debug("Criando ou atualizando avaliação para usuário: " + usuario.getEmail() +
-			  		   ", disciplina: " + disciplina.getCodigo() +
-			  		   (professor != null ? ", professor: " + professor.getProfessorId() : ", avaliação da disciplina"));
+    @Transactional
+    public void delete(Avaliacao avaliacao) {
+        avaliacaoRepository.delete(avaliacao);
+        resumoAvaliacaoService.registrar(avaliacao.getDisciplina(), avaliacao.getProfessor(), avaliacao.getNota(), 0);
+        eventPublisher.publishEvent(new AtividadeDisciplinaEvent(avaliacao.getDisciplina().getCodigo(), -1));
+    }
 
+	 // Create na verdade cria ou edita avaliação (apenas nota), num único comando; o resumo de notas do contexto é ajustado na mesma transação
+    @Transactional
+    public AvaliacaoSalvaDTO create(Professor professor, Disciplina disciplina, Usuario usuario, Integer nota){
         if(disciplina == null || usuario == null){
             throw new IllegalArgumentException("Disciplina e usuario não podem ser nulos para criar avaliação.");
         }
@@ -91,27 +108,48 @@ public class AvaliacaoService {
 		  if(nota == null || nota < 1 || nota > 5){
             throw new IllegalArgumentException("Nota deve estar entre 1 e 5.");
         }
-		  
-        if(professor == null){
-            avaliacaoExistente = avaliacaoRepository.findByProfessorIsNullAndDisciplinaAndUsuario(disciplina, usuario);
-        }else{
-            avaliacaoExistente = avaliacaoRepository.findByProfessorAndDisciplinaAndUsuario(professor, disciplina, usuario);
-        }
-		  
-		  logger.debug("Avaliação existente: " + avaliacaoExistente.isPresent());
-	
-        if(avaliacaoExistente.isPresent()){
-            Avaliacao avaliacao = avaliacaoExistente.get();
-            avaliacao.setNota(nota);
-				logger.debug("Salvando avaliação atualizada.");
-            return Optional.of(salvar(avaliacao));
+
+		  logger.debug("Criando ou atualizando avaliação para usuário: " + usuario.getEmail() +
+			  		   ", disciplina: " + disciplina.getCodigo() +
+			  		   (professor != null ? ", professor: " + professor.getProfessorId() : ", avaliação da disciplina"));
+
+		  AvaliacaoSalvaDTO salva = upsert(disciplina.getDisciplinaId(), usuario.getId(),
+				professor != null ? professor.getProfessorId() : null, nota);
+
+        if(salva.criada()){
+				resumoAvaliacaoService.registrar(disciplina, professor, 0, nota);
+				eventPublisher.publishEvent(new AtividadeDisciplinaEvent(disciplina.getCodigo(), 1));
         } else {
-				logger.debug("Avaliação não encontrada, criando nova avaliação.");
-            Avaliacao avaliacao = new Avaliacao(nota, professor, disciplina, usuario);
-				return Optional.of(salvar(avaliacao));
+				if(salva.notaAnterior() != null){
+					resumoAvaliacaoService.registrar(disciplina, professor, salva.notaAnterior(), nota);
+				} else {
+					// Outra requisição (duplo clique) criou a avaliação enquanto esta esperava: a nota dela já está no resumo
+					logger.debug("Avaliação criada concorrentemente, recontando o resumo do contexto.");
+					resumoAvaliacaoService.recalcular(disciplina, professor);
+				}
+				eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(disciplina.getCodigo()));
         }
+		  logger.debug("Avaliação salva com ID: " + salva.id());
+        return salva;
     }
 
+	 private AvaliacaoSalvaDTO upsert(Long disciplinaId, Long usuarioId, String professorId, int nota) {
+		  Instant agora = Instant.now();
+		  if (dialetoBanco.isPostgres()) {
+				Object[] linha = avaliacaoRepository.upsertNotaPostgres(disciplinaId, usuarioId, professorId, nota, agora).get(0);
+				Integer anterior = linha[1] != null ? ((Number) linha[1]).intValue() : null;
+				return new AvaliacaoSalvaDTO(((Number) linha[0]).longValue(), nota, (Boolean) linha[2], anterior);
+		  }
+		  List<Object[]> alteradas = avaliacaoRepository.upsertNotaH2(disciplinaId, usuarioId, professorId, nota, agora);
+		  if (!alteradas.isEmpty()) {
+				Object[] linha = alteradas.get(0);
+				return new AvaliacaoSalvaDTO(((Number) linha[0]).longValue(), nota, false, ((Number) linha[1]).intValue());
+		  }
+		  Long id = avaliacaoRepository.findIdPorContexto(disciplinaId, usuarioId,
+				professorId != null ? professorId : ResumoAvaliacao.SEM_PROFESSOR).orElseThrow();
+		  return new AvaliacaoSalvaDTO(id, nota, true, null);
+	 }
+
     // Verificar se existe avaliação
     public boolean existe(@NonNull Long id) {
         return avaliacaoRepository.existsById(id);
@@ -0,0 +1,481 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.DTO.ComentarioDeltaDTO;
+import com.example.DTO.VotoDTO;
+import com.example.repository.ComentarioRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Modo opcional de votos com escrita adiada ({@code app.votos.buffer.enabled}), para rajadas de votos em poucos
+ * comentários (ex: época de provas).
+ * <p>O voto não toca o banco na hora: vai para uma das listras do buffer (escolhida pelo id do comentário), que guarda
+ * o estado final de cada par comentário/usuário (o último voto vence) e o delta dos contadores de cada comentário. Uma
+ * thread grava tudo a cada {@code app.votos.buffer.intervalo-ms} em lotes JDBC, numa transação. Antes de ser
+ * confirmado, o voto é escrito no {@link JournalVotos} da listra; segmentos que sobrarem de uma queda são reaplicados
+ * na subida.</p>
+ * <p>Os contadores são recalculados na gravação a partir dos votos que estão no banco, então o delta em memória serve
+ * só para a resposta do voto. Até a próxima gravação, a página da disciplina ainda mostra os números antigos.</p>
+ */
+@Service
+public class BufferVotosService {
+
+	private static final Logger logger = LoggerFactory.getLogger(BufferVotosService.class);
+
+	// Parâmetros por comando nas consultas com IN
+	private static final int LOTE_IDS = 500;
+
+	@Value("${app.votos.buffer.enabled:false}")
+	private boolean ativo;
+
+	@Value("${app.votos.buffer.intervalo-ms:250}")
+	private long intervaloMs;
+
+	@Value("${app.votos.buffer.listras:16}")
+	private int numListras;
+
+	@Value("${app.votos.buffer.journal-dir:data/votos-journal}")
+	private String diretorioJournal;
+
+	@Value("${app.votos.buffer.journal-sync:false}")
+	private boolean journalSync;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	private record Chave(long comentarioId, String email) {}
+
+	/** Delta dos contadores de um comentário ainda não gravado. */
+	private static final class Delta {
+		final String codigo;
+		int up;
+		int down;
+
+		Delta(String codigo) {
+			this.codigo = codigo;
+		}
+	}
+
+	/** O que uma listra entregou para uma gravação. */
+	private record Lote(Map<Chave, Boolean> votos, Map<Long, Delta> deltas, Set<Long> comentarios, List<Path> segmentos) {}
+
+	private final class Listra {
+		// Estado final de cada voto pendente; valor null = voto removido (por isso containsKey, não get)
+		Map<Chave, Boolean> votos = new HashMap<>();
+		Map<Long, Delta> deltas = new HashMap<>();
+		// Lote sendo gravado: enquanto ele existe, não dá para saber se o banco já tem os votos dele ou não
+		Lote emVoo;
+		// Muda sempre que um lote entra ou sai de voo; quem leu o banco confere se ela mudou no meio
+		long versao;
+		JournalVotos.Segmento segmento;
+		// Segmentos já trocados (ou reaplicados na subida) que entram na próxima gravação
+		final List<Path> segmentosPendentes = new ArrayList<>();
+
+		boolean emVooTem(long comentarioId) {
+			return emVoo != null && emVoo.comentarios().contains(comentarioId);
+		}
+
+		void pousar() {
+			emVoo = null;
+			versao++;
+			notifyAll();
+		}
+	}
+
+	private Listra[] listras;
+	private JournalVotos journal;
+	private ScheduledExecutorService agendador;
+
+	@PostConstruct
+	void iniciar() throws IOException {
+		if (!ativo) {
+			return;
+		}
+		journal = new JournalVotos(Path.of(diretorioJournal), journalSync);
+		listras = new Listra[Math.max(1, numListras)];
+		for (int i = 0; i < listras.length; i++) {
+			listras[i] = new Listra();
+		}
+		reaplicarJournal();
+		for (Listra l : listras) {
+			l.segmento = journal.abrir();
+		}
+		agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "buffer-votos");
+			t.setDaemon(true);
+			return t;
+		});
+		agendador.scheduleWithFixedDelay(this::gravarComLog, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+		logger.info("Buffer de votos ativo: {} listras, gravação a cada {} ms, journal em {}", listras.length,
+				intervaloMs, diretorioJournal);
+	}
+
+	@PreDestroy
+	void encerrar() {
+		if (!ativo) {
+			return;
+		}
+		agendador.shutdown();
+		try {
+			agendador.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		gravarComLog();
+		for (Listra l : listras) {
+			synchronized (l) {
+				fechar(l.segmento);
+			}
+		}
+	}
+
+	public boolean isAtivo() {
+		return ativo;
+	}
+
+	/**
+	 * Registra o clique do usuário num voto (clicar de novo no mesmo voto o desfaz) e devolve os contadores que o
+	 * comentário terá depois da próxima gravação.
+	 * <p>Não chamar dentro de uma transação: o voto pode esperar a gravação em andamento, que precisa de uma conexão do
+	 * pool para terminar.</p>
+	 */
+	public VotoDTO votar(Long comentarioId, String email, boolean clique) {
+		Listra l = listras[(int) Math.floorMod(comentarioId, (long) listras.length)];
+		Chave chave = new Chave(comentarioId, email);
+
+		while (true) {
+			long versao;
+			boolean conhecido;
+			synchronized (l) {
+				esperarGravacao(l, comentarioId);
+				versao = l.versao;
+				conhecido = l.votos.containsKey(chave);
+			}
+			// Fora do lock: os contadores gravados e, no primeiro voto do usuário desde a última gravação, o voto dele
+			List<Object[]> linhas = comentarioRepository.findCodigoEContadoresVotos(comentarioId);
+			if (linhas.isEmpty()) {
+				throw new IllegalArgumentException("Comentário não encontrado");
+			}
+			Object[] comentario = linhas.get(0);
+			Boolean doBanco = null;
+			if (!conhecido) {
+				List<Object[]> atual = comentarioRepository.findVotosDoUsuario(List.of(comentarioId), email);
+				doBanco = atual.isEmpty() ? null : (Boolean) atual.get(0)[1];
+			}
+
+			Boolean novo;
+			int up;
+			int down;
+			synchronized (l) {
+				// Uma gravação começou ou terminou durante a leitura: o que veio do banco pode não bater com o buffer
+				if (l.versao != versao || l.emVooTem(comentarioId)) {
+					continue;
+				}
+				Boolean anterior = l.votos.containsKey(chave) ? l.votos.get(chave) : doBanco;
+				novo = Objects.equals(anterior, clique) ? null : clique;
+				try {
+					l.segmento.escrever(new JournalVotos.Entrada(comentarioId, email, novo));
+				} catch (IOException e) {
+					throw new UncheckedIOException("Falha ao registrar voto no journal", e);
+				}
+				l.votos.put(chave, novo);
+				Delta d = l.deltas.computeIfAbsent(comentarioId, id -> new Delta((String) comentario[0]));
+				d.up += (Boolean.TRUE.equals(novo) ? 1 : 0) - (Boolean.TRUE.equals(anterior) ? 1 : 0);
+				d.down += (Boolean.FALSE.equals(novo) ? 1 : 0) - (Boolean.FALSE.equals(anterior) ? 1 : 0);
+				up = d.up;
+				down = d.down;
+			}
+			VotoDTO resultado = new VotoDTO(inteiro(comentario[1]) + up, inteiro(comentario[2]) + down, novo);
+			// As páginas abertas veem a contagem que o comentário terá depois da gravação, a mesma que o votante recebe
+			eventPublisher.publishEvent(new ComentarioAlteradoEvent((String) comentario[0],
+					ComentarioDeltaDTO.votos(comentarioId, resultado.upVotes(), resultado.downVotes())));
+			return resultado;
+		}
+	}
+
+	/**
+	 * Espera terminar a gravação em andamento se ela tem votos do comentário (o commit pode ter acontecido ou não, e
+	 * os contadores do banco ficam ambíguos até o lote sair de voo). Chamado com o lock da listra.
+	 */
+	private static void esperarGravacao(Listra l, long comentarioId) {
+		while (l.emVooTem(comentarioId)) {
+			try {
+				l.wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrompido esperando a gravação dos votos", e);
+			}
+		}
+	}
+
+	/**
+	 * Grava no banco tudo o que está no buffer. Chamado pela thread do buffer; público para forçar a gravação (ex: em
+	 * testes).
+	 * @return quantidade de votos gravados
+	 */
+	public synchronized int gravar() {
+		if (!ativo) {
+			return 0;
+		}
+		Lote[] lotes = new Lote[listras.length];
+		Map<Chave, Boolean> votos = new HashMap<>();
+		try {
+			for (int i = 0; i < listras.length; i++) {
+				Listra l = listras[i];
+				synchronized (l) {
+					if (l.votos.isEmpty() && l.segmentosPendentes.isEmpty()) {
+						continue;
+					}
+					List<Path> segmentos = new ArrayList<>(l.segmentosPendentes);
+					if (!l.votos.isEmpty()) {
+						// Votos que chegarem durante a gravação vão para um segmento novo
+						JournalVotos.Segmento novo = abrirSegmento();
+						fechar(l.segmento);
+						segmentos.add(l.segmento.getCaminho());
+						l.segmento = novo;
+					}
+					l.segmentosPendentes.clear();
+					Set<Long> comentarios = new HashSet<>(l.deltas.keySet());
+					l.votos.keySet().forEach(k -> comentarios.add(k.comentarioId()));
+					lotes[i] = new Lote(l.votos, l.deltas, comentarios, segmentos);
+					l.emVoo = lotes[i];
+					l.versao++;
+					l.votos = new HashMap<>();
+					l.deltas = new HashMap<>();
+				}
+				votos.putAll(lotes[i].votos());
+			}
+		} catch (RuntimeException e) {
+			devolver(lotes);
+			throw e;
+		}
+
+		Set<String> codigos;
+		try {
+			codigos = votos.isEmpty() ? Set.of() : transactionTemplate.execute(s -> aplicar(votos));
+		} catch (RuntimeException e) {
+			devolver(lotes);
+			throw e;
+		}
+
+		for (int i = 0; i < listras.length; i++) {
+			if (lotes[i] == null) {
+				continue;
+			}
+			synchronized (listras[i]) {
+				listras[i].pousar();
+			}
+			try {
+				JournalVotos.apagar(lotes[i].segmentos());
+			} catch (IOException e) {
+				// Um segmento que não foi esvaziado seria reaplicado num restart e poderia desfazer votos gravados
+				// depois dele; tenta de novo na próxima gravação
+				logger.error("Não foi possível descartar segmento do journal de votos", e);
+				synchronized (listras[i]) {
+					listras[i].segmentosPendentes.addAll(lotes[i].segmentos());
+				}
+			}
+		}
+		for (String codigo : codigos) {
+			eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(codigo));
+		}
+		return votos.size();
+	}
+
+	/** Votos aceitos e ainda não gravados no banco. */
+	public int getPendentes() {
+		if (!ativo) {
+			return 0;
+		}
+		int pendentes = 0;
+		for (Listra l : listras) {
+			synchronized (l) {
+				pendentes += l.votos.size() + (l.emVoo != null ? l.emVoo.votos().size() : 0);
+			}
+		}
+		return pendentes;
+	}
+
+	private void gravarComLog() {
+		try {
+			int gravados = gravar();
+			if (gravados > 0) {
+				logger.debug("Buffer de votos: {} votos gravados", gravados);
+			}
+		} catch (RuntimeException e) {
+			logger.error("Erro ao gravar buffer de votos (nova tentativa na próxima rodada): {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Aplica o estado final dos votos: compara com o que está no banco, remove e insere as linhas que mudaram e soma
+	 * a diferença aos contadores. Votos em comentários que foram removidos nesse meio tempo são descartados.
+	 * @return códigos das disciplinas com comentários alterados
+	 */
+	private Set<String> aplicar(Map<Chave, Boolean> votos) {
+		List<Long> ids = new ArrayList<>(new HashSet<>(votos.keySet().stream().map(Chave::comentarioId).toList()));
+		Map<Long, String> codigoPorComentario = new HashMap<>();
+		for (int i = 0; i < ids.size(); i += LOTE_IDS) {
+			List<Long> parte = ids.subList(i, Math.min(ids.size(), i + LOTE_IDS));
+			jdbcTemplate.query("SELECT c.comentario_id, d.codigo FROM comentarios c JOIN disciplinas d "
+					+ "ON d.disciplina_id = c.disciplina_id WHERE c.comentario_id IN (" + marcadores(parte.size(), "?") + ")",
+					rs -> { codigoPorComentario.put(rs.getLong(1), rs.getString(2)); }, parte.toArray());
+		}
+
+		List<Chave> chaves = votos.keySet().stream().filter(k -> codigoPorComentario.containsKey(k.comentarioId())).toList();
+		Map<Chave, Boolean> noBanco = new HashMap<>();
+		for (int i = 0; i < chaves.size(); i += LOTE_IDS) {
+			List<Chave> parte = chaves.subList(i, Math.min(chaves.size(), i + LOTE_IDS));
+			Object[] parametros = new Object[parte.size() * 2];
+			for (int j = 0; j < parte.size(); j++) {
+				parametros[2 * j] = parte.get(j).comentarioId();
+				parametros[2 * j + 1] = parte.get(j).email();
+			}
+			jdbcTemplate.query("SELECT comentario_id, user_email, is_upvote FROM comentario_votes "
+					+ "WHERE (comentario_id, user_email) IN (" + marcadores(parte.size(), "(?, ?)") + ")",
+					rs -> { noBanco.put(new Chave(rs.getLong(1), rs.getString(2)), rs.getBoolean(3)); }, parametros);
+		}
+
+		List<Object[]> remover = new ArrayList<>();
+		List<Object[]> inserir = new ArrayList<>();
+		Map<Long, int[]> deltas = new HashMap<>();
+		for (Chave k : chaves) {
+			Boolean anterior = noBanco.get(k);
+			Boolean novo = votos.get(k);
+			if (Objects.equals(anterior, novo)) {
+				continue;
+			}
+			if (anterior != null) {
+				remover.add(new Object[] { k.comentarioId(), k.email() });
+			}
+			if (novo != null) {
+				inserir.add(new Object[] { k.comentarioId(), k.email(), novo });
+			}
+			int[] d = deltas.computeIfAbsent(k.comentarioId(), id -> new int[2]);
+			d[0] += (Boolean.TRUE.equals(novo) ? 1 : 0) - (Boolean.TRUE.equals(anterior) ? 1 : 0);
+			d[1] += (Boolean.FALSE.equals(novo) ? 1 : 0) - (Boolean.FALSE.equals(anterior) ? 1 : 0);
+		}
+
+		jdbcTemplate.batchUpdate("DELETE FROM comentario_votes WHERE comentario_id = ? AND user_email = ?", remover);
+		jdbcTemplate.batchUpdate("INSERT INTO comentario_votes (comentario_id, user_email, is_upvote) VALUES (?, ?, ?)", inserir);
+		List<Object[]> contadores = new ArrayList<>();
+		Set<String> codigos = new HashSet<>();
+		for (Map.Entry<Long, int[]> e : deltas.entrySet()) {
+			if (e.getValue()[0] != 0 || e.getValue()[1] != 0) {
+				contadores.add(new Object[] { e.getValue()[0], e.getValue()[1], e.getKey() });
+				codigos.add(codigoPorComentario.get(e.getKey()));
+			}
+		}
+		jdbcTemplate.batchUpdate("UPDATE comentarios SET up_votes = COALESCE(up_votes, 0) + ?, "
+				+ "down_votes = COALESCE(down_votes, 0) + ? WHERE comentario_id = ?", contadores);
+		return codigos;
+	}
+
+	/**
+	 * Devolve às listras os lotes de uma gravação que falhou. O que chegou depois é mais novo e prevalece.
+	 */
+	private void devolver(Lote[] lotes) {
+		for (int i = 0; i < listras.length; i++) {
+			Lote lote = lotes[i];
+			if (lote == null) {
+				continue;
+			}
+			Listra l = listras[i];
+			synchronized (l) {
+				for (Map.Entry<Chave, Boolean> e : lote.votos().entrySet()) {
+					if (!l.votos.containsKey(e.getKey())) {
+						l.votos.put(e.getKey(), e.getValue());
+					}
+				}
+				for (Map.Entry<Long, Delta> e : lote.deltas().entrySet()) {
+					Delta d = l.deltas.computeIfAbsent(e.getKey(), id -> new Delta(e.getValue().codigo));
+					d.up += e.getValue().up;
+					d.down += e.getValue().down;
+				}
+				l.segmentosPendentes.addAll(lote.segmentos());
+				l.pousar();
+			}
+		}
+	}
+
+	/**
+	 * Recoloca no buffer os votos de segmentos que sobraram da execução anterior (queda antes da gravação). Eles entram
+	 * na primeira gravação e seus arquivos só são apagados depois dela.
+	 */
+	private void reaplicarJournal() throws IOException {
+		List<Path> segmentos = journal.segmentosExistentes();
+		int entradas = 0;
+		for (Path segmento : segmentos) {
+			for (JournalVotos.Entrada e : JournalVotos.ler(segmento)) {
+				Listra l = listras[(int) Math.floorMod(e.comentarioId(), (long) listras.length)];
+				l.votos.put(new Chave(e.comentarioId(), e.email()), e.voto());
+				entradas++;
+			}
+		}
+		if (!segmentos.isEmpty()) {
+			listras[0].segmentosPendentes.addAll(segmentos);
+			logger.info("Journal de votos: {} entradas reaplicadas de {} segmentos", entradas, segmentos.size());
+		}
+	}
+
+	private JournalVotos.Segmento abrirSegmento() {
+		try {
+			return journal.abrir();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Falha ao abrir segmento do journal de votos", e);
+		}
+	}
+
+	private static void fechar(JournalVotos.Segmento segmento) {
+		try {
+			segmento.close();
+		} catch (IOException e) {
+			logger.warn("Erro ao fechar segmento do journal de votos", e);
+		}
+	}
+
+	private static String marcadores(int quantidade, String marcador) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < quantidade; i++) {
+			sb.append(i == 0 ? "" : ", ").append(marcador);
+		}
+		return sb.toString();
+	}
+
+	private static int inteiro(Object valor) {
+		return valor == null ? 0 : ((Number) valor).intValue();
+	}
+}
@@ -0,0 +1,154 @@
+package com.example.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.DTO.AdminCommentDTO;
+import com.example.DTO.ArquivoDTO;
+import com.example.DTO.BuscaComentariosDTO;
+import com.example.DTO.ComentarioDeltaDTO;
+import com.example.repository.ArquivoComentarioRepository;
+import com.example.repository.ComentarioRepository;
+import com.example.search.IndiceComentarios;
+
+/**
+ * Busca do admin no texto dos comentários (incluindo respostas).
+ * <p>Mantém em memória um {@link IndiceComentarios}, montado com uma consulta quando a aplicação sobe e depois
+ * atualizado comentário a comentário pelos eventos de criação, edição ({@link ComentarioAlteradoEvent}) e remoção
+ * ({@link ComentariosRemovidosEvent}), só depois do commit. Os eventos esperam uma reconstrução em andamento
+ * terminar e são aplicados no índice novo, então nenhuma mudança se perde na troca.</p>
+ */
+@Service
+public class BuscaComentariosService {
+
+	private static final Logger logger = LoggerFactory.getLogger(BuscaComentariosService.class);
+
+	public static final int LIMITE_MAXIMO = 50;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private ArquivoComentarioRepository arquivoComentarioRepository;
+
+	private final AtomicReference<IndiceComentarios> indice = new AtomicReference<>(new IndiceComentarios());
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void inicializar() {
+		reconstruir();
+	}
+
+	/**
+	 * Reconstrói o índice a partir do banco. Em caso de erro o índice antigo continua servindo.
+	 */
+	public synchronized void reconstruir() {
+		try {
+			long inicio = System.nanoTime();
+			IndiceComentarios novo = new IndiceComentarios();
+			for (Object[] linha : comentarioRepository.findTextos()) {
+				novo.indexar((Long) linha[0], (String) linha[1]);
+			}
+			indice.set(novo);
+
+			logger.info("Índice de comentários reconstruído: {} comentários, {} termos em {} ms",
+					novo.getNumComentarios(), novo.getNumTermos(), (System.nanoTime() - inicio) / 1_000_000);
+		} catch (Exception e) {
+			logger.error("Erro ao reconstruir índice de comentários: {}", e.getMessage(), e);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void aoAlterarComentario(ComentarioAlteradoEvent event) {
+		ComentarioDeltaDTO delta = event.delta();
+		switch (delta.tipo()) {
+			case "CRIADO" -> indice.get().indexar(delta.id(), delta.comentario().texto());
+			case "EDITADO" -> indice.get().indexar(delta.id(), delta.texto());
+			default -> { }
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void aoRemoverComentarios(ComentariosRemovidosEvent event) {
+		IndiceComentarios atual = indice.get();
+		for (Long id : event.comentarioIds()) {
+			atual.remover(id);
+		}
+	}
+
+	/**
+	 * Comentários que contêm os termos da busca, dos mais relevantes para os menos.
+	 * <p>Paginação por cursor (score, id) do último entregue, sem OFFSET. O score depende do índice inteiro (quantos
+	 * comentários têm cada termo), então comentários criados, editados ou removidos entre duas páginas podem fazer
+	 * um resultado aparecer repetido ou ser pulado.</p>
+	 * @param cursor {@code proximoCursor} da página anterior, ou {@code null} para a primeira
+	 * @param limite tamanho da página, limitado a {@link #LIMITE_MAXIMO}
+	 * @throws IllegalArgumentException se o cursor for inválido
+	 */
+	@Transactional(readOnly = true)
+	public BuscaComentariosDTO buscar(String consulta, String cursor, int limite) {
+		int tamanho = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+		IndiceComentarios.Resultado depoisDe = cursor == null || cursor.isBlank() ? null : lerCursor(cursor);
+		IndiceComentarios.Pagina pagina = indice.get().buscar(consulta, depoisDe, tamanho);
+		if (pagina.resultados().isEmpty()) {
+			return new BuscaComentariosDTO(List.of(), pagina.total(), null);
+		}
+
+		List<Long> ids = new ArrayList<>(pagina.resultados().size());
+		for (IndiceComentarios.Resultado r : pagina.resultados()) {
+			ids.add(r.comentarioId());
+		}
+		// Duas consultas por página (colunas e anexos), sem carregar entidades nem as respostas
+		Map<Long, Object[]> porId = new HashMap<>();
+		for (Object[] l : comentarioRepository.findLinhasAdmin(ids)) {
+			porId.put((Long) l[0], l);
+		}
+		Map<Long, List<ArquivoDTO>> arquivos = new HashMap<>();
+		for (Object[] l : arquivoComentarioRepository.findLinhasPorComentarios(ids)) {
+			arquivos.computeIfAbsent((Long) l[0], k -> new ArrayList<>())
+					.add(new ArquivoDTO((Long) l[1], (String) l[2], (String) l[3], (Long) l[4]));
+		}
+		List<AdminCommentDTO> comentarios = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			// Removido depois de a busca ler o índice: só some da página
+			Object[] l = porId.get(id);
+			if (l != null) {
+				comentarios.add(AdminCommentDTO.deLinha(l, arquivos.getOrDefault(id, List.of())));
+			}
+		}
+		List<IndiceComentarios.Resultado> resultados = pagina.resultados();
+		String proximo = pagina.temMais() ? cursor(resultados.get(resultados.size() - 1)) : null;
+		return new BuscaComentariosDTO(comentarios, pagina.total(), proximo);
+	}
+
+	/** Cursor opaco com o score e o id do último resultado entregue. */
+	private static String cursor(IndiceComentarios.Resultado r) {
+		String valor = r.score() + "|" + r.comentarioId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static IndiceComentarios.Resultado lerCursor(String cursor) {
+		try {
+			String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+			if (partes.length != 2) {
+				throw new IllegalArgumentException("Cursor inválido");
+			}
+			return new IndiceComentarios.Resultado(Long.parseLong(partes[1]), Double.parseDouble(partes[0]));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Cursor inválido");
+		}
+	}
+}
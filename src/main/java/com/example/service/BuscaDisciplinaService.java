@@ -0,0 +1,121 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.DTO.DisciplinaSearchResultDTO;
+import com.example.model.Disciplina;
+import com.example.model.ProfessorDisciplina;
+import com.example.repository.DisciplinaRepository;
+import com.example.scrapper.ScrapingConcluidoEvent;
+import com.example.search.IndiceAproximado;
+import com.example.search.IndiceTrigramas;
+
+/**
+ * Busca server-side de disciplinas por código, nome ou professor.
+ * <p>Mantém em memória um {@link IndiceTrigramas} e um {@link IndiceAproximado} (tolerante a erros de digitação)
+ * construídos a partir do banco. Os índices são imutáveis e são trocados atomicamente quando a aplicação sobe e
+ * depois de cada execução bem-sucedida do scrapper, então as buscas nunca tocam o banco nem esperam pela
+ * reconstrução.</p>
+ */
+@Service
+public class BuscaDisciplinaService {
+
+	private static final Logger logger = LoggerFactory.getLogger(BuscaDisciplinaService.class);
+
+	public static final int LIMITE_MAXIMO = 50;
+
+	@Autowired
+	private DisciplinaRepository disciplinaRepository;
+
+	@Autowired
+	private TelemetriaBuscaService telemetriaBuscaService;
+
+	// Limite superior de edições por palavra na busca aproximada
+	@Value("${app.search.max-edit-distance:2}")
+	private int maxDistanciaEdicao;
+
+	private final AtomicReference<IndiceTrigramas> indice = new AtomicReference<>(IndiceTrigramas.vazio());
+
+	private final AtomicReference<IndiceAproximado> indiceAproximado = new AtomicReference<>(IndiceAproximado.vazio());
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void inicializar() {
+		reconstruir();
+	}
+
+	@EventListener
+	public void aoConcluirScraping(ScrapingConcluidoEvent event) {
+		reconstruir();
+	}
+
+	/**
+	 * Reconstrói o índice a partir do banco e substitui o atual. Em caso de erro o índice antigo continua servindo.
+	 */
+	public void reconstruir() {
+		try {
+			long inicio = System.nanoTime();
+			List<Disciplina> disciplinas = disciplinaRepository.findAllComProfessores();
+
+			IndiceTrigramas.Builder builder = IndiceTrigramas.builder();
+			IndiceAproximado.Builder builderAproximado = IndiceAproximado.builder();
+			for (Disciplina d : disciplinas) {
+				List<String> professores = new ArrayList<>();
+				for (ProfessorDisciplina pd : d.getProfessorDisciplinas()) {
+					professores.add(pd.getProfessor().getNome());
+				}
+				builder.adicionarDisciplina(d.getCodigo(), d.getNome(), professores);
+				builderAproximado.adicionarDisciplina(d.getCodigo(), d.getNome(), professores);
+			}
+			IndiceTrigramas novo = builder.build();
+			IndiceAproximado novoAproximado = builderAproximado.build();
+			indice.set(novo);
+			indiceAproximado.set(novoAproximado);
+
+			logger.info("Índice de busca reconstruído: {} disciplinas, {} entradas, {} trigramas, {} palavras no vocabulário em {} ms",
+					novo.getNumDisciplinas(), novo.getNumEntradas(), novo.getNumTrigramas(),
+					novoAproximado.getTamanhoVocabulario(), (System.nanoTime() - inicio) / 1_000_000);
+		} catch (Exception e) {
+			logger.error("Erro ao reconstruir índice de busca: {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Busca as disciplinas mais relevantes para o termo informado.
+	 * @param termo texto digitado pelo usuário
+	 * @param limite número máximo de resultados (limitado a {@link #LIMITE_MAXIMO})
+	 */
+	public List<DisciplinaSearchResultDTO> buscar(String termo, int limite) {
+		int k = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+		long inicio = System.nanoTime();
+		List<IndiceTrigramas.Resultado> resultados = indice.get().buscar(termo, k);
+		telemetriaBuscaService.registrar(TelemetriaBuscaService.Tipo.QUERY, termo, resultados.size(), System.nanoTime() - inicio);
+		return resultados.stream()
+				.map(DisciplinaSearchResultDTO::from)
+				.toList();
+	}
+
+	/**
+	 * Busca tolerante a erros de digitação nos nomes das disciplinas e dos professores.
+	 * @param distancia máximo de edições por palavra (limitado a {@code app.search.max-edit-distance}); nulo usa o máximo
+	 */
+	public List<DisciplinaSearchResultDTO> buscarAproximado(String termo, Integer distancia, int limite) {
+		int k = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+		int d = distancia == null ? maxDistanciaEdicao : Math.max(0, Math.min(distancia, maxDistanciaEdicao));
+		long inicio = System.nanoTime();
+		List<IndiceTrigramas.Resultado> resultados = indiceAproximado.get().buscar(termo, d, k);
+		telemetriaBuscaService.registrar(TelemetriaBuscaService.Tipo.FUZZY, termo, resultados.size(), System.nanoTime() - inicio);
+		return resultados.stream()
+				.map(DisciplinaSearchResultDTO::from)
+				.toList();
+	}
+}
@@ -0,0 +1,176 @@
+package com.example.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.DTO.CachePaginaDisciplinaDTO;
+import com.example.scrapper.ScrapingConcluidoEvent;
+
+/**
+ * Cache da parte da página de disciplina que é igual para todos os visitantes (professores, avaliações e árvores de
+ * comentários), por disciplina. Os dados do usuário são sobrepostos a cada requisição por
+ * {@link PaginaDisciplinaService#paraUsuario}.
+ * <p>Invalidação por versão: cada disciplina tem um contador incrementado (depois do commit) a cada comentário, voto,
+ * anexo, denúncia ou avaliação; a entrada guarda a versão lida <em>antes</em> de montar a página e só vale enquanto
+ * ela for a atual. Assim uma escrita concorrente com a montagem nunca deixa uma página velha marcada como atual. O
+ * scraping e a remoção de usuários invalidam tudo (geração global).</p>
+ * <p>O cache é um LRU limitado a {@code app.class-page.cache.max-entries} disciplinas.</p>
+ */
+@Service
+public class CachePaginaDisciplinaService {
+
+	private static final Logger logger = LoggerFactory.getLogger(CachePaginaDisciplinaService.class);
+
+	@Value("${app.class-page.cache.max-entries:500}")
+	private int capacidade;
+
+	@Autowired
+	private PaginaDisciplinaService paginaDisciplinaService;
+
+	private record Entrada(long geracao, long versao, PaginaDisciplinaService.PaginaCompartilhada pagina) {}
+
+	private static final class Metricas {
+		final Instant desde = Instant.now();
+		final LongAdder acertos = new LongAdder();
+		final LongAdder faltas = new LongAdder();
+		final LongAdder obsoletas = new LongAdder();
+		final LongAdder invalidacoes = new LongAdder();
+		final LongAdder remocoes = new LongAdder();
+	}
+
+	private final Map<String, AtomicLong> versoes = new ConcurrentHashMap<>();
+	private final AtomicLong geracao = new AtomicLong();
+	private final AtomicReference<Metricas> metricas = new AtomicReference<>(new Metricas());
+
+	// LinkedHashMap em ordem de acesso: get() também altera a estrutura, então todo acesso é sincronizado
+	private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+			if (size() > capacidade) {
+				metricas.get().remocoes.increment();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * Página da disciplina para o usuário, com a parte compartilhada vinda do cache quando possível.
+	 * @param codigo código da disciplina (sem diferenciar maiúsculas)
+	 * @param userEmail usuário logado, ou {@code null}
+	 */
+	public Optional<PaginaDisciplinaService.Pagina> carregar(String codigo, String userEmail) {
+		String chave = chave(codigo);
+		// Versão lida antes de montar: uma escrita durante a montagem deixa a entrada já obsoleta
+		long geracaoAtual = geracao.get();
+		long versaoAtual = versaoAtual(chave);
+		Metricas m = metricas.get();
+
+		Entrada entrada;
+		synchronized (entradas) {
+			entrada = entradas.get(chave);
+		}
+		PaginaDisciplinaService.PaginaCompartilhada compartilhada;
+		if (entrada != null && entrada.geracao() == geracaoAtual && entrada.versao() == versaoAtual) {
+			m.acertos.increment();
+			compartilhada = entrada.pagina();
+		} else {
+			(entrada == null ? m.faltas : m.obsoletas).increment();
+			Optional<PaginaDisciplinaService.PaginaCompartilhada> opt = paginaDisciplinaService.carregarCompartilhada(codigo);
+			if (opt.isEmpty()) {
+				return Optional.empty();
+			}
+			compartilhada = opt.get();
+			Entrada nova = new Entrada(geracaoAtual, versaoAtual, compartilhada);
+			synchronized (entradas) {
+				// Não sobrescreve uma entrada mais nova montada por uma requisição concorrente
+				Entrada existente = entradas.get(chave);
+				if (existente == null || existente.geracao() < geracaoAtual
+						|| (existente.geracao() == geracaoAtual && existente.versao() <= versaoAtual)) {
+					entradas.put(chave, nova);
+				}
+			}
+		}
+		return Optional.of(paginaDisciplinaService.paraUsuario(compartilhada, userEmail));
+	}
+
+	// Só depois do commit: antes disso uma leitura concorrente ainda veria os dados antigos com a versão nova
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoRegistrarAtividade(AtividadeDisciplinaEvent event) {
+		invalidar(event.disciplinaCodigo());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoAlterarConteudo(ConteudoDisciplinaAlteradoEvent event) {
+		if (event.disciplinaCodigo() == null) {
+			invalidarTudo();
+		} else {
+			invalidar(event.disciplinaCodigo());
+		}
+	}
+
+	@EventListener
+	public void aoConcluirScraping(ScrapingConcluidoEvent event) {
+		invalidarTudo();
+	}
+
+	/** Marca a página da disciplina como desatualizada; a próxima leitura monta de novo. */
+	public void invalidar(String codigo) {
+		if (codigo == null) {
+			return;
+		}
+		versoes.computeIfAbsent(chave(codigo), k -> new AtomicLong()).incrementAndGet();
+		metricas.get().invalidacoes.increment();
+	}
+
+	public void invalidarTudo() {
+		geracao.incrementAndGet();
+		synchronized (entradas) {
+			entradas.clear();
+		}
+		metricas.get().invalidacoes.increment();
+		logger.debug("Cache da página de disciplina invalidado por completo");
+	}
+
+	public CachePaginaDisciplinaDTO getResumo() {
+		Metricas m = metricas.get();
+		long acertos = m.acertos.sum();
+		long leituras = acertos + m.faltas.sum() + m.obsoletas.sum();
+		int tamanho;
+		synchronized (entradas) {
+			tamanho = entradas.size();
+		}
+		return new CachePaginaDisciplinaDTO(m.desde, tamanho, capacidade, acertos, m.faltas.sum(), m.obsoletas.sum(),
+				m.invalidacoes.sum(), m.remocoes.sum(), leituras == 0 ? 0 : (double) acertos / leituras);
+	}
+
+	/** Zera as métricas (as entradas continuam no cache). */
+	public void resetarMetricas() {
+		metricas.set(new Metricas());
+	}
+
+	// Sem criar o contador: códigos inexistentes pedidos pela URL não ocupam memória
+	private long versaoAtual(String chave) {
+		AtomicLong versao = versoes.get(chave);
+		return versao == null ? 0 : versao.get();
+	}
+
+	private static String chave(String codigo) {
+		return codigo.toLowerCase(Locale.ROOT);
+	}
+}
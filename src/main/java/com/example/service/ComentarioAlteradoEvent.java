@@ -0,0 +1,10 @@
+package com.example.service;
+
+import com.example.DTO.ComentarioDeltaDTO;
+
+/**
+ * Publicado pelo {@link ComentarioService} quando um comentário da disciplina é criado, editado, votado ou removido
+ * (votos com o buffer ativo saem do {@link BufferVotosService}); o {@link TransmissaoComentariosService} repassa o
+ * {@code delta} para as páginas abertas da disciplina.
+ */
+public record ComentarioAlteradoEvent(String disciplinaCodigo, ComentarioDeltaDTO delta) {}
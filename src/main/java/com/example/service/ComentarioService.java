@@ -5,12 +5,15 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -18,56 +21,136 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.config.DialetoBanco;
 import com.example.factory.ComentarioFactory;
 import com.example.model.Comentario;
 import com.example.model.Disciplina;
 import com.example.model.Professor;
 import com.example.model.Usuario;
+import com.example.repository.ArquivoComentarioRepository;
 import com.example.repository.ComentarioRepository;
+import com.example.repository.DisciplinaRepository;
+import com.example.repository.ProfessorRepository;
 
 import com.example.DTO.ComentarioDTO;	
+import com.example.DTO.ComentarioDeltaDTO;
+import com.example.DTO.VotoDTO;
 
 
 @Service
 public class ComentarioService {
+
+	 private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ComentarioService.class);
     
     @Autowired
     private ComentarioRepository comentarioRepository;
 
+	@Autowired
+	private ArquivoComentarioRepository arquivoComentarioRepository;
+
+	@Autowired
+	private DisciplinaRepository disciplinaRepository;
+
+	@Autowired
+	private ProfessorRepository professorRepository;
+
 	@Autowired
 	private ApplicationEventPublisher eventPublisher;
 
+	@Autowired
+	private DialetoBanco dialetoBanco;
+
+	@Autowired
+	private BufferVotosService bufferVotosService;
+
+	@Autowired
+	private ModeracaoTextoService moderacaoTextoService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	// Denúncias necessárias para o comentário ir para a fila de moderação
+	@Value("${app.moderacao.limite-denuncias:3}")
+	private int limiteDenuncias;
+
+	// Máximo de ids por IN (o Postgres limita a quantidade de parâmetros por consulta)
+	private static final int LOTE_IDS = 1000;
+
+	 // Remove o comentário com todas as respostas (ver deletar(Long))
+	 @Transactional
 	 public void delete(Comentario comentario) {
-		  comentarioRepository.delete(comentario);
+		  deletar(comentario.getComentarioId());
 	 }
 
     // ✅ Criar comentário principal (com disciplina e professor)
+	@Transactional
     public Comentario criarComentario(Usuario usuario, String texto, Disciplina disciplina, Professor professor) {
         Comentario comentario = ComentarioFactory.criarComentario(usuario, texto, disciplina, professor, null);
         // Verificar se o comentário é incomum e marcar como alarmante se necessário
-        comentario.atualizarStatusAlarmante();
-        return comentarioRepository.save(comentario);
+        comentario.atualizarStatusAlarmante(moderacaoTextoService.getAutomato());
+        Comentario saved = comentarioRepository.save(comentario);
+        saved.definirHierarquia();
+        eventPublisher.publishEvent(new AtividadeDisciplinaEvent(disciplina.getCodigo(), 1));
+        publicarDelta(disciplina.getCodigo(), ComentarioDeltaDTO.criado(ComentarioDTO.from(saved, null, Map.of())));
+        return saved;
     }
 
 
 	 public Comentario edit(Comentario comentario, String novoTexto) {
 		  comentario.edit(novoTexto);
-		  return comentarioRepository.save(comentario);
+		  // A edição só pode colocar na fila de moderação; tirar dela continua com o admin
+		  if (moderacaoTextoService.getAutomato().contemAlgum(novoTexto)) {
+				comentario.setAlarmante(true);
+		  }
+		  Comentario saved = comentarioRepository.save(comentario);
+		  String codigo = publicarAlteracao(saved.getComentarioId());
+		  publicarDelta(codigo, ComentarioDeltaDTO.editado(saved.getComentarioId(), saved.getTexto(), saved.getEditedAt()));
+		  return saved;
 	 }
 
 	 public Comentario salvar(Comentario comentario) {
-		  return comentarioRepository.save(comentario);
+		  Comentario saved = comentarioRepository.save(comentario);
+		  publicarAlteracao(saved.getComentarioId());
+		  return saved;
+	 }
+
+	 // Avisa quem guarda a página da disciplina do comentário (ex: o cache da página) que ela mudou; retorna o código
+	 private String publicarAlteracao(Long comentarioId) {
+		  String codigo = comentarioRepository.findDisciplinaCodigo(comentarioId);
+		  eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(codigo));
+		  return codigo;
+	 }
+
+	 // Mudança para as páginas abertas da disciplina (TransmissaoComentariosService), entregue depois do commit
+	 private void publicarDelta(String disciplinaCodigo, ComentarioDeltaDTO delta) {
+		  eventPublisher.publishEvent(new ComentarioAlteradoEvent(disciplinaCodigo, delta));
 	 }
     
     // Responder comentário (herda disciplina/professor do pai)
 	@Transactional
     public Comentario responderComentario(Usuario usuario, String texto, Long parentId) {
-        Comentario parent = comentarioRepository.findById(parentId)
-                .orElseThrow(() -> new IllegalArgumentException("Comentário pai não encontrado"));
+		// Pai, disciplina e professor entram como referências: o custo não depende do tamanho da thread
+		List<Object[]> contexto = comentarioRepository.findContextoResposta(parentId);
+		if (contexto.isEmpty()) {
+			throw new IllegalArgumentException("Comentário pai não encontrado");
+		}
+		Object[] pai = contexto.get(0);
+		if (pai[3] != null && ((String) pai[3]).length() / (Comentario.DIGITOS_SEGMENTO + 1) >= Comentario.NIVEIS_MAXIMOS) {
+			throw new IllegalArgumentException("Limite de " + Comentario.NIVEIS_MAXIMOS + " níveis de resposta atingido.");
+		}
 
-		Comentario resposta = ComentarioFactory.criarComentario(usuario, texto, null, null, parent);
-		Comentario saved = comentarioRepository.save(resposta); 
+		Comentario resposta = ComentarioFactory.criarResposta(usuario, texto,
+				comentarioRepository.getReferenceById(parentId),
+				disciplinaRepository.getReferenceById((Long) pai[0]),
+				professorRepository.getReferenceById((String) pai[1]));
+		resposta.atualizarStatusAlarmante(moderacaoTextoService.getAutomato());
+		Comentario saved = comentarioRepository.save(resposta);
+		saved.definirHierarquia((Long) pai[2], (String) pai[3]);
+		comentarioRepository.ajustarDescendentes(saved.getAncestraisIds(), 1);
+		eventPublisher.publishEvent(new AtividadeDisciplinaEvent((String) pai[4], 1));
+		publicarDelta((String) pai[4], ComentarioDeltaDTO.criado(ComentarioDTO.from(saved, null, Map.of())));
 		
 		return saved;
     }
@@ -75,20 +158,62 @@ public class ComentarioService {
 	 // ✅ Buscar comentários de uma disciplina (sem professor)
 	 @Transactional(readOnly = true)
 	 public List<ComentarioDTO> buscarComentariosDisciplina(Disciplina disciplina, String sessionUsuarioEmail) {
-		  List<Comentario> comentarios = comentarioRepository.findByDisciplinaAndProfessorIsNullAndPaiIsNull(disciplina);
-		  return comentarios.stream()
-		 		.map(c -> ComentarioDTO.from(c, sessionUsuarioEmail))
-				.collect(Collectors.toList());
+		  return montarThreads(comentarioRepository.findByDisciplinaAndProfessorIsNullAndPaiIsNull(disciplina), sessionUsuarioEmail);
 	 }
 	 
 	 // ✅ Buscar comentários de um professor
 	 @Transactional(readOnly = true)
 	 public List<ComentarioDTO> buscarComentariosProfessor(Disciplina disciplina, Professor professor, String sessionUsuarioEmail) {
-		  List<Comentario> comentarios = comentarioRepository.findByDisciplinaAndProfessorAndPaiIsNull(disciplina, professor);
-		  return comentarios.stream()
-				.map(c -> ComentarioDTO.from(c, sessionUsuarioEmail))
+		  return montarThreads(comentarioRepository.findByDisciplinaAndProfessorAndPaiIsNull(disciplina, professor), sessionUsuarioEmail);
+	 }
+
+	 /**
+	  * Monta as threads dos comentários principais: as respostas de todos os níveis vêm pela faixa (root_id, path), em
+	  * lotes de {@link #LOTE_IDS} threads, e são agrupadas pelo pai (último id do {@code path}), sem percorrer
+	  * {@code filhos}.
+	  */
+	 private List<ComentarioDTO> montarThreads(List<Comentario> raizes, String sessionUsuarioEmail) {
+		  List<Long> rootIds = raizes.stream().map(Comentario::getComentarioId).toList();
+		  List<Long> ids = new ArrayList<>(rootIds);
+		  Map<Long, List<Comentario>> respostasPorPai = new HashMap<>();
+		  for (int i = 0; i < rootIds.size(); i += LOTE_IDS) {
+				for (Comentario r : comentarioRepository.findRespostasDasThreadsEntidades(rootIds.subList(i, Math.min(i + LOTE_IDS, rootIds.size())))) {
+					 List<Long> ancestrais = r.getAncestraisIds();
+					 respostasPorPai.computeIfAbsent(ancestrais.get(ancestrais.size() - 1), k -> new ArrayList<>()).add(r);
+					 ids.add(r.getComentarioId());
+				}
+		  }
+		  Map<Long, Boolean> votos = buscarVotosDoUsuario(ids, sessionUsuarioEmail);
+		  return raizes.stream()
+				.map(c -> ComentarioDTO.from(c, sessionUsuarioEmail, votos, respostasPorPai))
 				.collect(Collectors.toList());
 	 }
+
+	 /**
+	  * Votos do usuário nos comentários informados, em lotes de {@link #LOTE_IDS} ids.
+	  * Só as linhas do usuário saem do banco, não os votos de todo mundo.
+	  */
+	 private Map<Long, Boolean> buscarVotosDoUsuario(List<Long> ids, String userEmail) {
+		  if (userEmail == null || ids.isEmpty()) {
+				return Map.of();
+		  }
+		  Map<Long, Boolean> votos = new HashMap<>();
+		  for (int i = 0; i < ids.size(); i += LOTE_IDS) {
+				for (Object[] l : comentarioRepository.findVotosDoUsuario(ids.subList(i, Math.min(i + LOTE_IDS, ids.size())), userEmail)) {
+					 votos.put((Long) l[0], (Boolean) l[1]);
+				}
+		  }
+		  return votos;
+	 }
+
+	 /**
+	  * Voto atual do usuário no comentário: true (upvote), false (downvote) ou null (sem voto)
+	  */
+	 @Transactional(readOnly = true)
+	 public Boolean buscarVotoDoUsuario(Long comentarioId, String userEmail) {
+		  List<Object[]> linhas = comentarioRepository.findVotosDoUsuario(List.of(comentarioId), userEmail);
+		  return linhas.isEmpty() ? null : (Boolean) linhas.get(0)[1];
+	 }
     
     // Buscar comentário por ID
     public Optional<Comentario> buscarPorId(Long id) {
@@ -100,22 +225,131 @@ public class ComentarioService {
         return comentarioRepository.findAll();
     }
 
-    public void deletar(Long id) {
-        comentarioRepository.deleteById(id);
-    }
+	 /**
+	  * Remove o comentário com todas as respostas sem carregar nenhum deles: a subárvore sai num comando pela faixa do
+	  * {@code path}, e votos, denúncias e anexos saem em cascata no banco. Os ancestrais perdem a subárvore no
+	  * {@code descendentesCount} e os arquivos dos anexos são apagados do disco depois do commit
+	  * ({@link LimpezaArquivosService}).
+	  * @return quantidade de comentários removidos (0 se o comentário não existe)
+	  */
+	 @Transactional
+	 public int deletar(Long id) {
+		  List<Object[]> hierarquia = comentarioRepository.findHierarquia(id);
+		  if (hierarquia.isEmpty()) {
+				return 0;
+		  }
+		  Long rootId = (Long) hierarquia.get(0)[0];
+		  String path = (String) hierarquia.get(0)[1];
+		  String prefixo = path + "%";
+		  String disciplinaCodigo = comentarioRepository.findDisciplinaCodigo(id);
+
+		  List<String> arquivos = arquivoComentarioRepository.findCaminhosDaSubarvore(rootId, prefixo);
+		  List<Long> ids = comentarioRepository.findIdsDaSubarvore(rootId, prefixo);
+		  int removidos = comentarioRepository.excluirSubarvore(rootId, prefixo);
+		  List<Long> ancestrais = Comentario.ancestraisDoPath(path);
+		  if (!ancestrais.isEmpty()) {
+				comentarioRepository.ajustarDescendentes(ancestrais, -removidos);
+		  }
+		  eventPublisher.publishEvent(new AtividadeDisciplinaEvent(disciplinaCodigo, -removidos));
+		  publicarDelta(disciplinaCodigo, ComentarioDeltaDTO.removido(id));
+		  eventPublisher.publishEvent(new ComentariosRemovidosEvent(ids));
+		  if (!arquivos.isEmpty()) {
+				eventPublisher.publishEvent(new ArquivosRemovidosEvent(arquivos));
+		  }
+		  return removidos;
+	 }
+
+	 /**
+	  * Remove todos os comentários e respostas do usuário (com as respostas de outros abaixo deles) pelo mesmo caminho
+	  * de {@link #deletar(Long)}, para contadores, anexos, índice de busca e páginas abertas ficarem em dia. Um
+	  * comentário que já saiu junto com um de cima conta 0.
+	  * @return quantidade de comentários removidos
+	  */
+	 @Transactional
+	 public int deletarDoUsuario(String email) {
+		  int removidos = 0;
+		  for (Long id : comentarioRepository.findIdsDoUsuario(email)) {
+				removidos += deletar(id);
+		  }
+		  return removidos;
+	 }
+
+	 // Email do autor do comentário, sem carregá-lo (null se não existe)
+	 @Transactional(readOnly = true)
+	 public String buscarEmailDoAutor(Long comentarioId) {
+		  return comentarioRepository.findAutorEmail(comentarioId);
+	 }
     
     // Verificar se existe comentário
     public boolean existe(Long id) {
         return comentarioRepository.existsById(id);
     }
 
-	 public void vote(String userEmail, Long comentarioId, Boolean isUpVote) throws Exception {
-		  Comentario comentario = comentarioRepository.findById(comentarioId)
-					 .orElseThrow(() -> new IllegalArgumentException("Comentário não encontrado"));
-		  
-		  comentario.addUserVote(userEmail, isUpVote);
-		  
-		  comentarioRepository.save(comentario);
+	 /**
+	  * Registra o clique do usuário num voto sem carregar o comentário: a linha em {@code comentario_votes} é gravada ou
+	  * removida com um comando e os contadores recebem só o delta ({@code up_votes = up_votes + ?}), então votos
+	  * simultâneos no mesmo comentário não se sobrescrevem. Clicar de novo no mesmo voto o desfaz.
+	  * <p>Com o buffer de votos ativo ({@link BufferVotosService}), o voto é gravado depois, em lote. Esse caminho roda
+	  * fora de transação: o voto pode esperar a gravação em andamento, e esperar segurando uma conexão do pool deixaria
+	  * a própria gravação sem conexão numa rajada de votos.</p>
+	  * @return contadores atualizados e o voto atual do usuário
+	  */
+	 public VotoDTO vote(String userEmail, Long comentarioId, Boolean isUpVote) {
+		  if (isUpVote == null) {
+				throw new IllegalArgumentException("isUpVote não pode ser nulo.");
+		  }
+		  if (bufferVotosService.isAtivo()) {
+				return bufferVotosService.votar(comentarioId, userEmail, isUpVote);
+		  }
+		  return transactionTemplate.execute(s -> votarNoBanco(userEmail, comentarioId, isUpVote));
+	 }
+
+	 private VotoDTO votarNoBanco(String userEmail, Long comentarioId, boolean isUpVote) {
+		  String codigo = comentarioRepository.findDisciplinaCodigo(comentarioId);
+		  if (codigo == null) {
+				throw new IllegalArgumentException("Comentário não encontrado");
+		  }
+
+		  boolean voto = isUpVote;
+		  Boolean anterior;
+		  Boolean atual;
+		  if (dialetoBanco.isPostgres()) {
+				List<Boolean> gravado = comentarioRepository.upsertVotoPostgres(comentarioId, userEmail, voto);
+				if (!gravado.isEmpty()) {
+					 anterior = gravado.get(0) ? null : !voto;
+					 atual = voto;
+				} else if (comentarioRepository.removerVotoIgual(comentarioId, userEmail, voto) > 0) {
+					 anterior = voto;
+					 atual = null;
+				} else {
+					 // Outro clique do mesmo usuário mudou o voto entre os dois comandos; este fica sem efeito
+					 anterior = atual = null;
+				}
+		  } else if (comentarioRepository.removerVotoIgual(comentarioId, userEmail, voto) > 0) {
+				anterior = voto;
+				atual = null;
+		  } else {
+				List<Boolean> invertido = comentarioRepository.mergeVotoH2(comentarioId, userEmail, voto);
+				anterior = invertido.isEmpty() ? null : invertido.get(0);
+				atual = voto;
+		  }
+
+		  int up = (Boolean.TRUE.equals(atual) ? 1 : 0) - (Boolean.TRUE.equals(anterior) ? 1 : 0);
+		  int down = (Boolean.FALSE.equals(atual) ? 1 : 0) - (Boolean.FALSE.equals(anterior) ? 1 : 0);
+		  if (up == 0 && down == 0) {
+				Object[] contadores = comentarioRepository.findContadoresVotos(comentarioId).get(0);
+				return new VotoDTO(inteiro(contadores[0]), inteiro(contadores[1]), buscarVotoDoUsuario(comentarioId, userEmail));
+		  }
+		  Object[] contadores = (dialetoBanco.isPostgres()
+					 ? comentarioRepository.ajustarVotosPostgres(comentarioId, up, down)
+					 : comentarioRepository.ajustarVotosH2(comentarioId, up, down)).get(0);
+		  eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(codigo));
+		  publicarDelta(codigo, ComentarioDeltaDTO.votos(comentarioId, inteiro(contadores[0]), inteiro(contadores[1])));
+		  return new VotoDTO(inteiro(contadores[0]), inteiro(contadores[1]), atual);
+	 }
+
+	 private static int inteiro(Object valor) {
+		  return valor == null ? 0 : ((Number) valor).intValue();
 	 }
 
 	 // ==================== Métodos para Admin ====================
@@ -163,27 +397,41 @@ public class ComentarioService {
 					 .orElseThrow(() -> new IllegalArgumentException("Comentário não encontrado"));
 		  
 		  comentario.marcarComoSeguro();
+		  eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(comentario.getDisciplina().getCodigo()));
 		  return comentarioRepository.save(comentario);
 	 }
 
 	 /**
-	  * Denunciar um comentário
+	  * Denunciar um comentário. A denúncia é inserida só se o usuário ainda não denunciou e o contador é somado no
+	  * banco, então o custo não depende de quantas denúncias o comentário já tem. Ao chegar a
+	  * {@code app.moderacao.limite-denuncias}, o comentário entra na fila de moderação (alarmantes do admin).
 	  * @param comentarioId ID do comentário
 	  * @param userEmail Email do usuário que está denunciando
 	  * @return true se a denúncia foi registrada, false se o usuário já denunciou
 	  */
 	 @Transactional
 	 public boolean denunciar(Long comentarioId, String userEmail) {
-		  Comentario comentario = comentarioRepository.findById(comentarioId)
-					 .orElseThrow(() -> new IllegalArgumentException("Comentário não encontrado"));
-		  
-		  boolean denunciaAdicionada = comentario.adicionarDenuncia(userEmail);
-		  
-		  if (denunciaAdicionada) {
-				comentarioRepository.save(comentario);
+		  if (userEmail == null || userEmail.isBlank()) {
+				throw new IllegalArgumentException("Email do usuário é obrigatório para denunciar");
 		  }
-		  
-		  return denunciaAdicionada;
+		  String codigo = comentarioRepository.findDisciplinaCodigo(comentarioId);
+		  if (codigo == null) {
+				throw new IllegalArgumentException("Comentário não encontrado");
+		  }
+
+		  int inseridas = dialetoBanco.isPostgres()
+					 ? comentarioRepository.inserirDenunciaPostgres(comentarioId, userEmail)
+					 : comentarioRepository.inserirDenunciaH2(comentarioId, userEmail);
+		  if (inseridas == 0) {
+				return false; // Usuário já denunciou
+		  }
+
+		  comentarioRepository.somarDenuncia(comentarioId, limiteDenuncias);
+		  if (comentarioRepository.findDenunciasCount(comentarioId) == limiteDenuncias) {
+				logger.info("Comentário {} atingiu {} denúncias e entrou na fila de moderação", comentarioId, limiteDenuncias);
+		  }
+		  eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(codigo));
+		  return true;
 	 }
 
 	 /**
@@ -191,9 +439,8 @@ public class ComentarioService {
 	  */
 	 @Transactional(readOnly = true)
 	 public Usuario getUsuarioDoComentario(Long comentarioId) {
-		  Comentario comentario = comentarioRepository.findById(comentarioId)
+		  return comentarioRepository.findAutor(comentarioId)
 					 .orElseThrow(() -> new IllegalArgumentException("Comentário não encontrado"));
-		  return comentario.getUsuario();
 	 }
 	 
 	 
@@ -0,0 +1,9 @@
+package com.example.service;
+
+import java.util.List;
+
+/**
+ * Publicado pelo {@link ComentarioService} quando um comentário sai do banco junto com as respostas;
+ * {@code comentarioIds} são todos os removidos (ex: para tirá-los do índice da busca do admin).
+ */
+public record ComentariosRemovidosEvent(List<Long> comentarioIds) {}
@@ -0,0 +1,8 @@
+package com.example.service;
+
+/**
+ * Publicado quando algo exibido na página de uma disciplina muda sem criar ou remover nada (voto, edição, anexo,
+ * denúncia, nota alterada). {@code disciplinaCodigo} nulo significa que qualquer disciplina pode ter mudado
+ * (ex: usuário removido com todos os comentários).
+ */
+public record ConteudoDisciplinaAlteradoEvent(String disciplinaCodigo) {}
@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.example.model.AlteracaoCatalogo;
 import com.example.model.Disciplina;
 import com.example.model.Professor;
 import com.example.model.Usuario;
@@ -30,6 +31,9 @@ public class DisciplinaService {
 	 @Autowired
 	 private ProfessorService professorService;
 
+	 @Autowired
+	 private AlteracaoCatalogoService alteracaoCatalogoService;
+
     
     // Criar nova disciplina com semestre
     public Disciplina criarOuAtualizar(String codigo, String nome, Set<Professor> professores, @NonNull String ultimoSemestre) {
@@ -38,16 +42,19 @@ public class DisciplinaService {
         Optional<Disciplina> disciplina = disciplinaRepository.findByCodigo(codigo);
         logger.debug("Resultado existsByCodigo: {}", disciplina.isPresent() ? "ENCONTRADA" : "NÃO ENCONTRADA");
 		  Disciplina d;
-        if (disciplina.isPresent()) {
+		  boolean nova = disciplina.isEmpty();
+        if (!nova) {
 			  d = disciplina.get();
 			  logger.debug("*** DISCIPLINA EXISTENTE ENCONTRADA: {} (ID: {}) ***", codigo, d.getDisciplinaId());
             // Atualizar nome se necessário
             if (!nome.equals(d.getNome())) {
-                d.setNome(nome);
                 logger.debug("Nome da disciplina atualizado de '{}' para '{}'", d.getNome(), nome);
+                d.setNome(nome);
+                alteracaoCatalogoService.registrar(AlteracaoCatalogo.Tipo.DISCIPLINA_ALTERADA, codigo, null);
             }
         } else {
             d = new Disciplina(codigo, nome);
+            alteracaoCatalogoService.registrar(AlteracaoCatalogo.Tipo.DISCIPLINA_ADICIONADA, codigo, null);
 
             logger.info("*** CRIANDO NOVA DISCIPLINA: {} ***", codigo);
         }
@@ -72,11 +79,17 @@ public class DisciplinaService {
 
             if (!d.temProfessor(professor)) {
 					d.adicionarProfessor(professor, ultimoSemestre);
+					// Numa disciplina nova o registro DISCIPLINA_ADICIONADA já cobre os vínculos
+					if (!nova) {
+						alteracaoCatalogoService.registrar(AlteracaoCatalogo.Tipo.PROFESSOR_ADICIONADO, codigo, professor.getProfessorId());
+					}
 					logger.debug("Professor {} adicionado à disciplina {} (semestre: {})", 
 									professor.getNome(), codigo, ultimoSemestre);
             } else {
                 // Professor já existe, apenas atualizar o semestre se fornecido
-					d.atualizarSemestreProfessor(professor, ultimoSemestre);
+					if (d.atualizarSemestreProfessor(professor, ultimoSemestre)) {
+						alteracaoCatalogoService.registrar(AlteracaoCatalogo.Tipo.PROFESSOR_ALTERADO, codigo, professor.getProfessorId());
+					}
 					logger.debug("Professor {} já estava associado à disciplina {}, semestre atualizado para {}", 
 									professor.getNome(), codigo, ultimoSemestre);
             }
@@ -121,15 +134,14 @@ public class DisciplinaService {
         return disciplinaRepository.findByNome(nome);
     }
 
-    public ArrayList<Disciplina> buscarPorProfessor(String professorId) {
-        return disciplinaRepository.findByProfessor(professorId);
-    }
-
     public void deletarPorCodigo(String codigo) {
         disciplinaRepository.deleteByCodigo(codigo);
+        alteracaoCatalogoService.registrar(AlteracaoCatalogo.Tipo.DISCIPLINA_REMOVIDA, codigo, null);
     }
 
     public void deletar(Long id) {
+        disciplinaRepository.findById(id).ifPresent(d ->
+            alteracaoCatalogoService.registrar(AlteracaoCatalogo.Tipo.DISCIPLINA_REMOVIDA, d.getCodigo(), null));
         disciplinaRepository.deleteById(id);
     }
 
@@ -0,0 +1,84 @@
+package com.example.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.DTO.ProfessorDisciplinasDTO;
+import com.example.repository.ProfessorRepository;
+import com.example.scrapper.ScrapingConcluidoEvent;
+import com.example.search.IndiceProfessores;
+
+/**
+ * Mantém em memória o índice professor -> disciplinas, para que as consultas por professor não vão ao banco.
+ * <p>O índice é montado com uma única consulta quando a aplicação sobe e após cada scraping (único ponto em que os
+ * vínculos mudam), e trocado atomicamente: leitores sempre veem um índice completo.</p>
+ */
+@Service
+public class IndiceProfessoresService {
+
+	private static final Logger logger = LoggerFactory.getLogger(IndiceProfessoresService.class);
+
+	@Autowired
+	private ProfessorRepository professorRepository;
+
+	private final AtomicReference<IndiceProfessores> indice = new AtomicReference<>(IndiceProfessores.vazio());
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void inicializar() {
+		reconstruir();
+	}
+
+	@EventListener
+	public void aoConcluirScraping(ScrapingConcluidoEvent event) {
+		reconstruir();
+	}
+
+	/**
+	 * Reconstrói o índice a partir dos vínculos atuais do banco. Em caso de erro o índice antigo continua servindo.
+	 */
+	public void reconstruir() {
+		try {
+			long inicio = System.nanoTime();
+			IndiceProfessores.Builder builder = IndiceProfessores.builder();
+			for (Object[] linha : professorRepository.findAllVinculos()) {
+				String professorId = (String) linha[0];
+				String professorNome = (String) linha[1];
+				String codigo = (String) linha[2];
+				if (codigo == null) {
+					builder.adicionarProfessor(professorId, professorNome);
+				} else {
+					builder.adicionarVinculo(professorId, professorNome, codigo, (String) linha[3], (String) linha[4]);
+				}
+			}
+			IndiceProfessores novo = builder.build();
+			indice.set(novo);
+
+			logger.info("Índice de professores reconstruído: {} professores, {} vínculos em {} ms",
+					novo.getNumProfessores(), novo.getNumVinculos(), (System.nanoTime() - inicio) / 1_000_000);
+		} catch (Exception e) {
+			logger.error("Erro ao reconstruir índice de professores: {}", e.getMessage(), e);
+		}
+	}
+
+	/** Professor e as disciplinas que ele leciona, ou vazio se o id não existir. */
+	public Optional<ProfessorDisciplinasDTO> buscarProfessor(String professorId) {
+		IndiceProfessores atual = indice.get();
+		String nome = atual.nomeProfessor(professorId);
+		if (nome == null) {
+			return Optional.empty();
+		}
+		List<ProfessorDisciplinasDTO.DisciplinaLecionada> disciplinas = atual.disciplinasDoProfessor(professorId)
+				.stream()
+				.map(ProfessorDisciplinasDTO.DisciplinaLecionada::from)
+				.toList();
+		return Optional.of(new ProfessorDisciplinasDTO(professorId, nome, disciplinas));
+	}
+}
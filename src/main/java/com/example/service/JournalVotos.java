@@ -0,0 +1,164 @@
+package com.example.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Journal local, só de acréscimo, dos votos aceitos pelo {@link BufferVotosService} e ainda não gravados no banco.
+ * <p>Cada listra do buffer escreve no próprio segmento ({@code votos-<seq>.log}). A cada gravação no banco a listra
+ * abre um segmento novo, e o antigo só é apagado depois do commit. As linhas guardam o estado final do voto
+ * ({@code U}, {@code D} ou {@code -}), não o clique. Mesmo assim um segmento já gravado não pode ser reaplicado: o
+ * estado dele pode ser mais velho que um voto gravado depois, e o replay desfaria esse voto. Por isso
+ * {@link #apagar(List)} esvazia o segmento antes de removê-lo.</p>
+ * <p>Sem {@code sincronizar}, cada linha vai para o sistema operacional antes do voto ser confirmado: sobrevive a uma
+ * queda do processo, mas não a uma queda da máquina. Com {@code sincronizar} cada linha também é gravada em disco
+ * ({@code fsync}), ao custo de uma escrita síncrona por voto.</p>
+ */
+public final class JournalVotos {
+
+	private static final String PREFIXO = "votos-";
+	private static final String SUFIXO = ".log";
+
+	/** Estado do voto do usuário no comentário: true (upvote), false (downvote) ou {@code null} (sem voto). */
+	public record Entrada(long comentarioId, String email, Boolean voto) {}
+
+	private final Path diretorio;
+	private final boolean sincronizar;
+	private final AtomicLong sequencia;
+
+	public JournalVotos(Path diretorio, boolean sincronizar) throws IOException {
+		this.diretorio = Files.createDirectories(diretorio);
+		this.sincronizar = sincronizar;
+		// Continua a numeração dos segmentos que sobraram, para que a ordem de replay seja a ordem em que foram escritos
+		long maior = 0;
+		for (Path p : segmentosExistentes()) {
+			maior = Math.max(maior, sequenciaDe(p));
+		}
+		this.sequencia = new AtomicLong(maior);
+	}
+
+	/** Segmentos presentes no diretório, do mais antigo para o mais novo. */
+	public List<Path> segmentosExistentes() throws IOException {
+		try (Stream<Path> arquivos = Files.list(diretorio)) {
+			return arquivos.filter(JournalVotos::ehSegmento)
+					.sorted(Comparator.comparingLong(JournalVotos::sequenciaDe))
+					.toList();
+		}
+	}
+
+	public Segmento abrir() throws IOException {
+		return new Segmento(diretorio.resolve(PREFIXO + sequencia.incrementAndGet() + SUFIXO));
+	}
+
+	/**
+	 * Lê as entradas do segmento na ordem em que foram escritas. Uma última linha incompleta (queda no meio da escrita)
+	 * é ignorada: o voto dela não chegou a ser confirmado.
+	 */
+	public static List<Entrada> ler(Path segmento) throws IOException {
+		List<Entrada> entradas = new ArrayList<>();
+		String conteudo = Files.readString(segmento, StandardCharsets.UTF_8);
+		int inicio = 0;
+		int fim;
+		while ((fim = conteudo.indexOf('\n', inicio)) >= 0) {
+			Entrada e = decodificar(conteudo.substring(inicio, fim));
+			if (e != null) {
+				entradas.add(e);
+			}
+			inicio = fim + 1;
+		}
+		return entradas;
+	}
+
+	/**
+	 * Descarta segmentos já gravados no banco. Cada um é esvaziado (e o tamanho novo vai para o disco) antes de ser
+	 * removido: se a remoção falhar, o arquivo que sobra não tem nada a reaplicar.
+	 */
+	public static void apagar(List<Path> segmentos) throws IOException {
+		for (Path p : segmentos) {
+			try (FileChannel canal = FileChannel.open(p, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				canal.force(true);
+			} catch (NoSuchFileException e) {
+				continue;
+			}
+			Files.deleteIfExists(p);
+		}
+	}
+
+	private static Entrada decodificar(String linha) {
+		String[] partes = linha.split("\t");
+		if (partes.length != 3) {
+			return null;
+		}
+		try {
+			Boolean voto = switch (partes[2]) {
+				case "U" -> Boolean.TRUE;
+				case "D" -> Boolean.FALSE;
+				case "-" -> null;
+				default -> throw new IllegalArgumentException(partes[2]);
+			};
+			return new Entrada(Long.parseLong(partes[0]), partes[1], voto);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static boolean ehSegmento(Path p) {
+		String nome = p.getFileName().toString();
+		return nome.startsWith(PREFIXO) && nome.endsWith(SUFIXO) && sequenciaDe(p) > 0;
+	}
+
+	private static long sequenciaDe(Path p) {
+		String nome = p.getFileName().toString();
+		try {
+			return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+		} catch (RuntimeException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Segmento aberto para escrita. Não é thread-safe: cada listra escreve no seu sob o próprio lock.
+	 */
+	public final class Segmento implements Closeable {
+		private final Path caminho;
+		private final FileChannel canal;
+
+		private Segmento(Path caminho) throws IOException {
+			this.caminho = caminho;
+			this.canal = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+		}
+
+		public Path getCaminho() { return caminho; }
+
+		public void escrever(Entrada e) throws IOException {
+			String voto = e.voto() == null ? "-" : (e.voto() ? "U" : "D");
+			ByteBuffer linha = ByteBuffer.wrap((e.comentarioId() + "\t" + e.email() + "\t" + voto + "\n")
+					.getBytes(StandardCharsets.UTF_8));
+			while (linha.hasRemaining()) {
+				canal.write(linha);
+			}
+			if (sincronizar) {
+				canal.force(false);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			canal.close();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Apaga do disco, em segundo plano, os arquivos de anexos que já saíram do banco. Só roda depois do commit: se a
+ * transação voltar atrás, os arquivos continuam lá.
+ */
+@Service
+public class LimpezaArquivosService {
+
+	private static final Logger logger = LoggerFactory.getLogger(LimpezaArquivosService.class);
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(
+			Thread.ofVirtual().name("limpeza-arquivos").factory());
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoRemoverArquivos(ArquivosRemovidosEvent event) {
+		executor.execute(() -> {
+			int apagados = 0;
+			for (String caminho : event.caminhos()) {
+				try {
+					if (Files.deleteIfExists(Paths.get(caminho))) {
+						apagados++;
+					}
+				} catch (IOException e) {
+					logger.warn("Não foi possível apagar o arquivo {}: {}", caminho, e.getMessage());
+				}
+			}
+			logger.debug("{} de {} arquivo(s) de anexos apagados", apagados, event.caminhos().size());
+		});
+	}
+
+	@PreDestroy
+	void encerrar() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+}
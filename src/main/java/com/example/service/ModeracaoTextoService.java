@@ -0,0 +1,127 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import com.example.search.AutomatoTermos;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Dicionário de termos que colocam um comentário na fila de moderação (alarmante), compilado num
+ * {@link AutomatoTermos}.
+ * <p>Os termos ficam em {@code app.moderacao.termos-arquivo}, um por linha ({@code #} começa comentário, {@code *}
+ * no fim casa como prefixo). Se o arquivo não existe, vale o dicionário padrão do classpath. O dicionário pode ser
+ * trocado sem reiniciar: pelo admin ({@link #atualizarTermos(List)}, que também grava o arquivo) ou editando o
+ * arquivo e pedindo {@link #recarregar()}. A troca é só a referência do autômato: as verificações em andamento
+ * terminam com o anterior.</p>
+ */
+@Service
+public class ModeracaoTextoService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ModeracaoTextoService.class);
+
+	private static final String DICIONARIO_PADRAO = "moderacao/termos-padrao.txt";
+
+	@Value("${app.moderacao.termos-arquivo:config/termos-moderacao.txt}")
+	private String arquivoTermos;
+
+	private volatile AutomatoTermos automato = AutomatoTermos.vazio();
+
+	@PostConstruct
+	void iniciar() {
+		try {
+			recarregar();
+		} catch (IOException e) {
+			// Sem dicionário a moderação automática só fica mais branda; não impede a aplicação de subir
+			logger.error("Não foi possível carregar os termos de moderação: {}", e.getMessage());
+		}
+	}
+
+	/** Autômato atual; pode ser guardado e usado à vontade, pois nunca muda. */
+	public AutomatoTermos getAutomato() {
+		return automato;
+	}
+
+	/**
+	 * Termo do dicionário que aparece no texto.
+	 * @return o termo normalizado, ou null se o texto não tem nenhum
+	 */
+	public String termoSinalizado(String texto) {
+		AutomatoTermos atual = automato;
+		int i = atual.encontrar(texto);
+		return i < 0 ? null : atual.getTermo(i);
+	}
+
+	public List<String> getTermos() {
+		return automato.getTermos();
+	}
+
+	/**
+	 * Relê o arquivo de termos (ou o dicionário padrão, se ele não existe) e troca o autômato.
+	 * @return número de termos carregados
+	 */
+	public synchronized int recarregar() throws IOException {
+		Path arquivo = Paths.get(arquivoTermos);
+		List<String> linhas;
+		if (Files.exists(arquivo)) {
+			linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+		} else {
+			try (InputStream in = new ClassPathResource(DICIONARIO_PADRAO).getInputStream()) {
+				linhas = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+			}
+		}
+		trocar(AutomatoTermos.compilar(semComentarios(linhas)));
+		return automato.getNumTermos();
+	}
+
+	/**
+	 * Substitui o dicionário e grava o arquivo de termos.
+	 * @return os termos aceitos, normalizados (vazios, repetidos e de outros alfabetos são descartados)
+	 */
+	public synchronized List<String> atualizarTermos(List<String> termos) throws IOException {
+		AutomatoTermos novo = AutomatoTermos.compilar(termos);
+		Path arquivo = Paths.get(arquivoTermos).toAbsolutePath();
+		Files.createDirectories(arquivo.getParent());
+		Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+		Files.write(temporario, novo.getTermos(), StandardCharsets.UTF_8);
+		try {
+			Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING);
+		}
+		trocar(novo);
+		return novo.getTermos();
+	}
+
+	private void trocar(AutomatoTermos novo) {
+		automato = novo;
+		logger.info("Termos de moderação carregados: {}", novo);
+	}
+
+	private static List<String> semComentarios(List<String> linhas) {
+		List<String> termos = new ArrayList<>(linhas.size());
+		for (String linha : linhas) {
+			int comentario = linha.indexOf('#');
+			String termo = (comentario >= 0 ? linha.substring(0, comentario) : linha).strip();
+			if (!termo.isEmpty()) {
+				termos.add(termo);
+			}
+		}
+		return termos;
+	}
+}
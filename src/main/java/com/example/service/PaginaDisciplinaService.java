@@ -0,0 +1,444 @@
+package com.example.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.DTO.ArquivoDTO;
+import com.example.DTO.AvaliacaoDTO;
+import com.example.DTO.ComentarioDTO;
+import com.example.DTO.ComentarioFeedDTO;
+import com.example.DTO.ProfessorDTO;
+import com.example.model.Disciplina;
+import com.example.model.ProfessorDisciplina;
+import com.example.repository.ArquivoComentarioRepository;
+import com.example.repository.AvaliacaoRepository;
+import com.example.repository.ComentarioRepository;
+import com.example.repository.DisciplinaRepository;
+
+/**
+ * Monta a página de uma disciplina (/class/{id}) com um número fixo de consultas, independente da quantidade de
+ * comentários: disciplina + professores, avaliações, comentários principais, todas as respostas, votos do usuário
+ * logado e anexos. A árvore de respostas é montada em memória.
+ * <p>A página traz só os {@link #RAIZES_POR_PROFESSOR} comentários principais mais recentes de cada professor; o resto
+ * vem do feed ({@link #carregarFeed}), paginado por cursor (keyset) em vez de OFFSET, e as respostas de comentários
+ * do feed vêm de {@link #carregarRespostas}.</p>
+ * <p>Comentários são lidos como colunas e não como entidades, para não disparar os carregamentos EAGER de
+ * {@code filhos} e {@code votes} (uma consulta extra por comentário).</p>
+ */
+@Service
+public class PaginaDisciplinaService {
+
+	private static final Logger logger = LoggerFactory.getLogger(PaginaDisciplinaService.class);
+
+	/** Comentários principais por professor que vão embutidos na página. */
+	public static final int RAIZES_POR_PROFESSOR = 10;
+
+	/** Tamanho máximo de uma página do feed. */
+	public static final int LIMITE_FEED_MAXIMO = 50;
+
+	/** Ordem do feed: mais recentes primeiro ou maior saldo de votos (up - down) primeiro. */
+	public enum OrdemFeed { RECENTES, SCORE }
+
+	/**
+	 * Dados da página da disciplina.
+	 * @param cursores cursor do feed (ordem {@link OrdemFeed#RECENTES}) por professor que tem mais comentários
+	 * principais do que os embutidos na página
+	 */
+	public record Pagina(Disciplina disciplina, List<ProfessorDTO> professores, List<AvaliacaoDTO> avaliacoes,
+			List<ComentarioDTO> comentarios, Map<String, String> cursores) {}
+
+	/**
+	 * Página montada sem usuário ({@code isOwner} falso e sem votos em tudo), igual para qualquer visitante, mais os
+	 * ids de comentários e avaliações de cada autor para sobrepor os dados do usuário com {@link #paraUsuario}.
+	 */
+	public record PaginaCompartilhada(Pagina pagina, Map<String, Set<Long>> comentariosPorAutor,
+			Map<String, Set<Long>> avaliacoesPorAutor) {}
+
+	@Autowired
+	private DisciplinaRepository disciplinaRepository;
+
+	@Autowired
+	private AvaliacaoRepository avaliacaoRepository;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private ArquivoComentarioRepository arquivoComentarioRepository;
+
+	/**
+	 * Carrega a página da disciplina com todos os comentários.
+	 * @param codigo código da disciplina (sem diferenciar maiúsculas)
+	 * @param userEmail usuário logado, ou {@code null}
+	 */
+	@Transactional(readOnly = true)
+	public Optional<Pagina> carregar(String codigo, String userEmail) {
+		return carregar(codigo, userEmail, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Carrega a página da disciplina com no máximo {@code raizesPorProfessor} comentários principais (os mais recentes)
+	 * de cada professor, cada um com todas as respostas.
+	 */
+	@Transactional(readOnly = true)
+	public Optional<Pagina> carregar(String codigo, String userEmail, int raizesPorProfessor) {
+		return construir(codigo, userEmail, raizesPorProfessor).map(PaginaCompartilhada::pagina);
+	}
+
+	/**
+	 * Carrega a parte da página que não depende do usuário (com {@link #RAIZES_POR_PROFESSOR} comentários principais
+	 * por professor), para ser guardada e servida a todos os visitantes.
+	 */
+	@Transactional(readOnly = true)
+	public Optional<PaginaCompartilhada> carregarCompartilhada(String codigo) {
+		return construir(codigo, null, RAIZES_POR_PROFESSOR);
+	}
+
+	/**
+	 * Sobrepõe à página compartilhada os dados do usuário ({@code isOwner} e {@code hasVoted}): uma consulta pelos
+	 * votos dele na disciplina e cópia só dos DTOs que mudam (e dos ancestrais deles); o resto é reaproveitado.
+	 */
+	public Pagina paraUsuario(PaginaCompartilhada compartilhada, String userEmail) {
+		Pagina pagina = compartilhada.pagina();
+		if (userEmail == null) {
+			return pagina;
+		}
+		Set<Long> meusComentarios = compartilhada.comentariosPorAutor().getOrDefault(userEmail, Set.of());
+		Set<Long> minhasAvaliacoes = compartilhada.avaliacoesPorAutor().getOrDefault(userEmail, Set.of());
+		Map<Long, Boolean> votos = pagina.comentarios().isEmpty() ? Map.of()
+				: indexarVotos(comentarioRepository.findVotosDoUsuarioNaDisciplina(pagina.disciplina(), userEmail));
+		if (meusComentarios.isEmpty() && minhasAvaliacoes.isEmpty() && votos.isEmpty()) {
+			return pagina;
+		}
+
+		List<AvaliacaoDTO> avaliacoes = pagina.avaliacoes();
+		if (!minhasAvaliacoes.isEmpty()) {
+			avaliacoes = new ArrayList<>(avaliacoes.size());
+			for (AvaliacaoDTO a : pagina.avaliacoes()) {
+				avaliacoes.add(minhasAvaliacoes.contains(a.id()) ? a.comDono(true) : a);
+			}
+		}
+		List<ComentarioDTO> comentarios = sobrepor(pagina.comentarios(), meusComentarios, votos);
+		return new Pagina(pagina.disciplina(), pagina.professores(), avaliacoes, comentarios, pagina.cursores());
+	}
+
+	private static List<ComentarioDTO> sobrepor(List<ComentarioDTO> comentarios, Set<Long> meus, Map<Long, Boolean> votos) {
+		List<ComentarioDTO> resultado = null;
+		for (int i = 0; i < comentarios.size(); i++) {
+			ComentarioDTO c = comentarios.get(i);
+			List<ComentarioDTO> filhos = sobrepor(c.filhos(), meus, votos);
+			Boolean voto = votos.get(c.id());
+			boolean dono = meus.contains(c.id());
+			ComentarioDTO novo = c;
+			if (dono || voto != null || filhos != c.filhos()) {
+				novo = c.paraUsuario(dono, voto == null ? 0 : voto ? 1 : -1, filhos);
+			}
+			if (novo != c && resultado == null) {
+				resultado = new ArrayList<>(comentarios.subList(0, i));
+			}
+			if (resultado != null) {
+				resultado.add(novo);
+			}
+		}
+		return resultado == null ? comentarios : resultado;
+	}
+
+	private Optional<PaginaCompartilhada> construir(String codigo, String userEmail, int raizesPorProfessor) {
+		Optional<Disciplina> opt = disciplinaRepository.findByCodigoComProfessores(codigo);
+		if (opt.isEmpty()) {
+			return Optional.empty();
+		}
+		Disciplina disciplina = opt.get();
+
+		List<ProfessorDTO> professores = new ArrayList<>();
+		Set<String> professorIds = new HashSet<>();
+		for (ProfessorDisciplina pd : disciplina.getProfessorDisciplinas()) {
+			professores.add(ProfessorDTO.from(pd.getProfessor(), pd.getUltimoSemestre()));
+			professorIds.add(pd.getProfessor().getProfessorId());
+		}
+
+		List<AvaliacaoDTO> avaliacoes = new ArrayList<>();
+		Map<String, Set<Long>> avaliacoesPorAutor = new HashMap<>();
+		for (Object[] l : avaliacaoRepository.findLinhasPorDisciplina(disciplina)) {
+			avaliacoes.add(new AvaliacaoDTO((Long) l[0], disciplina.getCodigo(), (String) l[1], (Integer) l[2],
+					(Instant) l[3], l[4].equals(userEmail)));
+			avaliacoesPorAutor.computeIfAbsent((String) l[4], k -> new HashSet<>()).add((Long) l[0]);
+		}
+
+		List<Object[]> raizes = comentarioRepository.findRaizesPagina(disciplina);
+		List<ComentarioDTO> comentarios = List.of();
+		Map<String, String> cursores = new HashMap<>();
+		Map<String, Set<Long>> comentariosPorAutor = new HashMap<>();
+		if (!raizes.isEmpty()) {
+			// Só comentários de professores que ainda lecionam a disciplina
+			raizes.removeIf(l -> !professorIds.contains((String) l[4]));
+
+			// Raízes vêm da mais recente para a mais antiga: corta cada professor nas primeiras e guarda o cursor
+			List<Object[]> visiveis = new ArrayList<>();
+			Map<String, Integer> porProfessor = new HashMap<>();
+			Map<String, Object[]> ultimaVisivel = new HashMap<>();
+			for (Object[] l : raizes) {
+				String professorId = (String) l[4];
+				int n = porProfessor.merge(professorId, 1, Integer::sum);
+				if (n <= raizesPorProfessor) {
+					visiveis.add(l);
+					ultimaVisivel.put(professorId, l);
+				} else if (n == raizesPorProfessor + 1) {
+					cursores.put(professorId, cursor(OrdemFeed.RECENTES, ultimaVisivel.get(professorId)));
+				}
+			}
+
+			List<Object[]> respostas;
+			if (visiveis.size() == raizes.size()) {
+				respostas = comentarioRepository.findRespostasPagina(disciplina);
+			} else {
+				List<Long> rootIds = new ArrayList<>(visiveis.size());
+				for (Object[] l : visiveis) {
+					rootIds.add((Long) l[0]);
+				}
+				respostas = rootIds.isEmpty() ? List.of() : comentarioRepository.findRespostasDasThreads(rootIds);
+			}
+
+			Map<Long, Boolean> votos = userEmail == null ? Map.of()
+					: indexarVotos(comentarioRepository.findVotosDoUsuarioNaDisciplina(disciplina, userEmail));
+			Map<Long, List<ArquivoDTO>> arquivos = indexarArquivos(arquivoComentarioRepository.findLinhasPorDisciplina(disciplina));
+
+			comentarios = montarArvores(visiveis, respostas, votos, arquivos, userEmail);
+			indexarAutores(visiveis, comentariosPorAutor);
+			indexarAutores(respostas, comentariosPorAutor);
+		}
+
+		logger.debug("Página da disciplina {} carregada: {} professores, {} avaliações, {} comentários principais",
+				disciplina.getCodigo(), professores.size(), avaliacoes.size(), comentarios.size());
+		return Optional.of(new PaginaCompartilhada(new Pagina(disciplina, professores, avaliacoes, comentarios, cursores),
+				comentariosPorAutor, avaliacoesPorAutor));
+	}
+
+	/**
+	 * Uma página do feed de comentários principais de um professor na disciplina, sem as respostas.
+	 * <p>Paginação por cursor: a próxima página começa depois do último (chave de ordenação, id) entregue, então o
+	 * custo não cresce com a profundidade da página e comentários novos não deslocam as páginas seguintes. Na ordem
+	 * {@link OrdemFeed#SCORE} o saldo muda com os votos, então um comentário votado entre duas páginas pode aparecer
+	 * repetido ou ser pulado.</p>
+	 * @param cursor {@code proximoCursor} da página anterior, ou {@code null} para a primeira
+	 * @param limite tamanho da página, limitado a {@link #LIMITE_FEED_MAXIMO}
+	 * @throws IllegalArgumentException se o cursor for inválido ou de outra ordem
+	 */
+	@Transactional(readOnly = true)
+	public ComentarioFeedDTO carregarFeed(String codigo, String professorId, OrdemFeed ordem, String cursor, int limite,
+			String userEmail) {
+		int tamanho = Math.max(1, Math.min(limite, LIMITE_FEED_MAXIMO));
+		// Um a mais para saber se existe próxima página sem um COUNT
+		PageRequest pagina = PageRequest.of(0, tamanho + 1);
+		// O código vira id uma vez; as consultas do feed filtram pelo id, que é a primeira coluna do índice do feed
+		Optional<Long> disciplinaId = disciplinaRepository.findIdPorCodigo(codigo);
+		if (disciplinaId.isEmpty()) {
+			return new ComentarioFeedDTO(List.of(), null);
+		}
+		List<Object[]> linhas;
+		if (cursor == null || cursor.isBlank()) {
+			linhas = ordem == OrdemFeed.SCORE
+					? comentarioRepository.findFeedScore(disciplinaId.get(), professorId, pagina)
+					: comentarioRepository.findFeedRecentes(disciplinaId.get(), professorId, pagina);
+		} else {
+			String[] partes = lerCursor(ordem, cursor);
+			Long id = Long.valueOf(partes[1]);
+			if (ordem == OrdemFeed.SCORE) {
+				linhas = comentarioRepository.findFeedScoreApos(disciplinaId.get(), professorId, Integer.parseInt(partes[0]), id, pagina);
+			} else {
+				Instant createdAt;
+				try {
+					createdAt = Instant.parse(partes[0]);
+				} catch (DateTimeParseException e) {
+					throw new IllegalArgumentException("Cursor inválido");
+				}
+				linhas = comentarioRepository.findFeedRecentesApos(disciplinaId.get(), professorId, createdAt, id, pagina);
+			}
+		}
+
+		boolean temMais = linhas.size() > tamanho;
+		if (temMais) {
+			linhas = linhas.subList(0, tamanho);
+		}
+		if (linhas.isEmpty()) {
+			return new ComentarioFeedDTO(List.of(), null);
+		}
+		List<Long> ids = new ArrayList<>(linhas.size());
+		for (Object[] l : linhas) {
+			ids.add((Long) l[0]);
+		}
+		Map<Long, Boolean> votos = userEmail == null ? Map.of()
+				: indexarVotos(comentarioRepository.findVotosDoUsuario(ids, userEmail));
+		Map<Long, List<ArquivoDTO>> arquivos = indexarArquivos(arquivoComentarioRepository.findLinhasPorComentarios(ids));
+
+		List<ComentarioDTO> comentarios = montarArvores(linhas, List.of(), votos, arquivos, userEmail);
+		return new ComentarioFeedDTO(comentarios, temMais ? cursor(ordem, linhas.get(linhas.size() - 1)) : null);
+	}
+
+	/**
+	 * Respostas de um comentário (qualquer nível abaixo dele), com uma consulta por faixa no índice (root_id, path).
+	 * @return as respostas diretas, cada uma com as suas respostas aninhadas; vazio se o comentário não existir
+	 */
+	@Transactional(readOnly = true)
+	public Optional<List<ComentarioDTO>> carregarRespostas(Long comentarioId, String userEmail) {
+		List<Object[]> hierarquia = comentarioRepository.findHierarquia(comentarioId);
+		if (hierarquia.isEmpty()) {
+			return Optional.empty();
+		}
+		Long rootId = (Long) hierarquia.get(0)[0];
+		String path = (String) hierarquia.get(0)[1];
+
+		// Ordenadas por path: a primeira linha é o próprio comentário
+		List<Object[]> linhas = comentarioRepository.findSubarvorePagina(rootId, path + "%");
+		if (linhas.size() <= 1) {
+			return Optional.of(List.of());
+		}
+		List<Object[]> respostas = linhas.subList(1, linhas.size());
+		List<Object[]> diretas = new ArrayList<>();
+		List<Long> ids = new ArrayList<>(respostas.size());
+		for (Object[] l : respostas) {
+			ids.add((Long) l[0]);
+			if (comentarioId.equals(l[9])) {
+				diretas.add(l);
+			}
+		}
+		Map<Long, Boolean> votos = userEmail == null ? Map.of()
+				: indexarVotos(comentarioRepository.findVotosDoUsuario(ids, userEmail));
+		Map<Long, List<ArquivoDTO>> arquivos = indexarArquivos(arquivoComentarioRepository.findLinhasPorComentarios(ids));
+		return Optional.of(montarArvores(diretas, respostas, votos, arquivos, userEmail));
+	}
+
+	/** Cursor opaco com a chave de ordenação e o id da última linha entregue. */
+	private static String cursor(OrdemFeed ordem, Object[] l) {
+		String chave = ordem == OrdemFeed.SCORE
+				? String.valueOf(inteiro(l[2]) - inteiro(l[3]))
+				: ((Instant) l[5]).toString();
+		String valor = ordem.name().charAt(0) + "|" + chave + "|" + l[0];
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static int inteiro(Object valor) {
+		return valor == null ? 0 : ((Number) valor).intValue();
+	}
+
+	/** @return [chave, id] */
+	private static String[] lerCursor(OrdemFeed ordem, String cursor) {
+		String valor;
+		try {
+			valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Cursor inválido");
+		}
+		String[] partes = valor.split("\\|");
+		if (partes.length != 3 || partes[0].length() != 1 || partes[0].charAt(0) != ordem.name().charAt(0)) {
+			throw new IllegalArgumentException("Cursor inválido para a ordem " + ordem.name().toLowerCase());
+		}
+		return new String[] { partes[1], partes[2] };
+	}
+
+	/**
+	 * Carrega uma thread inteira (comentário principal e todas as respostas) com uma consulta por faixa no índice
+	 * (root_id, path), mais os votos do usuário e os anexos.
+	 * @param rootId id do comentário principal
+	 * @return a raiz com as respostas aninhadas, ou vazio se não existir
+	 */
+	@Transactional(readOnly = true)
+	public Optional<ComentarioDTO> carregarThread(Long rootId, String userEmail) {
+		List<Object[]> linhas = comentarioRepository.findThreadPagina(rootId);
+		if (linhas.isEmpty()) {
+			return Optional.empty();
+		}
+		Map<Long, Boolean> votos = userEmail == null ? Map.of()
+				: indexarVotos(comentarioRepository.findVotosDoUsuarioNaThread(rootId, userEmail));
+		Map<Long, List<ArquivoDTO>> arquivos = indexarArquivos(arquivoComentarioRepository.findLinhasPorThread(rootId));
+
+		// Ordenadas por path: a primeira linha é a raiz
+		List<ComentarioDTO> arvores = montarArvores(linhas.subList(0, 1), linhas.subList(1, linhas.size()), votos, arquivos, userEmail);
+		return Optional.of(arvores.get(0));
+	}
+
+	private static void indexarAutores(List<Object[]> linhas, Map<String, Set<Long>> porAutor) {
+		for (Object[] l : linhas) {
+			porAutor.computeIfAbsent((String) l[6], k -> new HashSet<>()).add((Long) l[0]);
+		}
+	}
+
+	private static Map<Long, Boolean> indexarVotos(List<Object[]> linhas) {
+		Map<Long, Boolean> votos = new HashMap<>();
+		for (Object[] l : linhas) {
+			votos.put((Long) l[0], (Boolean) l[1]);
+		}
+		return votos;
+	}
+
+	private static Map<Long, List<ArquivoDTO>> indexarArquivos(List<Object[]> linhas) {
+		Map<Long, List<ArquivoDTO>> arquivos = new HashMap<>();
+		for (Object[] l : linhas) {
+			arquivos.computeIfAbsent((Long) l[0], k -> new ArrayList<>())
+					.add(new ArquivoDTO((Long) l[1], (String) l[2], (String) l[3], (Long) l[4]));
+		}
+		return arquivos;
+	}
+
+	private static List<ComentarioDTO> montarArvores(List<Object[]> raizes, List<Object[]> respostas,
+			Map<Long, Boolean> votos, Map<Long, List<ArquivoDTO>> arquivos, String userEmail) {
+		Map<Long, List<Object[]>> respostasPorPai = new HashMap<>();
+		for (Object[] l : respostas) {
+			respostasPorPai.computeIfAbsent((Long) l[9], k -> new ArrayList<>()).add(l);
+		}
+		List<ComentarioDTO> arvores = new ArrayList<>(raizes.size());
+		for (Object[] l : raizes) {
+			arvores.add(montar(l, respostasPorPai, votos, arquivos, userEmail));
+		}
+		return arvores;
+	}
+
+	private static ComentarioDTO montar(Object[] l, Map<Long, List<Object[]>> respostasPorPai, Map<Long, Boolean> votos,
+			Map<Long, List<ArquivoDTO>> arquivos, String userEmail) {
+		Long id = (Long) l[0];
+		String email = (String) l[6];
+		Boolean voto = votos.get(id);
+
+		List<ComentarioDTO> filhos = new ArrayList<>();
+		for (Object[] filho : respostasPorPai.getOrDefault(id, List.of())) {
+			filhos.add(montar(filho, respostasPorPai, votos, arquivos, userEmail));
+		}
+
+		return new ComentarioDTO(
+				id,
+				(String) l[1],
+				(Integer) l[2],
+				(String) l[4],
+				(Integer) l[3],
+				(Instant) l[5],
+				email.equals(userEmail),
+				voto == null ? 0 : voto ? 1 : -1,
+				(Boolean) l[7],
+				(Instant) l[8],
+				false,
+				(Long) l[9],
+				ComentarioDTO.extractInitials(email),
+				(Boolean) l[10],
+				(Boolean) l[11],
+				(Integer) l[12],
+				(Integer) l[13],
+				arquivos.getOrDefault(id, List.of()),
+				filhos);
+	}
+}
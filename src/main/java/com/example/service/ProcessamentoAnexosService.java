@@ -0,0 +1,315 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.DTO.StatusAnexoDTO;
+import com.example.model.ArquivoComentario;
+import com.example.repository.ArquivoComentarioRepository;
+import com.example.repository.ComentarioRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Processamento assíncrono dos anexos de comentários.
+ * <p>Na requisição, cada arquivo só é copiado para a área de staging ({@code app.upload.staging-dir}) e a resposta
+ * volta com o status de cada um. O resto roda numa thread virtual por arquivo, com um semáforo limitando a
+ * {@code app.upload.processamento.paralelismo} os que processam ao mesmo tempo (os demais esperam a vez sem ocupar
+ * thread de plataforma): validar tipo e extensão, calcular o SHA-256, mover para {@code app.upload.dir}, gravar o
+ * {@link ArquivoComentario} e colocar o comentário na fila de moderação (alarmante), numa transação.</p>
+ * <p>Os status ficam só em memória e expiram {@code app.upload.status-ttl-minutos} depois de terminar. Arquivos que
+ * sobrarem no staging (queda do processo no meio) são apagados na subida.</p>
+ */
+@Service
+public class ProcessamentoAnexosService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProcessamentoAnexosService.class);
+
+	public enum EstadoAnexo { RECEBIDO, PROCESSANDO, CONCLUIDO, REJEITADO, ERRO }
+
+	@Value("${app.upload.dir:uploads/comentarios}")
+	private String uploadDir;
+
+	@Value("${app.upload.staging-dir:uploads/staging}")
+	private String stagingDir;
+
+	@Value("${app.upload.processamento.paralelismo:4}")
+	private int paralelismo;
+
+	@Value("${app.upload.status-ttl-minutos:10}")
+	private long ttlStatusMinutos;
+
+	@Autowired
+	private ArquivoComentarioRepository arquivoComentarioRepository;
+
+	@Autowired
+	private ComentarioRepository comentarioRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	/** Um arquivo recebido; os campos mutáveis são lidos pelo endpoint de status enquanto o executor os altera. */
+	private static final class Anexo {
+		final String id;
+		final long ordem;
+		final Long comentarioId;
+		final String autorEmail;
+		final String nomeOriginal;
+		final String tipoMime;
+		final Path staging;
+		volatile EstadoAnexo estado = EstadoAnexo.RECEBIDO;
+		volatile Long arquivoId;
+		volatile String mensagem;
+		volatile Instant terminadoEm;
+
+		Anexo(String id, long ordem, Long comentarioId, String autorEmail, String nomeOriginal, String tipoMime,
+				Path staging) {
+			this.id = id;
+			this.ordem = ordem;
+			this.comentarioId = comentarioId;
+			this.autorEmail = autorEmail;
+			this.nomeOriginal = nomeOriginal;
+			this.tipoMime = tipoMime;
+			this.staging = staging;
+		}
+
+		void terminar(EstadoAnexo estado, String mensagem) {
+			this.mensagem = mensagem;
+			this.terminadoEm = Instant.now();
+			this.estado = estado;
+		}
+
+		StatusAnexoDTO toDTO() {
+			return new StatusAnexoDTO(id, comentarioId, nomeOriginal, estado.name(), arquivoId, mensagem);
+		}
+	}
+
+	private final Map<String, Anexo> anexos = new ConcurrentHashMap<>();
+	private final AtomicLong sequencia = new AtomicLong();
+	private final AtomicInteger pendentes = new AtomicInteger();
+	private ExecutorService executor;
+	private Semaphore permissoes;
+
+	@PostConstruct
+	void iniciar() throws IOException {
+		Path staging = Files.createDirectories(Paths.get(stagingDir));
+		int restos = 0;
+		try (Stream<Path> arquivos = Files.list(staging)) {
+			for (Path p : arquivos.toList()) {
+				Files.deleteIfExists(p);
+				restos++;
+			}
+		}
+		if (restos > 0) {
+			logger.warn("{} arquivo(s) de upload não processados foram descartados do staging {}", restos, stagingDir);
+		}
+		permissoes = new Semaphore(Math.max(1, paralelismo));
+		executor = Executors.newVirtualThreadPerTaskExecutor();
+	}
+
+	@PreDestroy
+	void encerrar() throws InterruptedException {
+		executor.shutdown();
+		if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+			logger.warn("Processamento de anexos encerrado com {} arquivo(s) pendente(s)", pendentes.get());
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Copia os arquivos não vazios para o staging e agenda o processamento de cada um. Deve ser chamado dentro da
+	 * requisição: os arquivos temporários do multipart somem quando ela termina.
+	 * @return status inicial de cada arquivo, na ordem recebida
+	 */
+	public List<StatusAnexoDTO> receber(Long comentarioId, String autorEmail, MultipartFile[] files) throws IOException {
+		removerExpirados();
+		if (files == null) {
+			return List.of();
+		}
+		List<Anexo> recebidos = new ArrayList<>();
+		Path staging = Files.createDirectories(Paths.get(stagingDir));
+		try {
+			for (MultipartFile file : files) {
+				if (file.isEmpty()) {
+					continue;
+				}
+				String id = UUID.randomUUID().toString();
+				Path destino = staging.resolve(id + ".upload");
+				try (InputStream in = file.getInputStream()) {
+					Files.copy(in, destino);
+				} catch (IOException | RuntimeException e) {
+					apagar(destino);
+					throw e;
+				}
+				recebidos.add(new Anexo(id, sequencia.incrementAndGet(), comentarioId, autorEmail,
+						file.getOriginalFilename(), file.getContentType(), destino));
+			}
+		} catch (IOException | RuntimeException e) {
+			// Nada foi agendado ainda: o que já estava no staging não teria quem apagasse até a próxima subida
+			for (Anexo a : recebidos) {
+				apagar(a.staging);
+			}
+			throw e;
+		}
+		List<StatusAnexoDTO> status = new ArrayList<>(recebidos.size());
+		for (Anexo a : recebidos) {
+			anexos.put(a.id, a);
+			status.add(a.toDTO());
+		}
+		for (Anexo a : recebidos) {
+			pendentes.incrementAndGet();
+			executor.execute(() -> executar(a));
+		}
+		return status;
+	}
+
+	private void executar(Anexo anexo) {
+		try {
+			permissoes.acquire();
+		} catch (InterruptedException e) {
+			// Encerramento: o arquivo fica sem processar
+			Thread.currentThread().interrupt();
+			anexo.terminar(EstadoAnexo.ERRO, "Processamento interrompido: " + anexo.nomeOriginal);
+			apagar(anexo.staging);
+			pendentes.decrementAndGet();
+			return;
+		}
+		try {
+			processar(anexo);
+		} finally {
+			permissoes.release();
+			pendentes.decrementAndGet();
+		}
+	}
+
+	/** Status dos anexos do comentário enviados pelo usuário que ainda estão em memória, dos mais antigos aos mais novos. */
+	public List<StatusAnexoDTO> statusDoComentario(Long comentarioId, String autorEmail) {
+		return anexos.values().stream()
+				.filter(a -> a.comentarioId.equals(comentarioId) && a.autorEmail.equals(autorEmail))
+				.sorted(Comparator.comparingLong(a -> a.ordem))
+				.map(Anexo::toDTO)
+				.toList();
+	}
+
+	public StatusAnexoDTO status(String id) {
+		Anexo a = anexos.get(id);
+		return a == null ? null : a.toDTO();
+	}
+
+	private void processar(Anexo anexo) {
+		anexo.estado = EstadoAnexo.PROCESSANDO;
+		Path destino = null;
+		boolean gravado = false;
+		try {
+			String extensao = ArquivoComentarioService.validarTipo(anexo.tipoMime, anexo.nomeOriginal);
+			String sha256 = calcularSha256(anexo.staging);
+			long tamanho = Files.size(anexo.staging);
+
+			Path uploadPath = Files.createDirectories(Paths.get(uploadDir));
+			destino = uploadPath.resolve(UUID.randomUUID().toString() + extensao);
+			mover(anexo.staging, destino);
+
+			Path caminho = destino;
+			Long arquivoId = transactionTemplate.execute(tx -> {
+				ArquivoComentario arquivo = new ArquivoComentario(anexo.nomeOriginal, caminho.getFileName().toString(),
+						anexo.tipoMime, tamanho, caminho.toString(), comentarioRepository.getReferenceById(anexo.comentarioId));
+				arquivo.setSha256(sha256);
+				Long novoId = arquivoComentarioRepository.save(arquivo).getId();
+				comentarioRepository.marcarAlarmante(anexo.comentarioId);
+				eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(
+						comentarioRepository.findDisciplinaCodigo(anexo.comentarioId)));
+				return novoId;
+			});
+			gravado = true;
+			anexo.arquivoId = arquivoId;
+			anexo.terminar(EstadoAnexo.CONCLUIDO, null);
+			logger.info("Anexo {} ({}) do comentário {} gravado como arquivo {}", anexo.id, anexo.nomeOriginal,
+					anexo.comentarioId, arquivoId);
+		} catch (IllegalArgumentException e) {
+			anexo.terminar(EstadoAnexo.REJEITADO, e.getMessage());
+			logger.info("Anexo {} ({}) do comentário {} rejeitado: {}", anexo.id, anexo.nomeOriginal,
+					anexo.comentarioId, e.getMessage());
+		} catch (Exception e) {
+			anexo.terminar(EstadoAnexo.ERRO, "Erro ao salvar o arquivo " + anexo.nomeOriginal);
+			logger.error("Erro ao processar o anexo {} do comentário {}", anexo.id, anexo.comentarioId, e);
+		} finally {
+			apagar(anexo.staging);
+			if (!gravado && destino != null) {
+				apagar(destino);
+			}
+		}
+	}
+
+	private void removerExpirados() {
+		Instant limite = Instant.now().minus(Duration.ofMinutes(ttlStatusMinutos));
+		anexos.values().removeIf(a -> a.terminadoEm != null && a.terminadoEm.isBefore(limite));
+	}
+
+	private static String calcularSha256(Path arquivo) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		try (InputStream in = new DigestInputStream(Files.newInputStream(arquivo), digest)) {
+			in.transferTo(OutputStream.nullOutputStream());
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	// Staging e uploads costumam estar no mesmo sistema de arquivos; se não estiverem, o move vira cópia
+	private static void mover(Path origem, Path destino) throws IOException {
+		try {
+			Files.move(origem, destino, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(origem, destino, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void apagar(Path arquivo) {
+		try {
+			Files.deleteIfExists(arquivo);
+		} catch (IOException e) {
+			logger.warn("Não foi possível apagar {}: {}", arquivo, e.getMessage());
+		}
+	}
+}
@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.example.model.AlteracaoCatalogo;
 import com.example.model.Professor;
 import com.example.repository.ProfessorRepository;
 
@@ -22,6 +23,9 @@ public class ProfessorService {
     @Autowired
     private ProfessorRepository professorRepository;
 
+    @Autowired
+    private AlteracaoCatalogoService alteracaoCatalogoService;
+
     // Criar novo professor
     public Professor salvar(Professor professor) {
         try {
@@ -50,6 +54,8 @@ public class ProfessorService {
                 if (!nome.equals(professor.getNome())) {
                     String nomeAntigo = professor.getNome();
                     professor.setNome(nome);
+                    // O nome do professor vai no catálogo de cada disciplina dele
+                    registrarEmCadaDisciplina(AlteracaoCatalogo.Tipo.PROFESSOR_ALTERADO, lattesId);
                     Professor atualizado = professorRepository.save(professor);
                     logger.debug("Nome do professor atualizado: '{}' -> '{}'", nomeAntigo, nome);
                     return atualizado;
@@ -105,9 +111,17 @@ public class ProfessorService {
 
     // Deletar professor
     public void deletar(String idLattes) {
+        // Os vínculos saem junto com o professor
+        registrarEmCadaDisciplina(AlteracaoCatalogo.Tipo.PROFESSOR_REMOVIDO, idLattes);
         professorRepository.deleteById(idLattes);
     }
 
+    private void registrarEmCadaDisciplina(AlteracaoCatalogo.Tipo tipo, String professorId) {
+        for (String codigo : professorRepository.findCodigosDisciplinas(professorId)) {
+            alteracaoCatalogoService.registrar(tipo, codigo, professorId);
+        }
+    }
+
     // Verificar se existe professor
     public boolean existe(String idLattes) {
         return professorRepository.existsById(idLattes);
@@ -0,0 +1,116 @@
+package com.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.DTO.ResumoAvaliacaoDTO;
+import com.example.config.DialetoBanco;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.ResumoAvaliacao;
+import com.example.repository.AvaliacaoRepository;
+import com.example.repository.ResumoAvaliacaoRepository;
+
+/**
+ * Mantém o resumo das notas (soma, quantidade e histograma) de cada disciplina e de cada professor dentro dela, para
+ * que a média seja lida em O(1) em vez de carregar e somar todas as avaliações.
+ * <p>Os métodos de escrita devem ser chamados na mesma transação que grava a avaliação: se ela sofrer rollback, o
+ * resumo também sofre.</p>
+ */
+@Service
+public class ResumoAvaliacaoService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ResumoAvaliacaoService.class);
+
+	@Autowired
+	private ResumoAvaliacaoRepository resumoAvaliacaoRepository;
+
+	@Autowired
+	private AvaliacaoRepository avaliacaoRepository;
+
+	@Autowired
+	private DialetoBanco dialetoBanco;
+
+	/**
+	 * Troca a nota {@code antiga} pela {@code nova} no resumo do contexto (0 = nenhuma).
+	 * @param professor professor avaliado, ou {@code null} para a avaliação da disciplina
+	 */
+	@Transactional
+	public void registrar(Disciplina disciplina, Professor professor, int antiga, int nova) {
+		ajustar(disciplina.getDisciplinaId(), professor != null ? professor.getProfessorId() : null, antiga, nova);
+	}
+
+	/**
+	 * Reconta o resumo do contexto a partir das avaliações. Para quando a nota substituída não é conhecida (ver
+	 * {@link AvaliacaoService#create}); o caminho normal é {@link #registrar}.
+	 * <p>A linha é criada se preciso (upsert vazio, sem colidir com uma primeira nota simultânea) e travada antes da
+	 * contagem: ajustes de outras transações esperam por este commit, e a contagem (um comando novo, com snapshot novo)
+	 * já inclui as avaliações que elas confirmaram antes do lock.</p>
+	 */
+	@Transactional
+	public void recalcular(Disciplina disciplina, Professor professor) {
+		ResumoAvaliacao.Chave chave = new ResumoAvaliacao.Chave(disciplina.getDisciplinaId(),
+				professor != null ? professor.getProfessorId() : null);
+		somar(chave, 0, new int[5]);
+		ResumoAvaliacao resumo = resumoAvaliacaoRepository.travar(chave).orElseThrow();
+		int[] histograma = new int[5];
+		for (Object[] l : avaliacaoRepository.contarNotasPorContexto(chave.getDisciplinaId(), chave.getProfessorId())) {
+			histograma[(Integer) l[0] - 1] = ((Long) l[1]).intValue();
+		}
+		resumo.recontar(histograma);
+		resumoAvaliacaoRepository.save(resumo);
+	}
+
+	/**
+	 * Desconta dos resumos todas as notas do usuário (chamado antes de removê-lo: as avaliações saem em cascata).
+	 */
+	@Transactional
+	public void removerNotasDoUsuario(String email) {
+		for (Object[] l : avaliacaoRepository.findNotasDoUsuario(email)) {
+			ajustar((Long) l[0], (String) l[1], (Integer) l[2], 0);
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public ResumoAvaliacaoDTO buscar(Disciplina disciplina, Professor professor) {
+		ResumoAvaliacao.Chave chave = new ResumoAvaliacao.Chave(disciplina.getDisciplinaId(),
+				professor != null ? professor.getProfessorId() : null);
+		return resumoAvaliacaoRepository.findById(chave).map(ResumoAvaliacaoDTO::from).orElseGet(ResumoAvaliacaoDTO::vazio);
+	}
+
+	private void ajustar(Long disciplinaId, String professorId, int antiga, int nova) {
+		if (antiga == nova) {
+			return;
+		}
+		ResumoAvaliacao.Chave chave = new ResumoAvaliacao.Chave(disciplinaId, professorId);
+		int alteradas = resumoAvaliacaoRepository.ajustar(chave.getDisciplinaId(), chave.getProfessorId(), antiga, nova);
+		if (alteradas > 0) {
+			return;
+		}
+		if (antiga == 0) {
+			// Primeira nota do contexto (ou uma transação concorrente acabou de criar a linha)
+			int[] histograma = new int[5];
+			histograma[nova - 1] = 1;
+			somar(chave, nova, histograma);
+		} else {
+			logger.warn("Resumo de avaliações ausente para disciplina {} / professor '{}' ao trocar nota {} por {}",
+					disciplinaId, chave.getProfessorId(), antiga, nova);
+		}
+	}
+
+	// Upsert relativo da linha do resumo: cria com os deltas ou soma os deltas à linha existente
+	private void somar(ResumoAvaliacao.Chave chave, long soma, int[] histograma) {
+		int total = histograma[0] + histograma[1] + histograma[2] + histograma[3] + histograma[4];
+		if (dialetoBanco.isPostgres()) {
+			resumoAvaliacaoRepository.somarPostgres(chave.getDisciplinaId(), chave.getProfessorId(), soma, total,
+					histograma[0], histograma[1], histograma[2], histograma[3], histograma[4]);
+		} else {
+			resumoAvaliacaoRepository.travarDisciplinaH2(chave.getDisciplinaId());
+			resumoAvaliacaoRepository.somarH2(chave.getDisciplinaId(), chave.getProfessorId(), soma, total,
+					histograma[0], histograma[1], histograma[2], histograma[3], histograma[4]);
+		}
+	}
+}
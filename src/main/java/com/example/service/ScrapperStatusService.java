@@ -2,6 +2,7 @@ package com.example.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.example.repository.AlteracaoCatalogoRepository;
 import com.example.repository.ScrapperStatusRepository;
 import com.example.model.ScrapperStatus;
 
@@ -10,8 +11,12 @@ public class ScrapperStatusService {
     @Autowired
     private final ScrapperStatusRepository scrapperStatusRepository;
 
-    public ScrapperStatusService(ScrapperStatusRepository scrapperStatusRepository) {
+    @Autowired
+    private final AlteracaoCatalogoRepository alteracaoCatalogoRepository;
+
+    public ScrapperStatusService(ScrapperStatusRepository scrapperStatusRepository, AlteracaoCatalogoRepository alteracaoCatalogoRepository) {
         this.scrapperStatusRepository = scrapperStatusRepository;
+        this.alteracaoCatalogoRepository = alteracaoCatalogoRepository;
     }
 
     public ScrapperStatus getUltimoStatus() {
@@ -21,6 +26,20 @@ public class ScrapperStatusService {
         }
         return status;
     }
+
+    /**
+     * Último status de uma execução bem-sucedida (o que tem {@code dataHash}). Execuções em andamento ou com erro
+     * criam linhas novas sem hash, que não representam uma versão dos dados.
+     */
+    public ScrapperStatus getUltimoSucesso() {
+        ScrapperStatus status = scrapperStatusRepository.findFirstByDataHashIsNotNullOrderByIdDesc();
+        return status != null ? status : getUltimoStatus();
+    }
+
+    public ScrapperStatus buscarPorDataHash(String dataHash) {
+        return scrapperStatusRepository.findFirstByDataHashOrderByIdDesc(dataHash);
+    }
+
     public ScrapperStatus salvar(ScrapperStatus scrapperStatus) {
         return scrapperStatusRepository.salvar(scrapperStatus);
     }
@@ -34,6 +53,10 @@ public class ScrapperStatusService {
     public void marcarFimExecucao(boolean sucesso, int disciplinasCapturadas, int professoresCapturados, String erro) {
         ScrapperStatus status = getUltimoStatus();
         status.marcarFimExecucao(sucesso, disciplinasCapturadas, professoresCapturados, erro);
+        if (sucesso) {
+            // Fecha a versão: tudo que foi registrado no log até aqui pertence a este dataHash
+            status.setUltimaAlteracaoId(alteracaoCatalogoRepository.ultimoId());
+        }
         scrapperStatusRepository.salvar(status);
     }
 
@@ -0,0 +1,172 @@
+package com.example.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.example.DTO.CatalogoCompactoDTO;
+import com.example.DTO.DisciplinaSearchDTO;
+import com.example.model.ScrapperStatus;
+import com.example.repository.DisciplinaRepository;
+import com.example.scrapper.ScrapingConcluidoEvent;
+import com.example.search.CatalogoCompacto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Mantém em memória o catálogo de disciplinas usado pela barra de pesquisa já serializado e comprimido.
+ * <p>O catálogo só muda quando o scrapper roda, então ele é gerado uma vez (na subida da aplicação e após cada
+ * scraping bem-sucedido) em cada {@link Formato}, junto com as versões gzip e brotli. O ETag é o {@code dataHash}
+ * do último {@link ScrapperStatus}, o mesmo valor que o front-end já consulta em {@code /api/search/data-hash}.</p>
+ */
+@Service
+public class SnapshotDisciplinasService {
+
+	private static final Logger logger = LoggerFactory.getLogger(SnapshotDisciplinasService.class);
+
+	/** Representações do catálogo que o cliente pode pedir pelo header {@code Accept}. */
+	public enum Formato {
+		JSON(MediaType.APPLICATION_JSON, ""),
+		COMPACTO_JSON(MediaType.parseMediaType(CatalogoCompacto.MEDIA_TYPE_JSON), "-c"),
+		COMPACTO_BINARIO(MediaType.parseMediaType(CatalogoCompacto.MEDIA_TYPE_BINARIO), "-b");
+
+		private final MediaType mediaType;
+		private final String sufixoEtag;
+
+		Formato(MediaType mediaType, String sufixoEtag) {
+			this.mediaType = mediaType;
+			this.sufixoEtag = sufixoEtag;
+		}
+
+		public MediaType getMediaType() { return mediaType; }
+	}
+
+	/**
+	 * Um formato serializado. {@code brotli} é nulo quando a biblioteca nativa não está disponível na plataforma.
+	 */
+	public record Representacao(String etag, byte[] bruto, byte[] gzip, byte[] brotli) {}
+
+	public record Snapshot(Map<Formato, Representacao> representacoes) {
+		public Representacao get(Formato formato) {
+			return representacoes.get(formato);
+		}
+	}
+
+	@Autowired
+	private DisciplinaRepository disciplinaRepository;
+
+	@Autowired
+	private ScrapperStatusService scrapperStatusService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+	private final boolean brotliDisponivel = carregarBrotli();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void inicializar() {
+		reconstruir();
+	}
+
+	@EventListener
+	public void aoConcluirScraping(ScrapingConcluidoEvent event) {
+		reconstruir();
+	}
+
+	/**
+	 * Retorna o snapshot atual, construindo-o na primeira chamada caso a aplicação ainda não tenha terminado de subir.
+	 */
+	public Snapshot getSnapshot() {
+		Snapshot atual = snapshot.get();
+		if (atual == null) {
+			reconstruir();
+			atual = snapshot.get();
+		}
+		return atual;
+	}
+
+	/**
+	 * Serializa e comprime o catálogo novamente. Em caso de erro o snapshot anterior continua sendo servido.
+	 */
+	public void reconstruir() {
+		try {
+			long inicio = System.nanoTime();
+			// Fetch join carrega os professores junto, sem o N+1 de Disciplina.getProfessores()
+			List<DisciplinaSearchDTO> dtos = disciplinaRepository.findAllComProfessores().stream()
+					.map(DisciplinaSearchDTO::from)
+					.toList();
+			byte[] json = objectMapper.writeValueAsBytes(dtos);
+			CatalogoCompactoDTO compacto = CatalogoCompacto.compactar(dtos);
+			String hash = calcularHash(json);
+
+			Map<Formato, Representacao> representacoes = new EnumMap<>(Formato.class);
+			representacoes.put(Formato.JSON, representar(Formato.JSON, hash, json));
+			representacoes.put(Formato.COMPACTO_JSON, representar(Formato.COMPACTO_JSON, hash, objectMapper.writeValueAsBytes(compacto)));
+			representacoes.put(Formato.COMPACTO_BINARIO, representar(Formato.COMPACTO_BINARIO, hash, CatalogoCompacto.codificarBinario(compacto)));
+			snapshot.set(new Snapshot(representacoes));
+
+			StringBuilder tamanhos = new StringBuilder();
+			representacoes.forEach((formato, r) -> tamanhos.append(String.format(" %s=%d/%d/%s B", formato, r.bruto().length,
+					r.gzip().length, r.brotli() != null ? r.brotli().length : "-")));
+			logger.info("Snapshot do catálogo gerado: {} disciplinas, {} professores em {} ms (bruto/gzip/brotli):{}",
+					dtos.size(), compacto.professores().size(), (System.nanoTime() - inicio) / 1_000_000, tamanhos);
+		} catch (Exception e) {
+			logger.error("Erro ao gerar snapshot do catálogo: {}", e.getMessage(), e);
+		}
+	}
+
+	private Representacao representar(Formato formato, String hash, byte[] bruto) throws IOException {
+		byte[] brotli = brotliDisponivel ? Encoder.compress(bruto, new Encoder.Parameters().setQuality(11)) : null;
+		return new Representacao("\"" + hash + formato.sufixoEtag + "\"", bruto, gzip(bruto), brotli);
+	}
+
+	/**
+	 * Usa o hash do último scraping; se ainda não houver um, usa o hash do próprio conteúdo.
+	 */
+	private String calcularHash(byte[] json) throws Exception {
+		ScrapperStatus status = scrapperStatusService.getUltimoSucesso();
+		String hash = status.getDataHash();
+		if (hash == null || hash.isEmpty()) {
+			hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+		}
+		return hash;
+	}
+
+	private static byte[] gzip(byte[] dados) throws IOException {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream(dados.length / 4);
+		try (GZIPOutputStream gz = new GZIPOutputStream(saida) {
+			{ def.setLevel(Deflater.BEST_COMPRESSION); }
+		}) {
+			gz.write(dados);
+		}
+		return saida.toByteArray();
+	}
+
+	private static boolean carregarBrotli() {
+		try {
+			Brotli4jLoader.ensureAvailability();
+			return true;
+		} catch (Throwable t) {
+			logger.warn("Brotli indisponível nesta plataforma, o catálogo será servido apenas com gzip: {}", t.getMessage());
+			return false;
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.example.service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.DTO.TelemetriaBuscaDTO;
+import com.example.search.HeavyHitters;
+import com.example.search.Histograma;
+import com.example.search.NormalizadorTexto;
+
+/**
+ * Telemetria das buscas de disciplinas: latência, número de resultados, termos mais buscados e termos sem resultado.
+ * <p>Tudo fica em estruturas de tamanho fixo em memória (histogramas log-lineares e sketches Space-Saving), então o
+ * custo não cresce com o tráfego e nenhum termo é gravado em log, exceto as buscas acima de
+ * {@code app.search.slow-query-ms}, para investigar entradas patológicas.</p>
+ */
+@Service
+public class TelemetriaBuscaService {
+
+	private static final Logger logger = LoggerFactory.getLogger(TelemetriaBuscaService.class);
+
+	public enum Tipo { QUERY, FUZZY, AUTOCOMPLETE }
+
+	private static final int CAPACIDADE_TERMOS = 200;
+	private static final int TOPO_TERMOS = 50;
+	private static final int MAX_BUSCAS_LENTAS = 50;
+	private static final int TAMANHO_MAXIMO_TERMO = 64;
+	private static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+	@Value("${app.search.slow-query-ms:50}")
+	private long limiteLentaMs;
+
+	private static final class Metricas {
+		final LongAdder buscas = new LongAdder();
+		final LongAdder semResultado = new LongAdder();
+		final Histograma latencia = new Histograma(LATENCIA_MAXIMA_MICROS);
+		final Histograma resultados = new Histograma(BuscaDisciplinaService.LIMITE_MAXIMO);
+		final HeavyHitters termos = new HeavyHitters(CAPACIDADE_TERMOS);
+		final HeavyHitters termosSemResultado = new HeavyHitters(CAPACIDADE_TERMOS);
+	}
+
+	private static final class Estado {
+		final Instant desde = Instant.now();
+		final Map<Tipo, Metricas> metricas = new EnumMap<>(Tipo.class);
+		final ArrayDeque<TelemetriaBuscaDTO.BuscaLenta> lentas = new ArrayDeque<>(MAX_BUSCAS_LENTAS);
+
+		Estado() {
+			for (Tipo tipo : Tipo.values()) {
+				metricas.put(tipo, new Metricas());
+			}
+		}
+	}
+
+	private final AtomicReference<Estado> estado = new AtomicReference<>(new Estado());
+
+	/**
+	 * Registra uma busca já executada.
+	 * @param duracaoNanos tempo gasto consultando o índice
+	 */
+	public void registrar(Tipo tipo, String termo, int resultados, long duracaoNanos) {
+		Estado atual = estado.get();
+		Metricas m = atual.metricas.get(tipo);
+		long micros = TimeUnit.NANOSECONDS.toMicros(duracaoNanos);
+		String normalizado = normalizar(termo);
+
+		m.buscas.increment();
+		m.latencia.registrar(micros);
+		m.resultados.registrar(resultados);
+		if (!normalizado.isEmpty()) {
+			m.termos.registrar(normalizado);
+		}
+		if (resultados == 0) {
+			m.semResultado.increment();
+			if (!normalizado.isEmpty()) {
+				m.termosSemResultado.registrar(normalizado);
+			}
+		}
+
+		if (micros >= TimeUnit.MILLISECONDS.toMicros(limiteLentaMs)) {
+			logger.warn("Busca lenta ({}): '{}' levou {} ms, {} resultados", tipo, normalizado, micros / 1000, resultados);
+			synchronized (atual.lentas) {
+				if (atual.lentas.size() == MAX_BUSCAS_LENTAS) {
+					atual.lentas.removeFirst();
+				}
+				atual.lentas.addLast(new TelemetriaBuscaDTO.BuscaLenta(Instant.now(), tipo.name(), normalizado, micros, resultados));
+			}
+		}
+	}
+
+	public TelemetriaBuscaDTO getResumo() {
+		Estado atual = estado.get();
+		Map<String, TelemetriaBuscaDTO.Operacao> operacoes = new LinkedHashMap<>();
+		for (Map.Entry<Tipo, Metricas> e : atual.metricas.entrySet()) {
+			Metricas m = e.getValue();
+			operacoes.put(e.getKey().name().toLowerCase(Locale.ROOT), new TelemetriaBuscaDTO.Operacao(
+					m.buscas.sum(), m.semResultado.sum(), m.latencia.resumo(), m.resultados.resumo(),
+					m.termos.topo(TOPO_TERMOS), m.termosSemResultado.topo(TOPO_TERMOS)));
+		}
+		List<TelemetriaBuscaDTO.BuscaLenta> lentas;
+		synchronized (atual.lentas) {
+			lentas = new ArrayList<>(atual.lentas);
+		}
+		return new TelemetriaBuscaDTO(atual.desde, limiteLentaMs, operacoes, lentas.reversed());
+	}
+
+	/** Zera todas as métricas. */
+	public void resetar() {
+		estado.set(new Estado());
+		logger.info("Telemetria de busca zerada");
+	}
+
+	// Normalizado e truncado: agrupa variações de acento/caixa e limita a memória por termo
+	private static String normalizar(String termo) {
+		String normalizado = NormalizadorTexto.normalizar(termo);
+		return normalizado.length() > TAMANHO_MAXIMO_TERMO ? normalizado.substring(0, TAMANHO_MAXIMO_TERMO) : normalizado;
+	}
+}
@@ -0,0 +1,201 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.DTO.ComentarioDeltaDTO;
+
+/**
+ * Envia ao vivo (Server-Sent Events) as mudanças nos comentários de uma disciplina para quem está com a página dela
+ * aberta, a partir dos {@link ComentarioAlteradoEvent} (só depois do commit).
+ * <p>Publicar nunca bloqueia: cada cliente tem uma fila limitada ({@code app.sse.buffer-por-cliente}) e uma thread
+ * virtual própria que escreve na conexão, então um cliente lento só atrasa a si mesmo. Se a fila dele enche, os
+ * deltas pendentes são descartados e ele recebe {@code ressincronizar} (recarregar os comentários). Sem eventos, um
+ * comentário SSE a cada {@code app.sse.heartbeat-ms} mantém a conexão aberta em proxies.</p>
+ */
+@Service
+public class TransmissaoComentariosService {
+
+	private static final Logger logger = LoggerFactory.getLogger(TransmissaoComentariosService.class);
+
+	/** Marcadores na fila do cliente, além dos deltas. */
+	private static final Object RESSINCRONIZAR = new Object();
+	private static final Object FIM = new Object();
+
+	@Value("${app.sse.buffer-por-cliente:64}")
+	private int capacidadeCliente;
+
+	@Value("${app.sse.max-clientes:2000}")
+	private int maxClientes;
+
+	@Value("${app.sse.timeout-ms:1800000}")
+	private long timeoutMs;
+
+	@Value("${app.sse.heartbeat-ms:25000}")
+	private long heartbeatMs;
+
+	/** Para onde vão os eventos de um cliente; em produção, um {@link SseEmitter}. */
+	interface Canal {
+		void enviar(String evento, Object dados) throws IOException;
+
+		void ping() throws IOException;
+
+		void fechar();
+	}
+
+	final class Cliente {
+		private final String codigo;
+		private final Canal canal;
+		private final BlockingQueue<Object> fila;
+		private boolean encerrado;
+
+		private Cliente(String codigo, Canal canal) {
+			this.codigo = codigo;
+			this.canal = canal;
+			this.fila = new ArrayBlockingQueue<>(Math.max(2, capacidadeCliente));
+		}
+
+		synchronized void oferecer(Object item) {
+			if (encerrado) {
+				return;
+			}
+			if (!fila.offer(item)) {
+				// Cliente lento: o que está na fila já não adianta, ele recarrega tudo
+				fila.clear();
+				fila.offer(RESSINCRONIZAR);
+			}
+		}
+
+		synchronized void encerrar() {
+			if (!encerrado) {
+				encerrado = true;
+				fila.clear();
+				fila.offer(FIM);
+			}
+		}
+
+		private void rodar() {
+			try {
+				while (true) {
+					Object item = fila.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+					if (item == FIM) {
+						break;
+					} else if (item == null) {
+						canal.ping();
+					} else if (item == RESSINCRONIZAR) {
+						canal.enviar("ressincronizar", "");
+					} else {
+						ComentarioDeltaDTO delta = (ComentarioDeltaDTO) item;
+						canal.enviar(delta.tipo().toLowerCase(Locale.ROOT), delta);
+					}
+				}
+			} catch (IOException | IllegalStateException e) {
+				// Conexão fechada pelo cliente
+				logger.debug("Cliente SSE da disciplina {} desconectado: {}", codigo, e.getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				remover(this);
+				canal.fechar();
+			}
+		}
+	}
+
+	private final Map<String, Set<Cliente>> clientesPorDisciplina = new ConcurrentHashMap<>();
+	private final AtomicInteger conectados = new AtomicInteger();
+
+	/**
+	 * Abre o stream de eventos da disciplina.
+	 * @return o emitter da resposta, ou null se o limite de conexões ({@code app.sse.max-clientes}) foi atingido
+	 */
+	public SseEmitter conectar(String disciplinaCodigo) {
+		SseEmitter emitter = new SseEmitter(timeoutMs);
+		Cliente cliente = inscrever(disciplinaCodigo, new Canal() {
+			@Override
+			public void enviar(String evento, Object dados) throws IOException {
+				emitter.send(SseEmitter.event().name(evento).data(dados, MediaType.APPLICATION_JSON));
+			}
+
+			@Override
+			public void ping() throws IOException {
+				emitter.send(SseEmitter.event().comment("ping"));
+			}
+
+			@Override
+			public void fechar() {
+				emitter.complete();
+			}
+		});
+		if (cliente == null) {
+			return null;
+		}
+		emitter.onCompletion(cliente::encerrar);
+		emitter.onTimeout(cliente::encerrar);
+		emitter.onError(e -> cliente.encerrar());
+		return emitter;
+	}
+
+	/** Registra o cliente e inicia a thread que escreve no canal dele; null se o limite de conexões foi atingido. */
+	Cliente inscrever(String disciplinaCodigo, Canal canal) {
+		if (conectados.incrementAndGet() > maxClientes) {
+			conectados.decrementAndGet();
+			return null;
+		}
+		String codigo = normalizar(disciplinaCodigo);
+		Cliente cliente = new Cliente(codigo, canal);
+		// Dentro do compute, como em remover(): um conjunto que esvaziou e saiu do mapa não recebe o cliente novo
+		clientesPorDisciplina.compute(codigo, (c, clientes) -> {
+			Set<Cliente> atual = clientes != null ? clientes : ConcurrentHashMap.newKeySet();
+			atual.add(cliente);
+			return atual;
+		});
+		Thread.ofVirtual().name("sse-" + codigo).start(cliente::rodar);
+		return cliente;
+	}
+
+	private void remover(Cliente cliente) {
+		clientesPorDisciplina.computeIfPresent(cliente.codigo, (codigo, clientes) -> {
+			if (clientes.remove(cliente)) {
+				conectados.decrementAndGet();
+			}
+			return clientes.isEmpty() ? null : clientes;
+		});
+	}
+
+	/** Clientes conectados em todas as disciplinas. */
+	public int getConectados() {
+		return conectados.get();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoAlterarComentario(ComentarioAlteradoEvent event) {
+		if (event.disciplinaCodigo() == null) {
+			return;
+		}
+		Set<Cliente> clientes = clientesPorDisciplina.get(normalizar(event.disciplinaCodigo()));
+		if (clientes != null) {
+			for (Cliente c : clientes) {
+				c.oferecer(event.delta());
+			}
+		}
+	}
+
+	private static String normalizar(String codigo) {
+		return codigo.toUpperCase(Locale.ROOT);
+	}
+}
@@ -3,6 +3,7 @@ package com.example.service;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +33,12 @@ public class UsuarioService {
 	 @Autowired
 	 private AvaliacaoService avaliacaoService;
 
+	 @Autowired
+	 private ApplicationEventPublisher eventPublisher;
+
+	 @Autowired
+	 private ResumoAvaliacaoService resumoAvaliacaoService;
+
 	 private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(UsuarioService.class);
 
     
@@ -64,8 +71,13 @@ public class UsuarioService {
 	 * Deleta o usuário identificado pelo email.
 	 * Um pouco mais complicado pois precisa deletar todas as relações do usuário com outras entidades.
 	 */
+	 @Transactional
 	 public void delete(Usuario usuario){
+		resumoAvaliacaoService.removerNotasDoUsuario(usuario.getEmail());
+		comentarioService.deletarDoUsuario(usuario.getEmail());
 		usuarioRepository.delete(usuario);
+		// Avaliações do usuário somem junto, em qualquer disciplina
+		eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(null));
 	 }
     
     /**
@@ -165,8 +177,11 @@ public class UsuarioService {
 		);
 		usuarioBanidoRepository.save(banido);
 
-		// Deleta o usuário
+		// Deleta o usuário (as avaliações saem em cascata; antes, desconta as notas dos resumos e remove os comentários)
+		resumoAvaliacaoService.removerNotasDoUsuario(usuario.getEmail());
+		comentarioService.deletarDoUsuario(usuario.getEmail());
 		usuarioRepository.delete(usuario);
+		eventPublisher.publishEvent(new ConteudoDisciplinaAlteradoEvent(null));
 
 		logger.info("Usuário banido com sucesso: " + email + " (matrícula: " + usuario.getMatricula() + ")");
 		return true;
@@ -0,0 +1,85 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Faz as chaves estrangeiras que apontam para {@code comentarios} apagarem em cascata (respostas, votos, denúncias e
+ * anexos), para que a exclusão de uma subárvore de comentários seja um único comando no banco.
+ * <p>Em Java e não em SQL porque os nomes das chaves antigas foram gerados pelo Hibernate e não são os mesmos em
+ * todos os bancos: eles são lidos do {@link DatabaseMetaData}. Chaves que já apagam em cascata (ex:
+ * {@code fk_denuncia_comentario}, da V4) ficam como estão.</p>
+ */
+public class V12__exclusao_em_cascata_comentarios extends BaseJavaMigration {
+
+	// tabela, coluna, nome da chave nova; todas referenciam comentarios(comentario_id)
+	private static final String[][] CHAVES = {
+		{ "comentarios", "pai_id", "fk_comentarios_pai" },
+		{ "comentario_votes", "comentario_id", "fk_votos_comentario" },
+		{ "comentario_denuncias", "comentario_id", "fk_denuncia_comentario" },
+		{ "arquivos_comentario", "comentario_id", "fk_arquivos_comentario" },
+	};
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		Connection conexao = context.getConnection();
+		DatabaseMetaData metadados = conexao.getMetaData();
+		try (Statement st = conexao.createStatement()) {
+			for (String[] chave : CHAVES) {
+				String tabela = chave[0];
+				String coluna = chave[1];
+				if (!trocarPorCascata(conexao, metadados, st, tabela, coluna)) {
+					continue;
+				}
+				if (!tabela.equals("comentarios")) {
+					// Linhas órfãs impediriam a criação da chave
+					st.executeUpdate("DELETE FROM " + tabela + " WHERE " + coluna
+							+ " NOT IN (SELECT comentario_id FROM comentarios)");
+				}
+				st.executeUpdate("ALTER TABLE " + tabela + " ADD CONSTRAINT " + chave[2] + " FOREIGN KEY (" + coluna
+						+ ") REFERENCES comentarios (comentario_id) ON DELETE CASCADE");
+			}
+		}
+	}
+
+	/**
+	 * Remove as chaves da coluna que não apagam em cascata.
+	 * @return false se a coluna já tem uma chave em cascata (nada a fazer)
+	 */
+	private static boolean trocarPorCascata(Connection conexao, DatabaseMetaData metadados, Statement st,
+			String tabela, String coluna) throws SQLException {
+		String aspas = metadados.getIdentifierQuoteString();
+		boolean emCascata = false;
+		List<String> remover = new ArrayList<>();
+		try (ResultSet rs = metadados.getImportedKeys(conexao.getCatalog(), conexao.getSchema(), identificador(metadados, tabela))) {
+			while (rs.next()) {
+				if (!rs.getString("FKCOLUMN_NAME").equalsIgnoreCase(coluna)
+						|| !rs.getString("PKTABLE_NAME").equalsIgnoreCase("comentarios")) {
+					continue;
+				}
+				if (rs.getShort("DELETE_RULE") == DatabaseMetaData.importedKeyCascade) {
+					emCascata = true;
+				} else {
+					remover.add(rs.getString("FK_NAME"));
+				}
+			}
+		}
+		for (String nome : remover) {
+			st.executeUpdate("ALTER TABLE " + tabela + " DROP CONSTRAINT " + aspas + nome + aspas);
+		}
+		return !emCascata;
+	}
+
+	// H2 guarda nomes sem aspas em maiúsculas, o PostgreSQL em minúsculas
+	private static String identificador(DatabaseMetaData metadados, String nome) throws SQLException {
+		return metadados.storesUpperCaseIdentifiers() ? nome.toUpperCase() : nome;
+	}
+}
@@ -0,0 +1,35 @@
+-- A gravação de nota passa a ser um upsert (INSERT ... ON CONFLICT no PostgreSQL, MERGE no H2), que depende de um
+-- índice único cobrindo também a avaliação da disciplina (professor nulo). O índice antigo tratava nulos como
+-- distintos, então um duplo clique podia gravar duas notas da disciplina para o mesmo usuário.
+
+-- Mantém só a avaliação mais recente de cada usuário quando há duplicatas sem professor
+DELETE FROM avaliacoes
+WHERE professor_professor_id IS NULL
+  AND EXISTS (
+    SELECT 1 FROM avaliacoes b
+    WHERE b.professor_professor_id IS NULL
+      AND b.disciplina_disciplina_id = avaliacoes.disciplina_disciplina_id
+      AND b.user_email = avaliacoes.user_email
+      AND b.id > avaliacoes.id
+  );
+
+DROP INDEX IF EXISTS uniqueTupleDisplinaUsusuarioProfessor;
+
+ALTER TABLE avaliacoes ADD CONSTRAINT uk_avaliacoes_contexto
+    UNIQUE NULLS NOT DISTINCT (disciplina_disciplina_id, user_email, professor_professor_id);
+
+-- As duplicatas removidas estavam contadas no resumo: recalcula a partir das avaliações que ficaram
+DELETE FROM rating_summary;
+
+INSERT INTO rating_summary (disciplina_id, professor_id, soma, total, nota_1, nota_2, nota_3, nota_4, nota_5)
+SELECT disciplina_disciplina_id,
+       COALESCE(professor_professor_id, ''),
+       SUM(nota),
+       COUNT(*),
+       SUM(CASE WHEN nota = 1 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN nota = 2 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN nota = 3 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN nota = 4 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN nota = 5 THEN 1 ELSE 0 END)
+FROM avaliacoes
+GROUP BY disciplina_disciplina_id, COALESCE(professor_professor_id, '');
@@ -0,0 +1,3 @@
+-- Hash SHA-256 do conteúdo de cada anexo, calculado pelo processamento assíncrono de uploads.
+-- Anexos antigos ficam com NULL.
+ALTER TABLE arquivos_comentario ADD COLUMN IF NOT EXISTS sha256 VARCHAR(64);
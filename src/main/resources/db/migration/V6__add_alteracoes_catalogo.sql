@@ -0,0 +1,14 @@
+-- Log de alterações do catálogo de disciplinas, usado pelo front-end para sincronizar apenas o delta
+-- entre a versão em cache e a versão atual (em vez de baixar o catálogo inteiro após cada scraping)
+
+CREATE TABLE IF NOT EXISTS alteracoes_catalogo (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tipo VARCHAR(30) NOT NULL,
+    disciplina_codigo VARCHAR(20) NOT NULL,
+    professor_id VARCHAR(50),
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Último id do log incluído em cada execução bem-sucedida do scrapper.
+-- As alterações entre duas versões são as com id no intervalo (anterior, atual]
+ALTER TABLE scrapper_status ADD COLUMN IF NOT EXISTS ultima_alteracao_id BIGINT;
@@ -0,0 +1,33 @@
+-- Hierarquia materializada dos comentários: cada comentário guarda a raiz da thread, o caminho de ids desde a raiz
+-- (segmentos de 10 dígitos terminados em '/', ex: '0000000012/0000000045/') e a quantidade de respostas abaixo dele.
+-- Uma thread inteira sai de uma consulta por faixa no índice (root_id, path), já na ordem de exibição.
+
+ALTER TABLE comentarios ADD COLUMN IF NOT EXISTS root_id BIGINT;
+ALTER TABLE comentarios ADD COLUMN IF NOT EXISTS path VARCHAR(1000);
+ALTER TABLE comentarios ADD COLUMN IF NOT EXISTS descendentes_count INTEGER DEFAULT 0 NOT NULL;
+
+-- Backfill: percorre as árvores a partir das raízes (pai_id nulo) numa tabela temporária
+CREATE TABLE comentarios_hierarquia_tmp AS
+WITH RECURSIVE arvore (comentario_id, root_id, path) AS (
+    SELECT comentario_id, comentario_id, CAST(LPAD(CAST(comentario_id AS VARCHAR(20)), 10, '0') || '/' AS VARCHAR(1000))
+    FROM comentarios
+    WHERE pai_id IS NULL
+    UNION ALL
+    SELECT c.comentario_id, a.root_id, CAST(a.path || LPAD(CAST(c.comentario_id AS VARCHAR(20)), 10, '0') || '/' AS VARCHAR(1000))
+    FROM comentarios c
+    JOIN arvore a ON c.pai_id = a.comentario_id
+)
+SELECT comentario_id, root_id, path FROM arvore;
+
+UPDATE comentarios c SET
+    root_id = (SELECT t.root_id FROM comentarios_hierarquia_tmp t WHERE t.comentario_id = c.comentario_id),
+    path = (SELECT t.path FROM comentarios_hierarquia_tmp t WHERE t.comentario_id = c.comentario_id);
+
+DROP TABLE comentarios_hierarquia_tmp;
+
+UPDATE comentarios c SET descendentes_count = (
+    SELECT COUNT(*) FROM comentarios d
+    WHERE d.root_id = c.root_id AND d.path LIKE c.path || '%' AND d.comentario_id <> c.comentario_id
+);
+
+CREATE INDEX IF NOT EXISTS idx_comentarios_root_path ON comentarios (root_id, path);
@@ -0,0 +1,4 @@
+-- Feed de comentários principais por (disciplina, professor) com paginação por cursor na ordem de criação:
+-- a consulta "WHERE disciplina_id = ? AND professor_id = ? AND (created_at, comentario_id) < (?, ?)" vira uma
+-- varredura por faixa neste índice, sem OFFSET.
+CREATE INDEX IF NOT EXISTS idx_comentarios_feed ON comentarios (disciplina_id, professor_id, created_at, comentario_id);
@@ -0,0 +1,32 @@
+-- Agregado das notas por (disciplina, professor): soma, quantidade e histograma de 1 a 5.
+-- Mantido pelas escritas de avaliação com UPDATE relativo, então ler a média não depende de quantas avaliações existem.
+-- professor_id vazio ('') é a avaliação da disciplina: com NULL a chave primária não impediria linhas repetidas.
+
+CREATE TABLE IF NOT EXISTS rating_summary (
+    disciplina_id BIGINT NOT NULL,
+    professor_id VARCHAR(50) NOT NULL,
+    soma BIGINT NOT NULL DEFAULT 0,
+    total INTEGER NOT NULL DEFAULT 0,
+    nota_1 INTEGER NOT NULL DEFAULT 0,
+    nota_2 INTEGER NOT NULL DEFAULT 0,
+    nota_3 INTEGER NOT NULL DEFAULT 0,
+    nota_4 INTEGER NOT NULL DEFAULT 0,
+    nota_5 INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (disciplina_id, professor_id),
+    CONSTRAINT fk_rating_summary_disciplina FOREIGN KEY (disciplina_id)
+        REFERENCES disciplinas(disciplina_id) ON DELETE CASCADE
+);
+
+-- Backfill a partir das avaliações existentes
+INSERT INTO rating_summary (disciplina_id, professor_id, soma, total, nota_1, nota_2, nota_3, nota_4, nota_5)
+SELECT disciplina_disciplina_id,
+       COALESCE(professor_professor_id, ''),
+       SUM(nota),
+       COUNT(*),
+       SUM(CASE WHEN nota = 1 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN nota = 2 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN nota = 3 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN nota = 4 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN nota = 5 THEN 1 ELSE 0 END)
+FROM avaliacoes
+GROUP BY disciplina_disciplina_id, COALESCE(professor_professor_id, '');
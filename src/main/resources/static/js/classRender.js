@@ -18,6 +18,8 @@ let inlineEditFiles = [];
 let inlineEditExistingFiles = [];
 let replyingToCommentId = null;
 let allComments = [];
+// Cursor do feed por professor: só existe para quem tem mais comentários do que os que vieram na página
+let cursoresFeed = {};
 
 // ============================================
 // HELPER FUNCTIONS FOR COMMENTS
@@ -228,6 +230,8 @@ document.addEventListener('DOMContentLoaded', function() {
     const hasProfessors = typeof HAS_PROFESSORS !== 'undefined' ? HAS_PROFESSORS : false;
 
     generateListAllComments(COMENTARIOS_DATA, allComments);
+    cursoresFeed = typeof CURSORES_COMENTARIOS !== 'undefined' && CURSORES_COMENTARIOS ? { ...CURSORES_COMENTARIOS } : {};
+    iniciarAtualizacoesAoVivo();
 
     console.log('📊 Dados carregados:', {
         avaliacoes: AVALIACOES_DATA.length,
@@ -178,6 +178,9 @@ async function submitComment(event) {
             const result = await response.json();
             console.log('Resposta enviada com sucesso:', result);
             
+            // Attachments are processed in the background: wait for them before reloading
+            await aguardarAnexos(result.comentarioId, result.anexos);
+            
             // Reload page to show new reply
             window.location.reload();
             
@@ -223,6 +226,9 @@ async function submitComment(event) {
             const result = await response.json();
             console.log('Comentário enviado com sucesso:', result);
             
+            // Attachments are processed in the background: wait for them before reloading
+            await aguardarAnexos(result.comentarioId, result.anexos);
+            
             // Reload page to show new comment
             window.location.reload();
             
@@ -235,6 +241,37 @@ async function submitComment(event) {
     }
 }
 
+/**
+ * Aguarda o processamento dos anexos do comentário (polling no status) e avisa os que falharam.
+ * Desiste depois de ~30s: o que ainda estiver pendente aparece quando terminar.
+ */
+async function aguardarAnexos(comentarioId, anexos) {
+    if (!anexos || anexos.length === 0) return;
+    
+    const pendente = a => a.estado === 'RECEBIDO' || a.estado === 'PROCESSANDO';
+    let status = anexos;
+    for (let tentativa = 0; tentativa < 60 && status.some(pendente); tentativa++) {
+        await new Promise(resolve => setTimeout(resolve, 500));
+        try {
+            const response = await fetch(`/api/comentario/${comentarioId}/anexos/status`);
+            if (!response.ok) break;
+            status = await response.json();
+        } catch (error) {
+            console.error('Erro ao consultar status dos anexos:', error);
+            break;
+        }
+    }
+    
+    const falhas = status.filter(a => a.estado === 'REJEITADO' || a.estado === 'ERRO');
+    falhas.forEach(a => {
+        showToast(a.mensagem || `Erro ao salvar o arquivo ${a.nomeOriginal}`, 'error');
+    });
+    if (falhas.length > 0) {
+        // Give the user time to read the toast before the page reloads
+        await new Promise(resolve => setTimeout(resolve, 3000));
+    }
+}
+
 // ============================================
 // VOTE COMMENT
 // ============================================
@@ -993,3 +1030,133 @@ async function reportComment(comentarioId) {
         showToast(parseErrorMessage(error.message) || 'Erro ao denunciar comentário', 'error');
     }
 }
+
+// ============================================
+// FEED (carregamento sob demanda)
+// ============================================
+
+/**
+ * Carregar a próxima página de comentários do professor selecionado
+ */
+async function carregarMaisComentarios() {
+    const professorId = professorSelecionado;
+    const cursor = cursoresFeed[professorId];
+    if (!cursor) return;
+
+    const button = document.querySelector('.load-more-btn');
+    if (button) {
+        button.disabled = true;
+        button.classList.add('btn-loading');
+    }
+
+    try {
+        const params = new URLSearchParams({ disciplinaId: CLASS_ID, professorId: professorId, ordem: 'recentes', cursor: cursor });
+        const response = await fetch(`/api/comentario/feed?${params}`);
+        if (!response.ok) {
+            throw new Error(await response.text());
+        }
+        const pagina = await response.json();
+
+        generateListAllComments(pagina.comentarios, allComments);
+        cursoresFeed[professorId] = pagina.proximoCursor;
+        atualizarVisualizacao();
+    } catch (error) {
+        console.error('Erro ao carregar comentários:', error);
+        if (button) {
+            button.disabled = false;
+            button.classList.remove('btn-loading');
+        }
+        showToast(parseErrorMessage(error.message) || 'Erro ao carregar comentários', 'error');
+    }
+}
+
+/**
+ * Carregar as respostas de um comentário que veio do feed sem elas
+ */
+async function carregarRespostas(comentarioId) {
+    const comentario = allComments.find(c => c.id === comentarioId);
+    if (!comentario) return;
+
+    try {
+        const response = await fetch(`/api/comentario/${comentarioId}/respostas`);
+        if (!response.ok) {
+            throw new Error(await response.text());
+        }
+        const respostas = await response.json();
+
+        comentario.filhos = respostas;
+        generateListAllComments(respostas, allComments);
+        atualizarVisualizacao();
+    } catch (error) {
+        console.error('Erro ao carregar respostas:', error);
+        showToast(parseErrorMessage(error.message) || 'Erro ao carregar respostas', 'error');
+    }
+}
+
+// ============================================
+// ATUALIZAÇÕES AO VIVO (SSE)
+// ============================================
+
+let eventosComentarios = null;
+
+/**
+ * Receber ao vivo as mudanças nos comentários da disciplina (novos, editados, votos e removidos)
+ */
+function iniciarAtualizacoesAoVivo() {
+    if (typeof EventSource === 'undefined' || eventosComentarios) return;
+
+    eventosComentarios = new EventSource(`/api/comentario/eventos?disciplinaId=${encodeURIComponent(CLASS_ID)}`);
+
+    eventosComentarios.addEventListener('criado', e => aplicarDelta(JSON.parse(e.data), delta => {
+        if (allComments.some(c => c.id === delta.id)) return false;
+        const novo = { ...delta.comentario, filhos: [] };
+        if (novo.comentarioPaiId) {
+            const pai = allComments.find(c => c.id === novo.comentarioPaiId);
+            // Resposta de um comentário que não está na página: aparece quando as respostas forem carregadas
+            if (!pai) return false;
+            pai.filhos = pai.filhos || [];
+            pai.filhos.push(novo);
+            pai.respostasCount = (pai.respostasCount || 0) + 1;
+        }
+        allComments.push(novo);
+        return true;
+    }));
+
+    eventosComentarios.addEventListener('editado', e => aplicarDelta(JSON.parse(e.data), (delta, comentario) => {
+        comentario.texto = delta.texto;
+        comentario.edited = true;
+        comentario.editedAt = delta.editedAt;
+        return true;
+    }));
+
+    eventosComentarios.addEventListener('votos', e => aplicarDelta(JSON.parse(e.data), (delta, comentario) => {
+        comentario.upVotes = delta.upVotes;
+        comentario.downVotes = delta.downVotes;
+        return true;
+    }));
+
+    eventosComentarios.addEventListener('removido', e => aplicarDelta(JSON.parse(e.data), (delta, comentario) => {
+        markAsDeleted(comentario);
+        return true;
+    }));
+
+    // O servidor descartou mudanças que não conseguimos acompanhar: recarregar para voltar ao estado certo
+    eventosComentarios.addEventListener('ressincronizar', () => {
+        if (editingCommentId === null && replyingToCommentId === null) {
+            window.location.reload();
+        }
+    });
+
+    // Conexão caiu ou o servidor está cheio: o navegador tenta de novo sozinho, com o intervalo que o servidor pedir
+    eventosComentarios.onerror = () => console.warn('Atualizações ao vivo indisponíveis, tentando reconectar...');
+}
+
+function aplicarDelta(delta, aplicar) {
+    const comentario = allComments.find(c => c.id === delta.id);
+    if (!comentario && delta.tipo !== 'CRIADO') return;
+    if (!aplicar(delta, comentario)) return;
+    // Não redesenhar por cima de uma edição ou resposta em andamento; os dados já ficam atualizados
+    if (editingCommentId === null && replyingToCommentId === null) {
+        atualizarVisualizacao();
+    }
+}
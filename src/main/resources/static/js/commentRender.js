@@ -18,6 +18,11 @@ function mostrarComentarios(comentarios, professorNome) {
     lista.innerHTML = comentarios.filter(c => !c.comentarioPaiId && !c.deleted).map(comentario => {
         return renderCommentCard(comentario, false, 0);
     }).join('');
+
+    // Mais comentários no feed do professor (a página só traz os primeiros)
+    if (professorSelecionado !== null && cursoresFeed[professorSelecionado]) {
+        lista.innerHTML += `<button class="review-action-btn load-more-btn" onclick="carregarMaisComentarios()">carregar mais comentários</button>`;
+    }
 }
 
 /**
@@ -130,6 +135,11 @@ function renderCommentCard(comentario, isChild = false, nestLevel = 0) {
             html += renderCommentCard(filho, true, nestLevel + 1);
         });
         html += `</div>`;
+    } else if (comentario.respostasCount > 0) {
+        // Veio do feed sem as respostas: carregadas sob demanda
+        html += `<div class="child-comments-container nest-level-${nestLevel + 1}">
+            <button class="review-action-btn load-replies-btn" onclick="carregarRespostas(${comentario.id})">ver ${comentario.respostasCount} ${comentario.respostasCount === 1 ? 'resposta' : 'respostas'}</button>
+        </div>`;
     }
     
     return html;
@@ -4,6 +4,7 @@ class DisciplinasCache {
         this.timestampKey = 'disciplinas_cache_timestamp';
         this.versionKey = 'disciplinas_cache_version';
         this.dataHashKey = 'disciplinas_data_hash';
+        this.compactMediaType = 'application/vnd.avaliaufsc.catalogo+json';
         
         // Cache duration: 6 months (in milliseconds)
         this.cacheDuration = 6 * 30 * 24 * 60 * 60 * 1000; // 6 months
@@ -21,7 +22,11 @@ class DisciplinasCache {
             const hashChanged = await this.checkDataHashChanged();
             
             if (hashChanged) {
-                console.log('🔄 Data hash changed, refreshing cache...');
+                console.log('🔄 Data hash changed, syncing cache...');
+                const synced = await this.applyDelta();
+                if (synced) {
+                    return synced;
+                }
                 return await this.forceRefresh();
             }
             
@@ -89,6 +94,42 @@ class DisciplinasCache {
         }
     }
 
+    /**
+     * Apply only what changed since the cached data hash (added/changed disciplinas replace the cached ones,
+     * removed ones are dropped). Returns the updated list, or null when a full download is needed.
+     */
+    async applyDelta() {
+        try {
+            const cachedHash = localStorage.getItem(this.dataHashKey);
+            const cachedData = this.getCachedData();
+            if (!cachedHash || !Array.isArray(cachedData) || cachedData.length === 0) {
+                return null;
+            }
+
+            const response = await fetch(`/api/search/changes?since=${encodeURIComponent(cachedHash)}`);
+            if (!response.ok) {
+                return null;
+            }
+            const delta = await response.json();
+            if (delta.completo) {
+                return null;
+            }
+
+            const porCodigo = new Map(cachedData.map(d => [d.codigo, d]));
+            delta.removidas.forEach(codigo => porCodigo.delete(codigo));
+            delta.atualizadas.forEach(d => porCodigo.set(d.codigo, d));
+            const merged = Array.from(porCodigo.values());
+
+            this.setCachedData(merged, delta.para);
+            console.log(`🧩 Delta applied: ${delta.atualizadas.length} updated, ${delta.removidas.length} removed`);
+            return merged;
+
+        } catch (error) {
+            console.warn('⚠️ Could not apply delta, falling back to full refresh:', error);
+            return null;
+        }
+    }
+
     /**
      * Get valid cached data (not expired)
      */
@@ -142,16 +183,20 @@ class DisciplinasCache {
     }
 
     /**
-     * Store data in cache
+     * Store data in cache. When the data hash is already known (delta sync) it is stored directly.
      */
-    setCachedData(data) {
+    setCachedData(data, dataHash = null) {
         try {
             localStorage.setItem(this.cacheKey, JSON.stringify(data));
             localStorage.setItem(this.timestampKey, Date.now().toString());
             localStorage.setItem(this.versionKey, this.currentVersion);
             
             // Also update the data hash from server
-            this.updateStoredDataHash();
+            if (dataHash) {
+                localStorage.setItem(this.dataHashKey, dataHash);
+            } else {
+                this.updateStoredDataHash();
+            }
             
         } catch (error) {
             console.error('❌ Error saving to cache:', error);
@@ -195,11 +240,11 @@ class DisciplinasCache {
      */
     async fetchFromServer() {
 		  console.log('Carregando disciplinas no local storage');
+        // 'no-cache' revalidates with the ETag, so an unchanged catalogue comes back as a 304 from the HTTP cache.
+        // Asks for the compact format (shared professor table), falling back to plain JSON
         const response = await fetch('/api/search/disciplinas', {
-            headers: {
-                'Cache-Control': 'no-cache',
-                'Pragma': 'no-cache'
-            }
+            cache: 'no-cache',
+            headers: { 'Accept': `${this.compactMediaType}, application/json;q=0.9` }
         });
 
         if (!response.ok) {
@@ -207,12 +252,27 @@ class DisciplinasCache {
             throw new Error(`HTTP ${response.status}: ${response.statusText}`);
         }
 
-        const data = await response.json();
+        const contentType = response.headers.get('Content-Type') || '';
+        const body = await response.json();
+        const data = contentType.includes(this.compactMediaType) ? this.expandCompact(body) : body;
         console.log(`🌐 Fetched ${data.length} disciplinas from server`);
         
         return data;
     }
 
+    /**
+     * Expand the compact catalogue ({professores: [[id, nome]], disciplinas: [[codigo, nome, [indices]]]})
+     * into the same shape as the plain JSON endpoint
+     */
+    expandCompact(catalogo) {
+        const professores = catalogo.professores.map(([professorId, nome]) => ({ nome, professorId, semestre: null }));
+        return catalogo.disciplinas.map(([codigo, nome, indices]) => ({
+            codigo,
+            nome,
+            professores: indices.map(i => professores[i])
+        }));
+    }
+
     /**
      * Force refresh cache
      */
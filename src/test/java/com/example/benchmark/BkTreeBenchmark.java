@@ -0,0 +1,120 @@
+package com.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.search.BkTree;
+import com.example.search.Levenshtein;
+
+/**
+ * Busca aproximada no vocabulário: {@link BkTree} contra uma varredura linear com Levenshtein limitado.
+ * <p>Não roda no {@code mvn test}: executar o {@link #main(String[])} com o classpath de teste (ex: pela IDE).
+ * O vocabulário é sintético (palavras formadas por sílabas, 3 a 12 letras) e as consultas são palavras do
+ * vocabulário com 1 ou 2 edições aleatórias.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BkTreeBenchmark {
+
+	private static final String[] SILABAS = { "ca", "lo", "cu", "in", "tro", "du", "cao", "com", "pu", "ta", "fi",
+			"si", "pro", "gra", "ma", "es", "tru", "tu", "ras", "da", "dos", "al", "ge", "bra", "li", "ne", "ar", "te",
+			"mas", "an", "se", "qui", "mi", "ges", "to", "ri", "va", "de", "ni", "so", "ze", "nho", "lha", "ver", "mon" };
+
+	@Param({ "5000", "50000", "500000" })
+	public int tamanho;
+
+	@Param({ "1", "2" })
+	public int distancia;
+
+	private List<String> vocabulario;
+	private BkTree arvore;
+	private String[] consultas;
+	private int proxima;
+	private final int[] linhaA = new int[64];
+	private final int[] linhaB = new int[64];
+
+	@Setup
+	public void preparar() {
+		Random random = new Random(42);
+		Set<String> palavras = new LinkedHashSet<>();
+		while (palavras.size() < tamanho) {
+			StringBuilder sb = new StringBuilder();
+			int silabas = 2 + random.nextInt(4);
+			for (int i = 0; i < silabas; i++) {
+				sb.append(SILABAS[random.nextInt(SILABAS.length)]);
+			}
+			palavras.add(sb.toString());
+		}
+		vocabulario = new ArrayList<>(palavras);
+		arvore = new BkTree(vocabulario);
+
+		consultas = new String[256];
+		for (int i = 0; i < consultas.length; i++) {
+			consultas[i] = comErros(vocabulario.get(random.nextInt(vocabulario.size())), 1 + random.nextInt(2), random);
+		}
+	}
+
+	@Benchmark
+	public List<BkTree.Match> bkTree() {
+		return arvore.buscar(proximaConsulta(), distancia);
+	}
+
+	@Benchmark
+	public List<String> varreduraLinear() {
+		String consulta = proximaConsulta();
+		List<String> resultado = new ArrayList<>();
+		for (String palavra : vocabulario) {
+			if (Levenshtein.distanciaLimitada(consulta, palavra, distancia, linhaA, linhaB) <= distancia) {
+				resultado.add(palavra);
+			}
+		}
+		return resultado;
+	}
+
+	private String proximaConsulta() {
+		proxima = (proxima + 1) & (consultas.length - 1);
+		return consultas[proxima];
+	}
+
+	private static String comErros(String palavra, int erros, Random random) {
+		StringBuilder sb = new StringBuilder(palavra);
+		for (int i = 0; i < erros; i++) {
+			int pos = random.nextInt(sb.length());
+			char letra = (char) ('a' + random.nextInt(26));
+			switch (random.nextInt(3)) {
+				case 0 -> sb.setCharAt(pos, letra);
+				case 1 -> sb.insert(pos, letra);
+				default -> {
+					if (sb.length() > 1) sb.deleteCharAt(pos);
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(BkTreeBenchmark.class.getSimpleName()).build()).run();
+	}
+}
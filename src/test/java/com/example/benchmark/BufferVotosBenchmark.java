@@ -0,0 +1,100 @@
+package com.example.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.AcademicSystemApplication;
+import com.example.DTO.VotoDTO;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+import com.example.repository.UsuarioRepository;
+import com.example.service.ComentarioService;
+import com.example.service.DisciplinaService;
+import com.example.service.ProfessorService;
+
+/**
+ * Teste de carga dos votos: rajada em poucos comentários com e sem o buffer de votos ({@code app.votos.buffer}).
+ * <p>Não roda no {@code mvn test}: executar o {@link #main(String[])} com o classpath de teste (ex: pela IDE). Sobe a
+ * aplicação com o perfil de teste (H2 em memória) e 16 threads votam em 5 comentários, cada voto de um usuário
+ * sorteado entre 10.000. Com o buffer, o tempo medido é o de aceitar o voto; a gravação em lote roda em paralelo na
+ * thread do buffer.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class BufferVotosBenchmark {
+
+	private static final int COMENTARIOS = 5;
+	private static final int USUARIOS = 10_000;
+
+	@Param({ "false", "true" })
+	public boolean buffer;
+
+	private ConfigurableApplicationContext contexto;
+	private ComentarioService comentarioService;
+	private Long[] comentarios;
+	private Path journal;
+
+	@Setup
+	public void preparar() throws Exception {
+		journal = Files.createTempDirectory("votos-journal");
+		contexto = new SpringApplicationBuilder(AcademicSystemApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.properties("app.votos.buffer.enabled=" + buffer, "app.votos.buffer.journal-dir=" + journal,
+						"logging.level.root=WARN")
+				.run();
+		comentarioService = contexto.getBean(ComentarioService.class);
+		Usuario autor = contexto.getBean(UsuarioRepository.class).save(new Usuario("autor-carga@test.com", "x", "99999999"));
+		Professor professor = contexto.getBean(ProfessorService.class).criarOuObter("CARGA-P1", "Professor Carga");
+		Disciplina disciplina = contexto.getBean(DisciplinaService.class)
+				.criarOuAtualizar("CARGA001", "Disciplina Carga", Set.of(professor), "20241");
+		comentarios = new Long[COMENTARIOS];
+		for (int i = 0; i < COMENTARIOS; i++) {
+			comentarios[i] = comentarioService.criarComentario(autor, "Comentário " + i, disciplina, professor).getComentarioId();
+		}
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public VotoDTO votar() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return comentarioService.vote("u" + random.nextInt(USUARIOS) + "@test.com",
+				comentarios[random.nextInt(COMENTARIOS)], random.nextInt(4) != 0);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(BufferVotosBenchmark.class.getSimpleName()).build()).run();
+	}
+}
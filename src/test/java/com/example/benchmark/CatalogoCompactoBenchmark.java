@@ -0,0 +1,122 @@
+package com.example.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.DTO.CatalogoCompactoDTO;
+import com.example.DTO.DisciplinaSearchDTO;
+import com.example.DTO.ProfessorDTO;
+import com.example.search.CatalogoCompacto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara o catálogo da barra de pesquisa em JSON com o formato compacto (JSON e binário): tamanho e tempo de decodificação.
+ * <p>Não roda no {@code mvn test}: executar o {@link #main(String[])} com o classpath de teste (ex: pela IDE).
+ * O catálogo é sintético, com proporções parecidas com o da UFSC (~4500 disciplinas, ~2500 professores).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogoCompactoBenchmark {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private byte[] json;
+	private byte[] compactoJson;
+	private byte[] compactoBinario;
+
+	@Setup
+	public void preparar() throws IOException {
+		List<DisciplinaSearchDTO> catalogo = gerarCatalogo(4500, 2500, new Random(42));
+		CatalogoCompactoDTO compacto = CatalogoCompacto.compactar(catalogo);
+		json = MAPPER.writeValueAsBytes(catalogo);
+		compactoJson = MAPPER.writeValueAsBytes(compacto);
+		compactoBinario = CatalogoCompacto.codificarBinario(compacto);
+	}
+
+	@Benchmark
+	public List<DisciplinaSearchDTO> decodificarJson() throws IOException {
+		return MAPPER.readValue(json, new TypeReference<List<DisciplinaSearchDTO>>() {});
+	}
+
+	@Benchmark
+	public List<DisciplinaSearchDTO> decodificarCompactoJson() throws IOException {
+		return CatalogoCompacto.expandir(MAPPER.readValue(compactoJson, CatalogoCompactoDTO.class));
+	}
+
+	@Benchmark
+	public List<DisciplinaSearchDTO> decodificarCompactoBinario() {
+		return CatalogoCompacto.expandir(CatalogoCompacto.decodificarBinario(compactoBinario));
+	}
+
+	static List<DisciplinaSearchDTO> gerarCatalogo(int nDisciplinas, int nProfessores, Random random) {
+		String[] palavras = { "Cálculo", "Introdução", "Computação", "Física", "Programação", "Estruturas", "Dados",
+				"Álgebra", "Linear", "Sistemas", "Engenharia", "Laboratório", "Teoria", "Análise", "Química", "Gestão" };
+		String[] nomes = { "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Fernando", "Gabriela", "Henrique", "José", "Luiza" };
+		String[] sobrenomes = { "Silva", "Souza", "Oliveira", "Pereira", "Costa", "Rodrigues", "Almeida", "Nascimento" };
+
+		List<ProfessorDTO> professores = new ArrayList<>(nProfessores);
+		for (int i = 0; i < nProfessores; i++) {
+			String nome = nomes[random.nextInt(nomes.length)] + " " + sobrenomes[random.nextInt(sobrenomes.length)]
+					+ " " + sobrenomes[random.nextInt(sobrenomes.length)];
+			professores.add(new ProfessorDTO(nome, String.format("%016d", 1_000_000_000L + i * 7919L), null));
+		}
+
+		List<DisciplinaSearchDTO> disciplinas = new ArrayList<>(nDisciplinas);
+		for (int i = 0; i < nDisciplinas; i++) {
+			String nome = palavras[random.nextInt(palavras.length)] + " " + palavras[random.nextInt(palavras.length)]
+					+ " " + (1 + random.nextInt(4));
+			// Uma disciplina acumula professores de vários semestres
+			Set<ProfessorDTO> profs = new HashSet<>();
+			int n = 1 + random.nextInt(6);
+			for (int j = 0; j < n; j++) {
+				profs.add(professores.get(random.nextInt(nProfessores)));
+			}
+			disciplinas.add(new DisciplinaSearchDTO(String.format("INE%04d", i), nome, profs));
+		}
+		return disciplinas;
+	}
+
+	private static int gzip(byte[] dados) throws IOException {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		try (GZIPOutputStream gz = new GZIPOutputStream(saida)) {
+			gz.write(dados);
+		}
+		return saida.size();
+	}
+
+	public static void main(String[] args) throws Exception {
+		CatalogoCompactoBenchmark b = new CatalogoCompactoBenchmark();
+		b.preparar();
+		System.out.printf("%-20s %10s %10s%n", "formato", "bruto (B)", "gzip (B)");
+		System.out.printf("%-20s %10d %10d%n", "json", b.json.length, gzip(b.json));
+		System.out.printf("%-20s %10d %10d%n", "compacto-json", b.compactoJson.length, gzip(b.compactoJson));
+		System.out.printf("%-20s %10d %10d%n", "compacto-binario", b.compactoBinario.length, gzip(b.compactoBinario));
+
+		new Runner(new OptionsBuilder().include(CatalogoCompactoBenchmark.class.getSimpleName()).build()).run();
+	}
+}
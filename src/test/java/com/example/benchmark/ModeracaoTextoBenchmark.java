@@ -0,0 +1,96 @@
+package com.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.search.AutomatoTermos;
+import com.example.search.NormalizadorTexto;
+
+/**
+ * Varredura de um comentário de 2.000 caracteres pelos termos de moderação: {@link AutomatoTermos} contra o jeito
+ * ingênuo (normalizar o texto e procurar termo a termo).
+ * <p>Não roda no {@code mvn test}: executar o {@link #main(String[])} com o classpath de teste (ex: pela IDE). O texto
+ * é sintético, com acentos e pontuação, e não contém nenhum termo (pior caso: lê tudo). O dicionário tem os termos
+ * padrão e, no caso grande, mais palavras sorteadas.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModeracaoTextoBenchmark {
+
+	private static final int TAMANHO_TEXTO = 2_000;
+	private static final String[] PALAVRAS = { "aula", "prova", "cálculo", "professor", "matéria", "lista",
+			"exercícios", "avaliação", "ótimo", "difícil", "didática", "explicação", "trabalho", "semestre",
+			"média", "recuperação", "horário", "monitoria", "conteúdo", "ênfase" };
+	private static final List<String> TERMOS_PADRAO = List.of("idiot*", "imbecil*", "retardad*", "otari*", "babac*",
+			"vagabund*", "desgracad*", "arrombad*", "filho da puta", "filha da puta", "fdp", "puta", "porra",
+			"caralho", "merda", "cuzao", "bosta", "viad*", "macac*", "sapatao", "vou te pegar", "te matar", "se matar");
+
+	@Param({ "23", "1000" })
+	public int termos;
+
+	private String texto;
+	private AutomatoTermos automato;
+	private String[] termosIngenuos;
+
+	@Setup
+	public void preparar() {
+		Random random = new Random(42);
+		StringBuilder sb = new StringBuilder(TAMANHO_TEXTO + 20);
+		while (sb.length() < TAMANHO_TEXTO) {
+			sb.append(PALAVRAS[random.nextInt(PALAVRAS.length)]);
+			sb.append(random.nextInt(8) == 0 ? ", " : " ");
+		}
+		texto = sb.substring(0, TAMANHO_TEXTO);
+
+		List<String> dicionario = new ArrayList<>(TERMOS_PADRAO);
+		while (dicionario.size() < termos) {
+			// Palavras que não existem no texto, com começos parecidos com as dele
+			dicionario.add("zq" + Integer.toString(random.nextInt(1_000_000), 36));
+		}
+		automato = AutomatoTermos.compilar(dicionario);
+		termosIngenuos = dicionario.stream().map(t -> " " + t.replace("*", "")).toArray(String[]::new);
+		if (automato.contemAlgum(texto)) {
+			throw new IllegalStateException("O texto do benchmark não deveria conter termos");
+		}
+	}
+
+	@Benchmark
+	public int ahoCorasick() {
+		return automato.encontrar(texto);
+	}
+
+	@Benchmark
+	public int ingenuo() {
+		String normalizado = " " + NormalizadorTexto.normalizar(texto) + " ";
+		for (int i = 0; i < termosIngenuos.length; i++) {
+			if (normalizado.contains(termosIngenuos[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(ModeracaoTextoBenchmark.class.getSimpleName()).build()).run();
+	}
+}
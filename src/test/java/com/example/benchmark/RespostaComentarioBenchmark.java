@@ -0,0 +1,117 @@
+package com.example.benchmark;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.AcademicSystemApplication;
+import com.example.model.Comentario;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+import com.example.repository.UsuarioRepository;
+import com.example.service.ComentarioService;
+import com.example.service.DisciplinaService;
+import com.example.service.ProfessorService;
+
+/**
+ * Custo de responder ao comentário principal de uma thread com 10, 1.000 e 10.000 respostas abaixo dele.
+ * <p>Não roda no {@code mvn test}: executar o {@link #main(String[])} com o classpath de teste (ex: pela IDE). Sobe a
+ * aplicação com o perfil de teste (H2 em memória) e monta a thread como uma árvore com até 10 respostas por
+ * comentário. {@code responder} é o caminho atual (pai por referência); {@code carregarPai} é só o
+ * {@code findById} do pai, que o caminho anterior fazia antes de cada resposta. A resposta criada é apagada depois de
+ * cada chamada, para a thread não crescer durante a medição.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RespostaComentarioBenchmark {
+
+	private static final int RESPOSTAS_POR_COMENTARIO = 10;
+
+	@Param({ "10", "1000", "10000" })
+	public int descendentes;
+
+	private ConfigurableApplicationContext contexto;
+	private ComentarioService comentarioService;
+	private JdbcTemplate jdbcTemplate;
+	private Usuario autor;
+	private Long raiz;
+	private Long criada;
+
+	@Setup
+	public void preparar() {
+		contexto = new SpringApplicationBuilder(AcademicSystemApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.properties("logging.level.root=WARN")
+				.run();
+		comentarioService = contexto.getBean(ComentarioService.class);
+		jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+		autor = contexto.getBean(UsuarioRepository.class).save(new Usuario("autor-resposta@test.com", "x", "99999998"));
+		Professor professor = contexto.getBean(ProfessorService.class).criarOuObter("RESP-P1", "Professor Resposta");
+		Disciplina disciplina = contexto.getBean(DisciplinaService.class)
+				.criarOuAtualizar("RESP001", "Disciplina Resposta", Set.of(professor), "20241");
+		raiz = comentarioService.criarComentario(autor, "Raiz", disciplina, professor).getComentarioId();
+
+		// Árvore 10-ária em largura: o pai da resposta i é o comentário (i - 1) / 10
+		Long[] ids = new Long[descendentes + 1];
+		ids[0] = raiz;
+		for (int i = 1; i <= descendentes; i++) {
+			ids[i] = comentarioService.responderComentario(autor, "Resposta " + i,
+					ids[(i - 1) / RESPOSTAS_POR_COMENTARIO]).getComentarioId();
+		}
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@TearDown(Level.Invocation)
+	public void apagarResposta() {
+		if (criada != null) {
+			jdbcTemplate.update("DELETE FROM comentarios WHERE comentario_id = ?", criada);
+			jdbcTemplate.update("UPDATE comentarios SET descendentes_count = descendentes_count - 1 WHERE comentario_id = ?", raiz);
+			criada = null;
+		}
+	}
+
+	@Benchmark
+	public Long responder() {
+		criada = comentarioService.responderComentario(autor, "Nova resposta", raiz).getComentarioId();
+		return criada;
+	}
+
+	@Benchmark
+	public Optional<Comentario> carregarPai() {
+		return comentarioService.buscarPorId(raiz);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(RespostaComentarioBenchmark.class.getSimpleName()).build()).run();
+	}
+}
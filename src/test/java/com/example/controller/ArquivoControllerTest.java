@@ -0,0 +1,120 @@
+package com.example.controller;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.model.ArquivoComentario;
+import com.example.model.Comentario;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+import com.example.service.ArquivoComentarioService;
+import com.example.service.CenarioTeste;
+import com.example.service.ComentarioService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ArquivoControllerTest {
+
+    private static final String EMAIL = "autor-AC1@test.com";
+
+    @Autowired
+    private WebApplicationContext contexto;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private ArquivoComentarioService arquivoComentarioService;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    private MockMvc mvc;
+    private byte[] conteudo;
+    private Long arquivoId;
+
+    @BeforeEach
+    public void preparar() throws Exception {
+        mvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+        Usuario autor = cenarioTeste.usuario(EMAIL);
+        Professor professor = cenarioTeste.professor("AC1-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("AC1001", professor);
+        Comentario comentario = comentarioService.criarComentario(autor, "Com anexo", disciplina, professor);
+        conteudo = new byte[100_000];
+        for (int i = 0; i < conteudo.length; i++) {
+            conteudo[i] = (byte) ('a' + i % 26);
+        }
+        ArquivoComentario arquivo = arquivoComentarioService.salvarArquivo(
+                new MockMultipartFile("files", "notas.txt", "text/plain", conteudo), comentario);
+        arquivoId = arquivo.getId();
+    }
+
+    @Test
+    public void entregaOArquivoComCacheRangeERespostaCondicional() throws Exception {
+        MockHttpServletResponse inteiro = baixar(null, null).getResponse();
+        assertThat(inteiro.getStatus()).isEqualTo(200);
+        assertThat(inteiro.getContentAsByteArray()).isEqualTo(conteudo);
+        assertThat(inteiro.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable").contains("private");
+        assertThat(inteiro.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(inteiro.getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+        String etag = inteiro.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        MockHttpServletResponse parte = baixar(HttpHeaders.RANGE, "bytes=1000-1999").getResponse();
+        assertThat(parte.getStatus()).isEqualTo(206);
+        assertThat(parte.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 1000-1999/100000");
+        assertThat(parte.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(conteudo, 1000, 2000));
+
+        assertThat(baixar(HttpHeaders.RANGE, "bytes=200000-").getResponse().getStatus()).isEqualTo(416);
+
+        MockHttpServletResponse naoModificado = baixar(HttpHeaders.IF_NONE_MATCH, etag).getResponse();
+        assertThat(naoModificado.getStatus()).isEqualTo(304);
+        assertThat(naoModificado.getContentAsByteArray()).isEmpty();
+        assertThat(naoModificado.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+    }
+
+    @Test
+    public void comSendfileOConectorRecebeOArquivoEAFaixa() throws Exception {
+        MvcResult resultado = mvc.perform(get("/api/arquivos/{id}", arquivoId)
+                .sessionAttr("email", EMAIL)
+                .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE)
+                .header(HttpHeaders.RANGE, "bytes=-500"))
+                .andReturn();
+
+        MockHttpServletResponse resposta = resultado.getResponse();
+        assertThat(resposta.getStatus()).isEqualTo(206);
+        assertThat(resposta.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 99500-99999/100000");
+        assertThat(resposta.getContentLengthLong()).isEqualTo(500);
+        // O corpo fica por conta do conector
+        assertThat(resposta.getContentAsByteArray()).isEmpty();
+        assertThat(resposta.getHeaders(HttpHeaders.ETAG)).hasSize(1);
+        assertThat(resultado.getRequest().getAttribute("org.apache.tomcat.sendfile.filename")).isNotNull();
+        assertThat(resultado.getRequest().getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(99_500L);
+        assertThat(resultado.getRequest().getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(100_000L);
+    }
+
+    private MvcResult baixar(String cabecalho, String valor) throws Exception {
+        MockHttpServletRequestBuilder requisicao = get("/api/arquivos/{id}", arquivoId).sessionAttr("email", EMAIL);
+        if (cabecalho != null) {
+            requisicao.header(cabecalho, valor);
+        }
+        return mvc.perform(requisicao).andReturn();
+    }
+}
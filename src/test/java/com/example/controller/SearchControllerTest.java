@@ -0,0 +1,86 @@
+package com.example.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.search.CatalogoCompacto;
+import com.example.service.CenarioTeste;
+import com.example.service.SnapshotDisciplinasService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SearchControllerTest {
+
+    private static final String EMAIL = "leitor-SC1@test.com";
+
+    @Autowired
+    private WebApplicationContext contexto;
+
+    @Autowired
+    private SnapshotDisciplinasService snapshotDisciplinasService;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    public void preparar() {
+        mvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+        cenarioTeste.usuario(EMAIL);
+        snapshotDisciplinasService.reconstruir();
+    }
+
+    @Test
+    public void cadaCodificacaoDoSnapshotTemETagPropria() throws Exception {
+        MockHttpServletResponse gzip = disciplinas("gzip", null);
+        MockHttpServletResponse identidade = disciplinas(null, null);
+        assertThat(gzip.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(identidade.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(gzip.getHeader(HttpHeaders.ETAG)).isNotEqualTo(identidade.getHeader(HttpHeaders.ETAG));
+        assertThat(gzip.getHeader(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+
+        assertThat(disciplinas("gzip", gzip.getHeader(HttpHeaders.ETAG)).getStatus()).isEqualTo(304);
+        // O ETag do corpo gzip não valida o corpo sem compressão
+        assertThat(disciplinas(null, gzip.getHeader(HttpHeaders.ETAG)).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void formatoSegueAQualidadeDoAccept() throws Exception {
+        String compacto = CatalogoCompacto.MEDIA_TYPE_JSON;
+        assertThat(formato(compacto)).startsWith(compacto);
+        assertThat(formato("application/json, " + compacto + ";q=0.1")).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(formato(compacto + ";q=0.5, application/json;q=0.4")).startsWith(compacto);
+        assertThat(formato("*/*")).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(formato("*/*;q=0.1, " + CatalogoCompacto.MEDIA_TYPE_BINARIO)).startsWith(CatalogoCompacto.MEDIA_TYPE_BINARIO);
+        assertThat(formato("não é um tipo")).startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private String formato(String accept) throws Exception {
+        return mvc.perform(get("/api/search/disciplinas").sessionAttr("email", EMAIL).header(HttpHeaders.ACCEPT, accept))
+                .andReturn().getResponse().getContentType();
+    }
+
+    private MockHttpServletResponse disciplinas(String acceptEncoding, String ifNoneMatch) throws Exception {
+        var requisicao = get("/api/search/disciplinas").sessionAttr("email", EMAIL);
+        if (acceptEncoding != null) {
+            requisicao.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            requisicao.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mvc.perform(requisicao).andReturn().getResponse();
+    }
+}
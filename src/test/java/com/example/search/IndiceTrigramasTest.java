@@ -0,0 +1,75 @@
+package com.example.search;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IndiceTrigramasTest {
+
+    private final IndiceTrigramas indice = IndiceTrigramas.builder()
+            .adicionarDisciplina("INE5402", "Programação Orientada a Objetos I", List.of("Ricardo Pereira"))
+            .adicionarDisciplina("INE5404", "Programação Orientada a Objetos II", List.of("Jean Hauck"))
+            .adicionarDisciplina("MTM3110", "Cálculo 1", List.of("Ana Programa"))
+            .adicionarDisciplina("EGC5001", "Gestão do Conhecimento", List.of("Fernando Gauthier"))
+            .build();
+
+    @Test
+    public void contaDisciplinasEntradasETrigramas() {
+        assertThat(indice.getNumDisciplinas()).isEqualTo(4);
+        // Código, nome e um professor por disciplina
+        assertThat(indice.getNumEntradas()).isEqualTo(12);
+        assertThat(indice.getNumTrigramas()).isPositive();
+        assertThat(IndiceTrigramas.vazio().buscar("calculo", 10)).isEmpty();
+    }
+
+    @Test
+    public void trigramasIncluemAsBordasDasPalavras() {
+        assertThat(IndiceTrigramas.trigramas("in ab")).containsExactly(" in", "in ", " ab", "ab ");
+    }
+
+    @Test
+    public void codigoPesaMaisQueNomeEProfessor() {
+        List<IndiceTrigramas.Resultado> resultados = indice.buscar("ine5404", 10);
+        assertThat(resultados).extracting(IndiceTrigramas.Resultado::codigo).startsWith("INE5404");
+        assertThat(resultados.get(0).professor()).isNull();
+
+        // "programa" é prefixo do nome das duas de POO e do professor de Cálculo, que pesa menos
+        List<IndiceTrigramas.Resultado> programa = indice.buscar("programa", 10);
+        assertThat(programa).extracting(IndiceTrigramas.Resultado::codigo).containsExactly("INE5402", "INE5404", "MTM3110");
+        // Empate no score: desempata pelo código
+        assertThat(programa.get(0).score()).isEqualTo(programa.get(1).score());
+        assertThat(programa.get(1).score()).isGreaterThan(programa.get(2).score());
+        assertThat(programa.get(2).professor()).isEqualTo("Ana Programa");
+    }
+
+    @Test
+    public void buscaIgnoraAcentosEMaiusculas() {
+        assertThat(indice.buscar("CALCULO", 10)).extracting(IndiceTrigramas.Resultado::codigo).containsExactly("MTM3110");
+        assertThat(indice.buscar("gestão", 10)).extracting(IndiceTrigramas.Resultado::nome).containsExactly("Gestão do Conhecimento");
+    }
+
+    @Test
+    public void matchNoProfessorPreencheOProfessor() {
+        List<IndiceTrigramas.Resultado> resultados = indice.buscar("gauthier", 10);
+        assertThat(resultados).hasSize(1);
+        assertThat(resultados.get(0).codigo()).isEqualTo("EGC5001");
+        assertThat(resultados.get(0).professor()).isEqualTo("Fernando Gauthier");
+    }
+
+    @Test
+    public void respeitaOLimiteEDescartaPoucaSimilaridade() {
+        assertThat(indice.buscar("programa", 1)).extracting(IndiceTrigramas.Resultado::codigo).containsExactly("INE5402");
+        assertThat(indice.buscar("programa", 0)).isEmpty();
+        assertThat(indice.buscar("   ", 10)).isEmpty();
+        assertThat(indice.buscar("xyzw", 10)).isEmpty();
+    }
+
+    @Test
+    public void consultasSeguidasNaoHerdamContagensDaAnterior() {
+        List<IndiceTrigramas.Resultado> primeira = indice.buscar("orientada objetos", 10);
+        indice.buscar("programa", 10);
+        assertThat(indice.buscar("orientada objetos", 10)).isEqualTo(primeira);
+    }
+}
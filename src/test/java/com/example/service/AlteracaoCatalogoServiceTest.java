@@ -0,0 +1,61 @@
+package com.example.service;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.model.AlteracaoCatalogo;
+import com.example.model.Professor;
+import com.example.repository.AlteracaoCatalogoRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AlteracaoCatalogoServiceTest {
+
+    @Autowired
+    private DisciplinaService disciplinaService;
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private AlteracaoCatalogoRepository alteracaoCatalogoRepository;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    @Test
+    public void logRegistraVinculosAdicionadosAlteradosERemovidos() {
+        Professor p1 = cenarioTeste.professor("ALC1-P1");
+        Professor p2 = cenarioTeste.professor("ALC1-P2");
+        cenarioTeste.disciplina("ALC1001", p1);
+        long inicio = alteracaoCatalogoRepository.ultimoId();
+
+        // Mesmo semestre: nada muda
+        cenarioTeste.disciplina("ALC1001", p1);
+        assertThat(alteracoesDesde(inicio)).extracting(AlteracaoCatalogo::getTipo).isEmpty();
+
+        disciplinaService.criarOuAtualizar("ALC1001", "Disciplina ALC1001", Set.of(p1, p2), "20242");
+        professorService.criarOuObter("ALC1-P1", "Professor Renomeado");
+        professorService.deletar("ALC1-P2");
+
+        assertThat(alteracoesDesde(inicio))
+                .extracting(AlteracaoCatalogo::getTipo, AlteracaoCatalogo::getDisciplinaCodigo, AlteracaoCatalogo::getProfessorId)
+                .containsExactlyInAnyOrder(
+                        tuple(AlteracaoCatalogo.Tipo.PROFESSOR_ALTERADO, "ALC1001", "ALC1-P1"),
+                        tuple(AlteracaoCatalogo.Tipo.PROFESSOR_ADICIONADO, "ALC1001", "ALC1-P2"),
+                        tuple(AlteracaoCatalogo.Tipo.PROFESSOR_ALTERADO, "ALC1001", "ALC1-P1"),
+                        tuple(AlteracaoCatalogo.Tipo.PROFESSOR_REMOVIDO, "ALC1001", "ALC1-P2"));
+    }
+
+    private List<AlteracaoCatalogo> alteracoesDesde(long id) {
+        return alteracaoCatalogoRepository.buscarIntervalo(id, alteracaoCatalogoRepository.ultimoId());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.service;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.DTO.VotoDTO;
+import com.example.model.Comentario;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({ "test", "buffervotos" })
+public class BufferVotosServiceTest {
+
+    @Autowired
+    private BufferVotosService bufferVotosService;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size}")
+    private int tamanhoPool;
+
+    @Test
+    public void votosFicamNoBufferENoJournalAteAGravacao() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-BV1@test.com");
+        Professor professor = cenarioTeste.professor("BV1-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("BV1001", professor);
+        Long id = comentarioService.criarComentario(autor, "Comentário", disciplina, professor).getComentarioId();
+        bufferVotosService.gravar();
+
+        assertThat(comentarioService.vote("a-BV1@test.com", id, true)).isEqualTo(new VotoDTO(1, 0, true));
+        assertThat(comentarioService.vote("b-BV1@test.com", id, true)).isEqualTo(new VotoDTO(2, 0, true));
+        // O último voto do usuário vence: b desfaz e vota contra
+        assertThat(comentarioService.vote("b-BV1@test.com", id, true)).isEqualTo(new VotoDTO(1, 0, null));
+        assertThat(comentarioService.vote("b-BV1@test.com", id, false)).isEqualTo(new VotoDTO(1, 1, false));
+        assertThat(bufferVotosService.getPendentes()).isEqualTo(2);
+
+        // Nada no banco ainda, mas tudo no journal
+        Comentario antes = comentarioService.buscarPorId(id).orElseThrow();
+        assertThat(antes.getUpVotes()).isZero();
+        assertThat(antes.getDownVotes()).isZero();
+        JournalVotos journal = new JournalVotos(Path.of("target/votos-journal-test"), false);
+        long entradas = 0;
+        for (Path segmento : journal.segmentosExistentes()) {
+            entradas += JournalVotos.ler(segmento).stream().filter(e -> e.comentarioId() == id).count();
+        }
+        assertThat(entradas).isEqualTo(4);
+
+        assertThat(bufferVotosService.gravar()).isEqualTo(2);
+        Comentario depois = comentarioService.buscarPorId(id).orElseThrow();
+        assertThat(depois.getUpVotes()).isEqualTo(1);
+        assertThat(depois.getDownVotes()).isEqualTo(1);
+        assertThat(comentarioService.buscarVotoDoUsuario(id, "b-BV1@test.com")).isFalse();
+        assertThat(bufferVotosService.getPendentes()).isZero();
+        for (Path segmento : journal.segmentosExistentes()) {
+            assertThat(JournalVotos.ler(segmento)).noneMatch(e -> e.comentarioId() == id);
+        }
+
+        // Depois da gravação o estado vem do banco: clicar de novo desfaz o voto gravado
+        assertThat(comentarioService.vote("a-BV1@test.com", id, true)).isEqualTo(new VotoDTO(0, 1, null));
+        bufferVotosService.gravar();
+        assertThat(comentarioService.buscarPorId(id).orElseThrow().getUpVotes()).isZero();
+        assertThat(comentarioService.buscarVotoDoUsuario(id, "a-BV1@test.com")).isNull();
+        assertThat(comentarioService.buscarPorId(id).orElseThrow().getDownVotes()).isEqualTo(1);
+    }
+
+    @Test
+    public void votoQueCruzaUmaGravacaoVeOEstadoCerto() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-BV2@test.com");
+        Professor professor = cenarioTeste.professor("BV2-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("BV2001", professor);
+        Long id = comentarioService.criarComentario(autor, "Comentário", disciplina, professor).getComentarioId();
+        bufferVotosService.gravar();
+
+        AtomicBoolean parar = new AtomicBoolean();
+        Thread gravador = new Thread(() -> {
+            while (!parar.get()) {
+                bufferVotosService.gravar();
+            }
+        });
+        gravador.start();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<Boolean>>> votantes = new ArrayList<>();
+        for (int u = 0; u < 4; u++) {
+            String email = "v" + u + "-BV2@test.com";
+            votantes.add(executor.submit(() -> {
+                List<Boolean> estados = new ArrayList<>();
+                for (int i = 0; i < 40; i++) {
+                    estados.add(comentarioService.vote(email, id, true).voto());
+                }
+                return estados;
+            }));
+        }
+        try {
+            // Cada clique alterna: vota, desfaz, vota... mesmo com gravações no meio
+            for (Future<List<Boolean>> votante : votantes) {
+                List<Boolean> estados = votante.get(60, TimeUnit.SECONDS);
+                for (int i = 0; i < estados.size(); i++) {
+                    assertThat(estados.get(i)).isEqualTo(i % 2 == 0 ? Boolean.TRUE : null);
+                }
+            }
+        } finally {
+            parar.set(true);
+            gravador.join();
+            executor.shutdown();
+        }
+        bufferVotosService.gravar();
+        assertThat(comentarioService.buscarPorId(id).orElseThrow().getUpVotes()).isZero();
+    }
+
+    @Test
+    public void votantesEsperandoAGravacaoNaoSeguramConexoes() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-BV3@test.com");
+        Professor professor = cenarioTeste.professor("BV3-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("BV3001", professor);
+        Long id = comentarioService.criarComentario(autor, "Comentário", disciplina, professor).getComentarioId();
+        bufferVotosService.gravar();
+        comentarioService.vote("a-BV3@test.com", id, true);
+
+        int quantidade = tamanhoPool * 2;
+        ExecutorService executor = Executors.newFixedThreadPool(quantidade + 1);
+        try {
+            // Pool todo ocupado: os votantes entram na fila por uma conexão e a gravação, que põe o lote em voo, vem
+            // depois deles
+            List<Connection> presas = new ArrayList<>();
+            for (int i = 0; i < tamanhoPool; i++) {
+                presas.add(dataSource.getConnection());
+            }
+            List<Future<VotoDTO>> votantes = new ArrayList<>();
+            for (int u = 0; u < quantidade; u++) {
+                String email = "v" + u + "-BV3@test.com";
+                votantes.add(executor.submit(() -> comentarioService.vote(email, id, true)));
+            }
+            Thread.sleep(200);
+            Future<Integer> gravacao = executor.submit(bufferVotosService::gravar);
+            Thread.sleep(100);
+            for (Connection c : presas) {
+                c.close();
+            }
+
+            // Se os votantes esperassem segurando conexões, a gravação estouraria o connection-timeout
+            assertThat(gravacao.get(30, TimeUnit.SECONDS)).isEqualTo(1);
+            for (Future<VotoDTO> votante : votantes) {
+                assertThat(votante.get(30, TimeUnit.SECONDS).voto()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(bufferVotosService.gravar()).isEqualTo(quantidade);
+        assertThat(comentarioService.buscarPorId(id).orElseThrow().getUpVotes()).isEqualTo(quantidade + 1);
+    }
+}
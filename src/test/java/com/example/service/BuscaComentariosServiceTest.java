@@ -0,0 +1,133 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.DTO.AdminCommentDTO;
+import com.example.DTO.BuscaComentariosDTO;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+import com.example.repository.UsuarioRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BuscaComentariosServiceTest {
+
+    @Autowired
+    private BuscaComentariosService buscaComentariosService;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    @Test
+    public void buscaIgnoraAcentoEFlexaoEAcompanhaEdicaoERemocao() {
+        Usuario autor = cenarioTeste.usuario("autor-BC1@test.com");
+        Professor professor = cenarioTeste.professor("BC1-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("BC1001", professor);
+
+        Long forte = comentarioService.criarComentario(autor, "Provas de xilofonia difíceis, a última prova de xilofonia "
+                + "foi a mais difícil", disciplina, professor).getComentarioId();
+        Long fraco = comentarioService.criarComentario(autor, "A XILOFONIA é legal e as aulas são boas, "
+                + "mas o professor some e ninguém responde e-mail nem a monitoria ajuda", disciplina, professor).getComentarioId();
+        Long resposta = comentarioService.responderComentario(autor, "O provão de xilofonia foi dificílimo?", fraco)
+                .getComentarioId();
+        comentarioService.criarComentario(autor, "Nada a ver com o resto", disciplina, professor);
+
+        BuscaComentariosDTO pagina = buscaComentariosService.buscar("prova dificil xilofonia", null, 10);
+        assertThat(ids(pagina)).containsExactly(forte, resposta, fraco);
+        assertThat(pagina.total()).isEqualTo(3);
+        assertThat(pagina.proximoCursor()).isNull();
+        assertThat(pagina.comentarios().get(0).disciplinaId()).isEqualTo("BC1001");
+
+        comentarioService.edit(comentarioService.buscarPorId(forte).orElseThrow(), "Trocou tudo: agora só fala de harpas");
+        assertThat(ids(buscaComentariosService.buscar("xilofonia", null, 10))).containsExactly(resposta, fraco);
+        assertThat(ids(buscaComentariosService.buscar("harpa", null, 10))).containsExactly(forte);
+
+        // A resposta sai junto com o comentário principal
+        comentarioService.deletar(fraco);
+        assertThat(buscaComentariosService.buscar("xilofonia", null, 10).comentarios()).isEmpty();
+
+        assertThat(buscaComentariosService.buscar("de a o", null, 10).total()).isZero();
+        assertThatThrownBy(() -> buscaComentariosService.buscar("harpa", "nao-e-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void paginasPorCursorCobremTodosOsResultadosSemRepetir() {
+        Usuario autor = cenarioTeste.usuario("autor-BC2@test.com");
+        Professor professor = cenarioTeste.professor("BC2-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("BC2001", professor);
+
+        Set<Long> criados = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            // Alguns com o termo repetido, para os scores não serem todos iguais
+            String texto = "Comentário " + i + " sobre a clepsidra" + (i % 3 == 0 ? ", de novo a clepsidra" : "");
+            criados.add(comentarioService.criarComentario(autor, texto, disciplina, professor).getComentarioId());
+        }
+
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            BuscaComentariosDTO pagina = buscaComentariosService.buscar("clepsidras", cursor, 10);
+            assertThat(pagina.total()).isEqualTo(25);
+            vistos.addAll(ids(pagina));
+            cursor = pagina.proximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(paginas).isEqualTo(3);
+        assertThat(vistos).hasSize(25).doesNotHaveDuplicates();
+        assertThat(new HashSet<>(vistos)).isEqualTo(criados);
+        // Os que repetem o termo vêm primeiro
+        assertThat(comentarioService.buscarPorId(vistos.get(0)).orElseThrow().getTexto()).contains("de novo");
+    }
+
+    private static List<Long> ids(BuscaComentariosDTO pagina) {
+        return pagina.comentarios().stream().map(AdminCommentDTO::id).toList();
+    }
+
+    @Test
+    public void excluirUsuarioTiraOsComentariosDoIndice() {
+        Usuario autor = cenarioTeste.usuario("autor-BC3@test.com");
+        Usuario outro = cenarioTeste.usuario("outro-BC3@test.com");
+        Professor professor = cenarioTeste.professor("BC3-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("BC3001", professor);
+        Long raiz = comentarioService.criarComentario(autor, "Sobre oboés e fagotes", disciplina, professor).getComentarioId();
+        comentarioService.responderComentario(outro, "Fagote é difícil", raiz);
+        Long mantido = comentarioService.criarComentario(outro, "Fagote de novo", disciplina, professor).getComentarioId();
+
+        BuscaComentariosDTO antes = buscaComentariosService.buscar("fagote", null, 10);
+        assertThat(antes.total()).isEqualTo(3);
+        AdminCommentDTO primeiro = antes.comentarios().stream().filter(c -> c.id().equals(raiz)).findFirst().orElseThrow();
+        assertThat(primeiro.userMatricula()).isEqualTo(autor.getMatricula());
+        assertThat(primeiro.professorNome()).isEqualTo(professor.getNome());
+        assertThat(primeiro.respostasCount()).isEqualTo(1);
+
+        usuarioService.delete(usuarioRepository.findByEmail("autor-BC3@test.com").orElseThrow());
+
+        BuscaComentariosDTO depois = buscaComentariosService.buscar("fagote", null, 10);
+        assertThat(depois.total()).isEqualTo(1);
+        assertThat(ids(depois)).containsExactly(mantido);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.DTO.CachePaginaDisciplinaDTO;
+import com.example.DTO.ComentarioDTO;
+import com.example.model.Comentario;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CachePaginaDisciplinaServiceTest {
+
+    @Autowired
+    private CachePaginaDisciplinaService cachePaginaDisciplinaService;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    @Test
+    public void servePaginaDoCacheComDadosDoUsuarioSobrepostos() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-CPD1@test.com");
+        Usuario leitor = cenarioTeste.usuario("leitor-CPD1@test.com");
+        Professor professor = cenarioTeste.professor("CPD1-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("CPD1001", professor);
+        Comentario raiz = comentarioService.criarComentario(autor, "Comentário", disciplina, professor);
+        Comentario resposta = comentarioService.responderComentario(leitor, "Resposta", raiz.getComentarioId());
+        comentarioService.vote(leitor.getEmail(), raiz.getComentarioId(), true);
+        avaliacaoService.create(professor, disciplina, autor, 4);
+
+        cachePaginaDisciplinaService.resetarMetricas();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        cachePaginaDisciplinaService.carregar("CPD1001", null).orElseThrow();
+        statistics.clear();
+        PaginaDisciplinaService.Pagina anonimo = cachePaginaDisciplinaService.carregar("cpd1001", null).orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // Acerto para usuário logado: só a consulta dos votos dele
+        statistics.clear();
+        PaginaDisciplinaService.Pagina doLeitor = cachePaginaDisciplinaService.carregar("CPD1001", leitor.getEmail()).orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        PaginaDisciplinaService.Pagina doAutor = cachePaginaDisciplinaService.carregar("CPD1001", autor.getEmail()).orElseThrow();
+
+        ComentarioDTO raizAnonimo = anonimo.comentarios().get(0);
+        assertThat(raizAnonimo.isOwner()).isFalse();
+        assertThat(raizAnonimo.hasVoted()).isZero();
+        assertThat(raizAnonimo.filhos().get(0).isOwner()).isFalse();
+        assertThat(anonimo.avaliacoes().get(0).isOwner()).isFalse();
+
+        ComentarioDTO raizLeitor = doLeitor.comentarios().get(0);
+        assertThat(raizLeitor.isOwner()).isFalse();
+        assertThat(raizLeitor.hasVoted()).isEqualTo(1);
+        assertThat(raizLeitor.filhos().get(0).id()).isEqualTo(resposta.getComentarioId());
+        assertThat(raizLeitor.filhos().get(0).isOwner()).isTrue();
+        assertThat(doLeitor.avaliacoes().get(0).isOwner()).isFalse();
+
+        ComentarioDTO raizAutor = doAutor.comentarios().get(0);
+        assertThat(raizAutor.isOwner()).isTrue();
+        assertThat(raizAutor.hasVoted()).isZero();
+        // Subárvore sem dados do autor é reaproveitada da página compartilhada
+        assertThat(raizAutor.filhos()).isSameAs(raizAnonimo.filhos());
+        assertThat(doAutor.avaliacoes().get(0).isOwner()).isTrue();
+
+        // Um voto muda a versão da disciplina: a próxima leitura monta a página de novo
+        comentarioService.vote(autor.getEmail(), raiz.getComentarioId(), false);
+        PaginaDisciplinaService.Pagina depois = cachePaginaDisciplinaService.carregar("CPD1001", null).orElseThrow();
+        assertThat(depois.comentarios().get(0).downVotes()).isEqualTo(1);
+
+        CachePaginaDisciplinaDTO resumo = cachePaginaDisciplinaService.getResumo();
+        assertThat(resumo.acertos()).isEqualTo(3);
+        assertThat(resumo.faltas()).isEqualTo(1);
+        assertThat(resumo.obsoletas()).isEqualTo(1);
+        assertThat(resumo.taxaAcerto()).isEqualTo(0.6);
+    }
+}
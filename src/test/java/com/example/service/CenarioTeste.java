@@ -0,0 +1,47 @@
+package com.example.service;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+import com.example.repository.UsuarioRepository;
+
+/**
+ * Dados básicos dos testes (usuários, professores e disciplinas). O contexto do Spring é compartilhado entre as
+ * classes de teste, então cada teste usa emails e códigos próprios (ex: sufixo com a sigla do teste).
+ */
+@Component
+public class CenarioTeste {
+
+    private static final String SEMESTRE = "20241";
+
+    private final AtomicInteger matriculas = new AtomicInteger();
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private DisciplinaService disciplinaService;
+
+    /** Usuário com o email, criado na primeira chamada (matrícula gerada). */
+    public Usuario usuario(String email) {
+        return usuarioRepository.findByEmail(email)
+                .orElseGet(() -> usuarioRepository.save(new Usuario(email, "x", "T" + matriculas.incrementAndGet())));
+    }
+
+    public Professor professor(String id) {
+        return professorService.criarOuObter(id, "Professor " + id);
+    }
+
+    public Disciplina disciplina(String codigo, Professor... professores) {
+        return disciplinaService.criarOuAtualizar(codigo, "Disciplina " + codigo, Set.of(professores), SEMESTRE);
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.DTO.ComentarioDTO;
+import com.example.DTO.VotoDTO;
+import com.example.model.ArquivoComentario;
+import com.example.model.Comentario;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+import com.example.repository.UsuarioRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ComentarioServiceTest {
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private ArquivoComentarioService arquivoComentarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    @Test
+    public void votoAlternaEInverteComContadoresAtualizados() {
+        Usuario autor = cenarioTeste.usuario("autor-CS1@test.com");
+        Usuario leitor = cenarioTeste.usuario("leitor-CS1@test.com");
+        Professor professor = cenarioTeste.professor("CS1-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("CS1001", professor);
+        Long id = comentarioService.criarComentario(autor, "Comentário", disciplina, professor).getComentarioId();
+
+        assertThat(comentarioService.vote(leitor.getEmail(), id, true)).isEqualTo(new VotoDTO(1, 0, true));
+        // Clicar de novo no mesmo voto desfaz
+        assertThat(comentarioService.vote(leitor.getEmail(), id, true)).isEqualTo(new VotoDTO(0, 0, null));
+        assertThat(comentarioService.vote(leitor.getEmail(), id, false)).isEqualTo(new VotoDTO(0, 1, false));
+        // Trocar o voto move a contagem de um lado para o outro
+        assertThat(comentarioService.vote(leitor.getEmail(), id, true)).isEqualTo(new VotoDTO(1, 0, true));
+        assertThat(comentarioService.vote(autor.getEmail(), id, false)).isEqualTo(new VotoDTO(1, 1, false));
+
+        assertThat(comentarioService.buscarVotoDoUsuario(id, leitor.getEmail())).isTrue();
+        Comentario salvo = comentarioService.buscarPorId(id).orElseThrow();
+        assertThat(salvo.getUpVotes()).isEqualTo(1);
+        assertThat(salvo.getDownVotes()).isEqualTo(1);
+    }
+
+    @Test
+    public void votosSimultaneosNoMesmoComentarioNaoSePerdem() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-CS2@test.com");
+        Professor professor = cenarioTeste.professor("CS2-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("CS2001", professor);
+        Long id = comentarioService.criarComentario(autor, "Comentário popular", disciplina, professor).getComentarioId();
+
+        int votantes = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<VotoDTO>> votos = new ArrayList<>();
+            for (int i = 0; i < votantes; i++) {
+                boolean up = i % 4 != 0;
+                String email = "votante" + i + "-CS2@test.com";
+                votos.add(executor.submit(() -> comentarioService.vote(email, id, up)));
+            }
+            for (Future<VotoDTO> voto : votos) {
+                voto.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Comentario salvo = comentarioService.buscarPorId(id).orElseThrow();
+        assertThat(salvo.getUpVotes()).isEqualTo(30);
+        assertThat(salvo.getDownVotes()).isEqualTo(10);
+    }
+
+    @Test
+    public void denunciaEntraNaFilaDeModeracaoAoAtingirOLimite() {
+        Usuario autor = cenarioTeste.usuario("autor-CS3@test.com");
+        Professor professor = cenarioTeste.professor("CS3-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("CS3001", professor);
+        Long id = comentarioService.criarComentario(autor, "Comentário", disciplina, professor).getComentarioId();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        estatisticas.clear();
+        assertThat(comentarioService.denunciar(id, "d1-CS3@test.com")).isTrue();
+        long comandosPrimeira = estatisticas.getPrepareStatementCount();
+        assertThat(comentarioService.denunciar(id, "d1-CS3@test.com")).isFalse();
+        for (int i = 2; i <= 20; i++) {
+            if (i == 3) {
+                // Abaixo do limite (3): denunciado, mas ainda fora da fila
+                Comentario antes = comentarioService.buscarPorId(id).orElseThrow();
+                assertThat(antes.getDenunciado()).isTrue();
+                assertThat(antes.getAlarmante()).isFalse();
+            }
+            comentarioService.denunciar(id, "d" + i + "-CS3@test.com");
+        }
+
+        // Denunciar custa o mesmo com 1 ou 20 denúncias no comentário
+        estatisticas.clear();
+        assertThat(comentarioService.denunciar(id, "d21-CS3@test.com")).isTrue();
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(comandosPrimeira);
+
+        Comentario depois = comentarioService.buscarPorId(id).orElseThrow();
+        assertThat(depois.getDenunciasCount()).isEqualTo(21);
+        assertThat(depois.getAlarmante()).isTrue();
+    }
+
+    @Test
+    public void responderCustaOMesmoComThreadPequenaOuGrande() {
+        Usuario autor = cenarioTeste.usuario("autor-CS4@test.com");
+        Professor professor = cenarioTeste.professor("CS4-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("CS4001", professor);
+        Long raiz = comentarioService.criarComentario(autor, "Raiz", disciplina, professor).getComentarioId();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        estatisticas.clear();
+        Long primeira = comentarioService.responderComentario(autor, "Primeira", raiz).getComentarioId();
+        long comandosPrimeira = estatisticas.getPrepareStatementCount();
+
+        for (int i = 0; i < 30; i++) {
+            comentarioService.responderComentario(autor, "Resposta " + i, i % 2 == 0 ? raiz : primeira);
+        }
+
+        estatisticas.clear();
+        Comentario resposta = comentarioService.responderComentario(autor, "Última", primeira);
+        // Nem o pai nem a subárvore dele são carregados
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(comandosPrimeira);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+
+        Comentario salva = comentarioService.buscarPorId(resposta.getComentarioId()).orElseThrow();
+        assertThat(salva.getRootId()).isEqualTo(raiz);
+        assertThat(salva.getAncestraisIds()).containsExactly(raiz, primeira);
+        assertThat(comentarioService.buscarPorId(raiz).orElseThrow().getDescendentesCount()).isEqualTo(32);
+        assertThat(comentarioService.buscarPorId(primeira).orElseThrow().getDescendentesCount()).isEqualTo(16);
+    }
+
+    @Test
+    public void excluirRemoveASubarvoreInteiraEOsArquivos() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-CS5@test.com");
+        Professor professor = cenarioTeste.professor("CS5-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("CS5001", professor);
+        Long raiz = comentarioService.criarComentario(autor, "Raiz", disciplina, professor).getComentarioId();
+        Long mantida = comentarioService.responderComentario(autor, "Fica", raiz).getComentarioId();
+        Long removida = comentarioService.responderComentario(autor, "Sai", raiz).getComentarioId();
+
+        List<Long> subarvore = new ArrayList<>(List.of(removida));
+        for (int i = 0; i < 50; i++) {
+            subarvore.add(comentarioService.responderComentario(autor, "Abaixo " + i, subarvore.get(i / 3)).getComentarioId());
+        }
+        Long folha = subarvore.get(subarvore.size() - 1);
+        comentarioService.vote("leitor-CS5@test.com", folha, true);
+        comentarioService.denunciar(folha, "leitor-CS5@test.com");
+        ArquivoComentario arquivo = arquivoComentarioService.salvarArquivo(
+                new MockMultipartFile("files", "a.txt", "text/plain", new byte[] { 1 }),
+                comentarioService.buscarPorId(folha).orElseThrow());
+        Path caminho = Path.of(arquivo.getCaminhoArquivo());
+        assertThat(caminho).exists();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        estatisticas.clear();
+        assertThat(comentarioService.deletar(removida)).isEqualTo(51);
+        // Nenhum comentário da subárvore é carregado
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+
+        for (Long id : subarvore) {
+            assertThat(comentarioService.existe(id)).isFalse();
+        }
+        assertThat(arquivoComentarioService.buscarPorId(arquivo.getId())).isEmpty();
+        assertThat(comentarioService.buscarVotoDoUsuario(folha, "leitor-CS5@test.com")).isNull();
+        assertThat(comentarioService.existe(mantida)).isTrue();
+        assertThat(comentarioService.buscarPorId(raiz).orElseThrow().getDescendentesCount()).isEqualTo(1);
+
+        // O arquivo sai do disco em segundo plano
+        long limite = System.currentTimeMillis() + 5_000;
+        while (Files.exists(caminho) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(caminho).doesNotExist();
+        assertThat(comentarioService.deletar(removida)).isZero();
+    }
+
+    @Test
+    public void excluirUsuarioRemoveOsComentariosPeloMesmoCaminho() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-CS6@test.com");
+        Usuario outro = cenarioTeste.usuario("outro-CS6@test.com");
+        Professor professor = cenarioTeste.professor("CS6-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("CS6001", professor);
+        Long doOutro = comentarioService.criarComentario(outro, "Raiz do outro", disciplina, professor).getComentarioId();
+        Long resposta = comentarioService.responderComentario(autor, "Resposta do autor", doOutro).getComentarioId();
+        comentarioService.responderComentario(autor, "Resposta à própria resposta", resposta);
+        Long doAutor = comentarioService.criarComentario(autor, "Raiz do autor", disciplina, professor).getComentarioId();
+        Long respostaDoOutro = comentarioService.responderComentario(outro, "Resposta do outro", doAutor).getComentarioId();
+        ArquivoComentario arquivo = arquivoComentarioService.salvarArquivo(
+                new MockMultipartFile("files", "a.txt", "text/plain", new byte[] { 1 }),
+                comentarioService.buscarPorId(doAutor).orElseThrow());
+        Path caminho = Path.of(arquivo.getCaminhoArquivo());
+
+        usuarioService.delete(usuarioRepository.findByEmail("autor-CS6@test.com").orElseThrow());
+
+        assertThat(comentarioService.existe(resposta)).isFalse();
+        assertThat(comentarioService.existe(doAutor)).isFalse();
+        assertThat(comentarioService.existe(respostaDoOutro)).isFalse();
+        assertThat(comentarioService.buscarPorId(doOutro).orElseThrow().getDescendentesCount()).isZero();
+        long limite = System.currentTimeMillis() + 5_000;
+        while (Files.exists(caminho) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(caminho).doesNotExist();
+    }
+
+    @Test
+    public void respostaAlemDoLimiteDeNiveisERecusada() {
+        Usuario autor = cenarioTeste.usuario("autor-CS7@test.com");
+        Professor professor = cenarioTeste.professor("CS7-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("CS7001", professor);
+        Long ultimo = comentarioService.criarComentario(autor, "Nível 0", disciplina, professor).getComentarioId();
+        for (int nivel = 1; nivel < Comentario.NIVEIS_MAXIMOS; nivel++) {
+            ultimo = comentarioService.responderComentario(autor, "Nível " + nivel, ultimo).getComentarioId();
+        }
+        assertThat(comentarioService.buscarPorId(ultimo).orElseThrow().getNivelProfundidade())
+                .isEqualTo(Comentario.NIVEIS_MAXIMOS - 1);
+
+        Long noLimite = ultimo;
+        assertThatThrownBy(() -> comentarioService.responderComentario(autor, "Um nível a mais", noLimite))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void threadsSaoMontadasPelaFaixaSemCarregarOsFilhos() {
+        Usuario autor = cenarioTeste.usuario("autor-CS8@test.com");
+        Usuario leitor = cenarioTeste.usuario("leitor-CS8@test.com");
+        Professor professor = cenarioTeste.professor("CS8-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("CS8001", professor);
+        Long raiz = comentarioService.criarComentario(autor, "Raiz", disciplina, professor).getComentarioId();
+        Long r1 = comentarioService.responderComentario(autor, "R1", raiz).getComentarioId();
+        Long r2 = comentarioService.responderComentario(leitor, "R2", r1).getComentarioId();
+        Long r3 = comentarioService.responderComentario(autor, "R3", raiz).getComentarioId();
+        comentarioService.vote(leitor.getEmail(), r2, true);
+
+        List<ComentarioDTO> threads = comentarioService.buscarComentariosProfessor(disciplina, professor, leitor.getEmail());
+        assertThat(threads).extracting(ComentarioDTO::id).containsExactly(raiz);
+        ComentarioDTO thread = threads.get(0);
+        assertThat(thread.respostasCount()).isEqualTo(3);
+        assertThat(thread.filhos()).extracting(ComentarioDTO::id).containsExactly(r1, r3);
+        ComentarioDTO segunda = thread.filhos().get(0).filhos().get(0);
+        assertThat(segunda.id()).isEqualTo(r2);
+        assertThat(segunda.comentarioPaiId()).isEqualTo(r1);
+        assertThat(segunda.isOwner()).isTrue();
+        assertThat(segunda.hasVoted()).isEqualTo(1);
+        assertThat(thread.filhos().get(1).filhos()).isEmpty();
+
+        // Buscar um comentário não traz a subárvore junto
+        Comentario carregado = comentarioService.buscarPorId(raiz).orElseThrow();
+        assertThat(Hibernate.isInitialized(carregado.getFilhos())).isFalse();
+        assertThat(carregado.hasFilhos()).isTrue();
+        assertThat(comentarioService.getUsuarioDoComentario(r2).getEmail()).isEqualTo(leitor.getEmail());
+    }
+}
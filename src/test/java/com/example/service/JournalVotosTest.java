@@ -0,0 +1,68 @@
+package com.example.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JournalVotosTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    public void segmentosSaoLidosNaOrdemIgnorandoLinhaIncompleta() throws Exception {
+        JournalVotos journal = new JournalVotos(diretorio, false);
+        Path primeiro;
+        try (JournalVotos.Segmento s = journal.abrir()) {
+            s.escrever(new JournalVotos.Entrada(1, "a@test.com", true));
+            s.escrever(new JournalVotos.Entrada(1, "a@test.com", null));
+            primeiro = s.getCaminho();
+        }
+        try (JournalVotos.Segmento s = journal.abrir()) {
+            s.escrever(new JournalVotos.Entrada(2, "b@test.com", false));
+        }
+        // Queda no meio da escrita: a última linha fica sem o fim
+        Files.writeString(primeiro, "3\tc@test.com\tU", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        // Um journal novo no mesmo diretório (nova execução) continua a numeração
+        JournalVotos reaberto = new JournalVotos(diretorio, false);
+        List<Path> segmentos = reaberto.segmentosExistentes();
+        assertThat(segmentos).hasSize(2).startsWith(primeiro);
+        try (JournalVotos.Segmento s = reaberto.abrir()) {
+            assertThat(s.getCaminho().getFileName().toString()).isEqualTo("votos-3.log");
+        }
+
+        assertThat(JournalVotos.ler(segmentos.get(0))).containsExactly(
+                new JournalVotos.Entrada(1, "a@test.com", true),
+                new JournalVotos.Entrada(1, "a@test.com", null));
+        assertThat(JournalVotos.ler(segmentos.get(1))).containsExactly(new JournalVotos.Entrada(2, "b@test.com", false));
+
+        JournalVotos.apagar(segmentos);
+        assertThat(reaberto.segmentosExistentes()).hasSize(1);
+    }
+
+    @Test
+    public void apagarEsvaziaOSegmentoAntesDeRemover() throws Exception {
+        JournalVotos journal = new JournalVotos(diretorio, false);
+        Path segmento;
+        try (JournalVotos.Segmento s = journal.abrir()) {
+            s.escrever(new JournalVotos.Entrada(1, "a@test.com", true));
+            segmento = s.getCaminho();
+        }
+        // Um segundo nome para o mesmo arquivo mostra o que sobraria se a remoção falhasse
+        Path outroNome = Files.createLink(diretorio.resolve("outro-nome"), segmento);
+
+        JournalVotos.apagar(List.of(segmento, diretorio.resolve("votos-99.log")));
+
+        assertThat(segmento).doesNotExist();
+        assertThat(outroNome).isEmptyFile();
+        assertThat(JournalVotos.ler(outroNome)).isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.model.Comentario;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+import com.example.search.AutomatoTermos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ModeracaoTextoServiceTest {
+
+    @Autowired
+    private ModeracaoTextoService moderacaoTextoService;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    @Value("${app.moderacao.termos-arquivo}")
+    private String arquivoTermos;
+
+    @Test
+    public void termosCasamSemAcentoPorPalavraInteiraOuPrefixo() {
+        AutomatoTermos automato = AutomatoTermos.compilar(List.of("cu", "Idiot*", "filho da puta", "  ", "вор"));
+
+        assertThat(automato.getTermos()).containsExactly("cu", "idiot*", "filho da puta");
+        assertThat(automato.contemAlgum("Professor IDIÓTA, nunca vi")).isTrue();
+        assertThat(automato.contemAlgum("que idiotas")).isTrue();
+        assertThat(automato.contemAlgum("filho-da-PUTA!!")).isTrue();
+        assertThat(automato.contemAlgum("...cu")).isTrue();
+        assertThat(automato.getTermo(automato.encontrar("só um cu."))).isEqualTo("cu");
+        // Dentro de outra palavra não conta
+        assertThat(automato.contemAlgum("O documento da disciplina e o currículo")).isFalse();
+        assertThat(automato.contemAlgum("idiossincrasia")).isFalse();
+        assertThat(automato.contemAlgum("filho da putaria")).isFalse();
+        assertThat(automato.contemAlgum(null)).isFalse();
+        assertThat(AutomatoTermos.vazio().contemAlgum("idiota")).isFalse();
+    }
+
+    @Test
+    public void comentariosComTermosVaoParaModeracaoEODicionarioTrocaSemReiniciar() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-MT1@test.com");
+        Professor professor = cenarioTeste.professor("MT1-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("MT1001", professor);
+
+        try {
+            // Texto longo e limpo não é mais alarmante
+            Comentario longo = comentarioService.criarComentario(autor, "Aulas boas e bem organizadas. ".repeat(60),
+                    disciplina, professor);
+            assertThat(longo.getAlarmante()).isFalse();
+            Comentario ofensivo = comentarioService.criarComentario(autor, "Que professor IMBECIL", disciplina, professor);
+            assertThat(ofensivo.getAlarmante()).isTrue();
+            Comentario resposta = comentarioService.responderComentario(autor, "Concordo, um idiota", longo.getComentarioId());
+            assertThat(resposta.getAlarmante()).isTrue();
+
+            assertThat(moderacaoTextoService.atualizarTermos(List.of("Cálculo chato", "cálculo chato", "")))
+                    .containsExactly("calculo chato");
+            assertThat(Files.readAllLines(Path.of(arquivoTermos))).containsExactly("calculo chato");
+            assertThat(comentarioService.criarComentario(autor, "Que professor imbecil", disciplina, professor)
+                    .getAlarmante()).isFalse();
+            assertThat(comentarioService.criarComentario(autor, "CALCULO   chato demais", disciplina, professor)
+                    .getAlarmante()).isTrue();
+
+            // Editar para um texto com termo coloca na fila
+            Comentario editado = comentarioService.edit(comentarioService.buscarPorId(longo.getComentarioId()).orElseThrow(),
+                    "Cálculo chato.");
+            assertThat(editado.getAlarmante()).isTrue();
+        } finally {
+            Files.deleteIfExists(Path.of(arquivoTermos));
+            moderacaoTextoService.recarregar();
+        }
+        assertThat(moderacaoTextoService.termoSinalizado("seu imbecil")).isEqualTo("imbecil*");
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.DTO.ComentarioDTO;
+import com.example.DTO.ComentarioFeedDTO;
+import com.example.model.ArquivoComentario;
+import com.example.model.Avaliacao;
+import com.example.model.Comentario;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+import com.example.repository.ArquivoComentarioRepository;
+import com.example.repository.AvaliacaoRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PaginaDisciplinaServiceTest {
+
+    @Autowired
+    private PaginaDisciplinaService paginaDisciplinaService;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private ArquivoComentarioRepository arquivoComentarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void numeroDeConsultasNaoDependeDaQuantidadeDeComentarios() throws Exception {
+        criarDados("PGT1001", 2, 1);
+        criarDados("PGT1002", 40, 5);
+
+        long poucos = contarConsultas("PGT1001");
+        long muitos = contarConsultas("PGT1002");
+
+        // disciplina, avaliações, raízes, respostas, votos e anexos
+        assertThat(poucos).isEqualTo(6);
+        assertThat(muitos).isEqualTo(poucos);
+    }
+
+    @Test
+    public void montaArvoreComVotosEAnexos() throws Exception {
+        criarDados("PGT2001", 3, 2);
+
+        PaginaDisciplinaService.Pagina pagina = paginaDisciplinaService.carregar("pgt2001", "leitor-PGT2001@test.com").orElseThrow();
+
+        assertThat(pagina.professores()).hasSize(2);
+        assertThat(pagina.avaliacoes()).hasSize(1);
+        assertThat(pagina.comentarios()).hasSize(3);
+        for (ComentarioDTO raiz : pagina.comentarios()) {
+            assertThat(raiz.comentarioPaiId()).isNull();
+            assertThat(raiz.arquivos()).hasSize(1);
+            assertThat(raiz.hasVoted()).isEqualTo(1);
+            assertThat(raiz.isOwner()).isFalse();
+            // Respostas encadeadas: raiz -> r1 -> r2
+            assertThat(raiz.filhos()).hasSize(1);
+            ComentarioDTO r1 = raiz.filhos().get(0);
+            assertThat(r1.comentarioPaiId()).isEqualTo(raiz.id());
+            assertThat(r1.isOwner()).isTrue();
+            assertThat(r1.hasVoted()).isZero();
+            assertThat(r1.filhos()).hasSize(1);
+            assertThat(r1.filhos().get(0).filhos()).isEmpty();
+        }
+    }
+
+    @Test
+    public void threadVemDeUmaFaixaEContadoresSaoMantidos() throws Exception {
+        criarDados("PGT3001", 1, 3);
+        ComentarioDTO raiz = paginaDisciplinaService.carregar("PGT3001", null).orElseThrow().comentarios().get(0);
+        Long r1 = raiz.filhos().get(0).id();
+        Long r2 = raiz.filhos().get(0).filhos().get(0).id();
+
+        assertThat(comentarioService.buscarPorId(raiz.id()).orElseThrow().contarFilhosRecursivo()).isEqualTo(3);
+        assertThat(comentarioService.buscarPorId(r2).orElseThrow().getNivelProfundidade()).isEqualTo(2);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ComentarioDTO thread = paginaDisciplinaService.carregarThread(raiz.id(), "leitor-PGT3001@test.com").orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(thread.filhos().get(0).filhos().get(0).filhos().get(0).filhos()).isEmpty();
+
+        // Remover r2 leva junto a resposta dele: a raiz e r1 perdem 2 descendentes
+        comentarioService.deletar(r2);
+        assertThat(comentarioService.buscarPorId(raiz.id()).orElseThrow().contarFilhosRecursivo()).isEqualTo(1);
+        assertThat(comentarioService.buscarPorId(r1).orElseThrow().contarFilhosRecursivo()).isZero();
+    }
+
+    @Test
+    public void feedPaginaPorCursorERespostasVemSobDemanda() throws Exception {
+        criarDados("PGT4001", 25, 2);
+        String p1 = "PGT4001-P1";
+
+        // A página traz só os primeiros de cada professor (13 e 12 comentários) e o cursor para o resto
+        PaginaDisciplinaService.Pagina pagina = paginaDisciplinaService.carregar("PGT4001", null, 10).orElseThrow();
+        assertThat(pagina.comentarios()).hasSize(20);
+        assertThat(pagina.cursores()).containsOnlyKeys(p1, "PGT4001-P2");
+        assertThat(pagina.comentarios().get(0).filhos()).hasSize(1);
+        ComentarioFeedDTO resto = paginaDisciplinaService.carregarFeed("pgt4001", p1, PaginaDisciplinaService.OrdemFeed.RECENTES,
+                pagina.cursores().get(p1), 10, null);
+        assertThat(resto.comentarios()).hasSize(3);
+        assertThat(resto.proximoCursor()).isNull();
+
+        for (PaginaDisciplinaService.OrdemFeed ordem : PaginaDisciplinaService.OrdemFeed.values()) {
+            Set<Long> vistos = new HashSet<>();
+            String cursor = null;
+            int paginas = 0;
+            do {
+                ComentarioFeedDTO feed = paginaDisciplinaService.carregarFeed("PGT4001", p1, ordem, cursor, 4, "leitor-PGT4001@test.com");
+                for (ComentarioDTO c : feed.comentarios()) {
+                    assertThat(vistos.add(c.id())).isTrue();
+                    assertThat(c.filhos()).isEmpty();
+                    assertThat(c.respostasCount()).isEqualTo(2);
+                    assertThat(c.hasVoted()).isEqualTo(1);
+                    assertThat(c.arquivos()).hasSize(1);
+                }
+                cursor = feed.proximoCursor();
+                paginas++;
+            } while (cursor != null);
+            assertThat(vistos).hasSize(13);
+            assertThat(paginas).isEqualTo(4);
+        }
+
+        ComentarioDTO raiz = resto.comentarios().get(0);
+        List<ComentarioDTO> respostas = paginaDisciplinaService.carregarRespostas(raiz.id(), "leitor-PGT4001@test.com").orElseThrow();
+        assertThat(respostas).hasSize(1);
+        assertThat(respostas.get(0).comentarioPaiId()).isEqualTo(raiz.id());
+        assertThat(respostas.get(0).isOwner()).isTrue();
+        assertThat(respostas.get(0).filhos()).hasSize(1);
+        assertThat(paginaDisciplinaService.carregarRespostas(respostas.get(0).filhos().get(0).id(), null).orElseThrow()).isEmpty();
+
+        String cursorRecentes = pagina.cursores().get(p1);
+        assertThatThrownBy(() -> paginaDisciplinaService.carregarFeed("PGT4001", p1, PaginaDisciplinaService.OrdemFeed.SCORE,
+                cursorRecentes, 10, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> paginaDisciplinaService.carregarFeed("PGT4001", p1, PaginaDisciplinaService.OrdemFeed.RECENTES,
+                "???", 10, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void feedPorScoreContaContadoresNulosComoZero() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-PGT5001@test.com");
+        Professor professor = cenarioTeste.professor("PGT5001-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("PGT5001", professor);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(comentarioService.criarComentario(autor, "Comentário " + i, disciplina, professor).getComentarioId());
+        }
+        // Linhas antigas sem contadores, e uma com saldo positivo
+        jdbcTemplate.update("UPDATE comentarios SET up_votes = NULL, down_votes = NULL WHERE comentario_id IN (?, ?)",
+                ids.get(1), ids.get(3));
+        jdbcTemplate.update("UPDATE comentarios SET up_votes = 2, down_votes = NULL WHERE comentario_id = ?", ids.get(0));
+
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        do {
+            ComentarioFeedDTO feed = paginaDisciplinaService.carregarFeed("PGT5001", professor.getProfessorId(),
+                    PaginaDisciplinaService.OrdemFeed.SCORE, cursor, 2, null);
+            feed.comentarios().forEach(c -> vistos.add(c.id()));
+            cursor = feed.proximoCursor();
+        } while (cursor != null);
+        // Saldo 2 primeiro; o resto tem saldo 0 e segue pelo id, do maior para o menor
+        assertThat(vistos).containsExactly(ids.get(0), ids.get(4), ids.get(3), ids.get(2), ids.get(1));
+    }
+
+    private long contarConsultas(String codigo) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        paginaDisciplinaService.carregar(codigo, "leitor-" + codigo + "@test.com").orElseThrow();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** Disciplina com 2 professores, {@code raizes} comentários principais com uma cadeia de {@code profundidade} respostas cada. */
+    private void criarDados(String codigo, int raizes, int profundidade) throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-" + codigo + "@test.com");
+        Usuario leitor = cenarioTeste.usuario("leitor-" + codigo + "@test.com");
+        Professor p1 = cenarioTeste.professor(codigo + "-P1");
+        Professor p2 = cenarioTeste.professor(codigo + "-P2");
+        Disciplina disciplina = cenarioTeste.disciplina(codigo, p1, p2);
+        avaliacaoRepository.save(new Avaliacao(4, p1, disciplina, leitor));
+
+        List<Professor> professores = List.of(p1, p2);
+        for (int i = 0; i < raizes; i++) {
+            Comentario raiz = comentarioService.criarComentario(autor, "Comentário " + i, disciplina, professores.get(i % 2));
+            comentarioService.vote(leitor.getEmail(), raiz.getComentarioId(), true);
+            arquivoComentarioRepository.save(new ArquivoComentario("a.pdf", codigo + "-" + i + ".pdf", "application/pdf", 10L, "/tmp/a.pdf", raiz));
+            Long pai = raiz.getComentarioId();
+            for (int j = 0; j < profundidade; j++) {
+                Usuario quem = j % 2 == 0 ? leitor : autor;
+                pai = comentarioService.responderComentario(quem, "Resposta " + j, pai).getComentarioId();
+            }
+        }
+    }
+}
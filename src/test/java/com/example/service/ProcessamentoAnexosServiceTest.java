@@ -0,0 +1,127 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.DTO.StatusAnexoDTO;
+import com.example.model.ArquivoComentario;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProcessamentoAnexosServiceTest {
+
+    @Autowired
+    private ProcessamentoAnexosService processamentoAnexosService;
+
+    @Autowired
+    private ArquivoComentarioService arquivoComentarioService;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    @Test
+    public void anexosSaoProcessadosEmSegundoPlanoComStatusPorArquivo() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-PA1@test.com");
+        Professor professor = cenarioTeste.professor("PA1-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("PA1001", professor);
+        Long id = comentarioService.criarComentario(autor, "Com anexos", disciplina, professor).getComentarioId();
+
+        byte[] conteudo = "conteúdo do anexo".getBytes(StandardCharsets.UTF_8);
+        MultipartFile[] files = {
+            new MockMultipartFile("files", "notas.txt", "text/plain", conteudo),
+            new MockMultipartFile("files", "virus.exe", "application/octet-stream", new byte[] { 1, 2, 3 }),
+            new MockMultipartFile("files", "vazio.txt", "text/plain", new byte[0])
+        };
+
+        List<StatusAnexoDTO> recebidos = processamentoAnexosService.receber(id, autor.getEmail(), files);
+        // Arquivos vazios são ignorados, como antes
+        assertThat(recebidos).extracting(StatusAnexoDTO::nomeOriginal).containsExactly("notas.txt", "virus.exe");
+
+        List<StatusAnexoDTO> finais = aguardar(id, autor.getEmail());
+        assertThat(finais).extracting(StatusAnexoDTO::estado).containsExactly("CONCLUIDO", "REJEITADO");
+        assertThat(finais.get(1).mensagem()).contains("Tipo de arquivo não permitido");
+        // Outro usuário não vê os status
+        assertThat(processamentoAnexosService.statusDoComentario(id, "outro-PA1@test.com")).isEmpty();
+
+        List<ArquivoComentario> gravados = arquivoComentarioService.buscarPorComentarioId(id);
+        assertThat(gravados).hasSize(1);
+        ArquivoComentario arquivo = gravados.get(0);
+        assertThat(arquivo.getId()).isEqualTo(finais.get(0).arquivoId());
+        assertThat(arquivo.getTamanho()).isEqualTo(conteudo.length);
+        assertThat(arquivo.getSha256()).isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo)));
+        assertThat(Files.readAllBytes(Path.of(arquivo.getCaminhoArquivo()))).isEqualTo(conteudo);
+        assertThat(comentarioService.buscarPorId(id).orElseThrow().getAlarmante()).isTrue();
+
+        // Nada sobra no staging
+        for (StatusAnexoDTO s : finais) {
+            assertThat(Path.of("target/uploads-test/staging", s.id() + ".upload")).doesNotExist();
+        }
+
+        arquivoComentarioService.deletar(arquivo.getId());
+    }
+
+    @Test
+    public void falhaAoCopiarApagaOQueJaEstavaNoStaging() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-PA2@test.com");
+        Professor professor = cenarioTeste.professor("PA2-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("PA2001", professor);
+        Long id = comentarioService.criarComentario(autor, "Upload interrompido", disciplina, professor).getComentarioId();
+
+        Path staging = Path.of("target/uploads-test/staging");
+        List<Path> antes = listar(staging);
+        MultipartFile[] files = {
+            new MockMultipartFile("files", "notas.txt", "text/plain", "primeiro".getBytes(StandardCharsets.UTF_8)),
+            new MockMultipartFile("files", "quebrado.txt", "text/plain", new byte[] { 1 }) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    throw new IOException("conexão caiu");
+                }
+            }
+        };
+
+        assertThatThrownBy(() -> processamentoAnexosService.receber(id, autor.getEmail(), files))
+                .isInstanceOf(IOException.class);
+        assertThat(listar(staging)).containsExactlyInAnyOrderElementsOf(antes);
+        assertThat(processamentoAnexosService.statusDoComentario(id, autor.getEmail())).isEmpty();
+    }
+
+    private static List<Path> listar(Path diretorio) throws IOException {
+        Files.createDirectories(diretorio);
+        try (var arquivos = Files.list(diretorio)) {
+            return arquivos.toList();
+        }
+    }
+
+    private List<StatusAnexoDTO> aguardar(Long comentarioId, String email) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        List<StatusAnexoDTO> status;
+        do {
+            Thread.sleep(20);
+            status = processamentoAnexosService.statusDoComentario(comentarioId, email);
+        } while (status.stream().anyMatch(s -> s.estado().equals("RECEBIDO") || s.estado().equals("PROCESSANDO"))
+                && System.currentTimeMillis() < limite);
+        return status;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.DTO.AvaliacaoSalvaDTO;
+import com.example.DTO.ResumoAvaliacaoDTO;
+import com.example.model.Avaliacao;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+import com.example.repository.AvaliacaoRepository;
+import com.example.repository.UsuarioRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ResumoAvaliacaoServiceTest {
+
+    @Autowired
+    private ResumoAvaliacaoService resumoAvaliacaoService;
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    @Test
+    public void resumoAcompanhaCriacaoTrocaERemocaoDeNotas() {
+        Professor professor = cenarioTeste.professor("RAV1-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("RAV1001", professor);
+        Usuario a = cenarioTeste.usuario("a-RAV1@test.com");
+        Usuario b = cenarioTeste.usuario("b-RAV1@test.com");
+        Usuario c = cenarioTeste.usuario("c-RAV1@test.com");
+
+        avaliacaoService.create(professor, disciplina, a, 5);
+        avaliacaoService.create(professor, disciplina, b, 3);
+        Avaliacao daC = avaliacaoService.buscarPorId(avaliacaoService.create(professor, disciplina, c, 4).id()).orElseThrow();
+        avaliacaoService.create(null, disciplina, a, 2);
+        assertThat(resumoAvaliacaoService.buscar(disciplina, professor))
+                .isEqualTo(new ResumoAvaliacaoDTO(4.0, 3, List.of(0, 0, 1, 1, 1)));
+        // A avaliação da disciplina tem resumo próprio
+        assertThat(resumoAvaliacaoService.buscar(disciplina, null))
+                .isEqualTo(new ResumoAvaliacaoDTO(2.0, 1, List.of(0, 1, 0, 0, 0)));
+
+        // Trocar a nota move a contagem no histograma sem mudar o total
+        avaliacaoService.create(professor, disciplina, b, 1);
+        assertThat(resumoAvaliacaoService.buscar(disciplina, professor))
+                .isEqualTo(new ResumoAvaliacaoDTO(10.0 / 3, 3, List.of(1, 0, 0, 1, 1)));
+
+        avaliacaoService.delete(daC);
+        assertThat(resumoAvaliacaoService.buscar(disciplina, professor))
+                .isEqualTo(new ResumoAvaliacaoDTO(3.0, 2, List.of(1, 0, 0, 0, 1)));
+
+        // Remover o usuário leva as avaliações dele em cascata
+        usuarioService.delete(usuarioRepository.findByEmail(a.getEmail()).orElseThrow());
+        assertThat(resumoAvaliacaoService.buscar(disciplina, professor))
+                .isEqualTo(new ResumoAvaliacaoDTO(1.0, 1, List.of(1, 0, 0, 0, 0)));
+        assertThat(resumoAvaliacaoService.buscar(disciplina, null)).isEqualTo(ResumoAvaliacaoDTO.vazio());
+    }
+
+    @Test
+    public void gravarNotaDeNovoAtualizaAMesmaAvaliacaoEDevolveANotaAnterior() {
+        Professor professor = cenarioTeste.professor("RAV2-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("RAV2001", professor);
+        Usuario a = cenarioTeste.usuario("a-RAV2@test.com");
+
+        // Avaliação da disciplina (professor nulo): o upsert precisa casar a linha mesmo com a chave nula
+        AvaliacaoSalvaDTO primeira = avaliacaoService.create(null, disciplina, a, 4);
+        AvaliacaoSalvaDTO repetida = avaliacaoService.create(null, disciplina, a, 4);
+        AvaliacaoSalvaDTO trocada = avaliacaoService.create(null, disciplina, a, 2);
+        assertThat(primeira.criada()).isTrue();
+        assertThat(primeira.notaAnterior()).isNull();
+        assertThat(repetida).isEqualTo(new AvaliacaoSalvaDTO(primeira.id(), 4, false, 4));
+        assertThat(trocada).isEqualTo(new AvaliacaoSalvaDTO(primeira.id(), 2, false, 4));
+        assertThat(avaliacaoRepository.findByDisciplinaAndProfessorIsNull(disciplina)).hasSize(1);
+        assertThat(resumoAvaliacaoService.buscar(disciplina, null))
+                .isEqualTo(new ResumoAvaliacaoDTO(2.0, 1, List.of(0, 1, 0, 0, 0)));
+
+        AvaliacaoSalvaDTO doProfessor = avaliacaoService.create(professor, disciplina, a, 5);
+        assertThat(doProfessor.criada()).isTrue();
+        assertThat(doProfessor.id()).isNotEqualTo(primeira.id());
+        assertThat(avaliacaoService.buscarPorId(trocada.id()).orElseThrow().getNota()).isEqualTo(2);
+
+        // Recontar a partir das avaliações chega ao mesmo resumo mantido pelos ajustes relativos
+        resumoAvaliacaoService.recalcular(disciplina, null);
+        resumoAvaliacaoService.recalcular(disciplina, professor);
+        assertThat(resumoAvaliacaoService.buscar(disciplina, null))
+                .isEqualTo(new ResumoAvaliacaoDTO(2.0, 1, List.of(0, 1, 0, 0, 0)));
+        assertThat(resumoAvaliacaoService.buscar(disciplina, professor))
+                .isEqualTo(new ResumoAvaliacaoDTO(5.0, 1, List.of(0, 0, 0, 0, 1)));
+    }
+
+    @Test
+    public void primeirasNotasSimultaneasNoMesmoContextoEntramTodasNoResumo() throws Exception {
+        Professor professor = cenarioTeste.professor("RAV3-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("RAV3001", professor);
+        List<Usuario> usuarios = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            usuarios.add(cenarioTeste.usuario("u" + i + "-RAV3@test.com"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(usuarios.size());
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (Usuario u : usuarios) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                return avaliacaoService.create(professor, disciplina, u, 4);
+            }));
+        }
+        largada.countDown();
+        try {
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(resumoAvaliacaoService.buscar(disciplina, professor))
+                .isEqualTo(new ResumoAvaliacaoDTO(4.0, 8, List.of(0, 0, 0, 8, 0)));
+
+        // Recontar um contexto sem resumo cria a linha em vez de colidir
+        resumoAvaliacaoService.recalcular(disciplina, null);
+        assertThat(resumoAvaliacaoService.buscar(disciplina, null)).isEqualTo(ResumoAvaliacaoDTO.vazio());
+    }
+
+    @Test
+    public void trocasSimultaneasDaMesmaNotaDescontamCadaNotaAnteriorUmaVez() throws Exception {
+        Professor professor = cenarioTeste.professor("RAV4-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("RAV4001", professor);
+        Usuario usuario = cenarioTeste.usuario("a-RAV4@test.com");
+        avaliacaoService.create(professor, disciplina, usuario, 3);
+
+        // Cliques rápidos em estrelas diferentes: cada troca precisa ver a nota que a anterior deixou, não o 3 inicial
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int rodada = 0; rodada < 10; rodada++) {
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<?>> tarefas = new ArrayList<>();
+                for (int nota = 2; nota <= 5; nota++) {
+                    int n = nota;
+                    tarefas.add(executor.submit(() -> {
+                        largada.await();
+                        return avaliacaoService.create(professor, disciplina, usuario, n);
+                    }));
+                }
+                largada.countDown();
+                for (Future<?> tarefa : tarefas) {
+                    tarefa.get(30, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Long id = avaliacaoRepository.findIdPorContexto(disciplina.getDisciplinaId(), usuario.getId(), "RAV4-P1").orElseThrow();
+        int atual = avaliacaoRepository.findById(id).orElseThrow().getNota();
+        List<Integer> histograma = new ArrayList<>(List.of(0, 0, 0, 0, 0));
+        histograma.set(atual - 1, 1);
+        assertThat(resumoAvaliacaoService.buscar(disciplina, professor))
+                .isEqualTo(new ResumoAvaliacaoDTO(atual, 1, histograma));
+    }
+}
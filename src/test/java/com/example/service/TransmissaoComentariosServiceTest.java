@@ -0,0 +1,157 @@
+package com.example.service;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.DTO.ComentarioDeltaDTO;
+import com.example.model.Disciplina;
+import com.example.model.Professor;
+import com.example.model.Usuario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TransmissaoComentariosServiceTest {
+
+    @Autowired
+    private TransmissaoComentariosService transmissaoComentariosService;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private CenarioTeste cenarioTeste;
+
+    /** Canal que guarda os eventos recebidos; opcionalmente trava no primeiro envio até ser liberado. */
+    private static class CanalGravado implements TransmissaoComentariosService.Canal {
+        final BlockingQueue<String> eventos = new LinkedBlockingQueue<>();
+        final BlockingQueue<Object> dados = new LinkedBlockingQueue<>();
+        final CountDownLatch liberar;
+        volatile boolean fechado;
+
+        CanalGravado(boolean travado) {
+            this.liberar = new CountDownLatch(travado ? 1 : 0);
+        }
+
+        @Override
+        public void enviar(String evento, Object dado) {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            dados.add(dado);
+            eventos.add(evento);
+        }
+
+        @Override
+        public void ping() {
+        }
+
+        @Override
+        public void fechar() {
+            fechado = true;
+        }
+
+        String proximo() throws InterruptedException {
+            return eventos.poll(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void mudancasChegamSoParaQuemEstaNaDisciplina() throws Exception {
+        Usuario autor = cenarioTeste.usuario("autor-TC1@test.com");
+        Professor professor = cenarioTeste.professor("TC1-P1");
+        Disciplina disciplina = cenarioTeste.disciplina("TC1001", professor);
+        cenarioTeste.disciplina("TC1002", professor);
+
+        CanalGravado canal = new CanalGravado(false);
+        CanalGravado outraDisciplina = new CanalGravado(false);
+        TransmissaoComentariosService.Cliente cliente = transmissaoComentariosService.inscrever("tc1001", canal);
+        TransmissaoComentariosService.Cliente outro = transmissaoComentariosService.inscrever("TC1002", outraDisciplina);
+
+        Long id = comentarioService.criarComentario(autor, "Comentário", disciplina, professor).getComentarioId();
+        assertThat(canal.proximo()).isEqualTo("criado");
+        assertThat(((ComentarioDeltaDTO) canal.dados.take()).comentario().texto()).isEqualTo("Comentário");
+
+        comentarioService.responderComentario(autor, "Resposta", id);
+        assertThat(canal.proximo()).isEqualTo("criado");
+        assertThat(((ComentarioDeltaDTO) canal.dados.take()).comentario().comentarioPaiId()).isEqualTo(id);
+
+        comentarioService.vote("leitor-TC1@test.com", id, true);
+        assertThat(canal.proximo()).isEqualTo("votos");
+        ComentarioDeltaDTO votos = (ComentarioDeltaDTO) canal.dados.take();
+        assertThat(votos.upVotes()).isEqualTo(1);
+        assertThat(votos.downVotes()).isZero();
+
+        comentarioService.edit(comentarioService.buscarPorId(id).orElseThrow(), "Comentário editado");
+        assertThat(canal.proximo()).isEqualTo("editado");
+        assertThat(((ComentarioDeltaDTO) canal.dados.take()).texto()).isEqualTo("Comentário editado");
+
+        comentarioService.deletar(id);
+        assertThat(canal.proximo()).isEqualTo("removido");
+        assertThat(((ComentarioDeltaDTO) canal.dados.take()).id()).isEqualTo(id);
+
+        assertThat(outraDisciplina.eventos).isEmpty();
+
+        cliente.encerrar();
+        outro.encerrar();
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!(canal.fechado && outraDisciplina.fechado) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(canal.fechado).isTrue();
+        assertThat(outraDisciplina.fechado).isTrue();
+    }
+
+    @Test
+    public void clienteLentoNaoSeguraQuemPublicaEPedeRessincronizacao() throws Exception {
+        CanalGravado lento = new CanalGravado(true);
+        CanalGravado rapido = new CanalGravado(false);
+        TransmissaoComentariosService.Cliente clienteLento = transmissaoComentariosService.inscrever("TC2001", lento);
+        TransmissaoComentariosService.Cliente clienteRapido = transmissaoComentariosService.inscrever("TC2001", rapido);
+
+        // Bem mais que a fila de um cliente (64): com o lento travado, publicar não pode esperar por ele
+        int total = 500;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            transmissaoComentariosService.aoAlterarComentario(
+                    new ComentarioAlteradoEvent("TC2001", ComentarioDeltaDTO.votos((long) i, i, 0)));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(2_000);
+
+        // O cliente rápido segue recebendo (se a rajada encheu a fila dele também, vem antes um ressincronizar)
+        transmissaoComentariosService.aoAlterarComentario(
+                new ComentarioAlteradoEvent("TC2001", ComentarioDeltaDTO.removido(2L)));
+        assertThat(esperar(rapido, "removido")).isTrue();
+
+        lento.liberar.countDown();
+        boolean ressincronizou = esperar(lento, "ressincronizar");
+        assertThat(ressincronizou).isTrue();
+        // Depois do aviso o cliente volta a receber normalmente
+        transmissaoComentariosService.aoAlterarComentario(
+                new ComentarioAlteradoEvent("TC2001", ComentarioDeltaDTO.removido(1L)));
+        assertThat(esperar(lento, "removido")).isTrue();
+
+        clienteLento.encerrar();
+        clienteRapido.encerrar();
+    }
+
+    private static boolean esperar(CanalGravado canal, String esperado) throws InterruptedException {
+        String evento;
+        while ((evento = canal.proximo()) != null) {
+            if (evento.equals(esperado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}